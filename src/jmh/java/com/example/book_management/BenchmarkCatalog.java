@@ -0,0 +1,101 @@
+package com.example.book_management;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Boots the application without a web server against a private in-memory H2
+ * database and seeds it with a deterministic catalog.
+ */
+final class BenchmarkCatalog implements AutoCloseable {
+
+    static final String[] WORDS = {
+        "java", "python", "programming", "advanced", "guide", "basics", "history", "science",
+        "ocean", "garden", "night", "winter", "empire", "secret", "journey", "modern",
+        "design", "patterns", "data", "systems", "theory", "practice", "art", "war"
+    };
+
+    static final String[] NAMES = {
+        "John", "Jane", "Bob", "Alice", "Maria", "Wei", "Ahmed", "Olga",
+        "Doe", "Smith", "Johnson", "Garcia", "Chen", "Khan", "Ivanova", "Rossi"
+    };
+
+    private static final int SEED_BATCH = 1000;
+
+    private final ConfigurableApplicationContext context;
+    private final int size;
+
+    private BenchmarkCatalog(ConfigurableApplicationContext context, int size) {
+        this.context = context;
+        this.size = size;
+    }
+
+    static BenchmarkCatalog start(int size, String... extraProperties) {
+        List<String> properties = new ArrayList<>(List.of(
+                "spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1",
+                "spring.jpa.hibernate.ddl-auto=create-drop",
+                "spring.main.banner-mode=off",
+                "logging.level.root=WARN"));
+        properties.addAll(List.of(extraProperties));
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(BookManagementApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(properties.toArray(new String[0]))
+                .run();
+        BenchmarkCatalog catalog = new BenchmarkCatalog(context, size);
+        catalog.seed();
+        return catalog;
+    }
+
+    private void seed() {
+        BookService bookService = bean(BookService.class);
+        Random random = new Random(42);
+        List<Book> batch = new ArrayList<>(SEED_BATCH);
+        for (int i = 0; i < size; i++) {
+            batch.add(randomBook(random));
+            if (batch.size() == SEED_BATCH) {
+                bookService.addBooks(batch);
+                batch = new ArrayList<>(SEED_BATCH);
+            }
+        }
+        if (!batch.isEmpty()) {
+            bookService.addBooks(batch);
+        }
+    }
+
+    static Book randomBook(Random random) {
+        String title = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)]
+                + " " + WORDS[random.nextInt(WORDS.length)];
+        String author = NAMES[random.nextInt(8)] + " " + NAMES[8 + random.nextInt(8)];
+        return new Book(title, author);
+    }
+
+    static List<Book> books(int count) {
+        Random random = new Random(42);
+        List<Book> books = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Book book = randomBook(random);
+            book.setId((long) i + 1);
+            books.add(book);
+        }
+        return books;
+    }
+
+    <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    int size() {
+        return size;
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+}
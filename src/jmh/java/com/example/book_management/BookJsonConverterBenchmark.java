@@ -0,0 +1,94 @@
+package com.example.book_management;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.GenericHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * BookJsonHttpMessageConverter against the Jackson converter it runs ahead of,
+ * writing a List&lt;Book&gt; response body the way Spring MVC does. Run with
+ * {@code -prof gc} (the default) to compare gc.alloc.rate.norm, the bytes
+ * allocated per response.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookJsonConverterBenchmark {
+
+    private static final Type BOOK_LIST = new ParameterizedTypeReference<List<Book>>() {}.getType();
+
+    @Param({"100", "10000"})
+    public int listSize;
+
+    @Param({"jackson", "direct"})
+    public String converter;
+
+    private GenericHttpMessageConverter<Object> messageConverter;
+    private List<Book> books;
+
+    @Setup
+    public void setUp() {
+        books = BenchmarkCatalog.books(listSize);
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        messageConverter = "direct".equals(converter)
+                ? new BookJsonHttpMessageConverter(objectMapper)
+                : new MappingJackson2HttpMessageConverter(objectMapper);
+    }
+
+    @Benchmark
+    public void writeBookList() throws IOException {
+        messageConverter.write(books, BOOK_LIST, MediaType.APPLICATION_JSON, new DiscardingOutputMessage());
+    }
+
+    // A response whose body goes nowhere, so only the converter's own work is measured
+    private static final class DiscardingOutputMessage implements HttpOutputMessage {
+
+        private static final OutputStream BODY = new OutputStream() {
+            @Override
+            public void write(int b) {
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+            }
+        };
+
+        private final HttpHeaders headers = new HttpHeaders();
+
+        @Override
+        public OutputStream getBody() {
+            return BODY;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+    }
+}
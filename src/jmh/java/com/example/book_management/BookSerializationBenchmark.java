@@ -0,0 +1,92 @@
+package com.example.book_management;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+
+/**
+ * Jackson serialization of List&lt;Book&gt; response bodies, as BookController returns them,
+ * in each wire format a client can negotiate: JSON or CBOR (Accept), plain or gzip
+ * (Accept-Encoding, at Tomcat's default deflate level). Setup prints the bytes on the
+ * wire for each combination; ops/sec at listSize=10000 is the CPU cost per 10k books.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookSerializationBenchmark {
+
+    @Param({"100", "10000"})
+    public int listSize;
+
+    @Param({"json", "cbor"})
+    public String format;
+
+    @Param({"false", "true"})
+    public boolean gzip;
+
+    // Discards bytes and, unlike OutputStream.nullOutputStream(), survives being closed
+    private final CountingOutputStream out = new CountingOutputStream();
+    private ObjectMapper objectMapper;
+    private List<Book> books;
+
+    @Setup
+    public void setUp() throws IOException {
+        books = BenchmarkCatalog.books(listSize);
+        objectMapper = "cbor".equals(format) ? new CBORMapper() : new ObjectMapper();
+
+        CountingOutputStream counter = new CountingOutputStream();
+        write(counter);
+        System.out.printf("%n%s%s, %d books: %d bytes on the wire%n",
+                format, gzip ? "+gzip" : "", listSize, counter.count);
+    }
+
+    @Benchmark
+    public void bookList() throws IOException {
+        write(out);
+    }
+
+    private void write(OutputStream target) throws IOException {
+        if (gzip) {
+            try (GZIPOutputStream compressed = new GZIPOutputStream(target, 8192)) {
+                objectMapper.writeValue(compressed, books);
+            }
+        } else {
+            objectMapper.writeValue(target, books);
+        }
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.book_management;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of the BookService hot paths against an embedded H2 catalog.
+ * Run with {@code -prof gc} (the profile default) for allocation rates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class BookServiceBenchmark {
+
+    @Param({"10000", "1000000"})
+    public int catalogSize;
+
+    private BenchmarkCatalog catalog;
+    private BookService bookService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        catalog = BenchmarkCatalog.start(catalogSize);
+        bookService = catalog.bean(BookService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        catalog.close();
+    }
+
+    private long randomId() {
+        return ThreadLocalRandom.current().nextLong(1, catalogSize + 1);
+    }
+
+    private String randomWord() {
+        return BenchmarkCatalog.WORDS[ThreadLocalRandom.current().nextInt(BenchmarkCatalog.WORDS.length)];
+    }
+
+    @Benchmark
+    public Book addBook() {
+        return bookService.addBook(BenchmarkCatalog.randomBook(ThreadLocalRandom.current()));
+    }
+
+    @Benchmark
+    public Book updateBook() {
+        return bookService.updateBook(randomId(), BenchmarkCatalog.randomBook(ThreadLocalRandom.current()));
+    }
+
+    @Benchmark
+    public Book patchBook() {
+        return bookService.patchBook(randomId(), new BookPatch(randomWord() + " " + randomWord(), null));
+    }
+
+    @Benchmark
+    public Optional<Book> getBookById() {
+        return bookService.getBookById(randomId());
+    }
+
+    @Benchmark
+    public BookPage getBooksPage() {
+        return bookService.getBooksPage(randomId(), BookService.DEFAULT_PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<Book> searchBooks() {
+        return bookService.searchBooks(randomWord() + " " + randomWord());
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.book_management;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Reads served by the JPA path, with a book cache big enough to hold the
+ * whole catalog and warmed up front, against the same reads served by the
+ * off-heap catalog snapshot. After each trial it prints the heap still in use
+ * after a full GC, the off-heap bytes the snapshot maps, and the collections
+ * and total GC pause time of the measurement.
+ *
+ * <pre>
+ * mvn -P benchmarks test-compile exec:exec -Djmh.include=CatalogSnapshotBenchmark -Djmh.args="-prof gc"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@Threads(8)
+public class CatalogSnapshotBenchmark {
+
+    @Param({"jpa", "snapshot"})
+    public String mode;
+
+    @Param("1000000")
+    public int catalogSize;
+
+    private BenchmarkCatalog catalog;
+    private BookService bookService;
+    private long gcCount;
+    private long gcMillis;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        catalog = "jpa".equals(mode)
+                ? BenchmarkCatalog.start(catalogSize, "books.cache.max-size=" + catalogSize, "books.cache.ttl=1h")
+                : BenchmarkCatalog.start(catalogSize, "books.snapshot.enabled=true",
+                        "books.snapshot.directory=target/snapshot-bench");
+        bookService = catalog.bean(BookService.class);
+        if ("jpa".equals(mode)) {
+            for (long id = 1; id <= catalogSize; id++) {
+                bookService.getBookById(id);
+            }
+        }
+        System.gc();
+        gcCount = totalCollections();
+        gcMillis = totalCollectionMillis();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        long collections = totalCollections() - gcCount;
+        long pauseMillis = totalCollectionMillis() - gcMillis;
+        System.gc();
+        long heapBytes = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+        BookSnapshotStats snapshot = bookService.getSnapshotStats();
+        System.out.printf("%n%s: heap after GC %d MB, off-heap mapped %d MB, %d collections, %d ms GC time%n",
+                mode, heapBytes >> 20, snapshot.getMappedBytes() >> 20, collections, pauseMillis);
+        catalog.close();
+    }
+
+    private static long totalCollections() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .mapToLong(GarbageCollectorMXBean::getCollectionCount).sum();
+    }
+
+    private static long totalCollectionMillis() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .mapToLong(GarbageCollectorMXBean::getCollectionTime).sum();
+    }
+
+    private long randomId() {
+        return ThreadLocalRandom.current().nextLong(1, catalogSize + 1);
+    }
+
+    @Benchmark
+    public Optional<Book> getBookById() {
+        return bookService.getBookById(randomId());
+    }
+
+    @Benchmark
+    public BookPage getBooksPage() {
+        return bookService.getBooksPage(randomId(), BookService.DEFAULT_PAGE_SIZE);
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.book_management;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Repository-bound reads from more threads than the pool has connections,
+ * as request threads do under load, with HikariCP's defaults and with the
+ * pool-tuned profile. Connection wait times per pool are printed after each
+ * trial, as /actuator/pools reports them.
+ *
+ * <pre>
+ * mvn -P benchmarks test-compile exec:exec -Djmh.include=ConnectionPoolBenchmark -Djmh.args="-t 128"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@Threads(64)
+public class ConnectionPoolBenchmark {
+
+    @Param({"default", "pool-tuned"})
+    public String profile;
+
+    @Param("100000")
+    public int catalogSize;
+
+    private BenchmarkCatalog catalog;
+    private BookService bookService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        catalog = "default".equals(profile)
+                ? BenchmarkCatalog.start(catalogSize)
+                : BenchmarkCatalog.start(catalogSize, "spring.profiles.active=" + profile);
+        bookService = catalog.bean(BookService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        for (ConnectionPoolStats stats : catalog.bean(ConnectionPoolsEndpoint.class).pools()) {
+            System.out.printf("%n%s pool (%d connections): %d waits, mean %.3f ms, percentiles %s, timeouts %d%n",
+                    stats.getPool(), stats.getMax(), stats.getWaits(), stats.getWaitMeanMillis(),
+                    stats.getWaitPercentilesMillis(), stats.getTimeouts());
+        }
+        catalog.close();
+    }
+
+    private String randomWord() {
+        return BenchmarkCatalog.WORDS[ThreadLocalRandom.current().nextInt(BenchmarkCatalog.WORDS.length)];
+    }
+
+    @Benchmark
+    public BookPage getBooksPage() {
+        return bookService.getBooksPage(ThreadLocalRandom.current().nextLong(1, catalogSize + 1),
+                BookService.DEFAULT_PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<Book> searchBooksByTitlePrefix() {
+        return bookService.searchBooksByTitlePrefix(randomWord() + " " + randomWord());
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.book_management;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Closed-loop HTTP load generator: N clients each send one GET after another
+ * for a fixed time, then requests/sec and latency percentiles are printed.
+ *
+ * <p>Compare request execution modes by starting the application twice, with
+ * {@code --spring.threads.virtual.enabled=false} and {@code =true} (on a
+ * Java 21 JVM), and running the same load against each:
+ *
+ * <pre>
+ * mvn -P benchmarks test-compile exec:exec@load -Dload.args="http://localhost:8082/api/books?limit=50 2000 60"
+ * </pre>
+ *
+ * Add {@code -Djdk.tracePinnedThreads=full} to the server JVM to log any
+ * virtual thread pinned while blocking.
+ *
+ * <p>The servlet and reactive stacks are compared the same way, starting the
+ * application with and without {@code --spring.profiles.active=reactive}. An
+ * optional fourth argument sets the Accept header, e.g.
+ * {@code text/event-stream} or {@code application/x-ndjson} to time streamed
+ * lists; latency is measured to the end of the body either way.
+ *
+ * <p>Latencies go into one shared histogram of fixed log-scaled buckets
+ * (about 3% wide), so memory stays at a few kilobytes however many clients
+ * run and for however long; percentiles are reported as bucket upper bounds.
+ */
+public final class LoadGenerator {
+
+    private LoadGenerator() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 3) {
+            System.err.println("Usage: LoadGenerator <url> <clients> <seconds> [accept]");
+            System.exit(2);
+        }
+        URI uri = URI.create(args[0]);
+        int clients = Integer.parseInt(args[1]);
+        long durationNanos = Duration.ofSeconds(Long.parseLong(args[2])).toNanos();
+
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        HttpRequest.Builder requestBuilder = HttpRequest.newBuilder(uri).GET();
+        if (args.length > 3) {
+            requestBuilder.header("Accept", args[3]);
+        }
+        HttpRequest request = requestBuilder.build();
+
+        LatencyHistogram latencies = new LatencyHistogram();
+        AtomicLong completed = new AtomicLong();
+        AtomicLong errors = new AtomicLong();
+        CountDownLatch done = new CountDownLatch(clients);
+        long start = System.nanoTime();
+        long deadline = start + durationNanos;
+
+        for (int c = 0; c < clients; c++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    while (System.nanoTime() < deadline) {
+                        long sent = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() >= 400) {
+                                errors.incrementAndGet();
+                            }
+                        } catch (IOException e) {
+                            errors.incrementAndGet();
+                        }
+                        latencies.record(System.nanoTime() - sent);
+                        completed.incrementAndGet();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            }, "load-client-" + c);
+            thread.setDaemon(true);
+            thread.start();
+        }
+        done.await();
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("url=%s accept=%s clients=%d seconds=%.1f%n",
+                uri, args.length > 3 ? args[3] : "*/*", clients, seconds);
+        System.out.printf("requests=%d errors=%d throughput=%.0f req/s%n",
+                completed.get(), errors.get(), completed.get() / seconds);
+        System.out.printf("latency ms p50=%.2f p99=%.2f p999=%.2f max=%.2f%n",
+                latencies.percentile(0.50) / 1e6, latencies.percentile(0.99) / 1e6,
+                latencies.percentile(0.999) / 1e6, latencies.max() / 1e6);
+    }
+
+    // Counts of latencies in nanoseconds. Values below 64 get a bucket each; above
+    // that, every power of two is split into 32 equal buckets.
+    private static final class LatencyHistogram {
+
+        private static final int SUB_BUCKET_BITS = 5;
+        private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+        private static final int LINEAR_LIMIT = 2 * SUB_BUCKETS;
+
+        private final AtomicLongArray counts = new AtomicLongArray(index(Long.MAX_VALUE) + 1);
+        private final AtomicLong max = new AtomicLong();
+
+        void record(long nanos) {
+            long value = Math.max(nanos, 0);
+            counts.incrementAndGet(index(value));
+            max.accumulateAndGet(value, Math::max);
+        }
+
+        long max() {
+            return max.get();
+        }
+
+        // Upper bound of the bucket holding the sample at the quantile, 0 when empty
+        long percentile(double quantile) {
+            long total = 0;
+            for (int i = 0; i < counts.length(); i++) {
+                total += counts.get(i);
+            }
+            long rank = Math.max(1, (long) Math.ceil(quantile * total));
+            long seen = 0;
+            for (int i = 0; i < counts.length(); i++) {
+                seen += counts.get(i);
+                if (total > 0 && seen >= rank) {
+                    return Math.min(upperBound(i), max.get());
+                }
+            }
+            return 0;
+        }
+
+        private static int index(long value) {
+            if (value < LINEAR_LIMIT) {
+                return (int) value;
+            }
+            int magnitude = 63 - Long.numberOfLeadingZeros(value);
+            int shift = magnitude - SUB_BUCKET_BITS;
+            int subBucket = (int) (value >>> shift) - SUB_BUCKETS;
+            return LINEAR_LIMIT + (magnitude - SUB_BUCKET_BITS - 1) * SUB_BUCKETS + subBucket;
+        }
+
+        private static long upperBound(int index) {
+            if (index < LINEAR_LIMIT) {
+                return index;
+            }
+            int magnitude = (index - LINEAR_LIMIT) / SUB_BUCKETS + SUB_BUCKET_BITS + 1;
+            int shift = magnitude - SUB_BUCKET_BITS;
+            long subBucket = (index - LINEAR_LIMIT) % SUB_BUCKETS + SUB_BUCKETS;
+            return ((subBucket + 1) << shift) - 1;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.book_management;
+
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Random id lookups in the three id indexes a read can go through: a boxed
+ * HashMap&lt;Long, Book&gt;, the LongHashMap behind the book cache and the
+ * LongSortedIndex behind the catalog snapshot. Setup prints the heap each
+ * index keeps per entry on top of the books themselves, measured after a full
+ * GC. Run with -prof gc to see the HashMap lookup allocate its Long key once
+ * ids leave the Long cache.
+ *
+ * <pre>
+ * mvn -P benchmarks test-compile exec:exec -Djmh.include=LongIndexBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class LongIndexBenchmark {
+
+    @Param({"10000", "1000000"})
+    public int size;
+
+    private List<Book> books;
+    private Map<Long, Book> hashMap;
+    private LongHashMap<Book> longHashMap;
+    private LongSortedIndex sortedIndex;
+
+    @Setup
+    public void setUp() {
+        books = BenchmarkCatalog.books(size);
+        hashMap = measure("HashMap<Long, Book>", () -> {
+            Map<Long, Book> map = new HashMap<>();
+            books.forEach(book -> map.put(book.getId(), book));
+            return map;
+        });
+        longHashMap = measure("LongHashMap<Book>", () -> {
+            LongHashMap<Book> map = new LongHashMap<>();
+            books.forEach(book -> map.put(book.getId(), book));
+            return map;
+        });
+        sortedIndex = measure("LongSortedIndex", () -> {
+            LongSortedIndex index = new LongSortedIndex(size);
+            books.forEach(book -> index.insertAt(index.size(), book.getId()));
+            return index;
+        });
+    }
+
+    private <T> T measure(String name, Supplier<T> build) {
+        long before = usedHeapAfterGc();
+        T index = build.get();
+        long after = usedHeapAfterGc();
+        System.out.printf("%n%s, %d ids: %.1f bytes per entry%n", name, size, (double) (after - before) / size);
+        return index;
+    }
+
+    private static long usedHeapAfterGc() {
+        System.gc();
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private long randomId() {
+        return ThreadLocalRandom.current().nextLong(1, size + 1);
+    }
+
+    @Benchmark
+    public Book hashMap() {
+        return hashMap.get(randomId());
+    }
+
+    @Benchmark
+    public Book longHashMap() {
+        return longHashMap.get(randomId());
+    }
+
+    @Benchmark
+    public Book sortedIndex() {
+        int position = sortedIndex.indexOf(randomId());
+        return position >= 0 ? books.get(position) : null;
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.book_management;
+
+/**
+ * Outcome of one id in a batch get: the book, or no book when the id has none.
+ */
+public class BatchGetItem {
+
+    private final Long id;
+    private final Book book;
+
+    public BatchGetItem(Long id, Book book) {
+        this.id = id;
+        this.book = book;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public boolean isFound() {
+        return book != null;
+    }
+
+    public Book getBook() {
+        return book;
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.book_management;
+
+import java.util.List;
+
+/**
+ * Books for a batch of ids, one item per distinct id in the order the ids
+ * were first requested, with counts of the ids found and missing.
+ */
+public class BatchGetResult {
+
+    private final int found;
+    private final int missing;
+    private final List<BatchGetItem> items;
+
+    public BatchGetResult(List<BatchGetItem> items) {
+        this.items = items;
+        this.found = (int) items.stream().filter(BatchGetItem::isFound).count();
+        this.missing = items.size() - found;
+    }
+
+    public int getFound() {
+        return found;
+    }
+
+    public int getMissing() {
+        return missing;
+    }
+
+    public List<BatchGetItem> getItems() {
+        return items;
+    }
+}
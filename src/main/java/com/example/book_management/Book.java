@@ -1,20 +1,33 @@
 package com.example.book_management;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 
 @Entity
-@Table(name = "books")
+@Table(name = "books", indexes = {
+    @Index(name = "idx_books_title_normalized", columnList = "title_normalized, id"),
+    @Index(name = "idx_books_author_normalized", columnList = "author_normalized, id")
+})
 public class Book {
     
+    // Pooled sequence ids let Hibernate batch inserts; IDENTITY forces one round trip per row.
+    // An existing database needs book_seq created above its ids first (DEPENDENCIES.md).
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "book_seq")
+    @SequenceGenerator(name = "book_seq", sequenceName = "book_seq", allocationSize = 50)
     private Long id;
     
     @NotBlank(message = "Title is required")
@@ -27,6 +40,20 @@ public class Book {
     @Column(nullable = false)
     private String author;
     
+    // Lower-cased, accent-folded copies of title and author, kept in step by the
+    // lifecycle callback below; prefix searches run against their indexes
+    @JsonIgnore
+    @Column(name = "title_normalized", nullable = false)
+    private String titleNormalized;
+    
+    @JsonIgnore
+    @Column(name = "author_normalized", nullable = false)
+    private String authorNormalized;
+    
+    // Bumped by Hibernate on every update; used for optimistic locking and item ETags
+    @Version
+    private Long version;
+    
     public Book() {}
     
     public Book(String title, String author) {
@@ -59,6 +86,36 @@ public class Book {
         this.author = author;
     }
     
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+    
+    public String getTitleNormalized() {
+        return titleNormalized;
+    }
+    
+    public String getAuthorNormalized() {
+        return authorNormalized;
+    }
+    
+    @PrePersist
+    @PreUpdate
+    void normalizeSearchColumns() {
+        titleNormalized = normalizedColumn(title);
+        authorNormalized = normalizedColumn(author);
+    }
+    
+    // Value stored in a normalized column; folding can lengthen some strings,
+    // so it is cut to the column size
+    static String normalizedColumn(String text) {
+        String normalized = TextNormalizer.normalize(text);
+        return normalized != null && normalized.length() > 255 ? normalized.substring(0, 255) : normalized;
+    }
+    
     @Override
     public String toString() {
         return "Book{" +
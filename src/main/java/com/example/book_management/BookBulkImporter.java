@@ -0,0 +1,193 @@
+package com.example.book_management;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+/**
+ * Imports books from a JSON array or NDJSON stream. Items are parsed and
+ * validated one at a time and saved in transactions of {@code batchSize}
+ * books, so neither the request nor the persistence context is held in
+ * memory as a whole. A JSON array that stops parsing part way is not rolled
+ * back: the batches saved before stay, the rest is dropped, and the result
+ * says how far the import got.
+ */
+@Component
+public class BookBulkImporter {
+
+    private final BookService bookService;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final int batchSize;
+
+    @Autowired
+    public BookBulkImporter(BookService bookService, ObjectMapper objectMapper, Validator validator,
+                            @Value("${books.bulk.batch-size:1000}") int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Bulk batch size must be positive");
+        }
+        this.bookService = bookService;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.batchSize = batchSize;
+    }
+
+    // Import a JSON array of books. A body that is not an array is rejected;
+    // one that breaks off after the array has started ends the import early.
+    public BulkImportResult importJsonArray(InputStream in) throws IOException {
+        long start = System.nanoTime();
+        Batch batch = new Batch();
+        try (JsonParser parser = objectMapper.createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("Expected a JSON array of books");
+            }
+            int index = 0;
+            try {
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    if (parser.currentToken() == null) {
+                        throw new IllegalArgumentException("Unexpected end of JSON array");
+                    }
+                    JsonNode node = parser.readValueAsTree();
+                    batch.add(index++, node);
+                }
+            } catch (JsonProcessingException e) {
+                return batch.abort("Malformed JSON at item " + index + ": " + e.getOriginalMessage(), start);
+            } catch (IllegalArgumentException e) {
+                return batch.abort(e.getMessage() + " at item " + index, start);
+            }
+        }
+        batch.flush();
+        return new BulkImportResult(batch.results, elapsedMillis(start));
+    }
+
+    // Import newline-delimited JSON, one book per line; blank lines are skipped
+    public BulkImportResult importNdjson(InputStream in) throws IOException {
+        long start = System.nanoTime();
+        Batch batch = new Batch();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        int index = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            int itemIndex = index++;
+            try {
+                batch.add(itemIndex, objectMapper.readTree(line));
+            } catch (JsonProcessingException e) {
+                batch.results.add(BulkItemResult.invalid(itemIndex, List.of("Malformed JSON: " + e.getOriginalMessage())));
+            }
+        }
+        batch.flush();
+        return new BulkImportResult(batch.results, elapsedMillis(start));
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    /**
+     * Collects valid books until a full batch is ready, recording results in request order.
+     */
+    private class Batch {
+
+        private final List<BulkItemResult> results = new ArrayList<>();
+        private final List<Book> pending = new ArrayList<>();
+        private final List<Integer> pendingIndexes = new ArrayList<>();
+
+        void add(int index, JsonNode node) {
+            Book book;
+            try {
+                book = objectMapper.treeToValue(node, Book.class);
+            } catch (JsonProcessingException e) {
+                results.add(BulkItemResult.invalid(index, List.of("Malformed book: " + e.getOriginalMessage())));
+                return;
+            }
+            if (book == null) {
+                results.add(BulkItemResult.invalid(index, List.of("Book must not be null")));
+                return;
+            }
+
+            Set<ConstraintViolation<Book>> violations = validator.validate(book);
+            if (!violations.isEmpty()) {
+                List<String> errors = new ArrayList<>();
+                for (ConstraintViolation<Book> violation : violations) {
+                    errors.add(violation.getPropertyPath() + ": " + violation.getMessage());
+                }
+                results.add(BulkItemResult.invalid(index, errors));
+                return;
+            }
+
+            // Always insert; a client-supplied id must not overwrite an existing book
+            book.setId(null);
+            book.setVersion(null);
+            pending.add(book);
+            pendingIndexes.add(index);
+            // Reserve the slot until the batch is saved
+            results.add(null);
+            if (pending.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            try {
+                // A copy: the batch is cleared and refilled once it is saved
+                List<Book> saved = bookService.addBooks(new ArrayList<>(pending));
+                for (int i = 0; i < saved.size(); i++) {
+                    record(pendingIndexes.get(i), BulkItemResult.created(pendingIndexes.get(i), saved.get(i).getId()));
+                }
+            } catch (RuntimeException batchFailure) {
+                // Retry one by one so a single bad row does not fail the whole batch
+                for (int i = 0; i < pending.size(); i++) {
+                    int index = pendingIndexes.get(i);
+                    Book book = pending.get(i);
+                    // The failed batch may have assigned these before rolling back
+                    book.setId(null);
+                    book.setVersion(null);
+                    try {
+                        record(index, BulkItemResult.created(index, bookService.addBook(book).getId()));
+                    } catch (RuntimeException e) {
+                        record(index, BulkItemResult.failed(index, e.getMessage()));
+                    }
+                }
+            }
+            pending.clear();
+            pendingIndexes.clear();
+        }
+
+        // Drop the books not saved yet and report the items before the first of them
+        BulkImportResult abort(String error, long start) {
+            int saved = pendingIndexes.isEmpty() ? results.size() : pendingIndexes.get(0);
+            pending.clear();
+            pendingIndexes.clear();
+            return new BulkImportResult(new ArrayList<>(results.subList(0, saved)), elapsedMillis(start), error);
+        }
+
+        // Every item appends exactly one result, so an item's slot is at its index
+        private void record(int index, BulkItemResult result) {
+            results.set(index, result);
+        }
+    }
+}
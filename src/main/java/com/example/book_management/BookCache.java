@@ -0,0 +1,202 @@
+package com.example.book_management;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounded read-through cache of books by id, evicting the least recently
+ * used entry once full and any entry older than the TTL.
+ *
+ * <p>Loads run outside the lock. Every invalidation bumps a sequence number,
+ * and a loaded value is only stored if no invalidation happened while it was
+ * being read, so a slow read can never put back a book that was updated or
+ * deleted in the meantime. Cached books are detached copies and must be
+ * treated as read-only.
+ *
+ * <p>Entries are found through a {@link LongHashMap}, so a lookup neither
+ * boxes the id nor walks a chain of map nodes, and are linked into their
+ * own recency list.
+ */
+@Component
+public class BookCache {
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LongSupplier clock;
+
+    // Guarded by this: entries by id, and the same entries in a circular list
+    // whose head comes before the least and after the most recently used one
+    private final LongHashMap<Entry> entries = new LongHashMap<>();
+    private final Entry head = new Entry(null, 0);
+    private long invalidations;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+
+    @Autowired
+    public BookCache(@Value("${books.cache.max-size:10000}") int maxSize,
+                     @Value("${books.cache.ttl:10m}") Duration ttl) {
+        this(maxSize, ttl, System::nanoTime);
+    }
+
+    BookCache(int maxSize, Duration ttl, LongSupplier clock) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Cache size must be positive");
+        }
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        this.clock = clock;
+    }
+
+    // Return the cached book, or load it and cache the result
+    public Optional<Book> get(Long id, Function<Long, Optional<Book>> loader) {
+        Book cached = lookup(id);
+        if (cached != null) {
+            hits.incrementAndGet();
+            return Optional.of(cached);
+        }
+        misses.incrementAndGet();
+
+        long token = loadToken();
+        Optional<Book> loaded = loader.apply(id);
+        loaded.ifPresent(book -> put(book, token));
+        return loaded;
+    }
+
+    // Cached books by id, with the rest loaded by one call to the loader and cached.
+    // Ids neither cached nor loaded are left out of the result.
+    public Map<Long, Book> getAll(Collection<Long> ids, Function<List<Long>, List<Book>> loader) {
+        Map<Long, Book> books = new HashMap<>();
+        List<Long> uncached = new ArrayList<>();
+        for (Long id : ids) {
+            Book cached = lookup(id);
+            if (cached != null) {
+                books.put(id, cached);
+            } else {
+                uncached.add(id);
+            }
+        }
+        hits.addAndGet(books.size());
+        misses.addAndGet(uncached.size());
+        if (uncached.isEmpty()) {
+            return books;
+        }
+
+        long token = loadToken();
+        for (Book book : loader.apply(uncached)) {
+            put(book, token);
+            books.put(book.getId(), book);
+        }
+        return books;
+    }
+
+    // Cached book or null, dropping it if it has expired
+    public synchronized Book lookup(Long id) {
+        Entry entry = id != null ? entries.get(id) : null;
+        if (entry == null) {
+            return null;
+        }
+        entry.unlink();
+        if (clock.getAsLong() - entry.loadedAt > ttlNanos) {
+            entries.remove(id);
+            expirations.incrementAndGet();
+            return null;
+        }
+        entry.linkBefore(head);
+        return entry.book;
+    }
+
+    // Taken before reading the database; pass to put() afterwards
+    public synchronized long loadToken() {
+        return invalidations;
+    }
+
+    // Store a book unless something was invalidated since the token was taken
+    public synchronized void put(Book book, long token) {
+        if (book == null || book.getId() == null || token != invalidations) {
+            return;
+        }
+        Entry entry = new Entry(snapshot(book), clock.getAsLong());
+        Entry previous = entries.put(book.getId(), entry);
+        if (previous != null) {
+            previous.unlink();
+        }
+        entry.linkBefore(head);
+        while (entries.size() > maxSize) {
+            Entry eldest = head.next;
+            eldest.unlink();
+            entries.remove(eldest.book.getId());
+            evictions.incrementAndGet();
+        }
+    }
+
+    public synchronized void invalidate(Long id) {
+        Entry removed = id != null ? entries.remove(id) : null;
+        if (removed != null) {
+            removed.unlink();
+        }
+        invalidations++;
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        head.prev = head;
+        head.next = head;
+        invalidations++;
+    }
+
+    public synchronized BookCacheStats stats() {
+        return new BookCacheStats(hits.get(), misses.get(), evictions.get(), expirations.get(),
+                entries.size(), maxSize);
+    }
+
+    // Detached copy, so later changes to a managed entity do not leak into the cache
+    static Book snapshot(Book book) {
+        Book copy = new Book(book.getTitle(), book.getAuthor());
+        copy.setId(book.getId());
+        copy.setVersion(book.getVersion());
+        return copy;
+    }
+
+    private static final class Entry {
+
+        private final Book book;
+        private final long loadedAt;
+        private Entry prev = this;
+        private Entry next = this;
+
+        private Entry(Book book, long loadedAt) {
+            this.book = book;
+            this.loadedAt = loadedAt;
+        }
+
+        // Insert just before the given entry; before the head is the most recently used end
+        private void linkBefore(Entry successor) {
+            prev = successor.prev;
+            next = successor;
+            prev.next = this;
+            successor.prev = this;
+        }
+
+        private void unlink() {
+            prev.next = next;
+            next.prev = prev;
+            prev = this;
+            next = this;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.book_management;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Loads the in-memory views of the catalog once the application is up and
+ * keeps the search index and suggester in step with every committed
+ * {@link BookChangedEvent}, so a rolled-back write never reaches them. Until
+ * the load has finished, searches fall back to the database and suggestions
+ * are incomplete. A book that a change has already reached is skipped by the
+ * load, whose copy may be older. The snapshot is handed to
+ * {@link BookSnapshotRefresher} to follow the change log from before the load.
+ */
+@Component
+public class BookCatalogLoader {
+
+    private static final Logger log = LoggerFactory.getLogger(BookCatalogLoader.class);
+
+    private final BookService bookService;
+    private final BookSearchIndex searchIndex;
+    private final BookSuggester suggester;
+    private final BookSnapshot snapshot;
+    private final BookSnapshotRefresher snapshotRefresher;
+    private final BookChangeLog changeLog;
+
+    @Autowired
+    public BookCatalogLoader(BookService bookService, BookSearchIndex searchIndex, BookSuggester suggester,
+                             BookSnapshot snapshot, BookSnapshotRefresher snapshotRefresher,
+                             BookChangeLog changeLog) {
+        this.bookService = bookService;
+        this.searchIndex = searchIndex;
+        this.suggester = suggester;
+        this.snapshot = snapshot;
+        this.snapshotRefresher = snapshotRefresher;
+        this.changeLog = changeLog;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long start = System.nanoTime();
+        try {
+            long since = snapshot.isEnabled() ? changeLog.latest() : 0L;
+            bookService.exportBooks(book -> {
+                searchIndex.load(book);
+                suggester.load(book);
+                snapshot.load(book);
+            });
+            searchIndex.markReady();
+            suggester.markLoaded();
+            snapshotRefresher.start(since);
+            BookSuggesterStats suggesterStats = suggester.stats();
+            log.info("Search index loaded with {} books and {} terms, suggester with {} phrases in {} nodes "
+                    + "(~{} KB), in {} ms", searchIndex.size(), searchIndex.termCount(), suggesterStats.getPhrases(),
+                    suggesterStats.getNodes(), suggesterStats.getEstimatedBytes() / 1024,
+                    (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.warn("Search index load failed; searches will use the database", e);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookCommitted(BookChangedEvent event) {
+        if (event.getType() == BookChangedEvent.Type.SAVED) {
+            searchIndex.index(event.getBook());
+            suggester.add(event.getBook());
+        } else {
+            searchIndex.remove(event.getBookId());
+            suggester.remove(event.getBookId());
+        }
+    }
+}
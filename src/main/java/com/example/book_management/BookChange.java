@@ -0,0 +1,113 @@
+package com.example.book_management;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+/**
+ * One entry of the change log that {@link BookChangeLog} keeps for catalog
+ * sync. Creates and updates carry the book as it was written, so a consumer
+ * can apply them without reading the book back; deletes carry only the id.
+ * The version is null for an update that did not know the book's version.
+ * Sequence numbers are assigned from {@link BookChangeSequence} when the
+ * change is recorded.
+ */
+@Entity
+@Table(name = "book_changes", indexes = {
+    @Index(name = "idx_book_changes_changed_at", columnList = "changed_at")
+})
+public class BookChange {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    @Id
+    private Long seq;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "change_type", nullable = false, length = 16)
+    private Type type;
+
+    @Column(name = "book_id", nullable = false)
+    private Long bookId;
+
+    private String title;
+
+    private String author;
+
+    private Long version;
+
+    @Column(name = "changed_at", nullable = false)
+    private Instant changedAt;
+
+    protected BookChange() {}
+
+    private BookChange(Type type, Long bookId, Book book) {
+        this.type = type;
+        this.bookId = bookId;
+        if (book != null) {
+            this.title = book.getTitle();
+            this.author = book.getAuthor();
+            this.version = book.getVersion();
+        }
+        this.changedAt = Instant.now();
+    }
+
+    public static BookChange created(Book book) {
+        return new BookChange(Type.CREATED, book.getId(), book);
+    }
+
+    public static BookChange updated(Book book) {
+        return new BookChange(Type.UPDATED, book.getId(), book);
+    }
+
+    public static BookChange deleted(Long bookId) {
+        return new BookChange(Type.DELETED, bookId, null);
+    }
+
+    public Long getSeq() {
+        return seq;
+    }
+
+    void assignSeq(long seq) {
+        this.seq = seq;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Long getBookId() {
+        return bookId;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getAuthor() {
+        return author;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public Instant getChangedAt() {
+        return changedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "BookChange{seq=" + seq + ", type=" + type + ", bookId=" + bookId + '}';
+    }
+}
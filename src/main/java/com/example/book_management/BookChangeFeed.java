@@ -0,0 +1,176 @@
+package com.example.book_management;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Long polling over {@link BookChangeLog}. A poll that finds nothing new
+ * waits until a transaction that recorded changes completes, reads again,
+ * and keeps waiting while that finds nothing (the transaction may have
+ * rolled back); an empty page is returned once the wait is over.
+ *
+ * <p>Reads for waiting polls run on the feed's own threads, at most one at a
+ * time per poll: commits that arrive while it reads are folded into one more
+ * read. {@link #follow} chains polls for streaming consumers and hands them
+ * their pages on the same threads, so it suits a few downstream systems
+ * rather than many browsers.
+ */
+@Component
+public class BookChangeFeed {
+
+    private final BookChangeLog changeLog;
+    private final ScheduledThreadPoolExecutor executor;
+    private final Set<Waiter> waiters = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public BookChangeFeed(BookChangeLog changeLog, @Value("${books.changes.feed-threads:4}") int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Change feed threads must be positive");
+        }
+        this.changeLog = changeLog;
+        AtomicLong count = new AtomicLong();
+        this.executor = new ScheduledThreadPoolExecutor(threads, runnable -> {
+            Thread thread = new Thread(runnable, "book-changes-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.executor.setRemoveOnCancelPolicy(true);
+        changeLog.addListener(this::changesCompleted);
+    }
+
+    // The first page of changes after since, as BookChangeLog.read (null when they
+    // were pruned). Without a wait this is a plain read on the caller's thread;
+    // otherwise an empty page is held back for up to the wait.
+    public CompletableFuture<BookChangePage> poll(long since, int limit, Duration wait) {
+        if (wait.isNegative() || wait.isZero()) {
+            return CompletableFuture.completedFuture(changeLog.read(since, limit));
+        }
+        Waiter waiter = new Waiter(since, limit);
+        // Registered before the first read, so no commit in between is missed
+        waiters.add(waiter);
+        waiter.result.whenComplete((page, error) -> {
+            waiters.remove(waiter);
+            ScheduledFuture<?> timeout = waiter.timeout;
+            if (timeout != null) {
+                timeout.cancel(false);
+            }
+        });
+        waiter.signals.set(1);
+        check(waiter);
+        if (!waiter.result.isDone()) {
+            waiter.timeout = executor.schedule(() -> waiter.result.complete(BookChangePage.empty(since)),
+                    wait.toMillis(), TimeUnit.MILLISECONDS);
+        }
+        return waiter.result;
+    }
+
+    // Hand the consumer every page after since as soon as its changes are readable,
+    // or an empty page after each keepAlive without any; null once changes were
+    // pruned. Stops when the consumer returns false or is handed null; the result
+    // completes then, or exceptionally when a read fails.
+    public CompletableFuture<Void> follow(long since, int limit, Duration keepAlive,
+                                          Predicate<BookChangePage> consumer) {
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        executor.execute(() -> followFrom(since, limit, keepAlive, consumer, done));
+        return done;
+    }
+
+    public boolean retains(long since) {
+        return changeLog.retains(since);
+    }
+
+    public long latest() {
+        return changeLog.latest();
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    private void followFrom(long since, int limit, Duration keepAlive,
+                            Predicate<BookChangePage> consumer, CompletableFuture<Void> done) {
+        long cursor = since;
+        try {
+            CompletableFuture<BookChangePage> next;
+            // Pages that are already there are handed over in a loop, not by recursion
+            while ((next = poll(cursor, limit, keepAlive)).isDone()) {
+                BookChangePage page = next.join();
+                if (!consumer.test(page) || page == null) {
+                    done.complete(null);
+                    return;
+                }
+                cursor = page.getNextSince();
+            }
+            next.whenCompleteAsync((page, error) -> {
+                if (error != null) {
+                    done.completeExceptionally(error);
+                } else if (!consumer.test(page) || page == null) {
+                    done.complete(null);
+                } else {
+                    followFrom(page.getNextSince(), limit, keepAlive, consumer, done);
+                }
+            }, executor);
+        } catch (RuntimeException e) {
+            done.completeExceptionally(e);
+        }
+    }
+
+    private void changesCompleted() {
+        for (Waiter waiter : waiters) {
+            if (waiter.signals.getAndIncrement() == 0) {
+                executor.execute(() -> check(waiter));
+            }
+        }
+    }
+
+    // Read until a page has changes or no signal came in during the read
+    private void check(Waiter waiter) {
+        int seen;
+        do {
+            if (waiter.result.isDone()) {
+                return;
+            }
+            seen = waiter.signals.get();
+            BookChangePage page;
+            try {
+                page = changeLog.read(waiter.since, waiter.limit);
+            } catch (RuntimeException e) {
+                waiter.result.completeExceptionally(e);
+                return;
+            }
+            if (page == null || !page.getChanges().isEmpty()) {
+                waiter.result.complete(page);
+                return;
+            }
+        } while (!waiter.signals.compareAndSet(seen, 0));
+    }
+
+    private static class Waiter {
+        final long since;
+        final int limit;
+        final CompletableFuture<BookChangePage> result = new CompletableFuture<>();
+        // Commits not yet looked at; a read is queued when this leaves 0
+        final AtomicInteger signals = new AtomicInteger();
+        volatile ScheduledFuture<?> timeout;
+
+        Waiter(long since, int limit) {
+            this.since = since;
+            this.limit = limit;
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package com.example.book_management;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Sequenced log of catalog changes, for consumers that sync incrementally.
+ * {@link BookService} records every create, update and delete in the
+ * transaction that writes the book, so a change is in the log exactly when
+ * the write is committed.
+ *
+ * <p>Sequence numbers come from the one {@link BookChangeSequence} row,
+ * moved on in the recording transaction and locked until it ends. Recording
+ * transactions therefore take their numbers in commit order, whichever
+ * instance runs them, and a rollback hands its numbers back: once change 7 is
+ * visible, every change before it is too, and a reader can move its cursor
+ * past 7 without missing one. The price is that recording transactions
+ * commit one at a time, so changes are recorded as the last step of a write,
+ * after its statements have been sent.
+ *
+ * <p>The log lives on the primary database. With {@link BookShards}, books on
+ * shards other than 0 commit in their own transactions before the one that
+ * records their changes, so a crash or failure in between leaves those books
+ * written with no change logged for them. Consumers that must not miss one
+ * start over from a full export after such an incident.
+ *
+ * <p>The newest committed sequence number is also kept in memory, for
+ * tagging responses without a query: it moves on when a recording
+ * transaction on this instance commits, when a read finds newer changes, and
+ * every refresh interval, which picks up the other instances' writes.
+ *
+ * <p>Changes older than the retention are pruned every hour, but the newest
+ * one is always kept so a consumer that is up to date stays valid. A cursor
+ * from before the oldest kept change can no longer be served.
+ */
+@Component
+public class BookChangeLog {
+
+    private static final Logger log = LoggerFactory.getLogger(BookChangeLog.class);
+
+    private static final Duration PRUNE_INTERVAL = Duration.ofHours(1);
+
+    private final BookChangeRepository changeRepository;
+    private final Duration retention;
+    private final Duration refreshInterval;
+    private final TransactionTemplate newTransaction;
+    private final AtomicLong lastCommitted = new AtomicLong();
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+    private ScheduledExecutorService scheduler;
+
+    @Autowired
+    public BookChangeLog(BookChangeRepository changeRepository,
+                         PlatformTransactionManager transactionManager,
+                         @Value("${books.changes.retention:7d}") Duration retention,
+                         @Value("${books.changes.refresh-interval:1s}") Duration refreshInterval) {
+        if (retention.isNegative() || retention.isZero()) {
+            throw new IllegalArgumentException("Change log retention must be positive");
+        }
+        if (refreshInterval.isNegative() || refreshInterval.isZero()) {
+            throw new IllegalArgumentException("Change log refresh interval must be positive");
+        }
+        this.changeRepository = changeRepository;
+        this.retention = retention;
+        this.refreshInterval = refreshInterval;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    // Append changes in the caller's transaction; they become readable once it commits
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(List<BookChange> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        if (changeRepository.advanceSequence(changes.size()) == 0) {
+            createSequence();
+            changeRepository.advanceSequence(changes.size());
+        }
+        long seq = changeRepository.findLastSeq() - changes.size();
+        for (BookChange change : changes) {
+            change.assignSeq(++seq);
+            // Assigned ids, so persist rather than save, which would look each one up first
+            entityManager.persist(change);
+        }
+        long last = seq;
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    advanceLastCommitted(last);
+                }
+                listeners.forEach(Runnable::run);
+            }
+        });
+    }
+
+    // Up to limit changes after since, oldest first; null when changes after since
+    // have been pruned. Not read-only, so the log is read on the primary and a
+    // consumer never sees it go back after switching to a lagging replica.
+    @Transactional
+    public BookChangePage read(long since, int limit) {
+        List<BookChange> changes = changeRepository.findBySeqGreaterThanOrderBySeqAsc(since, Limit.of(limit));
+        // Checked after the read, so a prune in between is not missed
+        if (!retains(since)) {
+            return null;
+        }
+        if (changes.isEmpty()) {
+            return BookChangePage.empty(since);
+        }
+        long last = changes.get(changes.size() - 1).getSeq();
+        advanceLastCommitted(last);
+        return new BookChangePage(changes, last);
+    }
+
+    // Cursor of the newest readable change, 0 when there is none. Taken before a
+    // full export, it is where following the log afterwards has to start.
+    @Transactional
+    public long latest() {
+        Long newest = changeRepository.findMaxSeq();
+        long latest = newest != null ? newest : 0L;
+        advanceLastCommitted(latest);
+        return latest;
+    }
+
+    // The newest change known to be committed, from memory. It may trail the
+    // database by up to the refresh interval for writes on other instances.
+    public long lastCommitted() {
+        return lastCommitted.get();
+    }
+
+    // True while every change after since is still in the log. The sequence has
+    // no gaps, so only pruning can have removed one.
+    @Transactional
+    public boolean retains(long since) {
+        Long oldest = changeRepository.findMinSeq();
+        return oldest == null || since >= oldest - 1;
+    }
+
+    // Run after every transaction that recorded changes, on the thread that ran it
+    public void addListener(Runnable listener) {
+        listeners.add(listener);
+    }
+
+    // Delete changes written before the cutoff, keeping the newest change
+    public int prune(Instant cutoff) {
+        Long through = changeRepository.findMaxSeqChangedBefore(cutoff);
+        Long newest = changeRepository.findMaxSeq();
+        if (through == null || newest == null) {
+            return 0;
+        }
+        return changeRepository.deleteThrough(Math.min(through, newest - 1));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "book-change-log");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::refreshLastCommitted, 0, refreshInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(this::pruneExpired, 0, PRUNE_INTERVAL.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    private void advanceLastCommitted(long seq) {
+        lastCommitted.accumulateAndGet(seq, Math::max);
+    }
+
+    private void refreshLastCommitted() {
+        try {
+            newTransaction.executeWithoutResult(status -> latest());
+        } catch (RuntimeException e) {
+            log.warn("Could not read the newest book change", e);
+        }
+    }
+
+    // Insert the counter row, continuing from any changes already logged. In its
+    // own transaction, so an instance that loses the race to insert it carries on
+    private void createSequence() {
+        try {
+            newTransaction.executeWithoutResult(status -> {
+                if (changeRepository.findLastSeq() == null) {
+                    Long newest = changeRepository.findMaxSeq();
+                    entityManager.persist(new BookChangeSequence(newest != null ? newest : 0L));
+                }
+            });
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Change sequence was created concurrently", e);
+        }
+    }
+
+    private void pruneExpired() {
+        try {
+            int pruned = prune(Instant.now().minus(retention));
+            if (pruned > 0) {
+                log.info("Pruned {} book changes older than {}", pruned, retention);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not prune the book change log", e);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.book_management;
+
+import java.util.List;
+
+/**
+ * One page of the change log, oldest change first. {@code nextSince} is the
+ * sequence number to pass as {@code since} for the following page: the last
+ * change's, or the {@code since} asked for when there were none.
+ */
+public class BookChangePage {
+
+    private final List<BookChange> changes;
+    private final long nextSince;
+
+    public BookChangePage(List<BookChange> changes, long nextSince) {
+        this.changes = changes;
+        this.nextSince = nextSince;
+    }
+
+    public static BookChangePage empty(long since) {
+        return new BookChangePage(List.of(), since);
+    }
+
+    public List<BookChange> getChanges() {
+        return changes;
+    }
+
+    public long getNextSince() {
+        return nextSince;
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.book_management;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface BookChangeRepository extends JpaRepository<BookChange, Long> {
+
+    // Keyset page of the log: the changes after one sequence number
+    List<BookChange> findBySeqGreaterThanOrderBySeqAsc(Long after, Limit limit);
+
+    @Query("SELECT MIN(c.seq) FROM BookChange c")
+    Long findMinSeq();
+
+    @Query("SELECT MAX(c.seq) FROM BookChange c")
+    Long findMaxSeq();
+
+    // Newest change written before the given time, found through the changed_at index
+    @Query("SELECT MAX(c.seq) FROM BookChange c WHERE c.changedAt < :before")
+    Long findMaxSeqChangedBefore(@Param("before") Instant before);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM BookChange c WHERE c.seq <= :through")
+    int deleteThrough(@Param("through") Long through);
+
+    // Move the change counter on by count. The row stays locked until the
+    // caller's transaction ends; 0 when the row does not exist yet
+    @Modifying
+    @Query("UPDATE BookChangeSequence s SET s.lastSeq = s.lastSeq + :count WHERE s.id = 1")
+    int advanceSequence(@Param("count") long count);
+
+    @Query("SELECT s.lastSeq FROM BookChangeSequence s WHERE s.id = 1")
+    Long findLastSeq();
+}
@@ -0,0 +1,40 @@
+package com.example.book_management;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * The single row that numbers the change log. A transaction that records
+ * changes moves it on by their count, and the row stays locked until that
+ * transaction ends, so sequence numbers follow commit order across every
+ * instance writing to the database, and a rollback gives its numbers back.
+ */
+@Entity
+@Table(name = "book_change_sequence")
+public class BookChangeSequence {
+
+    static final long ID = 1L;
+
+    @Id
+    private Long id;
+
+    @Column(name = "last_seq", nullable = false)
+    private long lastSeq;
+
+    protected BookChangeSequence() {}
+
+    BookChangeSequence(long lastSeq) {
+        this.id = ID;
+        this.lastSeq = lastSeq;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public long getLastSeq() {
+        return lastSeq;
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.book_management;
+
+/**
+ * Published by {@link BookService} after every mutation, so in-memory views
+ * of the catalog can follow along.
+ */
+public class BookChangedEvent {
+
+    public enum Type {
+        SAVED,
+        DELETED
+    }
+
+    private final Type type;
+    private final Long bookId;
+    private final Book book;
+
+    private BookChangedEvent(Type type, Long bookId, Book book) {
+        this.type = type;
+        this.bookId = bookId;
+        this.book = book;
+    }
+
+    public static BookChangedEvent saved(Book book) {
+        return new BookChangedEvent(Type.SAVED, book.getId(), book);
+    }
+
+    public static BookChangedEvent deleted(Long bookId) {
+        return new BookChangedEvent(Type.DELETED, bookId, null);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Long getBookId() {
+        return bookId;
+    }
+
+    // The saved book, or null for deletions
+    public Book getBook() {
+        return book;
+    }
+}
@@ -1,30 +1,67 @@
 package com.example.book_management;
+import java.io.IOException;
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 
 @RestController
 @RequestMapping("/api/books")
+@Profile("!reactive")
 
 public class BookController {
     
+    // 2026-10-17, when GET /api/books started returning a page unless all=true is given
+    static final String FULL_LIST_DEPRECATED = "@1792195200";
+    
     @Autowired
     private BookService bookService;
     
+    @Autowired
+    private BookExporter bookExporter;
+    
+    @Autowired
+    private BookBulkImporter bookBulkImporter;
+    
+    @Autowired
+    private BookChangeFeed changeFeed;
+    
+    @Value("${books.changes.max-wait:60s}")
+    private Duration changesMaxWait = Duration.ofSeconds(60);
+    
+    @Value("${books.changes.keep-alive:30s}")
+    private Duration changesKeepAlive = Duration.ofSeconds(30);
+    
     // Test endpoint
     @GetMapping("/test")
     public ResponseEntity<String> test() {
@@ -42,50 +79,244 @@ public class BookController {
         }
     }
     
-    // Get all books
+    // Add many books from a JSON array or NDJSON stream, reporting the outcome of
+    // each item; an import cut short by a malformed body is a 400 that still
+    // lists the items saved before it
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<BulkImportResult> addBooks(HttpServletRequest request) throws IOException {
+        MediaType contentType = MediaType.parseMediaType(request.getContentType());
+        try {
+            BulkImportResult result = contentType.isCompatibleWith(MediaType.APPLICATION_NDJSON)
+                    ? bookBulkImporter.importNdjson(request.getInputStream())
+                    : bookBulkImporter.importJsonArray(request.getInputStream());
+            return new ResponseEntity<>(result, result.getError() != null ? HttpStatus.BAD_REQUEST : HttpStatus.OK);
+        } catch (IllegalArgumentException | JsonProcessingException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+    }
+    
+    // One keyset page of books, the first unless a cursor is given, of the default
+    // size unless a limit is. all=true still returns the whole catalog as one
+    // array, but is deprecated in favour of the pages and /export.
     @GetMapping
-    public ResponseEntity<List<Book>> getAllBooks() {
-        List<Book> books = bookService.getAllBooks();
-        return new ResponseEntity<>(books, HttpStatus.OK);
+    public ResponseEntity<?> getAllBooks(@RequestParam(required = false) Long after,
+                                         @RequestParam(required = false) Integer limit,
+                                         @RequestParam(defaultValue = "false") boolean all,
+                                         WebRequest webRequest) {
+        if ((after != null && after < 0) || (limit != null && limit < 1) || (all && (after != null || limit != null))) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        String catalogETag = bookService.getCatalogETag();
+        if (catalogNotModified(webRequest, catalogETag)) {
+            return null;
+        }
+        if (all) {
+            List<Book> books = bookService.getAllBooks();
+            return deprecated(catalogResponse(catalogETag)).body(books);
+        }
+        BookPage page = bookService.getBooksPage(after, limit);
+        return withCatalogETag(page, catalogETag);
+    }
+    
+    // Stream the whole catalog as NDJSON or CSV
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportBooks(@RequestParam(defaultValue = "ndjson") String format) {
+        BookExportFormat exportFormat = BookExportFormat.fromName(format);
+        if (exportFormat == null) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        StreamingResponseBody body = out -> bookExporter.export(exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"books." + exportFormat.getExtension() + "\"")
+                .body(body);
+    }
+    
+    // Catalog changes after a sequence number, oldest first, with the cursor for the
+    // next call. wait (in seconds) holds an empty answer back until a change arrives;
+    // 410 means changes after since were pruned and the consumer must start over
+    @GetMapping("/changes")
+    public CompletableFuture<ResponseEntity<BookChangePage>> getChanges(@RequestParam(defaultValue = "0") long since,
+                                                                        @RequestParam(required = false) Integer limit,
+                                                                        @RequestParam(defaultValue = "0") long wait) {
+        if (since < 0 || (limit != null && limit < 1) || wait < 0) {
+            return CompletableFuture.completedFuture(new ResponseEntity<>(HttpStatus.BAD_REQUEST));
+        }
+        Duration waitFor = Duration.ofSeconds(Math.min(wait, changesMaxWait.toSeconds()));
+        return changeFeed.poll(since, changesPageSize(limit), waitFor)
+                .thenApply(page -> page != null
+                        ? new ResponseEntity<>(page, HttpStatus.OK)
+                        : new ResponseEntity<>(HttpStatus.GONE));
+    }
+    
+    // Cursor to follow the changes from after a full export: read it first, then export
+    @GetMapping("/changes/latest")
+    public ResponseEntity<BookChangePage> getLatestChange() {
+        return new ResponseEntity<>(BookChangePage.empty(changeFeed.latest()), HttpStatus.OK);
     }
     
-    // Get book by ID
+    // The same changes as server-sent events, one "change" event per change with its
+    // sequence number as the event id, so a reconnecting EventSource resumes from
+    // Last-Event-ID. A comment is sent every keep-alive while nothing changes.
+    @GetMapping(value = "/changes/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamChanges(@RequestParam(defaultValue = "0") long since,
+                                                    @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        long from = lastEventId != null ? lastEventId : since;
+        if (from < 0) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        if (!changeFeed.retains(from)) {
+            return new ResponseEntity<>(HttpStatus.GONE);
+        }
+        SseEmitter emitter = new SseEmitter();
+        AtomicBoolean open = new AtomicBoolean(true);
+        emitter.onCompletion(() -> open.set(false));
+        emitter.onTimeout(() -> open.set(false));
+        emitter.onError(error -> open.set(false));
+        changeFeed.follow(from, BookService.MAX_PAGE_SIZE, changesKeepAlive, page -> open.get() && sendChanges(emitter, page))
+                .whenComplete((done, error) -> {
+                    if (error != null) {
+                        emitter.completeWithError(error);
+                    } else {
+                        emitter.complete();
+                    }
+                });
+        return ResponseEntity.ok().cacheControl(CacheControl.noStore()).body(emitter);
+    }
+    
+    // Get book by ID; If-None-Match against the version ETag is answered with 304
     @GetMapping("/{id}")
     public ResponseEntity<Book> getBookById(@PathVariable Long id) {
         Optional<Book> book = bookService.getBookById(id);
-        return book.map(value -> new ResponseEntity<>(value, HttpStatus.OK))
+        return book.map(value -> withItemETag(value))
                   .orElseGet(() -> new ResponseEntity<>(HttpStatus.NOT_FOUND));
     }
     
+    // Look up many books in one request: POST a JSON array of ids, or GET ?ids=1,2,3.
+    // Each id is answered once, in request order, with found=false for ids without a book
+    @PostMapping("/batch-get")
+    public ResponseEntity<BatchGetResult> batchGetBooks(@RequestBody List<Long> ids) {
+        return batchGet(ids);
+    }
+    
+    @GetMapping("/batch-get")
+    public ResponseEntity<BatchGetResult> batchGetBooksByQuery(@RequestParam List<Long> ids) {
+        return batchGet(ids);
+    }
+    
+    // Hit, miss and eviction counters of the book cache
+    @GetMapping("/stats/cache")
+    public ResponseEntity<BookCacheStats> getCacheStats() {
+        return new ResponseEntity<>(bookService.getCacheStats(), HttpStatus.OK);
+    }
+    
+    // Hit rate, evictions, invalidations and estimated size of the search result cache
+    @GetMapping("/stats/search-cache")
+    public ResponseEntity<BookSearchCacheStats> getSearchCacheStats() {
+        return new ResponseEntity<>(bookService.getSearchCacheStats(), HttpStatus.OK);
+    }
+    
+    // Rows and off-heap bytes of the read-serving catalog snapshot
+    @GetMapping("/stats/snapshot")
+    public ResponseEntity<BookSnapshotStats> getSnapshotStats() {
+        return new ResponseEntity<>(bookService.getSnapshotStats(), HttpStatus.OK);
+    }
+    
+    // Phrases and node count of the typeahead trie, with its estimated size
+    @GetMapping("/stats/suggest")
+    public ResponseEntity<BookSuggesterStats> getSuggesterStats() {
+        return new ResponseEntity<>(bookService.getSuggesterStats(), HttpStatus.OK);
+    }
+    
+    // Typeahead: the most common titles and author names with a word starting with the prefix
+    @GetMapping("/suggest")
+    public ResponseEntity<List<BookSuggestion>> suggest(@RequestParam String prefix,
+                                                        @RequestParam(defaultValue = "10") int limit,
+                                                        WebRequest webRequest) {
+        if (limit < 1 || limit > BookSuggester.MAX_LIMIT) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        String catalogETag = bookService.getCatalogETag();
+        if (catalogNotModified(webRequest, catalogETag)) {
+            return null;
+        }
+        return withCatalogETag(bookService.suggest(prefix, limit), catalogETag);
+    }
+    
     // Search books by keyword
     @GetMapping("/search")
-    public ResponseEntity<List<Book>> searchBooks(@RequestParam String keyword) {
+    public ResponseEntity<List<Book>> searchBooks(@RequestParam String keyword, WebRequest webRequest) {
+        String catalogETag = bookService.getCatalogETag();
+        if (catalogNotModified(webRequest, catalogETag)) {
+            return null;
+        }
         List<Book> books = bookService.searchBooks(keyword);
-        return new ResponseEntity<>(books, HttpStatus.OK);
+        return withCatalogETag(books, catalogETag);
     }
     
-    // Search books by title
+    // Search books by title; prefix=true matches the start of the title via its index
     @GetMapping("/search/title")
-    public ResponseEntity<List<Book>> searchBooksByTitle(@RequestParam String title) {
-        List<Book> books = bookService.searchBooksByTitle(title);
-        return new ResponseEntity<>(books, HttpStatus.OK);
+    public ResponseEntity<List<Book>> searchBooksByTitle(@RequestParam String title,
+                                                         @RequestParam(defaultValue = "false") boolean prefix,
+                                                         WebRequest webRequest) {
+        String catalogETag = bookService.getCatalogETag();
+        if (catalogNotModified(webRequest, catalogETag)) {
+            return null;
+        }
+        List<Book> books = prefix ? bookService.searchBooksByTitlePrefix(title) : bookService.searchBooksByTitle(title);
+        return withCatalogETag(books, catalogETag);
     }
     
-    // Search books by author
+    // Search books by author; prefix=true matches the start of the name via its index
     @GetMapping("/search/author")
-    public ResponseEntity<List<Book>> searchBooksByAuthor(@RequestParam String author) {
-        List<Book> books = bookService.searchBooksByAuthor(author);
-        return new ResponseEntity<>(books, HttpStatus.OK);
+    public ResponseEntity<List<Book>> searchBooksByAuthor(@RequestParam String author,
+                                                          @RequestParam(defaultValue = "false") boolean prefix,
+                                                          WebRequest webRequest) {
+        String catalogETag = bookService.getCatalogETag();
+        if (catalogNotModified(webRequest, catalogETag)) {
+            return null;
+        }
+        List<Book> books = prefix ? bookService.searchBooksByAuthorPrefix(author) : bookService.searchBooksByAuthor(author);
+        return withCatalogETag(books, catalogETag);
     }
     
-    // Update a book
+    // Update a book. The expected version comes from If-Match or the body's version;
+    // a stale one gets 412 (If-Match) or 409 (body)
     @PutMapping("/{id}")
-    public ResponseEntity<Book> updateBook(@PathVariable Long id, @Valid @RequestBody Book bookDetails) {
-        Book updatedBook = bookService.updateBook(id, bookDetails);
-        if (updatedBook != null) {
-            return new ResponseEntity<>(updatedBook, HttpStatus.OK);
+    public ResponseEntity<Book> updateBook(@PathVariable Long id, @Valid @RequestBody Book bookDetails,
+                                           @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        if (ifMatch != null && !"*".equals(ifMatch.trim())) {
+            Long expectedVersion = parseItemETag(ifMatch);
+            if (expectedVersion == null) {
+                return new ResponseEntity<>(HttpStatus.PRECONDITION_FAILED);
+            }
+            bookDetails.setVersion(expectedVersion);
+        }
+        try {
+            return updated(bookService.updateBook(id, bookDetails));
+        } catch (OptimisticLockingFailureException e) {
+            return new ResponseEntity<>(ifMatch != null ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT);
+        }
+    }
+    
+    // Partially update a book: only the fields present in the body change.
+    // Versions are checked as for PUT
+    @PatchMapping("/{id}")
+    public ResponseEntity<Book> patchBook(@PathVariable Long id, @Valid @RequestBody BookPatch patch,
+                                          @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        if (ifMatch != null && !"*".equals(ifMatch.trim())) {
+            Long expectedVersion = parseItemETag(ifMatch);
+            if (expectedVersion == null) {
+                return new ResponseEntity<>(HttpStatus.PRECONDITION_FAILED);
+            }
+            patch.setVersion(expectedVersion);
+        }
+        try {
+            return updated(bookService.patchBook(id, patch));
+        } catch (OptimisticLockingFailureException e) {
+            return new ResponseEntity<>(ifMatch != null ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT);
         }
-        return new ResponseEntity<>(HttpStatus.NOT_FOUND);
     }
     
     // Delete a book
@@ -97,4 +328,93 @@ public class BookController {
         }
         return new ResponseEntity<>(HttpStatus.NOT_FOUND);
     }
-}
\ No newline at end of file
+    
+    private ResponseEntity<BatchGetResult> batchGet(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        try {
+            return new ResponseEntity<>(bookService.getBooksByIds(ids), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+    }
+    
+    // False once the client has gone or the changes were pruned (the stream then ends
+    // and a reconnect with Last-Event-ID gets 410)
+    private static boolean sendChanges(SseEmitter emitter, BookChangePage page) {
+        if (page == null) {
+            return false;
+        }
+        try {
+            if (page.getChanges().isEmpty()) {
+                emitter.send(SseEmitter.event().comment("keep-alive"));
+            }
+            for (BookChange change : page.getChanges()) {
+                emitter.send(SseEmitter.event()
+                        .id(Long.toString(change.getSeq()))
+                        .name("change")
+                        .data(change, MediaType.APPLICATION_JSON));
+            }
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+    
+    static int changesPageSize(Integer limit) {
+        return limit != null ? Math.min(limit, BookService.MAX_PAGE_SIZE) : BookService.DEFAULT_PAGE_SIZE;
+    }
+    
+    // True when If-None-Match already names the current catalog version; the 304 is then written
+    private static boolean catalogNotModified(WebRequest webRequest, String catalogETag) {
+        return catalogETag != null && webRequest.checkNotModified(catalogETag);
+    }
+    
+    // Clients must revalidate, but can do so cheaply with the ETag
+    private static <T> ResponseEntity<T> withCatalogETag(T body, String catalogETag) {
+        return catalogResponse(catalogETag).body(body);
+    }
+    
+    private static ResponseEntity.BodyBuilder catalogResponse(String catalogETag) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().cacheControl(CacheControl.noCache());
+        if (catalogETag != null) {
+            response.eTag(catalogETag);
+        }
+        return response;
+    }
+    
+    // Deprecation header (RFC 9745, the date it was deprecated on) and the export as the replacement
+    private static ResponseEntity.BodyBuilder deprecated(ResponseEntity.BodyBuilder response) {
+        return response.header("Deprecation", FULL_LIST_DEPRECATED)
+                .header(HttpHeaders.LINK, "</api/books/export>; rel=\"alternate\"");
+    }
+    
+    private static ResponseEntity<Book> updated(Book book) {
+        if (book == null) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        return withItemETag(book);
+    }
+    
+    private static ResponseEntity<Book> withItemETag(Book book) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().cacheControl(CacheControl.noCache());
+        if (book.getVersion() != null) {
+            response.eTag("\"" + book.getVersion() + "\"");
+        }
+        return response.body(book);
+    }
+    
+    // Version from a strong item ETag such as "3"; null for weak or malformed tags
+    static Long parseItemETag(String eTag) {
+        String tag = eTag.trim();
+        if (tag.length() < 3 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+            return null;
+        }
+        try {
+            return Long.valueOf(tag.substring(1, tag.length() - 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
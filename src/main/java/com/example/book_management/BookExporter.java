@@ -0,0 +1,96 @@
+package com.example.book_management;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Writes the catalog to an output stream row by row, so an export never
+ * holds more than one book in memory.
+ */
+@Component
+public class BookExporter {
+
+    // Flush periodically so clients see progress without a flush per row
+    static final int FLUSH_EVERY_ROWS = 1000;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final BookService bookService;
+    private final ObjectWriter bookWriter;
+
+    @Autowired
+    public BookExporter(BookService bookService, ObjectMapper objectMapper) {
+        this.bookService = bookService;
+        this.bookWriter = objectMapper.writerFor(Book.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    // Export every book in the given format
+    public void export(BookExportFormat format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        if (format == BookExportFormat.CSV) {
+            writer.write("id,title,author\n");
+        }
+        writer.flush();
+
+        int[] rows = {0};
+        try {
+            bookService.exportBooks(book -> {
+                try {
+                    writeRow(format, book, writer);
+                    if (++rows[0] % FLUSH_EVERY_ROWS == 0) {
+                        writer.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    private void writeRow(BookExportFormat format, Book book, Writer writer) throws IOException {
+        if (format == BookExportFormat.NDJSON) {
+            bookWriter.writeValue(writer, book);
+        } else {
+            writer.write(String.valueOf(book.getId()));
+            writer.write(',');
+            writeCsvField(book.getTitle(), writer);
+            writer.write(',');
+            writeCsvField(book.getAuthor(), writer);
+        }
+        writer.write('\n');
+    }
+
+    // Quote a field only when it contains a separator, quote or line break (RFC 4180)
+    static void writeCsvField(String value, Writer writer) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean needsQuotes = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!needsQuotes) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.book_management;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DuplicateKeyException;
+
+/**
+ * Hands out book ids that are unique across every shard and every instance.
+ *
+ * <p>Ids are reserved in blocks from the {@code book_id_allocator} row on
+ * shard 0, which is locked for the length of one short transaction per
+ * block; the ids of a block are then handed out from memory. Once half a
+ * block is used, the next one is reserved in the background, so inserting
+ * threads rarely wait on the database. The first block starts above the
+ * highest id already stored on any shard. Ids left in a block when the
+ * instance stops are never used.
+ */
+public class BookIdAllocator implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(BookIdAllocator.class);
+
+    private final BookShards shards;
+    private final int blockSize;
+    // Not synchronized, which would pin a virtual thread while a block is reserved
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ExecutorService reserver = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "book-id-allocator");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Guarded by lock
+    private long next;
+    private long limit;
+    private CompletableFuture<Long> spare;
+
+    public BookIdAllocator(BookShards shards, int blockSize) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("Id block size must be positive");
+        }
+        this.shards = shards;
+        this.blockSize = blockSize;
+    }
+
+    public long next() {
+        lock.lock();
+        try {
+            if (next >= limit) {
+                next = nextBlock();
+                limit = next + blockSize;
+            }
+            if (spare == null && limit - next <= blockSize / 2) {
+                spare = CompletableFuture.supplyAsync(this::reserveBlock, reserver);
+            }
+            return next++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void createTable() {
+        shards.home().inNewTransaction(jdbc -> {
+            jdbc.execute("CREATE TABLE IF NOT EXISTS book_id_allocator "
+                    + "(name VARCHAR(64) NOT NULL PRIMARY KEY, next_id BIGINT NOT NULL)");
+            return null;
+        });
+    }
+
+    @Override
+    public void close() {
+        reserver.shutdownNow();
+    }
+
+    // First id of the spare block, or of one reserved now when there is none
+    private long nextBlock() {
+        CompletableFuture<Long> reserved = spare;
+        spare = null;
+        if (reserved != null) {
+            try {
+                return reserved.join();
+            } catch (CompletionException e) {
+                log.warn("Could not reserve book ids in the background", e.getCause());
+            }
+        }
+        return reserveBlock();
+    }
+
+    // First id of a newly reserved block
+    private long reserveBlock() {
+        try {
+            return shards.home().inNewTransaction(jdbc -> {
+                List<Long> stored = jdbc.queryForList(
+                        "SELECT next_id FROM book_id_allocator WHERE name = 'books' FOR UPDATE", Long.class);
+                if (stored.isEmpty()) {
+                    long first = shards.all().stream().mapToLong(BookShard::maxId).max().orElse(0L) + 1;
+                    jdbc.update("INSERT INTO book_id_allocator (name, next_id) VALUES ('books', ?)", first + blockSize);
+                    return first;
+                }
+                long first = stored.get(0);
+                jdbc.update("UPDATE book_id_allocator SET next_id = ? WHERE name = 'books'", first + blockSize);
+                return first;
+            });
+        } catch (DuplicateKeyException e) {
+            // Another instance created the row first; take a block from it
+            return reserveBlock();
+        }
+    }
+}
@@ -0,0 +1,324 @@
+package com.example.book_management;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.GenericTypeResolver;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Writes {@link Book}, {@link BookPage} and collections of books as JSON
+ * straight into a byte buffer, ahead of the Jackson converter.
+ *
+ * <p>Field names are pre-encoded and strings and numbers are encoded in
+ * place, so a response allocates one buffer however many books it holds.
+ * The output is byte for byte what Jackson writes with its defaults (fields
+ * in declaration order, nulls included); with {@code spring.jackson.*}
+ * settings that change that, turn this off with
+ * {@code books.json.direct-writer=false}. A collection whose element type is
+ * not known until it is written, as behind {@code ResponseEntity<?>}, is
+ * handed to Jackson if it turns out to hold anything but books. Reading is
+ * left to the Jackson converter, ahead of which this one never offers to
+ * read.
+ */
+@Component
+@ConditionalOnProperty(name = "books.json.direct-writer", havingValue = "true", matchIfMissing = true)
+public class BookJsonHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    static final int BUFFER_SIZE = 8 * 1024;
+
+    // Room for the longest single write: a six-byte char escape or a long
+    private static final int MAX_TOKEN = 20;
+
+    private static final byte[] ID = ascii("{\"id\":");
+    private static final byte[] TITLE = ascii(",\"title\":");
+    private static final byte[] AUTHOR = ascii(",\"author\":");
+    private static final byte[] VERSION = ascii(",\"version\":");
+    private static final byte[] BOOKS = ascii("{\"books\":");
+    private static final byte[] NEXT_CURSOR = ascii(",\"nextCursor\":");
+    private static final byte[] NULL = ascii("null");
+    private static final byte[] HEX = ascii("0123456789ABCDEF");
+
+    // Per ASCII char: 0 to copy as is, a letter for a short escape, -1 for a six-byte one
+    private static final byte[] ESCAPES = new byte[128];
+
+    static {
+        for (int c = 0; c < 0x20; c++) {
+            ESCAPES[c] = -1;
+        }
+        ESCAPES['"'] = '"';
+        ESCAPES['\\'] = '\\';
+        ESCAPES['\b'] = 'b';
+        ESCAPES['\t'] = 't';
+        ESCAPES['\n'] = 'n';
+        ESCAPES['\f'] = 'f';
+        ESCAPES['\r'] = 'r';
+    }
+
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public BookJsonHttpMessageConverter(ObjectMapper objectMapper) {
+        super(MediaType.APPLICATION_JSON);
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return Book.class == clazz || BookPage.class == clazz || Collection.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canWrite(@Nullable Type type, Class<?> clazz, @Nullable MediaType mediaType) {
+        if (!canWrite(mediaType)) {
+            return false;
+        }
+        if (!(type instanceof ParameterizedType)) {
+            return supports(clazz);
+        }
+        ResolvableType collection = ResolvableType.forType(type).asCollection();
+        if (collection == ResolvableType.NONE) {
+            return false;
+        }
+        Class<?> element = collection.resolveGeneric(0);
+        return element == null || element == Book.class;
+    }
+
+    @Override
+    public boolean canRead(Type type, @Nullable Class<?> contextClass, @Nullable MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, @Nullable MediaType mediaType) {
+        return false;
+    }
+
+    // Never chosen for reading, as canRead says no; called directly, it reads as Jackson would
+    @Override
+    public Object read(Type type, @Nullable Class<?> contextClass, HttpInputMessage inputMessage) throws IOException {
+        return objectMapper.readValue(inputMessage.getBody(),
+                objectMapper.constructType(GenericTypeResolver.resolveType(type, contextClass)));
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) throws IOException {
+        return objectMapper.readValue(inputMessage.getBody(), clazz);
+    }
+
+    @Override
+    protected void writeInternal(Object value, @Nullable Type type, HttpOutputMessage outputMessage) throws IOException {
+        OutputStream body = outputMessage.getBody();
+        if (value instanceof Collection<?> collection && !allBooks(collection)) {
+            objectMapper.writeValue(StreamUtils.nonClosing(body), value);
+            return;
+        }
+        JsonBuffer json = new JsonBuffer(body);
+        if (value instanceof Book book) {
+            json.book(book);
+        } else if (value instanceof BookPage page) {
+            json.page(page);
+        } else {
+            json.books((Collection<?>) value);
+        }
+        json.flush();
+    }
+
+    @Override
+    protected boolean supportsRepeatableWrites(Object value) {
+        return true;
+    }
+
+    private static boolean allBooks(Collection<?> collection) {
+        for (Object element : collection) {
+            if (!(element instanceof Book)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static byte[] ascii(String text) {
+        return text.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * UTF-8 JSON encoder over one fixed buffer, flushed to the stream when a
+     * write might not fit.
+     */
+    static final class JsonBuffer {
+
+        private final OutputStream out;
+        private final byte[] buffer = new byte[BUFFER_SIZE];
+        private int position;
+
+        JsonBuffer(OutputStream out) {
+            this.out = out;
+        }
+
+        void page(BookPage page) throws IOException {
+            raw(BOOKS);
+            books(page.getBooks());
+            raw(NEXT_CURSOR);
+            number(page.getNextCursor());
+            ascii('}');
+        }
+
+        void books(Collection<?> books) throws IOException {
+            ascii('[');
+            boolean first = true;
+            for (Object book : books) {
+                if (!first) {
+                    ascii(',');
+                }
+                book((Book) book);
+                first = false;
+            }
+            ascii(']');
+        }
+
+        void book(Book book) throws IOException {
+            raw(ID);
+            number(book.getId());
+            raw(TITLE);
+            string(book.getTitle());
+            raw(AUTHOR);
+            string(book.getAuthor());
+            raw(VERSION);
+            number(book.getVersion());
+            ascii('}');
+        }
+
+        void flush() throws IOException {
+            if (position > 0) {
+                out.write(buffer, 0, position);
+                position = 0;
+            }
+            out.flush();
+        }
+
+        private void string(String value) throws IOException {
+            if (value == null) {
+                raw(NULL);
+                return;
+            }
+            ascii('"');
+            int length = value.length();
+            for (int i = 0; i < length; i++) {
+                if (position + MAX_TOKEN > buffer.length) {
+                    drain();
+                }
+                char c = value.charAt(i);
+                if (c < 0x80) {
+                    byte escape = ESCAPES[c];
+                    if (escape == 0) {
+                        buffer[position++] = (byte) c;
+                    } else if (escape > 0) {
+                        buffer[position++] = '\\';
+                        buffer[position++] = escape;
+                    } else {
+                        unicodeEscape(c);
+                    }
+                } else if (c < 0x800) {
+                    buffer[position++] = (byte) (0xc0 | (c >> 6));
+                    buffer[position++] = (byte) (0x80 | (c & 0x3f));
+                } else if (Character.isHighSurrogate(c) && i + 1 < length
+                        && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                    buffer[position++] = (byte) (0xf0 | (codePoint >> 18));
+                    buffer[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3f));
+                    buffer[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3f));
+                    buffer[position++] = (byte) (0x80 | (codePoint & 0x3f));
+                } else if (Character.isSurrogate(c)) {
+                    // A lone surrogate has no UTF-8 form; the escape keeps it intact
+                    unicodeEscape(c);
+                } else {
+                    buffer[position++] = (byte) (0xe0 | (c >> 12));
+                    buffer[position++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+                    buffer[position++] = (byte) (0x80 | (c & 0x3f));
+                }
+            }
+            ascii('"');
+        }
+
+        private void unicodeEscape(char c) {
+            buffer[position++] = '\\';
+            buffer[position++] = 'u';
+            buffer[position++] = HEX[(c >> 12) & 0xf];
+            buffer[position++] = HEX[(c >> 8) & 0xf];
+            buffer[position++] = HEX[(c >> 4) & 0xf];
+            buffer[position++] = HEX[c & 0xf];
+        }
+
+        private void number(Long value) throws IOException {
+            if (value == null) {
+                raw(NULL);
+                return;
+            }
+            long n = value;
+            if (n == Long.MIN_VALUE) {
+                raw(Long.toString(n).getBytes(StandardCharsets.US_ASCII));
+                return;
+            }
+            if (position + MAX_TOKEN > buffer.length) {
+                drain();
+            }
+            if (n < 0) {
+                buffer[position++] = '-';
+                n = -n;
+            }
+            // Digits are produced backwards, so write them from the far end
+            int end = position + digits(n);
+            int index = end;
+            do {
+                buffer[--index] = (byte) ('0' + (n % 10));
+                n /= 10;
+            } while (n != 0);
+            position = end;
+        }
+
+        private static int digits(long n) {
+            int count = 1;
+            while (n >= 10) {
+                n /= 10;
+                count++;
+            }
+            return count;
+        }
+
+        private void ascii(char c) throws IOException {
+            if (position == buffer.length) {
+                drain();
+            }
+            buffer[position++] = (byte) c;
+        }
+
+        private void raw(byte[] bytes) throws IOException {
+            if (position + bytes.length > buffer.length) {
+                drain();
+            }
+            System.arraycopy(bytes, 0, buffer, position, bytes.length);
+            position += bytes.length;
+        }
+
+        private void drain() throws IOException {
+            out.write(buffer, 0, position);
+            position = 0;
+        }
+    }
+}
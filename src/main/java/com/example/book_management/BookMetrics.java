@@ -0,0 +1,156 @@
+package com.example.book_management;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Publishes the application's own counters - book cache, search index,
+ * search result cache, catalog snapshot, typeahead trie, write-behind queue
+ * and read coalescing - next to the request, repository and connection pool
+ * metrics Spring Boot records on its own.
+ */
+@Component
+public class BookMetrics implements MeterBinder {
+
+    private final BookCache bookCache;
+    private final BookSearchIndex searchIndex;
+    private final BookSuggester suggester;
+    private final BookWriteBehind writeBehind;
+    private final BookReadCoalescer readCoalescer;
+    private final BookSearchCache searchCache;
+    private final BookSnapshot snapshot;
+
+    @Autowired
+    public BookMetrics(BookCache bookCache, BookSearchIndex searchIndex, BookSuggester suggester,
+                       BookWriteBehind writeBehind, BookReadCoalescer readCoalescer, BookSearchCache searchCache,
+                       BookSnapshot snapshot) {
+        this.bookCache = bookCache;
+        this.searchIndex = searchIndex;
+        this.suggester = suggester;
+        this.writeBehind = writeBehind;
+        this.readCoalescer = readCoalescer;
+        this.searchCache = searchCache;
+        this.snapshot = snapshot;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("books.cache.requests", bookCache, cache -> cache.stats().getHits())
+                .tag("result", "hit")
+                .description("Book cache lookups")
+                .register(registry);
+        FunctionCounter.builder("books.cache.requests", bookCache, cache -> cache.stats().getMisses())
+                .tag("result", "miss")
+                .description("Book cache lookups")
+                .register(registry);
+        FunctionCounter.builder("books.cache.evictions", bookCache, cache -> cache.stats().getEvictions())
+                .tag("cause", "size")
+                .description("Entries dropped from the book cache")
+                .register(registry);
+        FunctionCounter.builder("books.cache.evictions", bookCache, cache -> cache.stats().getExpirations())
+                .tag("cause", "expired")
+                .description("Entries dropped from the book cache")
+                .register(registry);
+        Gauge.builder("books.cache.size", bookCache, cache -> cache.stats().getSize())
+                .description("Entries in the book cache")
+                .register(registry);
+
+        Gauge.builder("books.search.index.documents", searchIndex, BookSearchIndex::size)
+                .description("Books in the search index")
+                .register(registry);
+        Gauge.builder("books.search.index.terms", searchIndex, BookSearchIndex::termCount)
+                .description("Distinct words in the search index")
+                .register(registry);
+
+        FunctionCounter.builder("books.search.cache.requests", searchCache, cache -> cache.stats().getHits())
+                .tag("result", "hit")
+                .description("Search result cache lookups")
+                .register(registry);
+        FunctionCounter.builder("books.search.cache.requests", searchCache, cache -> cache.stats().getMisses())
+                .tag("result", "miss")
+                .description("Search result cache lookups")
+                .register(registry);
+        FunctionCounter.builder("books.search.cache.evictions", searchCache, cache -> cache.stats().getEvictions())
+                .tag("cause", "size")
+                .description("Results dropped from the search result cache")
+                .register(registry);
+        FunctionCounter.builder("books.search.cache.evictions", searchCache,
+                        cache -> cache.stats().getInvalidations())
+                .tag("cause", "stale")
+                .description("Results dropped from the search result cache")
+                .register(registry);
+        Gauge.builder("books.search.cache.size", searchCache, cache -> cache.stats().getSize())
+                .description("Results in the search result cache")
+                .register(registry);
+        Gauge.builder("books.search.cache.memory", searchCache, cache -> cache.stats().getEstimatedBytes())
+                .description("Estimated heap held by the search result cache")
+                .baseUnit("bytes")
+                .register(registry);
+
+        Gauge.builder("books.snapshot.books", snapshot, BookSnapshot::size)
+                .description("Books in the read-serving catalog snapshot")
+                .register(registry);
+        Gauge.builder("books.snapshot.memory", snapshot, view -> view.stats().getMappedBytes())
+                .tag("area", "mapped")
+                .description("Off-heap memory of the catalog snapshot")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("books.snapshot.memory", snapshot, view -> view.stats().getGarbageBytes())
+                .tag("area", "garbage")
+                .description("Off-heap memory of the catalog snapshot")
+                .baseUnit("bytes")
+                .register(registry);
+
+        Gauge.builder("books.suggest.phrases", suggester, trie -> trie.stats().getPhrases())
+                .description("Distinct titles and author names offered as suggestions")
+                .register(registry);
+        Gauge.builder("books.suggest.nodes", suggester, trie -> trie.stats().getNodes())
+                .description("Nodes in the suggestion trie")
+                .register(registry);
+        Gauge.builder("books.suggest.memory", suggester, trie -> trie.stats().getEstimatedBytes())
+                .description("Estimated heap held by the suggestion trie")
+                .baseUnit("bytes")
+                .register(registry);
+
+        Gauge.builder("books.writebehind.pending", writeBehind, BookWriteBehind::size)
+                .description("Acknowledged book writes not yet in the database")
+                .register(registry);
+        TimeGauge.builder("books.writebehind.lag", writeBehind, TimeUnit.MILLISECONDS, BookWriteBehind::lagMillis)
+                .description("Age of the oldest book write not yet in the database")
+                .register(registry);
+        FunctionCounter.builder("books.writebehind.applied", writeBehind, BookWriteBehind::getApplied)
+                .description("Book writes applied to the database by the write-behind flusher")
+                .register(registry);
+        FunctionCounter.builder("books.writebehind.failures", writeBehind, BookWriteBehind::getFailures)
+                .description("Write-behind batches that failed and were queued again")
+                .register(registry);
+
+        for (BookReadCoalescer.Kind kind : BookReadCoalescer.Kind.values()) {
+            String kindTag = kind.name().toLowerCase(Locale.ROOT);
+            FunctionCounter.builder("books.coalescing.reads", readCoalescer, coalescer -> coalescer.getQueries(kind))
+                    .tag("kind", kindTag)
+                    .tag("result", "queried")
+                    .description("Book reads that reached the database and reads that shared another's query")
+                    .register(registry);
+            FunctionCounter.builder("books.coalescing.reads", readCoalescer, coalescer -> coalescer.getCoalesced(kind))
+                    .tag("kind", kindTag)
+                    .tag("result", "coalesced")
+                    .description("Book reads that reached the database and reads that shared another's query")
+                    .register(registry);
+            FunctionCounter.builder("books.coalescing.timeouts", readCoalescer,
+                            coalescer -> coalescer.getTimeouts(kind))
+                    .tag("kind", kindTag)
+                    .description("Reads that stopped waiting for a shared query and ran their own")
+                    .register(registry);
+        }
+    }
+}
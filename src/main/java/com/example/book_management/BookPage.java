@@ -0,0 +1,27 @@
+package com.example.book_management;
+
+import java.util.List;
+
+/**
+ * One page of books from a keyset (cursor) listing. {@code nextCursor} is the
+ * id to pass as {@code after} for the following page, or {@code null} when
+ * there are no more books.
+ */
+public class BookPage {
+
+    private final List<Book> books;
+    private final Long nextCursor;
+
+    public BookPage(List<Book> books, Long nextCursor) {
+        this.books = books;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<Book> getBooks() {
+        return books;
+    }
+
+    public Long getNextCursor() {
+        return nextCursor;
+    }
+}
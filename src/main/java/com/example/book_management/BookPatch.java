@@ -0,0 +1,52 @@
+package com.example.book_management;
+
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+
+/**
+ * Body of {@code PATCH /api/books/{id}}: fields left out (or null) are not
+ * changed. A version, if given, must match the stored one.
+ */
+public class BookPatch {
+
+    @Pattern(regexp = "(?s).*\\S.*", message = "Title must not be blank")
+    @Size(max = 255, message = "Title must not exceed 255 characters")
+    private String title;
+
+    @Pattern(regexp = "(?s).*\\S.*", message = "Author must not be blank")
+    @Size(max = 255, message = "Author must not exceed 255 characters")
+    private String author;
+
+    private Long version;
+
+    public BookPatch() {}
+
+    public BookPatch(String title, String author) {
+        this.title = title;
+        this.author = author;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getAuthor() {
+        return author;
+    }
+
+    public void setAuthor(String author) {
+        this.author = author;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.book_management;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Single-flight for identical reads: while one caller runs a query, others
+ * asking the same thing wait for its result instead of running it again.
+ *
+ * <p>Reads only share a query when the catalog version they pass is the same,
+ * so a caller that arrives after a write never gets a result read before it.
+ * A waiter gives up after the max wait and runs the query itself; a failed
+ * query fails its waiters too. Results are shared between callers and must be
+ * treated as read-only.
+ */
+@Component
+public class BookReadCoalescer {
+
+    public enum Kind {
+        ID,
+        SEARCH
+    }
+
+    private final boolean enabled;
+    private final long maxWaitNanos;
+    private final Map<Key, CompletableFuture<Object>> flights = new ConcurrentHashMap<>();
+
+    private final Map<Kind, LongAdder> queries = new EnumMap<>(Kind.class);
+    private final Map<Kind, LongAdder> coalesced = new EnumMap<>(Kind.class);
+    private final Map<Kind, LongAdder> timeouts = new EnumMap<>(Kind.class);
+
+    @Autowired
+    public BookReadCoalescer(@Value("${books.coalescing.enabled:true}") boolean enabled,
+                             @Value("${books.coalescing.max-wait:2s}") Duration maxWait) {
+        if (maxWait.isNegative()) {
+            throw new IllegalArgumentException("Coalescing max wait cannot be negative");
+        }
+        this.enabled = enabled;
+        this.maxWaitNanos = maxWait.toNanos();
+        for (Kind kind : Kind.values()) {
+            queries.put(kind, new LongAdder());
+            coalesced.put(kind, new LongAdder());
+            timeouts.put(kind, new LongAdder());
+        }
+    }
+
+    // The loader's result, from a query already running for the same key and
+    // catalog version if there is one
+    @SuppressWarnings("unchecked")
+    public <T> T load(Kind kind, Object key, long catalogVersion, Supplier<T> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        Key flightKey = new Key(kind, key, catalogVersion);
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> running = flights.putIfAbsent(flightKey, flight);
+        if (running == null) {
+            return lead(kind, flightKey, flight, loader);
+        }
+        coalesced.get(kind).increment();
+        try {
+            return (T) running.get(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            timeouts.get(kind).increment();
+            queries.get(kind).increment();
+            return loader.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a shared query", e);
+        }
+    }
+
+    // Queries actually run, including those of waiters that timed out
+    public long getQueries(Kind kind) {
+        return queries.get(kind).sum();
+    }
+
+    // Calls that waited for another caller's query
+    public long getCoalesced(Kind kind) {
+        return coalesced.get(kind).sum();
+    }
+
+    // Waiters that gave up after the max wait and ran the query themselves
+    public long getTimeouts(Kind kind) {
+        return timeouts.get(kind).sum();
+    }
+
+    private <T> T lead(Kind kind, Key flightKey, CompletableFuture<Object> flight, Supplier<T> loader) {
+        queries.get(kind).increment();
+        try {
+            T value = loader.get();
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            flights.remove(flightKey, flight);
+        }
+    }
+
+    private static final class Key {
+
+        private final Kind kind;
+        private final Object key;
+        private final long catalogVersion;
+
+        private Key(Kind kind, Object key, long catalogVersion) {
+            this.kind = kind;
+            this.key = key;
+            this.catalogVersion = catalogVersion;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof Key that)) {
+                return false;
+            }
+            return kind == that.kind && catalogVersion == that.catalogVersion && Objects.equals(key, that.key);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(kind, key, catalogVersion);
+        }
+    }
+}
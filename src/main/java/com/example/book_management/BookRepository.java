@@ -2,14 +2,51 @@ package com.example.book_management;
 
 
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import jakarta.persistence.QueryHint;
+
+// Everything a single database can do; BookService only uses the BookStore part
 @Repository
-public interface BookRepository extends JpaRepository<Book, Long> {
+public interface BookRepository extends JpaRepository<Book, Long>, BookStore {
+    
+    // Declared again so calls are not ambiguous between the generic CrudRepository
+    // methods and their BookStore counterparts
+    @Override
+    <S extends Book> S save(S book);
+    
+    @Override
+    <S extends Book> List<S> saveAll(Iterable<S> books);
+    
+    @Override
+    Optional<Book> findById(Long id);
+    
+    @Override
+    boolean existsById(Long id);
+    
+    @Override
+    List<Book> findAllById(Iterable<Long> ids);
+    
+    @Override
+    void deleteById(Long id);
+    
+    @Override
+    void deleteAll(Iterable<? extends Book> books);
+    
+    // Keyset page: the next books after the given id, in id order
+    @Transactional(readOnly = true)
+    List<Book> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
     
    
     List<Book> findByTitleContainingIgnoreCase(String title);
@@ -17,8 +54,53 @@ public interface BookRepository extends JpaRepository<Book, Long> {
    
     List<Book> findByAuthorContainingIgnoreCase(String author);
     
+    // Prefix matches against the normalized columns. The argument must already be
+    // normalized; LIKE 'prefix%' on the indexed column is an index range scan.
+    List<Book> findByTitleNormalizedStartingWithOrderByTitleNormalizedAscIdAsc(String prefix, Limit limit);
+    
+    List<Book> findByAuthorNormalizedStartingWithOrderByAuthorNormalizedAscIdAsc(String prefix, Limit limit);
+    
+    // Forward-only stream of the whole catalog in id order, for exports.
+    // Must be consumed inside a transaction; on MySQL useCursorFetch=true (set by
+    // the mysql profile) makes the driver honour the fetch size instead of buffering all rows.
+    @Query("SELECT b FROM Book b ORDER BY b.id")
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Book> streamAllByOrderByIdAsc();
+    
     @Query("SELECT b FROM Book b WHERE " +
            "LOWER(b.title) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
            "LOWER(b.author) LIKE LOWER(CONCAT('%', :keyword, '%'))")
     List<Book> findByTitleOrAuthorContaining(@Param("keyword") String keyword);
+    
+    // Single-statement updates and delete. Each returns the number of rows changed,
+    // so 0 means there is no such book (or, for the versioned update, that it has
+    // moved past the given version). The normalized columns must be passed in,
+    // since bulk statements skip entity callbacks.
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Book b SET b.title = :title, b.author = :author, " +
+           "b.titleNormalized = :titleNormalized, b.authorNormalized = :authorNormalized, " +
+           "b.version = b.version + 1 WHERE b.id = :id")
+    int updateTitleAndAuthor(@Param("id") Long id,
+                             @Param("title") String title, @Param("author") String author,
+                             @Param("titleNormalized") String titleNormalized,
+                             @Param("authorNormalized") String authorNormalized);
+    
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Book b SET b.title = :title, b.author = :author, " +
+           "b.titleNormalized = :titleNormalized, b.authorNormalized = :authorNormalized, " +
+           "b.version = b.version + 1 WHERE b.id = :id AND b.version = :version")
+    int updateTitleAndAuthorAtVersion(@Param("id") Long id, @Param("version") Long version,
+                                      @Param("title") String title, @Param("author") String author,
+                                      @Param("titleNormalized") String titleNormalized,
+                                      @Param("authorNormalized") String authorNormalized);
+    
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Book b WHERE b.id = :id")
+    int deleteBookById(@Param("id") Long id);
 }
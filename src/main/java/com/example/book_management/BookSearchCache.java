@@ -0,0 +1,198 @@
+package com.example.book_management;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Bounded cache of search results, keyed by search type and the query
+ * trimmed and lower-cased, evicting the least recently used result once it
+ * holds max-size results or about max-memory of books.
+ *
+ * <p>Every result is stored with the catalog version it was read at and only
+ * served while the catalog is still at that version, so any add, update or
+ * delete invalidates all cached results at once. Callers pass the version
+ * taken before running the search: a result that raced with a write is stored
+ * under the old version and never served. Cached books are detached copies
+ * shared between callers and must be treated as read-only.
+ */
+@Component
+public class BookSearchCache {
+
+    public enum Type {
+        KEYWORD,
+        TITLE,
+        AUTHOR
+    }
+
+    // Map entry, key, entry and list objects around each result
+    private static final long ENTRY_OVERHEAD_BYTES = 160;
+
+    private final int maxSize;
+    private final long maxBytes;
+
+    // Access-ordered, so iteration starts at the least recently used entry; guarded by this
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long catalogVersion;
+    private long bytes;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    @Autowired
+    public BookSearchCache(@Value("${books.search-cache.max-size:1000}") int maxSize,
+                           @Value("${books.search-cache.max-memory:32MB}") DataSize maxMemory) {
+        if (maxSize < 1 || maxMemory.toBytes() < 1) {
+            throw new IllegalArgumentException("Search cache size and memory must be positive");
+        }
+        this.maxSize = maxSize;
+        this.maxBytes = maxMemory.toBytes();
+    }
+
+    // The form of a query the cache and the search itself use: search results do
+    // not depend on case, and surrounding spaces are dropped
+    public static String normalizeQuery(String query) {
+        return query != null ? query.trim().toLowerCase(Locale.ROOT) : null;
+    }
+
+    // Return the cached result for the normalized query, or run the search and cache it.
+    // A null query is passed straight through to the search.
+    public List<Book> get(Type type, String query, long catalogVersion, Supplier<List<Book>> search) {
+        if (query == null) {
+            return search.get();
+        }
+        Key key = new Key(type, query);
+        List<Book> cached = lookup(key, catalogVersion);
+        if (cached != null) {
+            hits.incrementAndGet();
+            return cached;
+        }
+        misses.incrementAndGet();
+        List<Book> books = search.get();
+        put(key, books, catalogVersion);
+        return books;
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        bytes = 0;
+    }
+
+    public synchronized BookSearchCacheStats stats() {
+        return new BookSearchCacheStats(hits.get(), misses.get(), evictions.get(), invalidations.get(),
+                entries.size(), maxSize, bytes, maxBytes);
+    }
+
+    private synchronized List<Book> lookup(Key key, long version) {
+        advanceTo(version);
+        Entry entry = entries.get(key);
+        return entry != null && entry.catalogVersion == version ? entry.books : null;
+    }
+
+    private synchronized void put(Key key, List<Book> books, long version) {
+        advanceTo(version);
+        // Read before a write that a newer caller has already seen
+        if (version < catalogVersion) {
+            return;
+        }
+        List<Book> copies = new ArrayList<>(books.size());
+        long size = ENTRY_OVERHEAD_BYTES + stringBytes(key.query);
+        for (Book book : books) {
+            copies.add(BookCache.snapshot(book));
+            size += bookBytes(book);
+        }
+        if (size > maxBytes) {
+            return;
+        }
+        Entry previous = entries.put(key, new Entry(Collections.unmodifiableList(copies), version, size));
+        if (previous != null) {
+            bytes -= previous.bytes;
+        }
+        bytes += size;
+        Iterator<Entry> eldest = entries.values().iterator();
+        while ((entries.size() > maxSize || bytes > maxBytes) && eldest.hasNext()) {
+            bytes -= eldest.next().bytes;
+            eldest.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    // Drop every result read before the catalog moved on to the given version
+    private void advanceTo(long version) {
+        if (version <= catalogVersion) {
+            return;
+        }
+        catalogVersion = version;
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next();
+            if (entry.catalogVersion < version) {
+                bytes -= entry.bytes;
+                iterator.remove();
+                invalidations.incrementAndGet();
+            }
+        }
+    }
+
+    // Book object, boxed id and version, title and author, and the list slot
+    private static long bookBytes(Book book) {
+        return 40 + 16 + 16 + 4 + stringBytes(book.getTitle()) + stringBytes(book.getAuthor());
+    }
+
+    private static long stringBytes(String text) {
+        return text != null ? 24 + 16 + text.length() : 0;
+    }
+
+    private static final class Key {
+
+        private final Type type;
+        private final String query;
+
+        private Key(Type type, String query) {
+            this.type = type;
+            this.query = query;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof Key that)) {
+                return false;
+            }
+            return type == that.type && query.equals(that.query);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(type, query);
+        }
+    }
+
+    private static final class Entry {
+
+        private final List<Book> books;
+        private final long catalogVersion;
+        private final long bytes;
+
+        private Entry(List<Book> books, long catalogVersion, long bytes) {
+            this.books = books;
+            this.catalogVersion = catalogVersion;
+            this.bytes = bytes;
+        }
+    }
+}
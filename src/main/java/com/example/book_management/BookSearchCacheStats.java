@@ -0,0 +1,68 @@
+package com.example.book_management;
+
+/**
+ * Point-in-time counters for {@link BookSearchCache}.
+ */
+public class BookSearchCacheStats {
+
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+    private final long invalidations;
+    private final int size;
+    private final int maxSize;
+    private final long estimatedBytes;
+    private final long maxBytes;
+
+    public BookSearchCacheStats(long hits, long misses, long evictions, long invalidations,
+                                int size, int maxSize, long estimatedBytes, long maxBytes) {
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.invalidations = invalidations;
+        this.size = size;
+        this.maxSize = maxSize;
+        this.estimatedBytes = estimatedBytes;
+        this.maxBytes = maxBytes;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public double getHitRate() {
+        long lookups = hits + misses;
+        return lookups > 0 ? (double) hits / lookups : 0.0;
+    }
+
+    // Results dropped to stay within maxSize and maxBytes
+    public long getEvictions() {
+        return evictions;
+    }
+
+    // Results dropped because the catalog changed after they were read
+    public long getInvalidations() {
+        return invalidations;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    // Rough heap held by the cached results
+    public long getEstimatedBytes() {
+        return estimatedBytes;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+}
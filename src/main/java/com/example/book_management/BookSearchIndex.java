@@ -0,0 +1,207 @@
+package com.example.book_management;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory inverted index over book titles and authors.
+ *
+ * <p>Each query word matches any indexed word it is a prefix of, and a book
+ * must match every query word. Results are ranked by TF-IDF, with title
+ * matches weighted above author matches and exact words above prefix
+ * completions; ties go to the lower id. The index only produces candidate
+ * ids - callers load the books themselves, so a stale entry can never leak
+ * out as a result.
+ */
+@Component
+public class BookSearchIndex {
+
+    static final int TITLE_WEIGHT = 2;
+    static final int AUTHOR_WEIGHT = 1;
+    static final double PREFIX_FACTOR = 0.5;
+
+    // Upper bound on the dictionary words a single query word may expand to
+    static final int MAX_PREFIX_EXPANSIONS = 256;
+
+    // word -> (book id -> summed field weight)
+    private final ConcurrentSkipListMap<String, Map<Long, Integer>> postings = new ConcurrentSkipListMap<>();
+
+    // book id -> indexed words, so a book can be removed without rescanning the dictionary
+    private final Map<Long, List<String>> documentTerms = new ConcurrentHashMap<>();
+
+    // Removed before the initial load reached them, so the load must not bring them back
+    private final Set<Long> removedWhileLoading = new HashSet<>();
+    private volatile boolean ready;
+
+    // Add or replace a book
+    public synchronized void index(Book book) {
+        if (book == null || book.getId() == null) {
+            return;
+        }
+        remove(book.getId());
+
+        Map<String, Integer> weights = new HashMap<>();
+        for (String token : TextNormalizer.tokenize(book.getTitle())) {
+            weights.merge(token, TITLE_WEIGHT, Integer::sum);
+        }
+        for (String token : TextNormalizer.tokenize(book.getAuthor())) {
+            weights.merge(token, AUTHOR_WEIGHT, Integer::sum);
+        }
+        weights.forEach((token, weight) ->
+                postings.computeIfAbsent(token, key -> new ConcurrentHashMap<>()).put(book.getId(), weight));
+        documentTerms.put(book.getId(), new ArrayList<>(weights.keySet()));
+    }
+
+    // Add a book read by the initial load, unless a change has already passed it by
+    public synchronized void load(Book book) {
+        if (book == null || book.getId() == null) {
+            return;
+        }
+        if (!documentTerms.containsKey(book.getId()) && !removedWhileLoading.contains(book.getId())) {
+            index(book);
+        }
+    }
+
+    // Remove a book; unknown ids are ignored
+    public synchronized void remove(Long bookId) {
+        if (bookId == null) {
+            return;
+        }
+        if (!ready) {
+            removedWhileLoading.add(bookId);
+        }
+        List<String> terms = documentTerms.remove(bookId);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms) {
+            Map<Long, Integer> ids = postings.get(term);
+            if (ids != null) {
+                ids.remove(bookId);
+                if (ids.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        postings.clear();
+        documentTerms.clear();
+        removedWhileLoading.clear();
+        ready = false;
+    }
+
+    // Ids of the best matching books, most relevant first
+    public List<Long> search(String query, int limit) {
+        List<String> tokens = TextNormalizer.tokenize(query);
+        if (tokens.isEmpty() || limit < 1) {
+            return List.of();
+        }
+
+        int documentCount = Math.max(documentTerms.size(), 1);
+        Map<Long, Double> scores = null;
+        for (String token : tokens) {
+            Map<Long, Double> tokenScores = scoreToken(token, documentCount);
+            scores = scores == null ? tokenScores : intersect(scores, tokenScores);
+            if (scores.isEmpty()) {
+                return List.of();
+            }
+        }
+        return topIds(scores, limit);
+    }
+
+    // Best score per book for one query word, over every dictionary word it prefixes
+    private Map<Long, Double> scoreToken(String token, int documentCount) {
+        Map<Long, Double> scores = new HashMap<>();
+        NavigableMap<String, Map<Long, Integer>> matches =
+                postings.subMap(token, true, token + Character.MAX_VALUE, true);
+        int expansions = 0;
+        for (Map.Entry<String, Map<Long, Integer>> entry : matches.entrySet()) {
+            if (++expansions > MAX_PREFIX_EXPANSIONS) {
+                break;
+            }
+            Map<Long, Integer> ids = entry.getValue();
+            double idf = Math.log(1.0 + (double) documentCount / Math.max(ids.size(), 1));
+            double factor = entry.getKey().equals(token) ? 1.0 : PREFIX_FACTOR;
+            ids.forEach((id, weight) -> scores.merge(id, weight * idf * factor, Math::max));
+        }
+        return scores;
+    }
+
+    private static Map<Long, Double> intersect(Map<Long, Double> left, Map<Long, Double> right) {
+        Map<Long, Double> smaller = left.size() <= right.size() ? left : right;
+        Map<Long, Double> larger = smaller == left ? right : left;
+        Map<Long, Double> result = new HashMap<>();
+        smaller.forEach((id, score) -> {
+            Double other = larger.get(id);
+            if (other != null) {
+                result.put(id, score + other);
+            }
+        });
+        return result;
+    }
+
+    private static List<Long> topIds(Map<Long, Double> scores, int limit) {
+        Comparator<Map.Entry<Long, Double>> ranking = Map.Entry.<Long, Double>comparingByValue()
+                .reversed()
+                .thenComparing(Map.Entry.comparingByKey());
+
+        // Keep only the best `limit` entries; the heap head is the worst of them
+        PriorityQueue<Map.Entry<Long, Double>> best = new PriorityQueue<>(ranking.reversed());
+        for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+            best.offer(entry);
+            if (best.size() > limit) {
+                best.poll();
+            }
+        }
+        List<Map.Entry<Long, Double>> ranked = new ArrayList<>(best);
+        ranked.sort(ranking);
+        List<Long> ids = new ArrayList<>(ranked.size());
+        for (Map.Entry<Long, Double> entry : ranked) {
+            ids.add(entry.getKey());
+        }
+        return ids;
+    }
+
+    // Whether a book (re)loaded from the database still matches the query
+    public static boolean matches(Book book, String query) {
+        List<String> words = new ArrayList<>(TextNormalizer.tokenize(book.getTitle()));
+        words.addAll(TextNormalizer.tokenize(book.getAuthor()));
+        for (String token : TextNormalizer.tokenize(query)) {
+            if (words.stream().noneMatch(word -> word.startsWith(token))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // Called once the initial load from the database has finished
+    public synchronized void markReady() {
+        removedWhileLoading.clear();
+        ready = true;
+    }
+
+    public int size() {
+        return documentTerms.size();
+    }
+
+    public int termCount() {
+        return postings.size();
+    }
+}
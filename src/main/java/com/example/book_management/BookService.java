@@ -1,70 +1,507 @@
 package com.example.book_management;
 
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 
 @Service
 public class BookService {
     
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
+    public static final int MAX_BATCH_GET_IDS = 1000;
+    
+    @Autowired
+    private BookStore bookRepository;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private BookSearchIndex searchIndex;
+    
+    @Autowired
+    private BookSuggester suggester;
+    
+    @Autowired
+    private BookCache bookCache;
+    
     @Autowired
-    private BookRepository bookRepository;
+    private CatalogVersion catalogVersion;
+    
+    @Autowired
+    private BookWriteBehind writeBehind;
+    
+    @Autowired
+    private BookChangeLog changeLog;
+    
+    @Autowired
+    private BookReadCoalescer readCoalescer;
+    
+    @Autowired
+    private BookSearchCache searchCache;
+    
+    @Autowired
+    private BookSnapshot snapshot;
+    
+    // For the synchronous update and delete paths only; queued writes need no transaction
+    @Autowired
+    private TransactionOperations transactionOperations;
+    
+    @Value("${books.search.max-results:1000}")
+    private int searchMaxResults = 1000;
     
-    // Add a new book
+    @Value("${books.batch-get.chunk-size:128}")
+    private int batchGetChunkSize = 128;
+    
+    // Add a new book, recording the change in the same transaction. Flushed
+    // first, so the change log's sequence row is not held through the insert.
+    @Transactional
     public Book addBook(Book book) {
-        return bookRepository.save(book);
+        long cacheToken = bookCache.loadToken();
+        Book savedBook = bookRepository.save(book);
+        entityManager.flush();
+        changeLog.record(List.of(BookChange.created(savedBook)));
+        cacheAfterCommit(savedBook, cacheToken);
+        nowAndAfterTransaction(catalogVersion::increment);
+        eventPublisher.publishEvent(BookChangedEvent.saved(savedBook));
+        return savedBook;
+    }
+    
+    // Add a batch of books in one transaction; Hibernate groups the inserts into
+    // JDBC batches, which are sent before the changes are recorded
+    @Transactional
+    public List<Book> addBooks(List<Book> books) {
+        List<Book> savedBooks = bookRepository.saveAll(books);
+        entityManager.flush();
+        entityManager.clear();
+        changeLog.record(savedBooks.stream().map(BookChange::created).collect(Collectors.toList()));
+        nowAndAfterTransaction(catalogVersion::increment);
+        savedBooks.forEach(book -> eventPublisher.publishEvent(BookChangedEvent.saved(book)));
+        return savedBooks;
     }
     
-    // Get all books
+    // Get all books, from the snapshot in read-serving mode. Not transactional
+    // itself, so the snapshot path takes no connection; findAll runs in its own
+    // read-only transaction.
     public List<Book> getAllBooks() {
-        return bookRepository.findAll();
+        return snapshot.isReady() ? snapshot.list() : bookRepository.findAll();
+    }
+    
+    // Get one page of books ordered by id, starting after the given cursor.
+    // Not transactional itself, like getAllBooks.
+    public BookPage getBooksPage(Long after, Integer limit) {
+        int pageSize = limit != null ? Math.min(Math.max(limit, 1), MAX_PAGE_SIZE) : DEFAULT_PAGE_SIZE;
+        long cursor = after != null ? after : 0L;
+        
+        // Fetch one extra row so we know whether another page exists
+        List<Book> books = snapshot.isReady()
+                ? snapshot.page(cursor, pageSize + 1)
+                : bookRepository.findByIdGreaterThanOrderByIdAsc(cursor, Limit.of(pageSize + 1));
+        if (books.size() > pageSize) {
+            List<Book> page = new ArrayList<>(books.subList(0, pageSize));
+            return new BookPage(page, page.get(pageSize - 1).getId());
+        }
+        return new BookPage(books, null);
     }
     
-    // Get book by ID
+    // Stream every book in id order, detaching each one once the consumer is done with it
+    @Transactional(readOnly = true)
+    public void exportBooks(Consumer<Book> consumer) {
+        try (Stream<Book> books = bookRepository.streamAllByOrderByIdAsc()) {
+            books.forEach(book -> {
+                consumer.accept(book);
+                entityManager.detach(book);
+            });
+        }
+    }
+    
+    // Get book by ID, through the read-through cache. A write-behind update or
+    // delete that has not reached the database yet is returned in its place.
+    // Not transactional itself, so cache hits cost nothing; findById runs in its
+    // own read-only transaction and can be served by a replica. Concurrent misses
+    // for the same id share one findById. In read-serving mode the snapshot
+    // answers instead of the cache and the database.
     public Optional<Book> getBookById(Long id) {
-        return bookRepository.findById(id);
+        Optional<PendingBookWrite> pendingWrite = writeBehind.pendingWrite(id);
+        if (pendingWrite.isPresent()) {
+            return pendingWrite.get().toBook();
+        }
+        if (snapshot.isReady()) {
+            return snapshot.get(id);
+        }
+        return bookCache.get(id, missing -> readCoalescer.load(BookReadCoalescer.Kind.ID, missing,
+                catalogVersion.current(), () -> bookRepository.findById(missing)));
+    }
+    
+    // Books for a batch of ids, each id once in the order first asked for, as
+    // getBookById would return them: queued write-behind changes first, then the
+    // cache, then the database with one IN query per chunk of uncached ids.
+    public BatchGetResult getBooksByIds(List<Long> ids) {
+        if (ids.size() > MAX_BATCH_GET_IDS) {
+            throw new IllegalArgumentException("At most " + MAX_BATCH_GET_IDS + " ids per batch");
+        }
+        LinkedHashSet<Long> distinct = new LinkedHashSet<>(ids);
+        if (distinct.contains(null)) {
+            throw new IllegalArgumentException("Book ids cannot be null");
+        }
+        Map<Long, Optional<Book>> pending = new HashMap<>();
+        List<Long> stored = new ArrayList<>(distinct.size());
+        for (Long id : distinct) {
+            Optional<PendingBookWrite> pendingWrite = writeBehind.pendingWrite(id);
+            if (pendingWrite.isPresent()) {
+                pending.put(id, pendingWrite.get().toBook());
+            } else {
+                stored.add(id);
+            }
+        }
+        Map<Long, Book> books = snapshot.isReady()
+                ? snapshot.getAll(stored)
+                : bookCache.getAll(stored, this::findAllByIdInChunks);
+        List<BatchGetItem> items = new ArrayList<>(distinct.size());
+        for (Long id : distinct) {
+            Book book = pending.containsKey(id) ? pending.get(id).orElse(null) : books.get(id);
+            items.add(new BatchGetItem(id, book));
+        }
+        return new BatchGetResult(items);
+    }
+    
+    public BookCacheStats getCacheStats() {
+        return bookCache.stats();
+    }
+    
+    public BookSearchCacheStats getSearchCacheStats() {
+        return searchCache.stats();
+    }
+    
+    public BookSnapshotStats getSnapshotStats() {
+        return snapshot.stats();
+    }
+    
+    // ETag of the catalog as a whole, for collection responses. Taken from the
+    // change log, so it is the same on every instance; read it before the body
+    // so a write in between moves the tag rather than hiding behind it. It is
+    // the newest committed change this instance knows of, or in read-serving
+    // mode the newest the snapshot has applied: either may trail the database,
+    // but never the body served with it.
+    public String getCatalogETag() {
+        return catalogVersion.eTag(snapshot.isReady() ? snapshot.appliedSeq() : changeLog.lastCommitted());
     }
     
-    // Search books by title
+    // Titles and author names completing the prefix, from the in-memory trie
+    public List<BookSuggestion> suggest(String prefix, int limit) {
+        return suggester.suggest(prefix, limit);
+    }
+    
+    public BookSuggesterStats getSuggesterStats() {
+        return suggester.stats();
+    }
+    
+    // Search books by title, through the search result cache
     public List<Book> searchBooksByTitle(String title) {
-        return bookRepository.findByTitleContainingIgnoreCase(title);
+        String query = BookSearchCache.normalizeQuery(title);
+        return searchCache.get(BookSearchCache.Type.TITLE, query, catalogVersion.current(),
+                () -> snapshot.isReady()
+                        ? snapshot.findByTitleContaining(query)
+                        : bookRepository.findByTitleContainingIgnoreCase(query));
     }
     
-    // Search books by author
+    // Search books by author, through the search result cache
     public List<Book> searchBooksByAuthor(String author) {
-        return bookRepository.findByAuthorContainingIgnoreCase(author);
+        String query = BookSearchCache.normalizeQuery(author);
+        return searchCache.get(BookSearchCache.Type.AUTHOR, query, catalogVersion.current(),
+                () -> snapshot.isReady()
+                        ? snapshot.findByAuthorContaining(query)
+                        : bookRepository.findByAuthorContainingIgnoreCase(query));
     }
     
-    // Search books by keyword (title or author)
+    // Books whose title starts with the prefix, ignoring case and accents, in title order
+    @Transactional(readOnly = true)
+    public List<Book> searchBooksByTitlePrefix(String prefix) {
+        return bookRepository.findByTitleNormalizedStartingWithOrderByTitleNormalizedAscIdAsc(
+            TextNormalizer.normalize(prefix), Limit.of(searchMaxResults));
+    }
+    
+    // Books whose author starts with the prefix, ignoring case and accents, in author order
+    @Transactional(readOnly = true)
+    public List<Book> searchBooksByAuthorPrefix(String prefix) {
+        return bookRepository.findByAuthorNormalizedStartingWithOrderByAuthorNormalizedAscIdAsc(
+            TextNormalizer.normalize(prefix), Limit.of(searchMaxResults));
+    }
+    
+    // Search books by keyword (title or author), most relevant first.
+    // Served from the search index once it is loaded; the index only picks ids,
+    // the books themselves are read by primary key and re-checked against the query.
+    // Results are cached per normalized keyword until the next change to the catalog,
+    // and identical concurrent misses share one query; not transactional itself, so
+    // cache hits and callers waiting for a shared query hold no connection.
     public List<Book> searchBooks(String keyword) {
-        return bookRepository.findByTitleOrAuthorContaining(keyword);
+        String query = BookSearchCache.normalizeQuery(keyword);
+        long version = catalogVersion.current();
+        return searchCache.get(BookSearchCache.Type.KEYWORD, query, version,
+                () -> readCoalescer.load(BookReadCoalescer.Kind.SEARCH, query, version, () -> runSearch(query)));
+    }
+    
+    private List<Book> runSearch(String keyword) {
+        if (!searchIndex.isReady() || TextNormalizer.tokenize(keyword).isEmpty()) {
+            return snapshot.isReady()
+                    ? snapshot.findByTitleOrAuthorContaining(keyword)
+                    : bookRepository.findByTitleOrAuthorContaining(keyword);
+        }
+        List<Long> ids = searchIndex.search(keyword, searchMaxResults);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Book> booksById = snapshot.isReady()
+                ? snapshot.getAll(ids)
+                : bookRepository.findAllById(ids).stream()
+                        .collect(Collectors.toMap(Book::getId, Function.identity()));
+        return ids.stream()
+                .map(booksById::get)
+                .filter(Objects::nonNull)
+                .filter(book -> BookSearchIndex.matches(book, keyword))
+                .collect(Collectors.toList());
     }
     
-    // Update a book
+    // Update a book with a single UPDATE statement. When bookDetails carries a
+    // version the row must still be at it, otherwise an OptimisticLockingFailureException
+    // is thrown. In write-behind mode an unconditional update is only logged and queued.
     public Book updateBook(Long id, Book bookDetails) {
         if (bookDetails == null) {
             throw new IllegalArgumentException("Book details cannot be null");
         }
-        
-        Optional<Book> optionalBook = bookRepository.findById(id);
-        if (optionalBook.isPresent()) {
-            Book book = optionalBook.get();
-            book.setTitle(bookDetails.getTitle());
-            book.setAuthor(bookDetails.getAuthor());
-            return bookRepository.save(book);
+        requireId(id);
+        if (writeBehind.isEnabled()) {
+            if (bookDetails.getVersion() == null) {
+                return updateBehind(id, bookDetails.getTitle(), bookDetails.getAuthor());
+            }
+            requireNoPendingWrite(id);
         }
-        return null;
+        return writeBook(id, bookDetails.getTitle(), bookDetails.getAuthor(), bookDetails.getVersion());
     }
     
-    // Delete a book
+    // Change only the fields the patch sets. The others come from the cached copy,
+    // and the UPDATE is guarded by that copy's version (or the patch's own), so a
+    // concurrent change is reported as a conflict instead of being overwritten.
+    public Book patchBook(Long id, BookPatch patch) {
+        if (patch == null) {
+            throw new IllegalArgumentException("Book patch cannot be null");
+        }
+        requireId(id);
+        if (writeBehind.isEnabled() && patch.getVersion() != null) {
+            requireNoPendingWrite(id);
+        }
+        Optional<Book> current = getBookById(id);
+        if (current.isEmpty()) {
+            return null;
+        }
+        String title = patch.getTitle() != null ? patch.getTitle() : current.get().getTitle();
+        String author = patch.getAuthor() != null ? patch.getAuthor() : current.get().getAuthor();
+        if (writeBehind.isEnabled() && patch.getVersion() == null) {
+            return updateBehind(id, title, author);
+        }
+        Long version = patch.getVersion() != null ? patch.getVersion() : current.get().getVersion();
+        return writeBook(id, title, author, version);
+    }
+    
+    // Delete a book with a single DELETE statement; in write-behind mode the
+    // delete is only logged and queued
     public boolean deleteBook(Long id) {
-        if (bookRepository.existsById(id)) {
-            bookRepository.deleteById(id);
+        requireId(id);
+        if (writeBehind.isEnabled()) {
+            return deleteBehind(id);
+        }
+        return Boolean.TRUE.equals(transactionOperations.execute(status -> {
+            if (bookRepository.deleteBookById(id) == 0) {
+                return false;
+            }
+            changeLog.record(List.of(BookChange.deleted(id)));
+            bookChanged(id);
+            eventPublisher.publishEvent(BookChangedEvent.deleted(id));
             return true;
+        }));
+    }
+    
+    // Apply a batch of write-behind updates and deletes in one transaction.
+    // Books deleted in the meantime are skipped.
+    @Transactional
+    public void applyWrites(List<PendingBookWrite> writes) {
+        List<Long> ids = writes.stream().map(PendingBookWrite::getBookId).collect(Collectors.toList());
+        Map<Long, Book> booksById = bookRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Book::getId, Function.identity()));
+        List<Book> updated = new ArrayList<>();
+        List<Book> deleted = new ArrayList<>();
+        for (PendingBookWrite write : writes) {
+            Book book = booksById.get(write.getBookId());
+            if (book == null) {
+                continue;
+            }
+            if (write.isDelete()) {
+                deleted.add(book);
+            } else {
+                book.setTitle(write.getTitle());
+                book.setAuthor(write.getAuthor());
+                updated.add(book);
+            }
+        }
+        // A no-op for the managed books of a single database; with shards they were
+        // loaded in each shard's own transaction and have to be merged back
+        List<Book> saved = bookRepository.saveAll(updated);
+        bookRepository.deleteAll(deleted);
+        entityManager.flush();
+        // After the flush, so the updates carry their new versions
+        List<BookChange> changes = new ArrayList<>();
+        saved.forEach(book -> changes.add(BookChange.updated(book)));
+        deleted.forEach(book -> changes.add(BookChange.deleted(book.getId())));
+        changeLog.record(changes);
+        updated.forEach(book -> {
+            bookChanged(book.getId());
+            eventPublisher.publishEvent(BookChangedEvent.saved(book));
+        });
+        deleted.forEach(book -> {
+            bookChanged(book.getId());
+            eventPublisher.publishEvent(BookChangedEvent.deleted(book.getId()));
+        });
+    }
+    
+    // Set title and author, at the given version unless it is null. The returned
+    // book carries the new version either way: without one to start from, it is
+    // read back from the row, which the update keeps locked until commit (on
+    // shards other than 0 the update has committed already, so a write in
+    // between can show through).
+    private Book writeBook(Long id, String title, String author, Long version) {
+        return transactionOperations.execute(status -> writeBookInTransaction(id, title, author, version));
+    }
+    
+    private Book writeBookInTransaction(Long id, String title, String author, Long version) {
+        String titleNormalized = Book.normalizedColumn(title);
+        String authorNormalized = Book.normalizedColumn(author);
+        int updated = version == null
+                ? bookRepository.updateTitleAndAuthor(id, title, author, titleNormalized, authorNormalized)
+                : bookRepository.updateTitleAndAuthorAtVersion(id, version, title, author,
+                        titleNormalized, authorNormalized);
+        if (updated == 0) {
+            // Only a failed versioned update needs a second look, to tell 409 from 404
+            if (version != null && bookRepository.existsById(id)) {
+                throw new OptimisticLockingFailureException("Book " + id + " is no longer at version " + version);
+            }
+            return null;
+        }
+        Book book = new Book(title, author);
+        book.setId(id);
+        if (version != null) {
+            book.setVersion(version + 1);
+        } else {
+            book.setVersion(bookRepository.findById(id).map(Book::getVersion).orElse(null));
+        }
+        changeLog.record(List.of(BookChange.updated(book)));
+        bookChanged(id);
+        eventPublisher.publishEvent(BookChangedEvent.saved(book));
+        return book;
+    }
+    
+    private Book updateBehind(Long id, String title, String author) {
+        if (getBookById(id).isEmpty()) {
+            return null;
+        }
+        PendingBookWrite write = PendingBookWrite.update(id, title, author);
+        if (!writeBehind.append(write)) {
+            return null;
+        }
+        bookChanged(id);
+        return write.toBook().orElseThrow();
+    }
+    
+    private boolean deleteBehind(Long id) {
+        if (getBookById(id).isEmpty() || !writeBehind.append(PendingBookWrite.delete(id))) {
+            return false;
+        }
+        bookChanged(id);
+        return true;
+    }
+    
+    private void requireNoPendingWrite(Long id) {
+        if (writeBehind.pendingWrite(id).isPresent()) {
+            throw new OptimisticLockingFailureException("Book " + id + " has a write that is not applied yet");
+        }
+    }
+    
+    // Each chunk is its own read-only repository call, so it can go to a replica
+    private List<Book> findAllByIdInChunks(List<Long> ids) {
+        int chunkSize = Math.max(1, batchGetChunkSize);
+        List<Book> books = new ArrayList<>(ids.size());
+        for (int from = 0; from < ids.size(); from += chunkSize) {
+            int to = Math.min(from + chunkSize, ids.size());
+            books.addAll(bookRepository.findAllById(ids.subList(from, to)));
+        }
+        return books;
+    }
+    
+    private static void requireId(Long id) {
+        if (id == null) {
+            throw new IllegalArgumentException("Book id cannot be null");
+        }
+    }
+    
+    // Drop a changed book from the cache and move the catalog version on
+    private void bookChanged(Long id) {
+        nowAndAfterTransaction(() -> {
+            bookCache.invalidate(id);
+            catalogVersion.increment();
+        });
+    }
+    
+    // Run now, and again once any surrounding transaction ends, so a reader that
+    // saw the old row in between (and cached it or its ETag) is undone
+    private void nowAndAfterTransaction(Runnable action) {
+        action.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    action.run();
+                }
+            });
+        }
+    }
+    
+    // Cache a newly added book once it is committed; a rolled-back insert is never cached
+    private void cacheAfterCommit(Book book, long cacheToken) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            bookCache.put(book, cacheToken);
+            return;
         }
-        return false;
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                bookCache.put(book, cacheToken);
+            }
+        });
     }
 }
@@ -0,0 +1,82 @@
+package com.example.book_management;
+
+import java.util.List;
+import java.util.function.Function;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * One database holding part of the catalog: a repository bound to its own
+ * persistence unit, that unit's transaction manager, and plain JDBC for
+ * inserting books whose ids were allocated up front.
+ */
+public class BookShard {
+
+    // Matches hibernate.jdbc.batch_size
+    private static final int INSERT_BATCH_SIZE = 100;
+
+    private static final String INSERT_SQL = "INSERT INTO books "
+            + "(id, title, author, title_normalized, author_normalized, version) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final int index;
+    private final BookRepository repository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readTransaction;
+    private final TransactionTemplate writeTransaction;
+    private final TransactionTemplate newTransaction;
+
+    public BookShard(int index, BookRepository repository, PlatformTransactionManager transactionManager,
+                     DataSource dataSource) {
+        this.index = index;
+        this.repository = repository;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    // Run in a read-only transaction on this shard, joining one already open on it
+    public <T> T read(Function<BookRepository, T> work) {
+        return readTransaction.execute(status -> work.apply(repository));
+    }
+
+    // Run in a read-write transaction on this shard, joining one already open on it
+    public <T> T write(Function<BookRepository, T> work) {
+        return writeTransaction.execute(status -> work.apply(repository));
+    }
+
+    // Run JDBC work in a transaction of its own that commits on return
+    public <T> T inNewTransaction(Function<JdbcTemplate, T> work) {
+        return newTransaction.execute(status -> work.apply(jdbcTemplate));
+    }
+
+    // Insert books that already carry their id, normalized columns and version
+    public void insert(List<Book> books) {
+        writeTransaction.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_SQL, books, INSERT_BATCH_SIZE,
+                (statement, book) -> {
+                    statement.setLong(1, book.getId());
+                    statement.setString(2, book.getTitle());
+                    statement.setString(3, book.getAuthor());
+                    statement.setString(4, book.getTitleNormalized());
+                    statement.setString(5, book.getAuthorNormalized());
+                    statement.setLong(6, book.getVersion());
+                }));
+    }
+
+    // Highest book id on this shard, or 0 when it is empty
+    public long maxId() {
+        Long max = jdbcTemplate.queryForObject("SELECT MAX(id) FROM books", Long.class);
+        return max != null ? max : 0L;
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.book_management;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Moves shard buckets between databases while the application keeps
+ * serving.
+ *
+ * <p>A bucket is moved with its writes held off: any rows a failed earlier
+ * attempt left on the target are removed, the bucket is copied a page at a
+ * time, and the map is switched. Reads keep going to the old shard until the
+ * switch. The old copies are only deleted once every bucket of the run has
+ * moved, so a read that picked the old shard just before a switch still
+ * finds its book; until then whole-catalog queries skip them as rows the
+ * shard no longer owns.
+ *
+ * <p>A bucket's ids are every {@link BookShards#BUCKETS}th number, so it is
+ * read and deleted a page of candidate ids at a time by primary key, up to
+ * the shard's highest id, rather than by scanning the table for it.
+ */
+public class BookShardRebalancer {
+
+    private static final Logger log = LoggerFactory.getLogger(BookShardRebalancer.class);
+
+    private static final int COPY_PAGE_SIZE = 1000;
+
+    private final BookShards shards;
+
+    public BookShardRebalancer(BookShards shards) {
+        this.shards = shards;
+    }
+
+    // Even out the buckets per shard, moving as few as possible; returns how many moved
+    public synchronized int rebalance() {
+        int shardCount = shards.all().size();
+        int[] owned = new int[shardCount];
+        for (int bucket = 0; bucket < BookShards.BUCKETS; bucket++) {
+            owned[shards.ownerOf(bucket)]++;
+        }
+        int[] target = new int[shardCount];
+        for (int shard = 0; shard < shardCount; shard++) {
+            target[shard] = BookShards.BUCKETS / shardCount + (shard < BookShards.BUCKETS % shardCount ? 1 : 0);
+        }
+
+        List<int[]> moved = new ArrayList<>();
+        int receiver = 0;
+        for (int bucket = 0; bucket < BookShards.BUCKETS; bucket++) {
+            int owner = shards.ownerOf(bucket);
+            if (owned[owner] <= target[owner]) {
+                continue;
+            }
+            while (owned[receiver] >= target[receiver]) {
+                receiver++;
+            }
+            copy(bucket, owner, receiver);
+            owned[owner]--;
+            owned[receiver]++;
+            moved.add(new int[] {bucket, owner});
+        }
+        for (int[] move : moved) {
+            deleteBucket(shards.all().get(move[1]), move[0]);
+        }
+        log.info("Rebalanced {} buckets over {} shards", moved.size(), shardCount);
+        return moved.size();
+    }
+
+    // Copy one bucket to another shard and switch it over; the source keeps its rows
+    public void copy(int bucket, int from, int to) {
+        BookShard source = shards.all().get(from);
+        BookShard target = shards.all().get(to);
+        shards.withBucketFrozen(bucket, () -> {
+            deleteBucket(target, bucket);
+            long copied = 0;
+            long maxId = source.maxId();
+            for (long after = 0; after < maxId; after += (long) COPY_PAGE_SIZE * BookShards.BUCKETS) {
+                List<Long> ids = bucketIds(bucket, after);
+                List<Book> page = source.read(repository -> repository.findAllById(ids));
+                if (!page.isEmpty()) {
+                    target.insert(page);
+                    copied += page.size();
+                }
+            }
+            shards.assign(bucket, to);
+            log.debug("Moved bucket {} ({} books) from shard {} to shard {}", bucket, copied, from, to);
+        });
+    }
+
+    private void deleteBucket(BookShard shard, int bucket) {
+        long maxId = shard.maxId();
+        for (long after = 0; after < maxId; after += (long) COPY_PAGE_SIZE * BookShards.BUCKETS) {
+            List<Long> ids = bucketIds(bucket, after);
+            shard.write(repository -> {
+                repository.deleteAllByIdInBatch(ids);
+                return null;
+            });
+        }
+    }
+
+    // The ids in the bucket among the next COPY_PAGE_SIZE * BUCKETS after the given one
+    private static List<Long> bucketIds(int bucket, long after) {
+        List<Long> ids = new ArrayList<>(COPY_PAGE_SIZE);
+        long first = after + Math.floorMod(bucket - after - 1, (long) BookShards.BUCKETS) + 1;
+        for (int i = 0; i < COPY_PAGE_SIZE; i++) {
+            ids.add(first + (long) i * BookShards.BUCKETS);
+        }
+        return ids;
+    }
+}
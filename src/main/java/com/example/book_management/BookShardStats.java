@@ -0,0 +1,30 @@
+package com.example.book_management;
+
+/**
+ * Point-in-time size of one shard in {@link BookShards}. The row count
+ * includes copies of moved buckets that are not cleaned up yet.
+ */
+public class BookShardStats {
+
+    private final int shard;
+    private final int buckets;
+    private final long rows;
+
+    public BookShardStats(int shard, int buckets, long rows) {
+        this.shard = shard;
+        this.buckets = buckets;
+        this.rows = rows;
+    }
+
+    public int getShard() {
+        return shard;
+    }
+
+    public int getBuckets() {
+        return buckets;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+}
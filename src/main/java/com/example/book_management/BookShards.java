@@ -0,0 +1,207 @@
+package com.example.book_management;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * The shards of the catalog and which one owns each book.
+ *
+ * <p>A book's bucket is its id modulo {@link #BUCKETS}; each bucket is owned
+ * by one shard. The bucket map lives in the {@code book_shard_buckets} table
+ * on shard 0, so it survives restarts and can be changed one bucket at a
+ * time by {@link BookShardRebalancer}. Writes hold their buckets' read locks,
+ * and a bucket being moved is held under its write lock, so no write lands
+ * on the old shard once the copy has started; a write inside a transaction
+ * keeps its read locks until that transaction has ended, so the copy never
+ * starts under a write that has yet to commit. Reads take no lock; the old
+ * shard stays authoritative until the map is switched.
+ *
+ * <p>The locks and the in-memory map belong to this instance: while a
+ * rebalance runs, other instances must not write, and they pick up the new
+ * map on restart.
+ */
+public class BookShards implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(BookShards.class);
+
+    public static final int BUCKETS = 1024;
+
+    private final List<BookShard> shards;
+    private final List<AutoCloseable> resources;
+    private final AtomicIntegerArray owners = new AtomicIntegerArray(BUCKETS);
+    private final ReadWriteLock[] bucketLocks = new ReadWriteLock[BUCKETS];
+    private final ExecutorService scatterExecutor;
+
+    public BookShards(List<BookShard> shards, List<AutoCloseable> resources) {
+        if (shards.isEmpty()) {
+            throw new IllegalArgumentException("At least one shard is required");
+        }
+        this.shards = List.copyOf(shards);
+        this.resources = List.copyOf(resources);
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            bucketLocks[bucket] = new ReentrantReadWriteLock();
+        }
+        AtomicLong threads = new AtomicLong();
+        this.scatterExecutor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "book-shard-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static int bucketOf(long id) {
+        return (int) Math.floorMod(id, (long) BUCKETS);
+    }
+
+    public List<BookShard> all() {
+        return shards;
+    }
+
+    // Shard 0 holds the bucket map and the id allocator as well as books
+    public BookShard home() {
+        return shards.get(0);
+    }
+
+    public BookShard shardFor(long id) {
+        return shards.get(owners.get(bucketOf(id)));
+    }
+
+    public int ownerOf(int bucket) {
+        return owners.get(bucket);
+    }
+
+    // False for leftovers of a bucket that has moved away and is not cleaned up yet
+    public boolean owns(BookShard shard, Book book) {
+        return book.getId() != null && owners.get(bucketOf(book.getId())) == shard.getIndex();
+    }
+
+    // Run the query on every shard in parallel and return the books each shard owns
+    public List<Book> scatter(Function<BookRepository, List<Book>> query) {
+        List<CompletableFuture<List<Book>>> results = new ArrayList<>();
+        for (BookShard shard : shards) {
+            results.add(CompletableFuture.supplyAsync(() -> shard.read(query).stream()
+                    .filter(book -> owns(shard, book))
+                    .collect(Collectors.toList()), scatterExecutor));
+        }
+        List<Book> books = new ArrayList<>();
+        for (CompletableFuture<List<Book>> result : results) {
+            books.addAll(result.join());
+        }
+        return books;
+    }
+
+    // Run work that writes the given books while nothing can move their buckets.
+    // Inside a transaction the locks are kept until it has ended, as shard 0's
+    // writes only commit with it.
+    public <T> T withBucketsLocked(Collection<Long> ids, Supplier<T> work) {
+        // Sorted, so two writers never wait on each other
+        TreeSet<Integer> buckets = ids.stream().map(BookShards::bucketOf).collect(Collectors.toCollection(TreeSet::new));
+        List<Lock> held = new ArrayList<>(buckets.size());
+        boolean untilCompletion = TransactionSynchronizationManager.isSynchronizationActive();
+        try {
+            for (int bucket : buckets) {
+                Lock lock = bucketLocks[bucket].readLock();
+                lock.lock();
+                held.add(lock);
+            }
+            return work.get();
+        } finally {
+            if (untilCompletion) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        held.forEach(Lock::unlock);
+                    }
+                });
+            } else {
+                held.forEach(Lock::unlock);
+            }
+        }
+    }
+
+    // Run work with every write to the bucket held off
+    public void withBucketFrozen(int bucket, Runnable work) {
+        Lock lock = bucketLocks[bucket].writeLock();
+        lock.lock();
+        try {
+            work.run();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Point a bucket at another shard, in the stored map and in memory
+    public void assign(int bucket, int shard) {
+        home().inNewTransaction(jdbc -> jdbc.update("UPDATE book_shard_buckets SET shard = ? WHERE bucket = ?",
+                shard, bucket));
+        owners.set(bucket, shard);
+    }
+
+    // Read the stored bucket map, creating it on first start. A fresh catalog is
+    // spread over every shard; an existing one stays on shard 0 until rebalanced.
+    public void loadBuckets() {
+        home().inNewTransaction(jdbc -> {
+            jdbc.execute("CREATE TABLE IF NOT EXISTS book_shard_buckets "
+                    + "(bucket INT NOT NULL PRIMARY KEY, shard INT NOT NULL)");
+            List<int[]> stored = jdbc.query("SELECT bucket, shard FROM book_shard_buckets",
+                    (row, rowNum) -> new int[] {row.getInt(1), row.getInt(2)});
+            if (stored.isEmpty()) {
+                boolean fresh = shards.stream().allMatch(shard -> shard.maxId() == 0);
+                List<Object[]> rows = new ArrayList<>(BUCKETS);
+                for (int bucket = 0; bucket < BUCKETS; bucket++) {
+                    int shard = fresh ? bucket % shards.size() : 0;
+                    rows.add(new Object[] {bucket, shard});
+                    owners.set(bucket, shard);
+                }
+                jdbc.batchUpdate("INSERT INTO book_shard_buckets (bucket, shard) VALUES (?, ?)", rows);
+                if (!fresh) {
+                    log.info("Existing catalog assigned to shard 0; rebalance to spread it over {} shards",
+                            shards.size());
+                }
+                return null;
+            }
+            if (stored.size() != BUCKETS) {
+                throw new IllegalStateException("book_shard_buckets has " + stored.size() + " rows, expected " + BUCKETS);
+            }
+            for (int[] row : stored) {
+                if (row[1] < 0 || row[1] >= shards.size()) {
+                    throw new IllegalStateException("Bucket " + row[0] + " belongs to shard " + row[1]
+                            + ", but only " + shards.size() + " shards are configured");
+                }
+                owners.set(row[0], row[1]);
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public void close() {
+        scatterExecutor.shutdownNow();
+        for (AutoCloseable resource : resources) {
+            try {
+                resource.close();
+            } catch (Exception e) {
+                log.warn("Could not close shard resource {}", resource, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.book_management;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+
+/**
+ * Shard sizes on the management port, and the rebalancing tool:
+ * {@code GET /actuator/shards} reports buckets and rows per shard,
+ * {@code POST /actuator/shards} spreads the buckets evenly.
+ */
+@Endpoint(id = "shards")
+public class BookShardsEndpoint {
+
+    private final BookShards shards;
+    private final BookShardRebalancer rebalancer;
+
+    public BookShardsEndpoint(BookShards shards, BookShardRebalancer rebalancer) {
+        this.shards = shards;
+        this.rebalancer = rebalancer;
+    }
+
+    @ReadOperation
+    public List<BookShardStats> stats() {
+        int[] buckets = new int[shards.all().size()];
+        for (int bucket = 0; bucket < BookShards.BUCKETS; bucket++) {
+            buckets[shards.ownerOf(bucket)]++;
+        }
+        List<BookShardStats> stats = new ArrayList<>();
+        for (BookShard shard : shards.all()) {
+            stats.add(new BookShardStats(shard.getIndex(), buckets[shard.getIndex()],
+                    shard.read(BookRepository::count)));
+        }
+        return stats;
+    }
+
+    @WriteOperation
+    public List<BookShardStats> rebalance() {
+        rebalancer.rebalance();
+        return stats();
+    }
+}
@@ -0,0 +1,676 @@
+package com.example.book_management;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Read-serving copy of the whole catalog, kept off the Java heap in
+ * memory-mapped columns so millions of books cost the heap next to nothing.
+ *
+ * <p>Rows are sorted by id. The ids themselves are kept on the heap in a
+ * {@link LongSortedIndex}, a single primitive array of 8 bytes per book
+ * that the GC never traces; a book's position there is its row in the
+ * off-heap columns. Versions are a fixed-width long column; titles and
+ * authors are UTF-8 bytes appended to a shared string arena, mapped in
+ * chunks of up to 1 GB, and each row points into it through an offset table
+ * entry holding a 40-bit offset and a 24-bit length.
+ * Lookups by id are binary searches, pages are range scans, and a
+ * {@link Book} is only built for the rows actually returned; substring
+ * searches compare ASCII text in place and only decode rows that hold other
+ * characters. An update
+ * appends the new strings and leaves the old bytes behind as garbage; once
+ * garbage outweighs the live strings the arena is rewritten. A delete only
+ * marks its row, so readers are not held up while every row above it moves
+ * down; once a quarter of the rows are marked they are dropped in one pass.
+ *
+ * <p>Filled by {@link BookCatalogLoader} at startup and then kept in step with
+ * the {@link BookChangeLog} by {@link BookSnapshotRefresher}, so it sees the
+ * writes of every instance. Serves nothing until that load has finished, and
+ * does nothing at all unless {@code books.snapshot.enabled} is set.
+ */
+@Component
+public class BookSnapshot {
+
+    private static final Logger log = LoggerFactory.getLogger(BookSnapshot.class);
+
+    private static final int LONG_BYTES = Long.BYTES;
+    private static final long NO_VERSION = -1;
+    // Version column value of a deleted row
+    private static final long DELETED = Long.MIN_VALUE;
+    private static final int NULL_LENGTH = -1;
+    private static final int AVERAGE_STRING_BYTES = 32;
+
+    // Offset table entries keep the length in the low bits, all ones meaning null
+    private static final int LENGTH_BITS = 24;
+    private static final int NULL_REF_LENGTH = (1 << LENGTH_BITS) - 1;
+    private static final long ARENA_CHUNK_BYTES = 1L << 30;
+
+    // Below this much garbage the arena is never rewritten
+    private static final long MIN_COMPACT_BYTES = 1 << 20;
+    // Below this many deleted rows the rows are never compacted
+    private static final int MIN_COMPACT_ROWS = 1024;
+
+    private final boolean enabled;
+    private final Path directory;
+    private final int initialCapacity;
+    private final long chunkBytes;
+
+    // Guards every field below
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Path files;
+    private LongSortedIndex ids = new LongSortedIndex(1);
+    private MappedRegion versions;
+    private MappedRegion titles;
+    private MappedRegion authors;
+    private List<MappedRegion> strings = new ArrayList<>();
+    private long stringBytes;
+    private long garbageBytes;
+    private long compactions;
+    private int deletedRows;
+    private long appliedSeq;
+
+    private volatile boolean ready;
+
+    @Autowired
+    public BookSnapshot(@Value("${books.snapshot.enabled:false}") boolean enabled,
+                        @Value("${books.snapshot.directory:data/snapshot}") Path directory,
+                        @Value("${books.snapshot.initial-capacity:65536}") int initialCapacity) {
+        this(enabled, directory, initialCapacity, ARENA_CHUNK_BYTES);
+    }
+
+    // With smaller arena chunks, so tests can cross from one to the next
+    BookSnapshot(boolean enabled, Path directory, int initialCapacity, long chunkBytes) {
+        if (initialCapacity < 1) {
+            throw new IllegalArgumentException("Snapshot initial capacity must be positive");
+        }
+        if (chunkBytes < 1 || chunkBytes > ARENA_CHUNK_BYTES) {
+            throw new IllegalArgumentException("Snapshot arena chunks must be 1 byte to 1 GB");
+        }
+        this.enabled = enabled;
+        this.directory = directory;
+        this.initialCapacity = initialCapacity;
+        this.chunkBytes = chunkBytes;
+    }
+
+    // Map empty columns in a directory of their own, so instances never share files
+    @PostConstruct
+    public void open() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            Files.createDirectories(directory);
+            files = Files.createTempDirectory(directory, "books-");
+            long columnBytes = (long) initialCapacity * LONG_BYTES;
+            ids = new LongSortedIndex(initialCapacity);
+            versions = new MappedRegion(files.resolve("versions"), columnBytes);
+            titles = new MappedRegion(files.resolve("title-offsets"), columnBytes);
+            authors = new MappedRegion(files.resolve("author-offsets"), columnBytes);
+            strings = new ArrayList<>();
+            strings.add(newChunk(0, 0));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            ready = false;
+            if (files == null) {
+                return;
+            }
+            for (MappedRegion region : List.of(versions, titles, authors)) {
+                region.close();
+            }
+            closeAll(strings);
+            Files.deleteIfExists(files);
+            files = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Whether reads can be served from here
+    public boolean isReady() {
+        return ready;
+    }
+
+    // Called once the load from the database has caught up with the change log
+    public void markReady() {
+        if (!enabled || ready) {
+            return;
+        }
+        ready = true;
+        log.info("Catalog snapshot serving {} books", size());
+    }
+
+    // Drop every book and stop serving, ahead of loading the catalog again
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            ready = false;
+            // The mapped regions stay, to be written over from the start
+            ids = new LongSortedIndex(initialCapacity);
+            stringBytes = 0;
+            garbageBytes = 0;
+            deletedRows = 0;
+            appliedSeq = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Add a book read by the initial load, unless a change has already passed it by
+    public void load(Book book) {
+        if (!enabled || book == null || book.getId() == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            int row = ids.indexOf(book.getId());
+            if (row < 0) {
+                insert(-row - 1, book);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Apply a page read from the change log, in order. The rows the load read
+    // may already hold changes up to unsureThrough; replaying those is harmless,
+    // except that an update without a version cannot tell whether the row has
+    // already moved on for it, so the row is left without a version instead.
+    public void apply(BookChangePage page, long unsureThrough) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            for (BookChange change : page.getChanges()) {
+                if (change.getType() == BookChange.Type.DELETED) {
+                    delete(change.getBookId());
+                } else {
+                    Book book = new Book(change.getTitle(), change.getAuthor());
+                    book.setId(change.getBookId());
+                    book.setVersion(change.getVersion());
+                    update(book, change.getVersion() == null && change.getSeq() <= unsureThrough);
+                }
+            }
+            appliedSeq = Math.max(appliedSeq, page.getNextSince());
+            compactRowsIfSparse();
+            compactIfWasteful();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Sequence number of the newest change applied; the rows may be newer still
+    public long appliedSeq() {
+        lock.readLock().lock();
+        try {
+            return appliedSeq;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Add or replace a book, unless the copy here is already at a later version.
+    // A book without a version comes from an unconditional UPDATE logged before
+    // those read their version back; it moved the row exactly one version on.
+    public void put(Book book) {
+        if (!enabled || book == null || book.getId() == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            update(book, false);
+            compactIfWasteful();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Remove a book; unknown ids are ignored once the load has finished
+    public void remove(Long bookId) {
+        if (!enabled || bookId == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            delete(bookId);
+            compactRowsIfSparse();
+            compactIfWasteful();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Optional<Book> get(Long id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        lock.readLock().lock();
+        try {
+            int row = ids.indexOf(id);
+            return row >= 0 && !deleted(row) ? Optional.of(read(row)) : Optional.empty();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // The books found for the given ids; missing ids are left out
+    public Map<Long, Book> getAll(Collection<Long> bookIds) {
+        Map<Long, Book> books = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            for (Long id : bookIds) {
+                int row = id != null ? ids.indexOf(id) : -1;
+                if (row >= 0 && !deleted(row)) {
+                    books.put(id, read(row));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return books;
+    }
+
+    // Every book, in id order
+    public List<Book> list() {
+        lock.readLock().lock();
+        try {
+            List<Book> books = new ArrayList<>(ids.size() - deletedRows);
+            for (int row = 0; row < ids.size(); row++) {
+                if (!deleted(row)) {
+                    books.add(read(row));
+                }
+            }
+            return books;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Up to limit books with an id above the cursor, in id order
+    public List<Book> page(long after, int limit) {
+        lock.readLock().lock();
+        try {
+            List<Book> books = new ArrayList<>(Math.max(Math.min(limit, ids.size()), 0));
+            for (int row = ids.firstAbove(after); row < ids.size() && books.size() < limit; row++) {
+                if (!deleted(row)) {
+                    books.add(read(row));
+                }
+            }
+            return books;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Substring matches ignoring case, in id order, like the repository's LIKE queries
+    public List<Book> findByTitleContaining(String query) {
+        return scan(query, true, false);
+    }
+
+    public List<Book> findByAuthorContaining(String query) {
+        return scan(query, false, true);
+    }
+
+    public List<Book> findByTitleOrAuthorContaining(String query) {
+        return scan(query, true, true);
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return ids.size() - deletedRows;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public BookSnapshotStats stats() {
+        lock.readLock().lock();
+        try {
+            long mapped = 0;
+            if (files != null) {
+                for (MappedRegion region : List.of(versions, titles, authors)) {
+                    mapped += region.capacity();
+                }
+                for (MappedRegion chunk : strings) {
+                    mapped += chunk.capacity();
+                }
+            }
+            return new BookSnapshotStats(ready, ids.size() - deletedRows, mapped, stringBytes - garbageBytes,
+                    garbageBytes, compactions, deletedRows, appliedSeq);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<Book> scan(String query, boolean title, boolean author) {
+        if (query == null) {
+            return List.of();
+        }
+        String needle = query.toLowerCase(Locale.ROOT);
+        byte[] needleBytes = needle.getBytes(StandardCharsets.UTF_8);
+        boolean asciiNeedle = needleBytes.length == needle.length();
+        List<Book> books = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (int row = 0; row < ids.size(); row++) {
+                int position = row * LONG_BYTES;
+                if (deleted(row)) {
+                    continue;
+                }
+                if ((title && contains(titles.getLong(position), needle, needleBytes, asciiNeedle))
+                        || (author && contains(authors.getLong(position), needle, needleBytes, asciiNeedle))) {
+                    books.add(read(row));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return books;
+    }
+
+    // Whether the string contains the lower-cased needle, ignoring case. ASCII
+    // bytes are folded and compared where they lie in the arena; a string with
+    // other characters is decoded, since lower-casing those is not bytewise.
+    private boolean contains(long ref, String needle, byte[] needleBytes, boolean asciiNeedle) {
+        int length = length(ref);
+        if (length == NULL_LENGTH) {
+            return false;
+        }
+        if (needleBytes.length == 0) {
+            return true;
+        }
+        MappedRegion chunk = chunk(offset(ref));
+        int start = position(offset(ref));
+        boolean ascii = true;
+        for (int i = 0; i < length; i++) {
+            byte b = chunk.get(start + i);
+            if (b < 0) {
+                ascii = false;
+                break;
+            }
+            if (asciiNeedle && i + needleBytes.length <= length && matchesAt(chunk, start + i, needleBytes)) {
+                return true;
+            }
+        }
+        if (ascii) {
+            // An ASCII string lower-cases to ASCII, so it cannot hold any other needle
+            return false;
+        }
+        String text = readString(ref);
+        return text.toLowerCase(Locale.ROOT).contains(needle);
+    }
+
+    private static boolean matchesAt(MappedRegion chunk, int position, byte[] needleBytes) {
+        for (int j = 0; j < needleBytes.length; j++) {
+            byte b = chunk.get(position + j);
+            if (b >= 'A' && b <= 'Z') {
+                b += 'a' - 'A';
+            }
+            if (b != needleBytes[j]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void update(Book book, boolean unsure) {
+        int row = ids.indexOf(book.getId());
+        if (row < 0) {
+            insert(-row - 1, book);
+            return;
+        }
+        long version = versions.getLong(row * LONG_BYTES);
+        if (version == DELETED) {
+            deletedRows--;
+        } else if (book.getVersion() != null && version != NO_VERSION && book.getVersion() < version) {
+            return;
+        }
+        release(row);
+        write(row, book);
+        if (book.getVersion() == null && version >= 0 && !unsure) {
+            versions.putLong(row * LONG_BYTES, version + 1);
+        }
+    }
+
+    // Mark a book's row deleted. While loading, an id the load has not reached
+    // yet gets a deleted row too, so the load skips it.
+    private void delete(Long bookId) {
+        int row = ids.indexOf(bookId);
+        if (row < 0) {
+            if (ready) {
+                return;
+            }
+            row = -row - 1;
+            Book placeholder = new Book(null, null);
+            placeholder.setId(bookId);
+            insert(row, placeholder);
+        } else if (deleted(row)) {
+            return;
+        }
+        release(row);
+        int position = row * LONG_BYTES;
+        versions.putLong(position, DELETED);
+        titles.putLong(position, ref(0, NULL_LENGTH));
+        authors.putLong(position, ref(0, NULL_LENGTH));
+        deletedRows++;
+    }
+
+    private boolean deleted(int row) {
+        return versions.getLong(row * LONG_BYTES) == DELETED;
+    }
+
+    // Drop the deleted rows in one pass once they are a quarter of all rows.
+    // Not while loading, when they still keep the load from reviving books.
+    private void compactRowsIfSparse() {
+        if (!ready || deletedRows < MIN_COMPACT_ROWS || deletedRows * 4L < ids.size()) {
+            return;
+        }
+        LongSortedIndex live = new LongSortedIndex(ids.size() - deletedRows);
+        for (int row = 0; row < ids.size(); row++) {
+            int from = row * LONG_BYTES;
+            long version = versions.getLong(from);
+            if (version == DELETED) {
+                continue;
+            }
+            int to = live.size() * LONG_BYTES;
+            if (to != from) {
+                versions.putLong(to, version);
+                titles.putLong(to, titles.getLong(from));
+                authors.putLong(to, authors.getLong(from));
+            }
+            live.insertAt(live.size(), ids.get(row));
+        }
+        ids = live;
+        deletedRows = 0;
+    }
+
+    // New ids are almost always the highest yet and simply appended; anything
+    // else shifts the rows above it up by one
+    private void insert(int row, Book book) {
+        long columnBytes = (long) (ids.size() + 1) * LONG_BYTES;
+        int tail = (ids.size() - row) * LONG_BYTES;
+        for (MappedRegion column : List.of(versions, titles, authors)) {
+            column.ensureCapacity(columnBytes);
+            column.move(row * LONG_BYTES, (row + 1) * LONG_BYTES, tail);
+        }
+        ids.insertAt(row, book.getId());
+        write(row, book);
+    }
+
+    private void write(int row, Book book) {
+        int position = row * LONG_BYTES;
+        versions.putLong(position, book.getVersion() != null ? book.getVersion() : NO_VERSION);
+        titles.putLong(position, appendString(book.getTitle()));
+        authors.putLong(position, appendString(book.getAuthor()));
+    }
+
+    private Book read(int row) {
+        int position = row * LONG_BYTES;
+        Book book = new Book(readString(titles.getLong(position)), readString(authors.getLong(position)));
+        book.setId(ids.get(row));
+        long version = versions.getLong(position);
+        book.setVersion(version != NO_VERSION ? version : null);
+        return book;
+    }
+
+    // Count a row's strings as garbage before they are replaced or removed
+    private void release(int row) {
+        int position = row * LONG_BYTES;
+        garbageBytes += Math.max(length(titles.getLong(position)), 0);
+        garbageBytes += Math.max(length(authors.getLong(position)), 0);
+    }
+
+    private long appendString(String text) {
+        if (text == null) {
+            return ref(0, NULL_LENGTH);
+        }
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        long offset = reserve(bytes.length);
+        chunk(offset).put(position(offset), bytes);
+        return ref(offset, bytes.length);
+    }
+
+    // Arena offset for a string of the given length, in a new chunk when it does
+    // not fit in what is left of the current one
+    private long reserve(int length) {
+        if (length >= NULL_REF_LENGTH || length > chunkBytes) {
+            throw new IllegalArgumentException("A " + length + "-byte string does not fit the catalog snapshot");
+        }
+        long offset = stringBytes;
+        long room = chunkBytes - offset % chunkBytes;
+        if (length > room) {
+            garbageBytes += room;
+            offset += room;
+        }
+        int index = (int) (offset / chunkBytes);
+        if (index == strings.size()) {
+            strings.add(newChunk(compactions, index));
+        }
+        strings.get(index).ensureCapacity(position(offset) + (long) length);
+        stringBytes = offset + length;
+        return offset;
+    }
+
+    // Chunks are named by compaction, so a rewrite never opens a file still in use
+    private MappedRegion newChunk(long generation, int index) {
+        try {
+            return new MappedRegion(files.resolve("strings-" + generation + "-" + index),
+                    Math.min((long) initialCapacity * AVERAGE_STRING_BYTES, chunkBytes));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not map another catalog snapshot string chunk", e);
+        }
+    }
+
+    private MappedRegion chunk(long offset) {
+        return strings.get((int) (offset / chunkBytes));
+    }
+
+    private int position(long offset) {
+        return (int) (offset % chunkBytes);
+    }
+
+    private String readString(long ref) {
+        int length = length(ref);
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        chunk(offset(ref)).get(position(offset(ref)), bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // Copy the live strings into a fresh arena once most of the current one is garbage
+    private void compactIfWasteful() {
+        if (garbageBytes < MIN_COMPACT_BYTES || garbageBytes * 2 < stringBytes) {
+            return;
+        }
+        MappedRegion first;
+        try {
+            first = newChunk(compactions + 1, 0);
+        } catch (UncheckedIOException e) {
+            log.warn("Could not compact the catalog snapshot's strings", e);
+            return;
+        }
+        List<MappedRegion> previous = strings;
+        compactions++;
+        strings = new ArrayList<>();
+        strings.add(first);
+        stringBytes = 0;
+        garbageBytes = 0;
+        for (int row = 0; row < ids.size(); row++) {
+            int position = row * LONG_BYTES;
+            titles.putLong(position, copyString(previous, titles.getLong(position)));
+            authors.putLong(position, copyString(previous, authors.getLong(position)));
+        }
+        closeAll(previous);
+    }
+
+    private long copyString(List<MappedRegion> from, long ref) {
+        int length = length(ref);
+        if (length == NULL_LENGTH) {
+            return ref;
+        }
+        byte[] bytes = new byte[length];
+        from.get((int) (offset(ref) / chunkBytes)).get(position(offset(ref)), bytes);
+        long offset = reserve(length);
+        chunk(offset).put(position(offset), bytes);
+        return ref(offset, length);
+    }
+
+    private void closeAll(List<MappedRegion> chunks) {
+        for (MappedRegion chunk : chunks) {
+            try {
+                chunk.close();
+            } catch (IOException e) {
+                log.warn("Could not delete a catalog snapshot string chunk", e);
+            }
+        }
+    }
+
+    // Offset table entry: arena offset in the high 40 bits, byte length in the low 24
+    private static long ref(long offset, int length) {
+        return (offset << LENGTH_BITS) | (length == NULL_LENGTH ? NULL_REF_LENGTH : length);
+    }
+
+    private static long offset(long ref) {
+        return ref >>> LENGTH_BITS;
+    }
+
+    private static int length(long ref) {
+        int length = (int) (ref & NULL_REF_LENGTH);
+        return length == NULL_REF_LENGTH ? NULL_LENGTH : length;
+    }
+}
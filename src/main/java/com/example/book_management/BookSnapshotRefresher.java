@@ -0,0 +1,149 @@
+package com.example.book_management;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Keeps the {@link BookSnapshot} in step with the {@link BookChangeLog}, so a
+ * read-serving instance also sees the writes taken by the other instances.
+ * Changes are applied in log order from the cursor taken before the initial
+ * load, whenever a transaction on this instance has recorded some, on its own
+ * thread once it has ended, so a client reads its writes back from here at
+ * once; and every refresh interval, which picks up everyone else's.
+ *
+ * <p>If the log has been pruned past the cursor, the snapshot stops serving
+ * and is loaded from the database again. If the log cannot be read, the
+ * snapshot keeps serving what it has and the next refresh tries again; if the
+ * snapshot itself fails to take the changes (out of disk, say), it stops
+ * serving for good and reads go to the database.
+ */
+@Component
+public class BookSnapshotRefresher {
+
+    private static final Logger log = LoggerFactory.getLogger(BookSnapshotRefresher.class);
+
+    private static final int PAGE_SIZE = 1000;
+
+    private final BookService bookService;
+    private final BookChangeLog changeLog;
+    private final BookSnapshot snapshot;
+    private final Duration interval;
+    private final TransactionTemplate newTransaction;
+
+    // Guarded by this
+    private long cursor;
+    private long unsureThrough;
+    private boolean reloadPending;
+    private ScheduledExecutorService scheduler;
+
+    private volatile boolean following;
+
+    @Autowired
+    public BookSnapshotRefresher(BookService bookService, BookChangeLog changeLog, BookSnapshot snapshot,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${books.snapshot.refresh-interval:1s}") Duration interval) {
+        if (interval.isNegative() || interval.isZero()) {
+            throw new IllegalArgumentException("Snapshot refresh interval must be positive");
+        }
+        this.bookService = bookService;
+        this.changeLog = changeLog;
+        this.snapshot = snapshot;
+        this.interval = interval;
+        // Changes are also read after a transaction has ended, when only a new one may be started
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        changeLog.addListener(this::refresh);
+    }
+
+    // Apply the changes after since, which was taken before the snapshot was
+    // loaded, start serving from it and keep following the log
+    public synchronized void start(long since) {
+        if (!snapshot.isEnabled() || scheduler != null) {
+            return;
+        }
+        cursor = since;
+        unsureThrough = changeLog.latest();
+        catchUp();
+        following = true;
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "book-snapshot-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::refresh, interval.toMillis(), interval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        following = false;
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    // Apply every change logged so far
+    public synchronized void refresh() {
+        if (!following) {
+            return;
+        }
+        try {
+            catchUp();
+        } catch (DataAccessException | TransactionException e) {
+            log.warn("Could not bring the catalog snapshot up to date; it stays at change {}", cursor, e);
+        } catch (RuntimeException e) {
+            following = false;
+            snapshot.clear();
+            log.error("Catalog snapshot failed at change {}; reads fall back to the database", cursor, e);
+        }
+    }
+
+    private void catchUp() {
+        if (reloadPending) {
+            reload();
+        }
+        while (true) {
+            long since = cursor;
+            BookChangePage page = newTransaction.execute(status -> changeLog.read(since, PAGE_SIZE));
+            if (page == null) {
+                reload();
+                continue;
+            }
+            snapshot.apply(page, unsureThrough);
+            cursor = page.getNextSince();
+            if (page.getChanges().size() < PAGE_SIZE) {
+                snapshot.markReady();
+                return;
+            }
+        }
+    }
+
+    // The rows exported may already hold any change logged before the export ended
+    private void reload() {
+        log.warn("Changes after {} have been pruned; loading the catalog snapshot again", cursor);
+        snapshot.clear();
+        // Until a load completes, no change may be applied over a partial one
+        reloadPending = true;
+        newTransaction.executeWithoutResult(status -> {
+            cursor = changeLog.latest();
+            bookService.exportBooks(snapshot::load);
+            unsureThrough = changeLog.latest();
+        });
+        reloadPending = false;
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.book_management;
+
+/**
+ * Point-in-time size of the {@link BookSnapshot}.
+ */
+public class BookSnapshotStats {
+
+    private final boolean ready;
+    private final int books;
+    private final long mappedBytes;
+    private final long stringBytes;
+    private final long garbageBytes;
+    private final long compactions;
+    private final int deletedRows;
+    private final long appliedSeq;
+
+    public BookSnapshotStats(boolean ready, int books, long mappedBytes, long stringBytes,
+                             long garbageBytes, long compactions, int deletedRows, long appliedSeq) {
+        this.ready = ready;
+        this.books = books;
+        this.mappedBytes = mappedBytes;
+        this.stringBytes = stringBytes;
+        this.garbageBytes = garbageBytes;
+        this.compactions = compactions;
+        this.deletedRows = deletedRows;
+        this.appliedSeq = appliedSeq;
+    }
+
+    // Whether reads are being served from the snapshot
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int getBooks() {
+        return books;
+    }
+
+    // Off-heap bytes mapped for all columns, used or not
+    public long getMappedBytes() {
+        return mappedBytes;
+    }
+
+    // UTF-8 bytes of the titles and authors still referenced
+    public long getStringBytes() {
+        return stringBytes;
+    }
+
+    // Bytes of replaced or deleted strings, reclaimed by the next compaction
+    public long getGarbageBytes() {
+        return garbageBytes;
+    }
+
+    public long getCompactions() {
+        return compactions;
+    }
+
+    // Rows of deleted books, dropped once they are a quarter of all rows
+    public int getDeletedRows() {
+        return deletedRows;
+    }
+
+    // Newest change-log sequence number applied to the snapshot
+    public long getAppliedSeq() {
+        return appliedSeq;
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.book_management;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.springframework.data.domain.Limit;
+
+/**
+ * The book storage {@link BookService} works against: the part of
+ * {@link BookRepository} that means the same on one database and spread over
+ * shards. {@link BookRepository} is one and {@link ShardedBookRepository}
+ * the other, so sorting, paging, query by example and batch deletes, which
+ * only make sense on a single database, are not even there to call on the
+ * sharded one. Queries and statements are documented on {@link BookRepository}.
+ */
+public interface BookStore {
+
+    <S extends Book> S save(S book);
+
+    <S extends Book> List<S> saveAll(Iterable<S> books);
+
+    Optional<Book> findById(Long id);
+
+    boolean existsById(Long id);
+
+    List<Book> findAllById(Iterable<Long> ids);
+
+    List<Book> findAll();
+
+    long count();
+
+    void deleteById(Long id);
+
+    void deleteAll(Iterable<? extends Book> books);
+
+    void deleteAll();
+
+    List<Book> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    List<Book> findByTitleContainingIgnoreCase(String title);
+
+    List<Book> findByAuthorContainingIgnoreCase(String author);
+
+    List<Book> findByTitleNormalizedStartingWithOrderByTitleNormalizedAscIdAsc(String prefix, Limit limit);
+
+    List<Book> findByAuthorNormalizedStartingWithOrderByAuthorNormalizedAscIdAsc(String prefix, Limit limit);
+
+    List<Book> findByTitleOrAuthorContaining(String keyword);
+
+    Stream<Book> streamAllByOrderByIdAsc();
+
+    int updateTitleAndAuthor(Long id, String title, String author, String titleNormalized, String authorNormalized);
+
+    int updateTitleAndAuthorAtVersion(Long id, Long version, String title, String author,
+                                      String titleNormalized, String authorNormalized);
+
+    int deleteBookById(Long id);
+}
@@ -0,0 +1,506 @@
+package com.example.book_management;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Typeahead over book titles and author names, held in a radix trie.
+ *
+ * <p>Every distinct title and author (after {@link TextNormalizer} folding)
+ * is one phrase, counted once per book that has it. A phrase is reachable
+ * from the start of each of its words, so "prog" completes "Java
+ * Programming". Each trie node records the highest phrase count below it,
+ * which lets a best-first walk stop after about {@code limit} phrases
+ * however large the subtree is. Results are ordered by count, then by the
+ * completed text.
+ *
+ * <p>Chains of single-child nodes are collapsed into one edge, and children
+ * are kept in sorted arrays rather than maps, so the trie stays close to the
+ * size of the text it holds.
+ */
+@Component
+public class BookSuggester {
+
+    public static final int MAX_LIMIT = 50;
+
+    private static final char[] EMPTY_EDGE = new char[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Guarded by lock
+    private final Node root = new Node(EMPTY_EDGE);
+    private final Map<String, Phrase> phrases = new HashMap<>();
+    private final Map<Long, Phrase[]> bookPhrases = new HashMap<>();
+    private int nodeCount = 1;
+
+    // Removed before the initial load reached them, so the load must not bring them back
+    private final Set<Long> removedWhileLoading = new HashSet<>();
+    private boolean loaded;
+
+    // Add or replace a book's title and author
+    public void add(Book book) {
+        if (book == null || book.getId() == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            removeLocked(book.getId());
+            Phrase title = acquire(BookSuggestion.Type.TITLE, book.getTitle());
+            Phrase author = acquire(BookSuggestion.Type.AUTHOR, book.getAuthor());
+            bookPhrases.put(book.getId(), new Phrase[] {title, author});
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Add a book read by the initial load, unless a change has already passed it by
+    public void load(Book book) {
+        if (book == null || book.getId() == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (!bookPhrases.containsKey(book.getId()) && !removedWhileLoading.contains(book.getId())) {
+                Phrase title = acquire(BookSuggestion.Type.TITLE, book.getTitle());
+                Phrase author = acquire(BookSuggestion.Type.AUTHOR, book.getAuthor());
+                bookPhrases.put(book.getId(), new Phrase[] {title, author});
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Called once the initial load from the database has finished
+    public void markLoaded() {
+        lock.writeLock().lock();
+        try {
+            removedWhileLoading.clear();
+            loaded = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Remove a book; unknown ids are ignored
+    public void remove(Long bookId) {
+        if (bookId == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (!loaded) {
+                removedWhileLoading.add(bookId);
+            }
+            removeLocked(bookId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            root.children = NO_CHILDREN;
+            root.phrases = null;
+            root.best = 0;
+            phrases.clear();
+            bookPhrases.clear();
+            nodeCount = 1;
+            removedWhileLoading.clear();
+            loaded = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Up to limit completions of the prefix, most common first
+    public List<BookSuggestion> suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+        if (key == null || key.isEmpty() || limit < 1) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            int i = 0;
+            while (i < key.length()) {
+                node = node.child(key.charAt(i));
+                if (node == null) {
+                    return List.of();
+                }
+                // The prefix may end part-way along an edge
+                int matched = matchLength(node.edge, key, i);
+                if (matched < node.edge.length && i + matched < key.length()) {
+                    return List.of();
+                }
+                i += matched;
+            }
+            return collect(node, Math.min(limit, MAX_LIMIT));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public BookSuggesterStats stats() {
+        lock.readLock().lock();
+        try {
+            long bytes = 0;
+            for (Phrase phrase : phrases.values()) {
+                // Phrase object, its display and key strings, and its phrase map entry
+                bytes += 24 + stringBytes(phrase.text) + stringBytes(phrase.key) + 32;
+            }
+            // Book map entries, boxed ids and their two-phrase arrays
+            bytes += bookPhrases.size() * (32L + 16 + 24);
+            bytes += nodeBytes(root);
+            return new BookSuggesterStats(phrases.size(), nodeCount, bytes);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Best-first walk: nodes are ranked by the best count beneath them, phrases by
+    // their own count. Among equals, phrases come out first (by text) and nodes are
+    // taken depth-first in label order, so the walk only goes as deep as it must.
+    private List<BookSuggestion> collect(Node start, int limit) {
+        PriorityQueue<Candidate> queue = new PriorityQueue<>(Candidate.ORDER);
+        long sequence = 0;
+        queue.add(new Candidate(start.best, start, null, sequence++));
+        List<BookSuggestion> results = new ArrayList<>(limit);
+        Set<Phrase> seen = new HashSet<>();
+        while (!queue.isEmpty() && results.size() < limit) {
+            Candidate candidate = queue.poll();
+            if (candidate.phrase != null) {
+                if (seen.add(candidate.phrase)) {
+                    Phrase phrase = candidate.phrase;
+                    results.add(new BookSuggestion(phrase.text, phrase.type, phrase.count));
+                }
+                continue;
+            }
+            Node node = candidate.node;
+            if (node.phrases != null) {
+                for (Phrase phrase : node.phrases) {
+                    queue.add(new Candidate(phrase.count, null, phrase, sequence++));
+                }
+            }
+            for (int i = node.children.length - 1; i >= 0; i--) {
+                queue.add(new Candidate(node.children[i].best, node.children[i], null, sequence++));
+            }
+        }
+        return results;
+    }
+
+    private void removeLocked(Long bookId) {
+        Phrase[] previous = bookPhrases.remove(bookId);
+        if (previous != null) {
+            for (Phrase phrase : previous) {
+                release(phrase);
+            }
+        }
+    }
+
+    private Phrase acquire(BookSuggestion.Type type, String text) {
+        String key = normalize(text);
+        if (key == null || key.isEmpty()) {
+            return null;
+        }
+        String mapKey = key + '\0' + type.name().charAt(0);
+        Phrase phrase = phrases.get(mapKey);
+        if (phrase == null) {
+            phrase = new Phrase(type, text.trim(), mapKey);
+            phrases.put(mapKey, phrase);
+        }
+        phrase.count++;
+        for (int start = 0; start < key.length(); start = nextWord(key, start)) {
+            insert(key, start, phrase);
+        }
+        return phrase;
+    }
+
+    private void release(Phrase phrase) {
+        if (phrase == null) {
+            return;
+        }
+        phrase.count--;
+        if (phrase.count == 0) {
+            phrases.remove(phrase.key);
+        }
+        String key = phrase.key.substring(0, phrase.key.length() - 2);
+        for (int start = 0; start < key.length(); start = nextWord(key, start)) {
+            lower(key, start, phrase);
+        }
+    }
+
+    // Add the phrase under key[start..], splitting an edge where the key leaves it,
+    // and raise the best counts along the way
+    private void insert(String key, int start, Phrase phrase) {
+        Node node = root;
+        node.best = Math.max(node.best, phrase.count);
+        int i = start;
+        while (i < key.length()) {
+            Node child = node.child(key.charAt(i));
+            if (child == null) {
+                child = new Node(key.substring(i).toCharArray());
+                node.addChild(child);
+                nodeCount++;
+                i = key.length();
+            } else {
+                int matched = matchLength(child.edge, key, i);
+                if (matched < child.edge.length) {
+                    child = split(node, child, matched);
+                }
+                i += matched;
+            }
+            node = child;
+            node.best = Math.max(node.best, phrase.count);
+        }
+        node.addPhrase(phrase);
+    }
+
+    // Cut child's edge after length chars, putting a new node in between
+    private Node split(Node parent, Node child, int length) {
+        Node middle = new Node(Arrays.copyOf(child.edge, length));
+        parent.replaceChild(middle);
+        child.edge = Arrays.copyOfRange(child.edge, length, child.edge.length);
+        middle.children = new Node[] {child};
+        middle.best = child.best;
+        nodeCount++;
+        return middle;
+    }
+
+    // A phrase's count went down (and it may be gone): recompute the best counts
+    // on its path from the bottom up, pruning and re-merging nodes it leaves behind
+    private void lower(String key, int start, Phrase phrase) {
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        path.add(node);
+        int i = start;
+        while (i < key.length()) {
+            node = node.child(key.charAt(i));
+            if (node == null || matchLength(node.edge, key, i) < node.edge.length) {
+                return;
+            }
+            i += node.edge.length;
+            path.add(node);
+        }
+        if (phrase.count == 0) {
+            node.removePhrase(phrase);
+        }
+        for (int depth = path.size() - 1; depth >= 0; depth--) {
+            Node current = path.get(depth);
+            current.recomputeBest();
+            if (depth == 0 || current.phrases != null || current.children.length > 1) {
+                continue;
+            }
+            if (current.children.length == 0) {
+                path.get(depth - 1).removeChild(current);
+            } else {
+                // One child and nothing of its own: fold the child into it
+                Node only = current.children[0];
+                char[] edge = Arrays.copyOf(current.edge, current.edge.length + only.edge.length);
+                System.arraycopy(only.edge, 0, edge, current.edge.length, only.edge.length);
+                current.edge = edge;
+                current.children = only.children;
+                current.phrases = only.phrases;
+                current.best = only.best;
+            }
+            nodeCount--;
+        }
+    }
+
+    private long nodeBytes(Node node) {
+        long bytes = 24 + 16 + 2L * node.edge.length + 16 + 4L * node.children.length;
+        if (node.phrases != null) {
+            bytes += 16 + 4L * node.phrases.length;
+        }
+        for (Node child : node.children) {
+            bytes += nodeBytes(child);
+        }
+        return bytes;
+    }
+
+    private static long stringBytes(String text) {
+        return 24 + 16 + text.length();
+    }
+
+    // How many chars of edge match key from offset, up to the shorter of the two
+    private static int matchLength(char[] edge, String key, int offset) {
+        int limit = Math.min(edge.length, key.length() - offset);
+        int matched = 0;
+        while (matched < limit && edge[matched] == key.charAt(offset + matched)) {
+            matched++;
+        }
+        return matched;
+    }
+
+    // Offset of the word after the one at start, or the key length
+    private static int nextWord(String key, int start) {
+        int space = key.indexOf(' ', start);
+        return space < 0 ? key.length() : space + 1;
+    }
+
+    // Folded text, trimmed, with runs of whitespace collapsed to one space
+    static String normalize(String text) {
+        String normalized = TextNormalizer.normalize(text);
+        if (normalized == null) {
+            return null;
+        }
+        StringBuilder collapsed = new StringBuilder(normalized.length());
+        boolean space = false;
+        for (int i = 0; i < normalized.length(); i++) {
+            char c = normalized.charAt(i);
+            if (Character.isWhitespace(c)) {
+                space = collapsed.length() > 0;
+            } else {
+                if (space) {
+                    collapsed.append(' ');
+                    space = false;
+                }
+                collapsed.append(c);
+            }
+        }
+        return collapsed.toString();
+    }
+
+    private static final class Phrase {
+
+        private final BookSuggestion.Type type;
+        private final String text;
+        // Normalized text, a NUL and the type initial; sorts by the text
+        private final String key;
+        private int count;
+
+        private Phrase(BookSuggestion.Type type, String text, String key) {
+            this.type = type;
+            this.text = text;
+            this.key = key;
+        }
+    }
+
+    private static final class Node {
+
+        private char[] edge;
+        // Sorted by the first char of their edges, which are distinct
+        private Node[] children = NO_CHILDREN;
+        private Phrase[] phrases;
+        private int best;
+
+        private Node(char[] edge) {
+            this.edge = edge;
+        }
+
+        private int indexOf(char first) {
+            int low = 0;
+            int high = children.length - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                char label = children[mid].edge[0];
+                if (label < first) {
+                    low = mid + 1;
+                } else if (label > first) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -(low + 1);
+        }
+
+        private Node child(char first) {
+            int index = indexOf(first);
+            return index >= 0 ? children[index] : null;
+        }
+
+        private void addChild(Node child) {
+            int index = -(indexOf(child.edge[0]) + 1);
+            Node[] grown = new Node[children.length + 1];
+            System.arraycopy(children, 0, grown, 0, index);
+            grown[index] = child;
+            System.arraycopy(children, index, grown, index + 1, children.length - index);
+            children = grown;
+        }
+
+        private void replaceChild(Node child) {
+            children[indexOf(child.edge[0])] = child;
+        }
+
+        private void removeChild(Node child) {
+            int index = indexOf(child.edge[0]);
+            if (index < 0) {
+                return;
+            }
+            Node[] shrunk = new Node[children.length - 1];
+            System.arraycopy(children, 0, shrunk, 0, index);
+            System.arraycopy(children, index + 1, shrunk, index, children.length - index - 1);
+            children = shrunk.length == 0 ? NO_CHILDREN : shrunk;
+        }
+
+        private void addPhrase(Phrase phrase) {
+            if (phrases == null) {
+                phrases = new Phrase[] {phrase};
+                return;
+            }
+            for (Phrase existing : phrases) {
+                if (existing == phrase) {
+                    return;
+                }
+            }
+            phrases = Arrays.copyOf(phrases, phrases.length + 1);
+            phrases[phrases.length - 1] = phrase;
+        }
+
+        private void removePhrase(Phrase phrase) {
+            if (phrases == null) {
+                return;
+            }
+            Phrase[] kept = Arrays.stream(phrases).filter(existing -> existing != phrase).toArray(Phrase[]::new);
+            phrases = kept.length == 0 ? null : kept;
+        }
+
+        private void recomputeBest() {
+            int newBest = 0;
+            if (phrases != null) {
+                for (Phrase phrase : phrases) {
+                    newBest = Math.max(newBest, phrase.count);
+                }
+            }
+            for (Node child : children) {
+                newBest = Math.max(newBest, child.best);
+            }
+            best = newBest;
+        }
+    }
+
+    private static final class Candidate {
+
+        // Higher rank first, then phrases (by text) before nodes (latest first)
+        private static final Comparator<Candidate> ORDER = Comparator
+                .comparingInt((Candidate candidate) -> -candidate.rank)
+                .thenComparing(candidate -> candidate.phrase == null)
+                .thenComparing(candidate -> candidate.phrase != null ? candidate.phrase.key : "")
+                .thenComparingLong(candidate -> -candidate.sequence);
+
+        private final int rank;
+        private final Node node;
+        private final Phrase phrase;
+        private final long sequence;
+
+        private Candidate(int rank, Node node, Phrase phrase, long sequence) {
+            this.rank = rank;
+            this.node = node;
+            this.phrase = phrase;
+            this.sequence = sequence;
+        }
+    }
+}
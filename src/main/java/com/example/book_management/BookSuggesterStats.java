@@ -0,0 +1,30 @@
+package com.example.book_management;
+
+/**
+ * Point-in-time size of {@link BookSuggester}. The byte count is an estimate
+ * for a 64-bit JVM with compressed references.
+ */
+public class BookSuggesterStats {
+
+    private final int phrases;
+    private final int nodes;
+    private final long estimatedBytes;
+
+    public BookSuggesterStats(int phrases, int nodes, long estimatedBytes) {
+        this.phrases = phrases;
+        this.nodes = nodes;
+        this.estimatedBytes = estimatedBytes;
+    }
+
+    public int getPhrases() {
+        return phrases;
+    }
+
+    public int getNodes() {
+        return nodes;
+    }
+
+    public long getEstimatedBytes() {
+        return estimatedBytes;
+    }
+}
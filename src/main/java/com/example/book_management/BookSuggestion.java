@@ -0,0 +1,35 @@
+package com.example.book_management;
+
+/**
+ * One typeahead completion: a title or author name as it was first stored,
+ * with the number of books that have it.
+ */
+public class BookSuggestion {
+
+    public enum Type {
+        TITLE,
+        AUTHOR
+    }
+
+    private final String text;
+    private final Type type;
+    private final int count;
+
+    public BookSuggestion(String text, Type type, int count) {
+        this.text = text;
+        this.type = type;
+        this.count = count;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public int getCount() {
+        return count;
+    }
+}
@@ -0,0 +1,372 @@
+package com.example.book_management;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Queue of acknowledged but unapplied book updates and deletes, backed by a
+ * {@link BookWriteLog} so nothing acknowledged is lost in a crash.
+ *
+ * <p>Writes to the same book are coalesced: only the latest one is kept. A
+ * book that has a write here is read from it rather than from the database,
+ * so clients see their own writes straight away; those reads never wait for
+ * a lock. {@link BookWriteBehindFlusher} drains the queue in batches; a batch
+ * stays readable here until it has been committed and checkpointed.
+ *
+ * <p>Appends are group-committed: writers that arrive while the log is being
+ * forced are written and forced together by one of them, outside the lock.
+ * Every write is numbered in log order. After each committed batch the log
+ * records, in its checkpoint, the number below which every write is applied,
+ * and replay on startup skips those. Without that, an applied write left in
+ * the log would be replayed over a later versioned write to the same book.
+ *
+ * <p>Does nothing unless {@code books.write-behind.enabled} is set.
+ */
+@Component
+public class BookWriteBehind {
+
+    private static final Logger log = LoggerFactory.getLogger(BookWriteBehind.class);
+
+    private final boolean enabled;
+    private final Path logFile;
+    private final long compactBytes;
+    private final ObjectMapper objectMapper;
+
+    // The latest unapplied write per book, queued, in flight or applied but not
+    // yet checkpointed; what readers see
+    private final ConcurrentHashMap<Long, PendingBookWrite> unapplied = new ConcurrentHashMap<>();
+
+    // The rest is guarded by lock. Queues are insertion-ordered so batches drain
+    // roughly oldest first
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition logIdle = lock.newCondition();
+    private final LinkedHashMap<Long, PendingBookWrite> pending = new LinkedHashMap<>();
+    private final LinkedHashMap<Long, PendingBookWrite> inFlight = new LinkedHashMap<>();
+    private final List<PendingBookWrite> uncheckpointed = new ArrayList<>();
+    // Accepted writes not in the log yet: the group gathering, and the one being forced
+    private LogGroup gathering = new LogGroup();
+    private LogGroup forcing;
+    // Set while a thread writes the log with the lock released
+    private boolean logBusy;
+    private long lastSeq;
+    private long checkpoint;
+    private BookWriteLog writeLog;
+
+    private final AtomicLong applied = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+
+    @Autowired
+    public BookWriteBehind(@Value("${books.write-behind.enabled:false}") boolean enabled,
+                           @Value("${books.write-behind.log-file:data/book-writes.log}") Path logFile,
+                           @Value("${books.write-behind.compact-size:16MB}") DataSize compactSize,
+                           ObjectMapper objectMapper) {
+        this.enabled = enabled;
+        this.logFile = logFile;
+        this.compactBytes = compactSize.toBytes();
+        this.objectMapper = objectMapper;
+    }
+
+    // Open the log and take back every write it holds past the checkpoint
+    @PostConstruct
+    public void open() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        lock.lock();
+        try {
+            writeLog = new BookWriteLog(logFile, objectMapper);
+            checkpoint = writeLog.readCheckpoint();
+            lastSeq = Math.max(checkpoint, 0);
+            for (PendingBookWrite write : writeLog.readAll()) {
+                lastSeq = Math.max(lastSeq, write.getSeq());
+                if (write.getSeq() > checkpoint) {
+                    coalesce(write);
+                }
+            }
+            writeLog.rewrite(pending.values());
+            if (!pending.isEmpty()) {
+                log.info("Replaying {} unapplied book writes from {}", pending.size(), logFile);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (writeLog != null) {
+                awaitLog();
+                writeLog.close();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // The unapplied write for a book, if there is one
+    public Optional<PendingBookWrite> pendingWrite(Long id) {
+        if (!enabled || id == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(unapplied.get(id));
+    }
+
+    // Log and queue a write, returning once it is on disk. Returns false, without
+    // logging anything, for an update to a book that already has a pending delete.
+    public boolean append(PendingBookWrite write) {
+        LogGroup group;
+        lock.lock();
+        try {
+            if (deleteAccepted(write.getBookId())) {
+                return false;
+            }
+            group = gathering;
+            group.writes.add(write.withSeq(++lastSeq));
+            while (!group.done) {
+                if (logBusy) {
+                    logIdle.awaitUninterruptibly();
+                } else {
+                    forceGathered();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (group.error != null) {
+            throw new UncheckedIOException("Could not log write to book " + write.getBookId(), group.error);
+        }
+        return true;
+    }
+
+    // Move up to max queued writes in flight, for the flusher to apply
+    public List<PendingBookWrite> drain(int max) {
+        lock.lock();
+        try {
+            List<PendingBookWrite> batch = new ArrayList<>(Math.min(max, pending.size()));
+            Iterator<PendingBookWrite> writes = pending.values().iterator();
+            while (batch.size() < max && writes.hasNext()) {
+                PendingBookWrite write = writes.next();
+                writes.remove();
+                inFlight.put(write.getBookId(), write);
+                batch.add(write);
+            }
+            return batch;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // The in-flight writes are committed. Checkpoint them, and shrink the log when
+    // it is empty or has grown past the compaction size; only then do readers and
+    // versioned writes stop seeing them, so none can be replayed over a later write
+    public void applied(List<PendingBookWrite> batch) {
+        lock.lock();
+        try {
+            inFlight.clear();
+            applied.addAndGet(batch.size());
+            awaitLog();
+            logBusy = true;
+            uncheckpointed.addAll(batch);
+            long appliedThrough = appliedThrough();
+            List<PendingBookWrite> kept = null;
+            boolean checkpointed = false;
+            boolean compacted = false;
+            lock.unlock();
+            try {
+                if (appliedThrough > checkpoint) {
+                    writeLog.checkpoint(appliedThrough);
+                }
+                checkpointed = true;
+                lock.lock();
+                try {
+                    if (pending.isEmpty() || writeLog.size() > compactBytes) {
+                        kept = new ArrayList<>(pending.values());
+                    }
+                } finally {
+                    lock.unlock();
+                }
+                if (kept != null) {
+                    writeLog.rewrite(kept);
+                    compacted = true;
+                }
+            } catch (IOException e) {
+                log.warn("Could not {} {}; it will be retried after the next batch",
+                        checkpointed ? "compact" : "checkpoint", logFile, e);
+            } finally {
+                lock.lock();
+            }
+            if (checkpointed) {
+                checkpoint = Math.max(checkpoint, appliedThrough);
+            }
+            // Applied writes are safe to forget once the checkpoint covers them,
+            // or once a rewrite has dropped them from the log
+            boolean dropped = compacted;
+            uncheckpointed.removeIf(write -> {
+                if (!dropped && write.getSeq() > checkpoint) {
+                    return false;
+                }
+                unapplied.remove(write.getBookId(), write);
+                return true;
+            });
+            logBusy = false;
+            logIdle.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // The in-flight writes were not applied; queue them again unless newer writes replaced them
+    public void failed(List<PendingBookWrite> batch) {
+        lock.lock();
+        try {
+            failures.incrementAndGet();
+            inFlight.clear();
+            for (PendingBookWrite write : batch) {
+                pending.putIfAbsent(write.getBookId(), write);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Writes acknowledged but not yet committed
+    public int size() {
+        lock.lock();
+        try {
+            return pending.size() + inFlight.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Age in milliseconds of the oldest unapplied write, or 0 when there is none
+    public long lagMillis() {
+        lock.lock();
+        try {
+            long oldest = Long.MAX_VALUE;
+            for (PendingBookWrite write : inFlight.values()) {
+                oldest = Math.min(oldest, write.getAcceptedAt());
+            }
+            for (PendingBookWrite write : pending.values()) {
+                oldest = Math.min(oldest, write.getAcceptedAt());
+            }
+            return oldest == Long.MAX_VALUE ? 0 : Math.max(0, System.currentTimeMillis() - oldest);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getApplied() {
+        return applied.get();
+    }
+
+    public long getFailures() {
+        return failures.get();
+    }
+
+    // Write and force every gathered write as one group. Called with the lock
+    // held, which is released for the I/O; waiters are woken when it is done
+    private void forceGathered() {
+        LogGroup group = gathering;
+        gathering = new LogGroup();
+        forcing = group;
+        logBusy = true;
+        lock.unlock();
+        try {
+            writeLog.append(group.writes);
+        } catch (IOException e) {
+            group.error = e;
+        } finally {
+            lock.lock();
+        }
+        if (group.error == null) {
+            group.writes.forEach(this::coalesce);
+        }
+        group.done = true;
+        forcing = null;
+        logBusy = false;
+        logIdle.signalAll();
+    }
+
+    // Wait, with the lock held, until no other thread is writing the log
+    private void awaitLog() {
+        while (logBusy) {
+            logIdle.awaitUninterruptibly();
+        }
+    }
+
+    // Whether a delete of the book is accepted and not yet applied, logged or not
+    private boolean deleteAccepted(Long id) {
+        PendingBookWrite latest = unapplied.get(id);
+        if (latest != null && latest.isDelete()) {
+            return true;
+        }
+        for (LogGroup group : forcing != null ? List.of(forcing, gathering) : List.of(gathering)) {
+            for (PendingBookWrite write : group.writes) {
+                if (write.isDelete() && write.getBookId().equals(id)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    // The highest sequence number below every write that is not applied yet
+    private long appliedThrough() {
+        long lowest = lastSeq + 1;
+        for (PendingBookWrite write : pending.values()) {
+            lowest = Math.min(lowest, write.getSeq());
+        }
+        for (PendingBookWrite write : inFlight.values()) {
+            lowest = Math.min(lowest, write.getSeq());
+        }
+        for (PendingBookWrite write : gathering.writes) {
+            lowest = Math.min(lowest, write.getSeq());
+        }
+        return lowest - 1;
+    }
+
+    // Keep only the latest write per book, dated from the first one it replaces
+    private void coalesce(PendingBookWrite write) {
+        PendingBookWrite previous = pending.get(write.getBookId());
+        PendingBookWrite queued = previous != null ? write.acceptedAt(previous.getAcceptedAt()) : write;
+        pending.put(write.getBookId(), queued);
+        unapplied.put(write.getBookId(), queued);
+    }
+
+    // Writes forced to the log together, and how that went; guarded by lock
+    private static final class LogGroup {
+
+        private final List<PendingBookWrite> writes = new ArrayList<>();
+        private boolean done;
+        private IOException error;
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.book_management;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Background writer for {@link BookWriteBehind}: every flush interval it
+ * applies the queued writes in batches, one transaction per batch. A failed
+ * batch is queued again and retried on the next run. On shutdown it makes a
+ * last pass, and whatever still fails stays in the log for the next start.
+ */
+@Component
+public class BookWriteBehindFlusher {
+
+    private static final Logger log = LoggerFactory.getLogger(BookWriteBehindFlusher.class);
+
+    private final BookWriteBehind writeBehind;
+    private final BookService bookService;
+    private final Duration interval;
+    private final int batchSize;
+    private ScheduledExecutorService scheduler;
+
+    @Autowired
+    public BookWriteBehindFlusher(BookWriteBehind writeBehind, BookService bookService,
+                                  @Value("${books.write-behind.flush-interval:100ms}") Duration interval,
+                                  @Value("${books.write-behind.batch-size:500}") int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Write-behind batch size must be positive");
+        }
+        this.writeBehind = writeBehind;
+        this.bookService = bookService;
+        this.interval = interval;
+        this.batchSize = batchSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (!writeBehind.isEnabled() || scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "book-write-behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::flush, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        synchronized (this) {
+            if (scheduler == null) {
+                return;
+            }
+            scheduler.shutdown();
+        }
+        scheduler.awaitTermination(30, TimeUnit.SECONDS);
+        flush();
+    }
+
+    // Apply everything queued so far; stops at the first failed batch
+    public synchronized int flush() {
+        int flushed = 0;
+        List<PendingBookWrite> batch;
+        while (!(batch = writeBehind.drain(batchSize)).isEmpty()) {
+            try {
+                bookService.applyWrites(batch);
+                writeBehind.applied(batch);
+                flushed += batch.size();
+            } catch (RuntimeException e) {
+                writeBehind.failed(batch);
+                log.warn("Could not apply {} book writes; {} are waiting", batch.size(), writeBehind.size(), e);
+                break;
+            }
+        }
+        return flushed;
+    }
+}
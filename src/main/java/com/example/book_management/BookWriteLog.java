@@ -0,0 +1,145 @@
+package com.example.book_management;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Append-only file of {@link PendingBookWrite}s, one JSON object per line.
+ * Every append is forced to disk before it returns. Beside it, a checkpoint
+ * file holds the highest sequence number known to be applied, which replay
+ * skips up to. Not thread-safe; the owner serializes appends and rewrites,
+ * and checkpoints among themselves.
+ */
+class BookWriteLog implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(BookWriteLog.class);
+
+    private final Path file;
+    private final Path checkpointFile;
+    private final ObjectMapper objectMapper;
+    private FileChannel channel;
+
+    BookWriteLog(Path file, ObjectMapper objectMapper) throws IOException {
+        this.file = file;
+        this.checkpointFile = file.resolveSibling(file.getFileName() + ".checkpoint");
+        this.objectMapper = objectMapper;
+        Path dir = file.toAbsolutePath().getParent();
+        if (dir != null) {
+            Files.createDirectories(dir);
+        }
+        this.channel = openForAppend();
+    }
+
+    void append(PendingBookWrite write) throws IOException {
+        append(List.of(write));
+    }
+
+    // Write a group of entries and force them to disk together
+    void append(Collection<PendingBookWrite> writes) throws IOException {
+        for (PendingBookWrite write : writes) {
+            ByteBuffer line = ByteBuffer.wrap(toLine(write));
+            while (line.hasRemaining()) {
+                channel.write(line);
+            }
+        }
+        channel.force(false);
+    }
+
+    // Record that every write numbered up to seq is applied. Written beside the
+    // old checkpoint, forced and moved over it, like rewrite
+    void checkpoint(long seq) throws IOException {
+        Path tmp = checkpointFile.resolveSibling(checkpointFile.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer content = ByteBuffer.wrap(Long.toString(seq).getBytes(StandardCharsets.US_ASCII));
+            while (content.hasRemaining()) {
+                out.write(content);
+            }
+            out.force(true);
+        }
+        Files.move(tmp, checkpointFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // The last checkpoint, or -1 when none was ever written
+    long readCheckpoint() throws IOException {
+        if (!Files.exists(checkpointFile)) {
+            return -1;
+        }
+        return Long.parseLong(Files.readString(checkpointFile, StandardCharsets.US_ASCII).trim());
+    }
+
+    // Every complete entry in the file, oldest first. A torn last line left by
+    // a crash mid-append is skipped, since that write was never acknowledged.
+    List<PendingBookWrite> readAll() throws IOException {
+        List<PendingBookWrite> writes = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    writes.add(objectMapper.readValue(line, PendingBookWrite.class));
+                } catch (JsonProcessingException e) {
+                    log.warn("Skipping unreadable line {} of {}", lineNumber, file);
+                }
+            }
+        }
+        return writes;
+    }
+
+    // Replace the file with just the given writes. The new file is written and
+    // forced beside the old one, then moved over it, so a crash leaves one or the other.
+    void rewrite(Collection<PendingBookWrite> writes) throws IOException {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (PendingBookWrite write : writes) {
+                ByteBuffer line = ByteBuffer.wrap(toLine(write));
+                while (line.hasRemaining()) {
+                    out.write(line);
+                }
+            }
+            out.force(true);
+        }
+        channel.close();
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        channel = openForAppend();
+    }
+
+    long size() throws IOException {
+        return channel.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private FileChannel openForAppend() throws IOException {
+        return FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private byte[] toLine(PendingBookWrite write) throws JsonProcessingException {
+        return (objectMapper.writeValueAsString(write) + "\n").getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.book_management;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Summary of a bulk import: per-item outcomes plus throughput figures. An
+ * import cut short by a body that stops parsing carries the error, and lists
+ * only the items before the first one that was not saved: those are
+ * committed, and the client can resume with the rest.
+ */
+public class BulkImportResult {
+
+    private final int created;
+    private final int failed;
+    private final long elapsedMillis;
+    private final List<BulkItemResult> items;
+    private final String error;
+
+    public BulkImportResult(List<BulkItemResult> items, long elapsedMillis) {
+        this(items, elapsedMillis, null);
+    }
+
+    public BulkImportResult(List<BulkItemResult> items, long elapsedMillis, String error) {
+        this.items = items;
+        this.elapsedMillis = elapsedMillis;
+        this.error = error;
+        this.created = (int) items.stream()
+                .filter(item -> item.getStatus() == BulkItemResult.Status.CREATED)
+                .count();
+        this.failed = items.size() - created;
+    }
+
+    public int getCreated() {
+        return created;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public double getRowsPerSecond() {
+        return elapsedMillis > 0 ? created * 1000.0 / elapsedMillis : created;
+    }
+
+    public List<BulkItemResult> getItems() {
+        return items;
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public String getError() {
+        return error;
+    }
+}
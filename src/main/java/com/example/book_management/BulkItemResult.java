@@ -0,0 +1,55 @@
+package com.example.book_management;
+
+import java.util.List;
+
+/**
+ * Outcome of one item in a bulk import, identified by its position in the request.
+ */
+public class BulkItemResult {
+
+    public enum Status {
+        CREATED,
+        INVALID,
+        FAILED
+    }
+
+    private final int index;
+    private final Status status;
+    private final Long id;
+    private final List<String> errors;
+
+    public BulkItemResult(int index, Status status, Long id, List<String> errors) {
+        this.index = index;
+        this.status = status;
+        this.id = id;
+        this.errors = errors;
+    }
+
+    public static BulkItemResult created(int index, Long id) {
+        return new BulkItemResult(index, Status.CREATED, id, List.of());
+    }
+
+    public static BulkItemResult invalid(int index, List<String> errors) {
+        return new BulkItemResult(index, Status.INVALID, null, errors);
+    }
+
+    public static BulkItemResult failed(int index, String error) {
+        return new BulkItemResult(index, Status.FAILED, null, List.of(error));
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+}
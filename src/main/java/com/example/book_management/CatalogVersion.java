@@ -0,0 +1,46 @@
+package com.example.book_management;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Version of the catalog, in two forms.
+ *
+ * <p>The ETag of collection responses is built from the newest sequence
+ * number in the {@link BookChangeLog}, which lives in the database: every
+ * instance comes to the same value within a refresh interval of a write
+ * committing, so a tag handed out by one node is only answered with 304 by
+ * another while the catalog is still the same, whichever node took the
+ * write, give or take that interval.
+ *
+ * <p>The local counter keys this instance's caches. It is bumped on every
+ * write through this instance, and whenever an ETag is built from a sequence
+ * number newer than any seen before, so a write on another node also retires
+ * cached results here before they are served under the new tag.
+ *
+ * <p>The tag is weak: it is only compared for If-None-Match, and Tomcat
+ * leaves responses carrying a strong ETag uncompressed.
+ */
+@Component
+public class CatalogVersion {
+
+    private final AtomicLong counter = new AtomicLong();
+    private final AtomicLong lastSeq = new AtomicLong();
+
+    public long current() {
+        return counter.get();
+    }
+
+    public void increment() {
+        counter.incrementAndGet();
+    }
+
+    // Weak ETag for the catalog at the given change-log sequence number
+    public String eTag(long seq) {
+        if (lastSeq.getAndAccumulate(seq, Math::max) < seq) {
+            counter.incrementAndGet();
+        }
+        return "W/\"c-" + seq + "\"";
+    }
+}
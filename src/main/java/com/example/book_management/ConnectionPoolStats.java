@@ -0,0 +1,99 @@
+package com.example.book_management;
+
+import java.util.Map;
+
+/**
+ * Point-in-time state of one JDBC connection pool, from its Micrometer
+ * meters. Wait times cover every connection handed out since startup;
+ * {@code waitHistogram} maps a bucket's upper bound in milliseconds to the
+ * number of waits up to it, for the buckets that saw any.
+ */
+public class ConnectionPoolStats {
+
+    private final String pool;
+    private final int active;
+    private final int idle;
+    private final int pending;
+    private final int total;
+    private final int max;
+    private final int min;
+    private final long timeouts;
+    private final long waits;
+    private final double waitMeanMillis;
+    private final double waitMaxMillis;
+    private final Map<String, Double> waitPercentilesMillis;
+    private final Map<String, Long> waitHistogram;
+
+    public ConnectionPoolStats(String pool, int active, int idle, int pending, int total, int max, int min,
+                               long timeouts, long waits, double waitMeanMillis, double waitMaxMillis,
+                               Map<String, Double> waitPercentilesMillis, Map<String, Long> waitHistogram) {
+        this.pool = pool;
+        this.active = active;
+        this.idle = idle;
+        this.pending = pending;
+        this.total = total;
+        this.max = max;
+        this.min = min;
+        this.timeouts = timeouts;
+        this.waits = waits;
+        this.waitMeanMillis = waitMeanMillis;
+        this.waitMaxMillis = waitMaxMillis;
+        this.waitPercentilesMillis = waitPercentilesMillis;
+        this.waitHistogram = waitHistogram;
+    }
+
+    public String getPool() {
+        return pool;
+    }
+
+    public int getActive() {
+        return active;
+    }
+
+    public int getIdle() {
+        return idle;
+    }
+
+    // Threads waiting for a connection right now
+    public int getPending() {
+        return pending;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public int getMax() {
+        return max;
+    }
+
+    public int getMin() {
+        return min;
+    }
+
+    // Waits that gave up after connection-timeout
+    public long getTimeouts() {
+        return timeouts;
+    }
+
+    public long getWaits() {
+        return waits;
+    }
+
+    public double getWaitMeanMillis() {
+        return waitMeanMillis;
+    }
+
+    // Longest wait in the recent window (a few minutes), not since startup
+    public double getWaitMaxMillis() {
+        return waitMaxMillis;
+    }
+
+    public Map<String, Double> getWaitPercentilesMillis() {
+        return waitPercentilesMillis;
+    }
+
+    public Map<String, Long> getWaitHistogram() {
+        return waitHistogram;
+    }
+}
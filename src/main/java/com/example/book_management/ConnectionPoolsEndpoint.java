@@ -0,0 +1,97 @@
+package com.example.book_management;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.CountAtBucket;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+
+/**
+ * Connection pool saturation on the management port:
+ * {@code GET /actuator/pools} shows, for the primary and every replica or
+ * shard pool, the connections in use, idle and waited for, and how long
+ * threads waited for one. Built from the HikariCP meters, so a pool shows up
+ * once it is registered with the {@link MeterRegistry}. Percentiles are those
+ * configured for {@code hikaricp.connections.acquire}. The wait histogram
+ * comes from its percentile histogram, which only registries that aggregate
+ * percentiles (Prometheus here) keep, plus any SLO buckets.
+ */
+@Component
+@Endpoint(id = "pools")
+public class ConnectionPoolsEndpoint {
+
+    private static final String POOL_TAG = "pool";
+
+    private final MeterRegistry meterRegistry;
+
+    public ConnectionPoolsEndpoint(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @ReadOperation
+    public List<ConnectionPoolStats> pools() {
+        TreeSet<String> pools = new TreeSet<>();
+        for (Gauge gauge : meterRegistry.find("hikaricp.connections").gauges()) {
+            pools.add(gauge.getId().getTag(POOL_TAG));
+        }
+        List<ConnectionPoolStats> stats = new ArrayList<>();
+        for (String pool : pools) {
+            stats.add(stats(pool));
+        }
+        return stats;
+    }
+
+    private ConnectionPoolStats stats(String pool) {
+        Timer acquire = meterRegistry.find("hikaricp.connections.acquire").tag(POOL_TAG, pool).timer();
+        Counter timeouts = meterRegistry.find("hikaricp.connections.timeout").tag(POOL_TAG, pool).counter();
+        Map<String, Double> percentiles = new LinkedHashMap<>();
+        Map<String, Long> histogram = new LinkedHashMap<>();
+        long waits = 0;
+        double mean = 0;
+        double max = 0;
+        if (acquire != null) {
+            HistogramSnapshot snapshot = acquire.takeSnapshot();
+            waits = snapshot.count();
+            mean = snapshot.mean(TimeUnit.MILLISECONDS);
+            max = snapshot.max(TimeUnit.MILLISECONDS);
+            for (ValueAtPercentile percentile : snapshot.percentileValues()) {
+                percentiles.put(Double.toString(percentile.percentile()), percentile.value(TimeUnit.MILLISECONDS));
+            }
+            // Buckets are cumulative; only those that add waits are worth showing
+            double previous = 0;
+            for (CountAtBucket bucket : snapshot.histogramCounts()) {
+                if (bucket.count() > previous) {
+                    histogram.put(Double.toString(bucket.bucket(TimeUnit.MILLISECONDS)), (long) bucket.count());
+                    previous = bucket.count();
+                }
+            }
+        }
+        return new ConnectionPoolStats(pool,
+                gauge("hikaricp.connections.active", pool),
+                gauge("hikaricp.connections.idle", pool),
+                gauge("hikaricp.connections.pending", pool),
+                gauge("hikaricp.connections", pool),
+                gauge("hikaricp.connections.max", pool),
+                gauge("hikaricp.connections.min", pool),
+                timeouts != null ? (long) timeouts.count() : 0L,
+                waits, mean, max, percentiles, histogram);
+    }
+
+    private int gauge(String name, String pool) {
+        Gauge gauge = meterRegistry.find(name).tag(POOL_TAG, pool).gauge();
+        return gauge != null ? (int) gauge.value() : 0;
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.book_management;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Hash map from primitive long keys to non-null values, for id lookups that
+ * should not box a {@code Long} or allocate a node per entry.
+ *
+ * <p>Keys and values sit in two parallel arrays, probed linearly from a slot
+ * picked by Fibonacci hashing, so sequential ids spread over the whole table.
+ * A slot is free when its value is null. Removal moves later entries of the
+ * probe run back instead of leaving tombstones, so lookups do not slow down
+ * as entries come and go. The table doubles once three quarters full. Not
+ * thread-safe.
+ */
+final class LongHashMap<V> {
+
+    private static final long PHI = 0x9E3779B97F4A7C15L;
+    private static final int MIN_CAPACITY = 16;
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private long[] keys;
+    private Object[] values;
+    private int mask;
+    private int shift;
+    private int size;
+    private int resizeAt;
+
+    LongHashMap() {
+        this(0);
+    }
+
+    LongHashMap(int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        while (capacity - (capacity >> 2) < expectedSize && capacity < MAX_CAPACITY) {
+            capacity <<= 1;
+        }
+        allocate(capacity);
+    }
+
+    int size() {
+        return size;
+    }
+
+    @SuppressWarnings("unchecked")
+    V get(long key) {
+        Object value;
+        for (int slot = slot(key); (value = values[slot]) != null; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                return (V) value;
+            }
+        }
+        return null;
+    }
+
+    // Returns the value replaced, or null
+    @SuppressWarnings("unchecked")
+    V put(long key, V value) {
+        Objects.requireNonNull(value, "LongHashMap values cannot be null");
+        int slot = slot(key);
+        for (Object current; (current = values[slot]) != null; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                values[slot] = value;
+                return (V) current;
+            }
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size > resizeAt) {
+            if (keys.length == MAX_CAPACITY) {
+                throw new IllegalStateException("LongHashMap cannot grow beyond " + MAX_CAPACITY + " slots");
+            }
+            rehash(keys.length << 1);
+        }
+        return null;
+    }
+
+    // Returns the value removed, or null
+    @SuppressWarnings("unchecked")
+    V remove(long key) {
+        Object value;
+        for (int slot = slot(key); (value = values[slot]) != null; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                closeGap(slot);
+                size--;
+                return (V) value;
+            }
+        }
+        return null;
+    }
+
+    void clear() {
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    // Heap held by the two arrays, for comparing with boxed maps
+    long estimatedBytes() {
+        return 2 * 16L + (long) keys.length * Long.BYTES + (long) values.length * 4;
+    }
+
+    // Move back the entries after a freed slot that could no longer be reached
+    // from their home slot across the gap
+    private void closeGap(int gap) {
+        for (int slot = (gap + 1) & mask; values[slot] != null; slot = (slot + 1) & mask) {
+            int home = slot(keys[slot]);
+            if (((slot - home) & mask) >= ((slot - gap) & mask)) {
+                keys[gap] = keys[slot];
+                values[gap] = values[slot];
+                gap = slot;
+            }
+        }
+        values[gap] = null;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] != null) {
+                int slot = slot(oldKeys[i]);
+                while (values[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        shift = Long.SIZE - Integer.numberOfTrailingZeros(capacity);
+        resizeAt = capacity - (capacity >> 2);
+    }
+
+    private int slot(long key) {
+        return (int) ((key * PHI) >>> shift);
+    }
+}
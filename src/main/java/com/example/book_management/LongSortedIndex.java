@@ -0,0 +1,67 @@
+package com.example.book_management;
+
+import java.util.Arrays;
+
+/**
+ * Sorted set of primitive long keys in one growable array. Lookups are binary
+ * searches and range scans walk the array from the first key above a bound.
+ * A key's position is its rank, so it can double as the row number of
+ * parallel columns.
+ *
+ * <p>Adding a key above all others is amortized O(1); adding or removing one
+ * anywhere else shifts the keys above it. That suits ids, which mostly grow.
+ * A primitive array holds no references, so the GC never has to trace it.
+ * Not thread-safe.
+ */
+final class LongSortedIndex {
+
+    private long[] keys;
+    private int size;
+
+    LongSortedIndex(int initialCapacity) {
+        keys = new long[Math.max(initialCapacity, 1)];
+    }
+
+    int size() {
+        return size;
+    }
+
+    long get(int position) {
+        return keys[position];
+    }
+
+    // Position of the key, or -(insertion point) - 1 when it is not here
+    int indexOf(long key) {
+        // Appends are the common case; skip the search when the key is past the end
+        if (size == 0 || key > keys[size - 1]) {
+            return -size - 1;
+        }
+        return Arrays.binarySearch(keys, 0, size, key);
+    }
+
+    // Position of the first key above the bound, or size when there is none
+    int firstAbove(long bound) {
+        int position = indexOf(bound);
+        return position >= 0 ? position + 1 : -position - 1;
+    }
+
+    // Insert a key at the position indexOf gave for it, shifting the keys above it
+    void insertAt(int position, long key) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, Math.max(size * 2, 16));
+        }
+        System.arraycopy(keys, position, keys, position + 1, size - position);
+        keys[position] = key;
+        size++;
+    }
+
+    void removeAt(int position) {
+        System.arraycopy(keys, position + 1, keys, position, size - position - 1);
+        size--;
+    }
+
+    // Heap held by the array, including unused capacity
+    long estimatedBytes() {
+        return 16L + (long) keys.length * Long.BYTES;
+    }
+}
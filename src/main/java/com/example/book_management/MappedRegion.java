@@ -0,0 +1,101 @@
+package com.example.book_management;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A scratch file mapped read-write into memory, outside the Java heap, and
+ * grown by mapping it again at twice the size. The file is deleted on close.
+ *
+ * <p>A mapping covers at most 2 GB. A replaced mapping is only released once
+ * its buffer is garbage collected. Not thread-safe; {@link BookSnapshot}
+ * guards its regions with its own lock.
+ */
+final class MappedRegion implements Closeable {
+
+    static final long MAX_BYTES = Integer.MAX_VALUE;
+
+    private static final int COPY_CHUNK = 64 * 1024;
+
+    private final Path file;
+    private final FileChannel channel;
+    private MappedByteBuffer buffer;
+
+    MappedRegion(Path file, long initialBytes) throws IOException {
+        this.file = file;
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.min(Math.max(initialBytes, 1), MAX_BYTES));
+    }
+
+    long capacity() {
+        return buffer.capacity();
+    }
+
+    // Make sure the first bytes positions can be written, growing the mapping if needed
+    void ensureCapacity(long bytes) {
+        if (bytes <= buffer.capacity()) {
+            return;
+        }
+        if (bytes > MAX_BYTES) {
+            throw new IllegalStateException(file.getFileName() + " cannot grow beyond 2 GB");
+        }
+        long size = buffer.capacity();
+        while (size < bytes) {
+            size = Math.min(size * 2, MAX_BYTES);
+        }
+        try {
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not grow " + file, e);
+        }
+    }
+
+    long getLong(int position) {
+        return buffer.getLong(position);
+    }
+
+    void putLong(int position, long value) {
+        buffer.putLong(position, value);
+    }
+
+    byte get(int position) {
+        return buffer.get(position);
+    }
+
+    void get(int position, byte[] bytes) {
+        buffer.get(position, bytes);
+    }
+
+    void put(int position, byte[] bytes) {
+        buffer.put(position, bytes);
+    }
+
+    // Copy length bytes from one position to another; the two ranges may overlap
+    void move(int from, int to, int length) {
+        if (length <= 0 || from == to) {
+            return;
+        }
+        byte[] chunk = new byte[Math.min(length, COPY_CHUNK)];
+        for (int done = 0; done < length; ) {
+            int count = Math.min(chunk.length, length - done);
+            // Moving up, copy from the end so nothing is overwritten before it is read
+            int offset = to > from ? length - done - count : done;
+            buffer.get(from + offset, chunk, 0, count);
+            buffer.put(to + offset, chunk, 0, count);
+            done += count;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+        Files.deleteIfExists(file);
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.book_management;
+
+import java.util.Optional;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * An update or delete that has been acknowledged and written to the
+ * write-behind log but not yet applied to the database. Updates carry the
+ * full new title and author. Applying one twice would still undo any write
+ * made to the book in between, so each write is numbered in log order and
+ * replay skips those at or below the log's applied checkpoint.
+ */
+public class PendingBookWrite {
+
+    public enum Type {
+        UPDATE,
+        DELETE
+    }
+
+    private final Type type;
+    private final Long bookId;
+    private final String title;
+    private final String author;
+    private final long acceptedAt;
+    private final long seq;
+
+    @JsonCreator
+    public PendingBookWrite(@JsonProperty("type") Type type,
+                            @JsonProperty("bookId") Long bookId,
+                            @JsonProperty("title") String title,
+                            @JsonProperty("author") String author,
+                            @JsonProperty("acceptedAt") long acceptedAt,
+                            @JsonProperty("seq") long seq) {
+        this.type = type;
+        this.bookId = bookId;
+        this.title = title;
+        this.author = author;
+        this.acceptedAt = acceptedAt;
+        this.seq = seq;
+    }
+
+    public static PendingBookWrite update(Long bookId, String title, String author) {
+        return new PendingBookWrite(Type.UPDATE, bookId, title, author, System.currentTimeMillis(), 0);
+    }
+
+    public static PendingBookWrite delete(Long bookId) {
+        return new PendingBookWrite(Type.DELETE, bookId, null, null, System.currentTimeMillis(), 0);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Long getBookId() {
+        return bookId;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getAuthor() {
+        return author;
+    }
+
+    // Epoch millis when the first write this one replaced was acknowledged
+    public long getAcceptedAt() {
+        return acceptedAt;
+    }
+
+    // Position in the write-behind log, assigned when the write is appended; 0 before that
+    public long getSeq() {
+        return seq;
+    }
+
+    @JsonIgnore
+    public boolean isDelete() {
+        return type == Type.DELETE;
+    }
+
+    // Same write, but dated from an earlier one it is replacing
+    PendingBookWrite acceptedAt(long earlier) {
+        return new PendingBookWrite(type, bookId, title, author, Math.min(acceptedAt, earlier), seq);
+    }
+
+    // Same write, numbered for the log
+    PendingBookWrite withSeq(long logSeq) {
+        return new PendingBookWrite(type, bookId, title, author, acceptedAt, logSeq);
+    }
+
+    // The book as readers should see it until the write is applied; empty for deletes.
+    // There is no version, since the stored one changes when the write is applied.
+    public Optional<Book> toBook() {
+        if (isDelete()) {
+            return Optional.empty();
+        }
+        Book book = new Book(title, author);
+        book.setId(bookId);
+        return Optional.of(book);
+    }
+}
@@ -0,0 +1,422 @@
+package com.example.book_management;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import jakarta.validation.Valid;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * The routes of {@link BookController} on WebFlux, active with the reactive
+ * profile. Lists, searches and exports are returned as a {@link Flux}, so
+ * the client's Accept header picks the framing: a JSON array by default,
+ * {@code text/event-stream} for server-sent events or
+ * {@code application/x-ndjson}, all written as rows arrive and paced by the
+ * client. A collection ETag that still matches is answered with 304 before
+ * the query runs.
+ */
+@RestController
+@RequestMapping("/api/books")
+@Profile("reactive")
+public class ReactiveBookController {
+
+    // Request body chunks read ahead of the bulk importer, and the bytes they
+    // are piped through
+    private static final int BULK_PREFETCH = 16;
+    private static final int BULK_PIPE_BYTES = 64 * 1024;
+
+    @Autowired
+    private ReactiveBookService reactiveBookService;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private BookBulkImporter bookBulkImporter;
+
+    @Autowired
+    private BookChangeFeed changeFeed;
+
+    @Value("${books.changes.max-wait:60s}")
+    private Duration changesMaxWait = Duration.ofSeconds(60);
+
+    @Value("${books.changes.keep-alive:30s}")
+    private Duration changesKeepAlive = Duration.ofSeconds(30);
+
+    private final ObjectWriter bookWriter;
+
+    @Autowired
+    public ReactiveBookController(ObjectMapper objectMapper) {
+        this.bookWriter = objectMapper.writerFor(Book.class);
+    }
+
+    // Test endpoint
+    @GetMapping("/test")
+    public ResponseEntity<String> test() {
+        return new ResponseEntity<>("API is working!", HttpStatus.OK);
+    }
+
+    // Add a new book
+    @PostMapping
+    public Mono<ResponseEntity<Book>> addBook(@Valid @RequestBody Book book) {
+        return reactiveBookService.addBook(book)
+                .map(savedBook -> new ResponseEntity<>(savedBook, HttpStatus.CREATED))
+                .onErrorReturn(new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR));
+    }
+
+    // Add many books from a JSON array or NDJSON stream. The body is read as the
+    // importer consumes it, on a worker thread, since saving is blocking JDBC
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Mono<ResponseEntity<BulkImportResult>> addBooks(ServerHttpRequest request) {
+        boolean ndjson = MediaType.APPLICATION_NDJSON.isCompatibleWith(request.getHeaders().getContentType());
+        return ReactiveBookService.blocking(() -> {
+                    PipedOutputStream out = new PipedOutputStream();
+                    try (InputStream in = new PipedInputStream(out, BULK_PIPE_BYTES)) {
+                        AtomicReference<Throwable> bodyError = new AtomicReference<>();
+                        // Written on its own worker: a full pipe blocks the writer until the importer reads
+                        Disposable writing = DataBufferUtils.write(
+                                        request.getBody().publishOn(Schedulers.boundedElastic(), BULK_PREFETCH), out)
+                                .doFinally(signal -> closeQuietly(out))
+                                .subscribe(DataBufferUtils.releaseConsumer(), bodyError::set);
+                        try {
+                            BulkImportResult result = ndjson
+                                    ? bookBulkImporter.importNdjson(in)
+                                    : bookBulkImporter.importJsonArray(in);
+                            if (bodyError.get() != null) {
+                                throw new IOException("Request body failed after " + result.getCreated()
+                                        + " books were imported", bodyError.get());
+                            }
+                            return result;
+                        } finally {
+                            writing.dispose();
+                        }
+                    }
+                })
+                .map(result -> new ResponseEntity<>(result,
+                        result.getError() != null ? HttpStatus.BAD_REQUEST : HttpStatus.OK))
+                .onErrorReturn(e -> e instanceof IllegalArgumentException || e instanceof JsonProcessingException,
+                        new ResponseEntity<>(HttpStatus.BAD_REQUEST));
+    }
+
+    // One keyset page of books, as on BookController; all=true streams the whole
+    // catalog as one array, and is deprecated in favour of the pages and /export
+    @GetMapping
+    public ResponseEntity<?> getAllBooks(@RequestParam(required = false) Long after,
+                                         @RequestParam(required = false) Integer limit,
+                                         @RequestParam(defaultValue = "false") boolean all) {
+        if ((after != null && after < 0) || (limit != null && limit < 1) || (all && (after != null || limit != null))) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        String catalogETag = bookService.getCatalogETag();
+        if (all) {
+            return deprecated(catalogResponse(catalogETag)).body(reactiveBookService.getAllBooks());
+        }
+        return withCatalogETag(reactiveBookService.getBooksPage(after, limit), catalogETag);
+    }
+
+    // Stream the whole catalog as NDJSON or CSV, each row written as it is read
+    @GetMapping("/export")
+    public ResponseEntity<Flux<DataBuffer>> exportBooks(@RequestParam(defaultValue = "ndjson") String format) {
+        BookExportFormat exportFormat = BookExportFormat.fromName(format);
+        if (exportFormat == null) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        Flux<Book> books = reactiveBookService.getAllBooks();
+        Flux<String> rows = exportFormat == BookExportFormat.CSV
+                ? Flux.just("id,title,author\n").concatWith(books.map(ReactiveBookController::csvRow))
+                : books.map(this::ndjsonRow);
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"books." + exportFormat.getExtension() + "\"")
+                .body(rows.map(row -> DefaultDataBufferFactory.sharedInstance.wrap(row.getBytes(StandardCharsets.UTF_8))));
+    }
+
+    // Catalog changes after a sequence number, as BookController.getChanges; a
+    // long poll holds no thread while it waits
+    @GetMapping("/changes")
+    public Mono<ResponseEntity<BookChangePage>> getChanges(@RequestParam(defaultValue = "0") long since,
+                                                           @RequestParam(required = false) Integer limit,
+                                                           @RequestParam(defaultValue = "0") long wait) {
+        if (since < 0 || (limit != null && limit < 1) || wait < 0) {
+            return Mono.just(new ResponseEntity<>(HttpStatus.BAD_REQUEST));
+        }
+        Duration waitFor = Duration.ofSeconds(Math.min(wait, changesMaxWait.toSeconds()));
+        return Mono.fromFuture(() -> changeFeed.poll(since, BookController.changesPageSize(limit), waitFor))
+                .subscribeOn(Schedulers.boundedElastic())
+                .map(page -> new ResponseEntity<>(page, HttpStatus.OK))
+                .defaultIfEmpty(new ResponseEntity<>(HttpStatus.GONE));
+    }
+
+    // Cursor to follow the changes from after a full export: read it first, then export
+    @GetMapping("/changes/latest")
+    public Mono<ResponseEntity<BookChangePage>> getLatestChange() {
+        return ReactiveBookService.blocking(() -> new ResponseEntity<>(
+                BookChangePage.empty(changeFeed.latest()), HttpStatus.OK));
+    }
+
+    // The changes as server-sent events, as BookController.streamChanges. The next
+    // page is only read once the client has taken the previous one
+    @GetMapping(value = "/changes/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Mono<ResponseEntity<Flux<ServerSentEvent<BookChange>>>> streamChanges(
+            @RequestParam(defaultValue = "0") long since,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        long from = lastEventId != null ? lastEventId : since;
+        if (from < 0) {
+            return Mono.just(new ResponseEntity<>(HttpStatus.BAD_REQUEST));
+        }
+        return ReactiveBookService.blocking(() -> changeFeed.retains(from))
+                .map(retained -> retained
+                        ? ResponseEntity.ok().cacheControl(CacheControl.noStore()).body(changeEvents(from))
+                        : new ResponseEntity<>(HttpStatus.GONE));
+    }
+
+    // Get book by ID; If-None-Match against the version ETag is answered with 304
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<Book>> getBookById(@PathVariable Long id) {
+        return reactiveBookService.getBookById(id)
+                .map(ReactiveBookController::withItemETag)
+                .defaultIfEmpty(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+
+    // Look up many books in one request, as BookController.batchGetBooks
+    @PostMapping("/batch-get")
+    public Mono<ResponseEntity<BatchGetResult>> batchGetBooks(@RequestBody List<Long> ids) {
+        return batchGet(ids);
+    }
+
+    @GetMapping("/batch-get")
+    public Mono<ResponseEntity<BatchGetResult>> batchGetBooksByQuery(@RequestParam List<Long> ids) {
+        return batchGet(ids);
+    }
+
+    // Hit, miss and eviction counters of the book cache
+    @GetMapping("/stats/cache")
+    public ResponseEntity<BookCacheStats> getCacheStats() {
+        return new ResponseEntity<>(bookService.getCacheStats(), HttpStatus.OK);
+    }
+
+    // Phrases and node count of the typeahead trie, with its estimated size
+    @GetMapping("/stats/suggest")
+    public ResponseEntity<BookSuggesterStats> getSuggesterStats() {
+        return new ResponseEntity<>(bookService.getSuggesterStats(), HttpStatus.OK);
+    }
+
+    // Typeahead: the most common titles and author names with a word starting with the prefix
+    @GetMapping("/suggest")
+    public ResponseEntity<List<BookSuggestion>> suggest(@RequestParam String prefix,
+                                                        @RequestParam(defaultValue = "10") int limit) {
+        if (limit < 1 || limit > BookSuggester.MAX_LIMIT) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        String catalogETag = bookService.getCatalogETag();
+        return withCatalogETag(bookService.suggest(prefix, limit), catalogETag);
+    }
+
+    // Search books by keyword
+    @GetMapping("/search")
+    public ResponseEntity<Flux<Book>> searchBooks(@RequestParam String keyword) {
+        return withCatalogETag(reactiveBookService.searchBooks(keyword), bookService.getCatalogETag());
+    }
+
+    // Search books by title; prefix=true matches the start of the title via its index
+    @GetMapping("/search/title")
+    public ResponseEntity<Flux<Book>> searchBooksByTitle(@RequestParam String title,
+                                                         @RequestParam(defaultValue = "false") boolean prefix) {
+        Flux<Book> books = prefix
+                ? reactiveBookService.searchBooksByTitlePrefix(title)
+                : reactiveBookService.searchBooksByTitle(title);
+        return withCatalogETag(books, bookService.getCatalogETag());
+    }
+
+    // Search books by author; prefix=true matches the start of the name via its index
+    @GetMapping("/search/author")
+    public ResponseEntity<Flux<Book>> searchBooksByAuthor(@RequestParam String author,
+                                                          @RequestParam(defaultValue = "false") boolean prefix) {
+        Flux<Book> books = prefix
+                ? reactiveBookService.searchBooksByAuthorPrefix(author)
+                : reactiveBookService.searchBooksByAuthor(author);
+        return withCatalogETag(books, bookService.getCatalogETag());
+    }
+
+    // Update a book. The expected version comes from If-Match or the body's version;
+    // a stale one gets 412 (If-Match) or 409 (body)
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<Book>> updateBook(@PathVariable Long id, @Valid @RequestBody Book bookDetails,
+                                                 @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        if (ifMatch != null && !"*".equals(ifMatch.trim())) {
+            Long expectedVersion = BookController.parseItemETag(ifMatch);
+            if (expectedVersion == null) {
+                return Mono.just(new ResponseEntity<>(HttpStatus.PRECONDITION_FAILED));
+            }
+            bookDetails.setVersion(expectedVersion);
+        }
+        return updated(reactiveBookService.updateBook(id, bookDetails), ifMatch);
+    }
+
+    // Partially update a book: only the fields present in the body change.
+    // Versions are checked as for PUT
+    @PatchMapping("/{id}")
+    public Mono<ResponseEntity<Book>> patchBook(@PathVariable Long id, @Valid @RequestBody BookPatch patch,
+                                                @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        if (ifMatch != null && !"*".equals(ifMatch.trim())) {
+            Long expectedVersion = BookController.parseItemETag(ifMatch);
+            if (expectedVersion == null) {
+                return Mono.just(new ResponseEntity<>(HttpStatus.PRECONDITION_FAILED));
+            }
+            patch.setVersion(expectedVersion);
+        }
+        return updated(reactiveBookService.patchBook(id, patch), ifMatch);
+    }
+
+    // Delete a book
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> deleteBook(@PathVariable Long id) {
+        return reactiveBookService.deleteBook(id)
+                .map(deleted -> new ResponseEntity<>(deleted ? HttpStatus.NO_CONTENT : HttpStatus.NOT_FOUND));
+    }
+
+    private Mono<ResponseEntity<BatchGetResult>> batchGet(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return Mono.just(new ResponseEntity<>(HttpStatus.BAD_REQUEST));
+        }
+        return ReactiveBookService.blocking(() -> bookService.getBooksByIds(ids))
+                .map(result -> new ResponseEntity<>(result, HttpStatus.OK))
+                .onErrorReturn(IllegalArgumentException.class, new ResponseEntity<>(HttpStatus.BAD_REQUEST));
+    }
+
+    // Clients must revalidate, but can do so cheaply with the ETag. WebFlux
+    // answers a matching If-None-Match with 304 without subscribing to the body
+    private static <T> ResponseEntity<T> withCatalogETag(T body, String catalogETag) {
+        return catalogResponse(catalogETag).body(body);
+    }
+
+    private static ResponseEntity.BodyBuilder catalogResponse(String catalogETag) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().cacheControl(CacheControl.noCache());
+        if (catalogETag != null) {
+            response.eTag(catalogETag);
+        }
+        return response;
+    }
+
+    // Deprecation header (RFC 9745, the date it was deprecated on) and the export as the replacement
+    private static ResponseEntity.BodyBuilder deprecated(ResponseEntity.BodyBuilder response) {
+        return response.header("Deprecation", BookController.FULL_LIST_DEPRECATED)
+                .header(HttpHeaders.LINK, "</api/books/export>; rel=\"alternate\"");
+    }
+
+    // Polls chained one after the other; ends when the changes after the cursor are pruned
+    private Flux<ServerSentEvent<BookChange>> changeEvents(long since) {
+        AtomicLong cursor = new AtomicLong(since);
+        return Mono.fromFuture(() -> changeFeed.poll(cursor.get(), BookService.MAX_PAGE_SIZE, changesKeepAlive)
+                        .thenApply(Optional::ofNullable))
+                .subscribeOn(Schedulers.boundedElastic())
+                .repeat()
+                .takeWhile(Optional::isPresent)
+                .concatMapIterable(page -> {
+                    cursor.set(page.get().getNextSince());
+                    if (page.get().getChanges().isEmpty()) {
+                        return List.of(ServerSentEvent.<BookChange>builder().comment("keep-alive").build());
+                    }
+                    return page.get().getChanges().stream()
+                            .map(change -> ServerSentEvent.builder(change)
+                                    .id(Long.toString(change.getSeq()))
+                                    .event("change")
+                                    .build())
+                            .collect(Collectors.toList());
+                });
+    }
+
+    private static Mono<ResponseEntity<Book>> updated(Mono<Book> book, String ifMatch) {
+        return book.map(ReactiveBookController::withItemETag)
+                .defaultIfEmpty(new ResponseEntity<>(HttpStatus.NOT_FOUND))
+                .onErrorReturn(OptimisticLockingFailureException.class,
+                        new ResponseEntity<>(ifMatch != null ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT));
+    }
+
+    private static ResponseEntity<Book> withItemETag(Book book) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().cacheControl(CacheControl.noCache());
+        if (book.getVersion() != null) {
+            response.eTag("\"" + book.getVersion() + "\"");
+        }
+        return response.body(book);
+    }
+
+    // Closing the write end lets the importer read to the end of what arrived
+    private static void closeQuietly(OutputStream out) {
+        try {
+            out.close();
+        } catch (IOException e) {
+            // The importer has already stopped reading
+        }
+    }
+
+    private String ndjsonRow(Book book) {
+        try {
+            return bookWriter.writeValueAsString(book) + "\n";
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // One CSV line, quoted as BookExporter does
+    private static String csvRow(Book book) {
+        StringWriter row = new StringWriter(64);
+        try {
+            row.write(String.valueOf(book.getId()));
+            row.write(',');
+            BookExporter.writeCsvField(book.getTitle(), row);
+            row.write(',');
+            BookExporter.writeCsvField(book.getAuthor(), row);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        row.write('\n');
+        return row.toString();
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.book_management;
+
+import java.util.Collection;
+
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Readable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * The read side of {@link BookRepository} over R2DBC, for the reactive
+ * profile. Methods keep the names and ordering of their JPA counterparts;
+ * results are streamed row by row as the subscriber asks for them.
+ *
+ * <p>Only id, title, author and version are read, which is all a response
+ * carries. LIKE patterns are escaped, as Spring Data does for derived
+ * queries, so {@code %} and {@code _} in a search term match themselves.
+ */
+public class ReactiveBookRepository {
+
+    private static final String COLUMNS = "SELECT id, title, author, version FROM books ";
+
+    // Not a backslash: MySQL would read '\' as an escaped quote
+    private static final char LIKE_ESCAPE = '!';
+
+    private final DatabaseClient databaseClient;
+
+    public ReactiveBookRepository(ConnectionFactory connectionFactory) {
+        this.databaseClient = DatabaseClient.create(connectionFactory);
+    }
+
+    public Flux<Book> findAllByOrderByIdAsc() {
+        return databaseClient.sql(COLUMNS + "ORDER BY id")
+                .map(ReactiveBookRepository::book)
+                .all();
+    }
+
+    // Keyset page: the next books after the given id, in id order
+    public Flux<Book> findByIdGreaterThanOrderByIdAsc(long id, int limit) {
+        return databaseClient.sql(COLUMNS + "WHERE id > :id ORDER BY id LIMIT :limit")
+                .bind("id", id)
+                .bind("limit", limit)
+                .map(ReactiveBookRepository::book)
+                .all();
+    }
+
+    public Mono<Book> findById(long id) {
+        return databaseClient.sql(COLUMNS + "WHERE id = :id")
+                .bind("id", id)
+                .map(ReactiveBookRepository::book)
+                .one();
+    }
+
+    // In no particular order; an empty collection finds nothing
+    public Flux<Book> findAllById(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return Flux.empty();
+        }
+        return databaseClient.sql(COLUMNS + "WHERE id IN (:ids)")
+                .bind("ids", ids)
+                .map(ReactiveBookRepository::book)
+                .all();
+    }
+
+    public Flux<Book> findByTitleContainingIgnoreCase(String title) {
+        return databaseClient.sql(COLUMNS + "WHERE UPPER(title) LIKE UPPER(:pattern) ESCAPE '" + LIKE_ESCAPE + "'")
+                .bind("pattern", "%" + escapeLike(title) + "%")
+                .map(ReactiveBookRepository::book)
+                .all();
+    }
+
+    public Flux<Book> findByAuthorContainingIgnoreCase(String author) {
+        return databaseClient.sql(COLUMNS + "WHERE UPPER(author) LIKE UPPER(:pattern) ESCAPE '" + LIKE_ESCAPE + "'")
+                .bind("pattern", "%" + escapeLike(author) + "%")
+                .map(ReactiveBookRepository::book)
+                .all();
+    }
+
+    // Prefix matches against the normalized columns; the argument must already be normalized
+    public Flux<Book> findByTitleNormalizedStartingWithOrderByTitleNormalizedAscIdAsc(String prefix, int limit) {
+        return databaseClient.sql(COLUMNS + "WHERE title_normalized LIKE :pattern ESCAPE '" + LIKE_ESCAPE + "' "
+                        + "ORDER BY title_normalized, id LIMIT :limit")
+                .bind("pattern", escapeLike(prefix) + "%")
+                .bind("limit", limit)
+                .map(ReactiveBookRepository::book)
+                .all();
+    }
+
+    public Flux<Book> findByAuthorNormalizedStartingWithOrderByAuthorNormalizedAscIdAsc(String prefix, int limit) {
+        return databaseClient.sql(COLUMNS + "WHERE author_normalized LIKE :pattern ESCAPE '" + LIKE_ESCAPE + "' "
+                        + "ORDER BY author_normalized, id LIMIT :limit")
+                .bind("pattern", escapeLike(prefix) + "%")
+                .bind("limit", limit)
+                .map(ReactiveBookRepository::book)
+                .all();
+    }
+
+    public Flux<Book> findByTitleOrAuthorContaining(String keyword) {
+        return databaseClient.sql(COLUMNS + "WHERE LOWER(title) LIKE LOWER(:pattern) ESCAPE '" + LIKE_ESCAPE + "' "
+                        + "OR LOWER(author) LIKE LOWER(:pattern) ESCAPE '" + LIKE_ESCAPE + "'")
+                .bind("pattern", "%" + escapeLike(keyword) + "%")
+                .map(ReactiveBookRepository::book)
+                .all();
+    }
+
+    static String escapeLike(String term) {
+        StringBuilder escaped = new StringBuilder(term.length() + 8);
+        for (int i = 0; i < term.length(); i++) {
+            char c = term.charAt(i);
+            if (c == LIKE_ESCAPE || c == '%' || c == '_') {
+                escaped.append(LIKE_ESCAPE);
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+
+    private static Book book(Readable row) {
+        Book book = new Book(row.get("title", String.class), row.get("author", String.class));
+        book.setId(row.get("id", Long.class));
+        book.setVersion(row.get("version", Long.class));
+        return book;
+    }
+}
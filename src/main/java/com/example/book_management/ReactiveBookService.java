@@ -0,0 +1,117 @@
+package com.example.book_management;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Book operations for the reactive stack. Lists, pages, searches and exports
+ * stream from {@link ReactiveBookRepository} without blocking a thread.
+ * Lookups by id and every write go through {@link BookService} on the
+ * bounded elastic scheduler, so the cache, the search index, write-behind and
+ * the catalog version behave exactly as on the servlet stack.
+ */
+@Service
+@Profile("reactive")
+public class ReactiveBookService {
+
+    @Autowired
+    private ReactiveBookRepository reactiveBookRepository;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private BookSearchIndex searchIndex;
+
+    @Value("${books.search.max-results:1000}")
+    private int searchMaxResults = 1000;
+
+    public Flux<Book> getAllBooks() {
+        return reactiveBookRepository.findAllByOrderByIdAsc();
+    }
+
+    // One page of books ordered by id, as BookService.getBooksPage
+    public Mono<BookPage> getBooksPage(Long after, Integer limit) {
+        int pageSize = limit != null ? Math.min(Math.max(limit, 1), BookService.MAX_PAGE_SIZE) : BookService.DEFAULT_PAGE_SIZE;
+        long cursor = after != null ? after : 0L;
+
+        // Fetch one extra row so we know whether another page exists
+        return reactiveBookRepository.findByIdGreaterThanOrderByIdAsc(cursor, pageSize + 1)
+                .collectList()
+                .map(books -> {
+                    if (books.size() > pageSize) {
+                        List<Book> page = books.subList(0, pageSize);
+                        return new BookPage(page, page.get(pageSize - 1).getId());
+                    }
+                    return new BookPage(books, null);
+                });
+    }
+
+    // Through the cache and any pending write-behind change, as BookService.getBookById
+    public Mono<Book> getBookById(Long id) {
+        return blocking(() -> bookService.getBookById(id).orElse(null));
+    }
+
+    public Flux<Book> searchBooksByTitle(String title) {
+        return reactiveBookRepository.findByTitleContainingIgnoreCase(title);
+    }
+
+    public Flux<Book> searchBooksByAuthor(String author) {
+        return reactiveBookRepository.findByAuthorContainingIgnoreCase(author);
+    }
+
+    public Flux<Book> searchBooksByTitlePrefix(String prefix) {
+        return reactiveBookRepository.findByTitleNormalizedStartingWithOrderByTitleNormalizedAscIdAsc(
+                TextNormalizer.normalize(prefix), searchMaxResults);
+    }
+
+    public Flux<Book> searchBooksByAuthorPrefix(String prefix) {
+        return reactiveBookRepository.findByAuthorNormalizedStartingWithOrderByAuthorNormalizedAscIdAsc(
+                TextNormalizer.normalize(prefix), searchMaxResults);
+    }
+
+    // Most relevant first, as BookService.searchBooks: the in-memory index ranks
+    // the ids, the books are read by id and re-checked against the query
+    public Flux<Book> searchBooks(String keyword) {
+        if (!searchIndex.isReady() || TextNormalizer.tokenize(keyword).isEmpty()) {
+            return reactiveBookRepository.findByTitleOrAuthorContaining(keyword);
+        }
+        List<Long> ids = searchIndex.search(keyword, searchMaxResults);
+        return reactiveBookRepository.findAllById(ids)
+                .collectMap(Book::getId)
+                .flatMapMany(booksById -> Flux.fromIterable(ids)
+                        .mapNotNull(booksById::get)
+                        .filter(book -> BookSearchIndex.matches(book, keyword)));
+    }
+
+    public Mono<Book> addBook(Book book) {
+        return blocking(() -> bookService.addBook(book));
+    }
+
+    // Empty when there is no such book
+    public Mono<Book> updateBook(Long id, Book bookDetails) {
+        return blocking(() -> bookService.updateBook(id, bookDetails));
+    }
+
+    public Mono<Book> patchBook(Long id, BookPatch patch) {
+        return blocking(() -> bookService.patchBook(id, patch));
+    }
+
+    public Mono<Boolean> deleteBook(Long id) {
+        return blocking(() -> bookService.deleteBook(id));
+    }
+
+    // Run JDBC work off the event loop; a null result completes empty
+    static <T> Mono<T> blocking(Callable<T> work) {
+        return Mono.fromCallable(work).subscribeOn(Schedulers.boundedElastic());
+    }
+}
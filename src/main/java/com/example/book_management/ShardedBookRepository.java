@@ -0,0 +1,304 @@
+package com.example.book_management;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.springframework.data.domain.Limit;
+
+/**
+ * {@link BookStore} spread over {@link BookShards}, each shard holding a
+ * plain {@link BookRepository}.
+ *
+ * <p>Lookups, updates and deletes by id go to the shard that owns the id.
+ * Queries over the whole catalog run on every shard in parallel and are
+ * merged into the order the single-database query gives; limited queries
+ * take the limit from each shard and cut the merged list. New books get
+ * their id from {@link BookIdAllocator} and are inserted straight into their
+ * shard in JDBC batches.
+ *
+ * <p>Each shard commits on its own, so a call that spans shards is not
+ * atomic, and shards other than 0 commit before the caller's transaction,
+ * where {@link BookChangeLog} records the change.
+ */
+public class ShardedBookRepository implements BookStore {
+
+    private static final int STREAM_PAGE_SIZE = 1000;
+
+    private static final Comparator<Book> BY_ID = Comparator.comparing(Book::getId);
+    private static final Comparator<Book> BY_TITLE = Comparator.comparing(Book::getTitleNormalized).thenComparing(BY_ID);
+    private static final Comparator<Book> BY_AUTHOR = Comparator.comparing(Book::getAuthorNormalized).thenComparing(BY_ID);
+
+    private final BookShards shards;
+    private final BookIdAllocator idAllocator;
+
+    public ShardedBookRepository(BookShards shards, BookIdAllocator idAllocator) {
+        this.shards = shards;
+        this.idAllocator = idAllocator;
+    }
+
+    // Writes
+
+    @Override
+    public <S extends Book> S save(S book) {
+        return saveAll(List.of(book)).get(0);
+    }
+
+    // Books without an id are inserted, the others merged into their shard
+    @Override
+    public <S extends Book> List<S> saveAll(Iterable<S> books) {
+        List<S> toSave = new ArrayList<>();
+        books.forEach(toSave::add);
+        boolean[] inserted = new boolean[toSave.size()];
+        for (int i = 0; i < toSave.size(); i++) {
+            if (toSave.get(i).getId() == null) {
+                toSave.get(i).setId(idAllocator.next());
+                inserted[i] = true;
+            }
+        }
+        List<Long> ids = toSave.stream().map(Book::getId).collect(Collectors.toList());
+        return shards.withBucketsLocked(ids, () -> {
+            List<S> saved = new ArrayList<>(toSave);
+            Map<BookShard, List<Book>> inserts = new LinkedHashMap<>();
+            Map<BookShard, List<Integer>> merges = new LinkedHashMap<>();
+            for (int i = 0; i < toSave.size(); i++) {
+                S book = toSave.get(i);
+                BookShard shard = shards.shardFor(book.getId());
+                if (inserted[i]) {
+                    book.normalizeSearchColumns();
+                    book.setVersion(0L);
+                    inserts.computeIfAbsent(shard, key -> new ArrayList<>()).add(book);
+                } else {
+                    merges.computeIfAbsent(shard, key -> new ArrayList<>()).add(i);
+                }
+            }
+            inserts.forEach(BookShard::insert);
+            merges.forEach((shard, positions) -> {
+                List<S> batch = positions.stream().map(toSave::get).collect(Collectors.toList());
+                List<S> merged = shard.write(repository -> repository.saveAll(batch));
+                for (int j = 0; j < positions.size(); j++) {
+                    saved.set(positions.get(j), merged.get(j));
+                }
+            });
+            return saved;
+        });
+    }
+
+    @Override
+    public int updateTitleAndAuthor(Long id, String title, String author,
+                                    String titleNormalized, String authorNormalized) {
+        return writeOwner(id, repository -> repository.updateTitleAndAuthor(id, title, author,
+                titleNormalized, authorNormalized));
+    }
+
+    @Override
+    public int updateTitleAndAuthorAtVersion(Long id, Long version, String title, String author,
+                                             String titleNormalized, String authorNormalized) {
+        return writeOwner(id, repository -> repository.updateTitleAndAuthorAtVersion(id, version, title, author,
+                titleNormalized, authorNormalized));
+    }
+
+    @Override
+    public int deleteBookById(Long id) {
+        return writeOwner(id, repository -> repository.deleteBookById(id));
+    }
+
+    @Override
+    public void deleteById(Long id) {
+        writeOwner(id, repository -> {
+            repository.deleteById(id);
+            return null;
+        });
+    }
+
+    @Override
+    public void deleteAll(Iterable<? extends Book> books) {
+        List<Book> all = new ArrayList<>();
+        books.forEach(all::add);
+        List<Long> ids = all.stream().map(Book::getId).collect(Collectors.toList());
+        shards.withBucketsLocked(ids, () -> {
+            Map<BookShard, List<Book>> byShard = new LinkedHashMap<>();
+            all.forEach(book -> byShard.computeIfAbsent(shards.shardFor(book.getId()), key -> new ArrayList<>()).add(book));
+            byShard.forEach((shard, shardBooks) -> shard.write(repository -> {
+                repository.deleteAll(shardBooks);
+                return null;
+            }));
+            return null;
+        });
+    }
+
+    @Override
+    public void deleteAll() {
+        shards.all().forEach(shard -> shard.write(repository -> {
+            repository.deleteAll();
+            return null;
+        }));
+    }
+
+    // Reads
+
+    @Override
+    public Optional<Book> findById(Long id) {
+        return shards.shardFor(id).read(repository -> repository.findById(id));
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        return shards.shardFor(id).read(repository -> repository.existsById(id));
+    }
+
+    @Override
+    public List<Book> findAllById(Iterable<Long> ids) {
+        List<Book> books = new ArrayList<>();
+        byShard(ids).forEach((shard, shardIds) -> shard.read(repository -> repository.findAllById(shardIds))
+                .stream()
+                .filter(book -> shards.owns(shard, book))
+                .forEach(books::add));
+        return books;
+    }
+
+    @Override
+    public List<Book> findAll() {
+        return sorted(shards.scatter(BookRepository::findAll), BY_ID);
+    }
+
+    @Override
+    public long count() {
+        return shards.all().stream().mapToLong(shard -> shard.read(BookRepository::count)).sum();
+    }
+
+    @Override
+    public List<Book> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit) {
+        return limited(shards.scatter(repository -> repository.findByIdGreaterThanOrderByIdAsc(id, limit)), BY_ID, limit);
+    }
+
+    @Override
+    public List<Book> findByTitleContainingIgnoreCase(String title) {
+        return sorted(shards.scatter(repository -> repository.findByTitleContainingIgnoreCase(title)), BY_ID);
+    }
+
+    @Override
+    public List<Book> findByAuthorContainingIgnoreCase(String author) {
+        return sorted(shards.scatter(repository -> repository.findByAuthorContainingIgnoreCase(author)), BY_ID);
+    }
+
+    @Override
+    public List<Book> findByTitleNormalizedStartingWithOrderByTitleNormalizedAscIdAsc(String prefix, Limit limit) {
+        return limited(shards.scatter(repository ->
+                repository.findByTitleNormalizedStartingWithOrderByTitleNormalizedAscIdAsc(prefix, limit)), BY_TITLE, limit);
+    }
+
+    @Override
+    public List<Book> findByAuthorNormalizedStartingWithOrderByAuthorNormalizedAscIdAsc(String prefix, Limit limit) {
+        return limited(shards.scatter(repository ->
+                repository.findByAuthorNormalizedStartingWithOrderByAuthorNormalizedAscIdAsc(prefix, limit)), BY_AUTHOR, limit);
+    }
+
+    @Override
+    public List<Book> findByTitleOrAuthorContaining(String keyword) {
+        return sorted(shards.scatter(repository -> repository.findByTitleOrAuthorContaining(keyword)), BY_ID);
+    }
+
+    // Every shard read a page at a time and merged by id; needs no open transaction
+    @Override
+    public Stream<Book> streamAllByOrderByIdAsc() {
+        List<ShardCursor> cursors = shards.all().stream().map(ShardCursor::new).collect(Collectors.toList());
+        Iterator<Book> merged = new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return lowest() != null;
+            }
+
+            @Override
+            public Book next() {
+                ShardCursor cursor = lowest();
+                if (cursor == null) {
+                    throw new NoSuchElementException();
+                }
+                return cursor.next();
+            }
+
+            private ShardCursor lowest() {
+                ShardCursor lowest = null;
+                for (ShardCursor cursor : cursors) {
+                    Book head = cursor.peek();
+                    if (head != null && (lowest == null || head.getId() < lowest.peek().getId())) {
+                        lowest = cursor;
+                    }
+                }
+                return lowest;
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(merged,
+                Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    private <T> T writeOwner(Long id, Function<BookRepository, T> work) {
+        return shards.withBucketsLocked(List.of(id), () -> shards.shardFor(id).write(work));
+    }
+
+    private Map<BookShard, List<Long>> byShard(Iterable<? extends Long> ids) {
+        Map<BookShard, List<Long>> byShard = new LinkedHashMap<>();
+        ids.forEach(id -> byShard.computeIfAbsent(shards.shardFor(id), key -> new ArrayList<>()).add(id));
+        return byShard;
+    }
+
+    private static List<Book> sorted(List<Book> books, Comparator<Book> order) {
+        books.sort(order);
+        return books;
+    }
+
+    private static List<Book> limited(List<Book> books, Comparator<Book> order, Limit limit) {
+        sorted(books, order);
+        return limit.isLimited() && books.size() > limit.max() ? new ArrayList<>(books.subList(0, limit.max())) : books;
+    }
+
+    // Keyset pages of one shard, skipping rows it no longer owns
+    private final class ShardCursor {
+
+        private final BookShard shard;
+        private List<Book> page = List.of();
+        private int position;
+        private long after;
+        private boolean exhausted;
+
+        private ShardCursor(BookShard shard) {
+            this.shard = shard;
+        }
+
+        // Next book without consuming it, or null once the shard is done
+        private Book peek() {
+            while (position >= page.size()) {
+                if (exhausted) {
+                    return null;
+                }
+                List<Book> next = shard.read(repository ->
+                        repository.findByIdGreaterThanOrderByIdAsc(after, Limit.of(STREAM_PAGE_SIZE)));
+                exhausted = next.size() < STREAM_PAGE_SIZE;
+                if (!next.isEmpty()) {
+                    after = next.get(next.size() - 1).getId();
+                }
+                page = next.stream().filter(book -> shards.owns(shard, book)).collect(Collectors.toList());
+                position = 0;
+            }
+            return page.get(position);
+        }
+
+        private Book next() {
+            Book book = peek();
+            position++;
+            return book;
+        }
+    }
+}
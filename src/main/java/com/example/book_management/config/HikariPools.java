@@ -0,0 +1,35 @@
+package com.example.book_management.config;
+
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Pools for the databases next to the primary (replicas, shards). Each one
+ * starts from the primary's {@code spring.datasource.hikari.*} settings, so
+ * sizing, timeouts, leak detection and driver properties such as MySQL's
+ * statement cache apply everywhere; {@code <prefix>.hikari.*} then overrides
+ * them for that kind of database only. The pool name is always the one given
+ * here, so metrics and /actuator/pools tell the pools apart.
+ */
+final class HikariPools {
+
+    private HikariPools() {
+    }
+
+    // A pool with the primary's settings and no database yet
+    static HikariDataSource inherit(Binder binder, String poolName) {
+        HikariDataSource pool = new HikariDataSource();
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+        pool.setPoolName(poolName);
+        return pool;
+    }
+
+    // Apply <prefix>.hikari.* on top of what the pool has; driver properties are merged
+    static void override(Binder binder, String prefix, HikariDataSource pool) {
+        String poolName = pool.getPoolName();
+        binder.bind(prefix + ".hikari", Bindable.ofInstance(pool));
+        pool.setPoolName(poolName);
+    }
+}
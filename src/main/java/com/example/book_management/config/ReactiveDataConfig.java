@@ -0,0 +1,54 @@
+package com.example.book_management.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+
+import com.example.book_management.ReactiveBookRepository;
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.r2dbc.spi.ConnectionFactory;
+
+/**
+ * R2DBC reads for the reactive profile. The connection factory is Spring
+ * Boot's, built from {@code spring.r2dbc.*}; it must reach the same database
+ * as {@code spring.datasource.*}, which JPA keeps using for writes. Without
+ * an explicit URL Boot would quietly start an empty embedded database, so
+ * one is required. Sharded storage has no R2DBC counterpart.
+ *
+ * <p>Boot backs its JDBC DataSource off as soon as an R2DBC connection
+ * factory exists, so the pool JPA uses is declared here, built as Boot would
+ * build it. With read replicas, {@link ReplicaDataSourceConfig} declares it.
+ */
+@Configuration
+@Profile("reactive")
+@EnableConfigurationProperties(DataSourceProperties.class)
+public class ReactiveDataConfig {
+
+    @Bean
+    @ConditionalOnExpression("'${books.replicas.urls:}'.isBlank()")
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReactiveBookRepository reactiveBookRepository(ConnectionFactory connectionFactory,
+                                                         Environment environment,
+                                                         @Value("${spring.r2dbc.url:}") String url) {
+        if (url.isBlank()) {
+            throw new IllegalStateException("The reactive profile needs spring.r2dbc.url, "
+                    + "pointing at the database in spring.datasource.url");
+        }
+        if (environment.containsProperty("books.shards.urls")) {
+            throw new IllegalStateException("books.shards.urls cannot be used with the reactive profile");
+        }
+        return new ReactiveBookRepository(connectionFactory);
+    }
+}
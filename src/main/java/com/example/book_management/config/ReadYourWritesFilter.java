@@ -0,0 +1,66 @@
+package com.example.book_management.config;
+
+import java.io.IOException;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Binds each request to its client for {@link ReplicaRoutingDataSource}, so
+ * reads only go to the primary after that client's own writes. The time of
+ * the client's last write travels in a cookie that expires with the lag
+ * window, so it reaches whichever instance serves the next request. Clients
+ * that do not keep cookies read from the replicas right after a write.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    static final String COOKIE = "books-last-write";
+
+    private final ReplicaRoutingDataSource routing;
+
+    public ReadYourWritesFilter(ReplicaRoutingDataSource routing) {
+        this.routing = routing;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        routing.bindCaller(lastWrite(request), time -> response.addCookie(cookie(time)));
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            routing.unbindCaller();
+        }
+    }
+
+    private static long lastWrite(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return 0L;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue());
+                } catch (NumberFormatException e) {
+                    return 0L;
+                }
+            }
+        }
+        return 0L;
+    }
+
+    // Written while the transaction ends, before the response body is
+    private Cookie cookie(long time) {
+        Cookie cookie = new Cookie(COOKIE, Long.toString(time));
+        cookie.setPath("/");
+        cookie.setHttpOnly(true);
+        cookie.setMaxAge((int) Math.max(1, routing.maxLag().toSeconds() + 1));
+        return cookie;
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.book_management.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Read replicas, switched on by setting {@code books.replicas.urls}. The
+ * primary pool is still built from {@code spring.datasource.*}; each replica
+ * gets its own read-only pool with the same driver and pool settings, which
+ * {@code books.replicas.hikari.*} can override (see {@link HikariPools}). The
+ * application then talks to a {@link ReplicaRoutingDataSource} through a
+ * lazy proxy, which is what lets read-only transactions reach a replica.
+ * On the servlet stack, a {@link ReadYourWritesFilter} keeps each client's
+ * reads on the primary right after its own writes; the reactive stack has no
+ * such filter, so its reads always go to the replicas.
+ */
+@Configuration
+@ConditionalOnProperty("books.replicas.urls")
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+            HikariDataSource primaryDataSource,
+            DataSourceProperties properties,
+            ObjectProvider<MeterRegistry> meterRegistry,
+            Environment environment,
+            @Value("${books.replicas.urls}") List<String> urls,
+            @Value("${books.replicas.username:${spring.datasource.username:}}") String username,
+            @Value("${books.replicas.password:${spring.datasource.password:}}") String password,
+            @Value("${books.replicas.connection-timeout:2s}") Duration connectionTimeout,
+            @Value("${books.replicas.max-lag:1s}") Duration maxLag,
+            @Value("${books.replicas.health-check-interval:5s}") Duration healthCheckInterval) {
+        Binder binder = Binder.get(environment);
+        List<DataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < urls.size(); i++) {
+            HikariDataSource replica = HikariPools.inherit(binder, "replica-" + i);
+            replica.setJdbcUrl(urls.get(i).trim());
+            replica.setUsername(username);
+            replica.setPassword(password);
+            replica.setDriverClassName(properties.determineDriverClassName());
+            replica.setConnectionTimeout(connectionTimeout.toMillis());
+            replica.setReadOnly(true);
+            HikariPools.override(binder, "books.replicas", replica);
+            meterRegistry.ifAvailable(replica::setMetricRegistry);
+            replicas.add(replica);
+        }
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primaryDataSource, replicas, maxLag);
+        routing.startHealthChecks(healthCheckInterval);
+        return routing;
+    }
+
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    public ReadYourWritesFilter readYourWritesFilter(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new ReadYourWritesFilter(replicaRoutingDataSource);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+}
@@ -0,0 +1,276 @@
+package com.example.book_management.config;
+
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongConsumer;
+import java.util.function.LongSupplier;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+/**
+ * Hands out replica connections to read-only transactions and primary
+ * connections to everything else.
+ *
+ * <p>The routing decision is made when a connection is actually needed, so
+ * this data source must sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy};
+ * otherwise the transaction manager fetches the connection before the
+ * read-only flag is set. Work outside a transaction always goes to the
+ * primary.
+ *
+ * <p>A read picks the healthy replica with the fewest active connections,
+ * starting the comparison at a rotating position so equally loaded replicas
+ * take turns. A replica that fails to hand out a connection is marked down
+ * and the read moves on to the next one, then to the primary; a periodic
+ * health check brings it back.
+ *
+ * <p>So that a client sees its own writes, its reads go to the primary for
+ * {@code maxLag} after its last read-write transaction. The client is
+ * whoever the current thread is bound to with {@link #bindCaller}. Its last
+ * write is a wall-clock time that the caller carries, for example in a
+ * cookie (see {@link ReadYourWritesFilter}), so the window follows it to
+ * other instances without pinning anyone else's reads to the primary.
+ * Instance clocks must agree to well within {@code maxLag}. Work not bound
+ * to a caller, such as background jobs, always reads from the replicas.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    private final DataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final long maxLagMillis;
+    private final LongSupplier clock;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final ThreadLocal<Caller> caller = new ThreadLocal<>();
+    private ScheduledExecutorService healthChecks;
+
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas, Duration maxLag) {
+        this(primary, replicas, maxLag, System::currentTimeMillis);
+    }
+
+    ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas, Duration maxLag, LongSupplier clock) {
+        if (replicas.isEmpty()) {
+            throw new IllegalArgumentException("At least one replica is required");
+        }
+        this.primary = primary;
+        for (int i = 0; i < replicas.size(); i++) {
+            this.replicas.add(new Replica("replica-" + i, replicas.get(i)));
+        }
+        this.maxLagMillis = maxLag.toMillis();
+        this.clock = clock;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!routeToReplica()) {
+            return primary.getConnection();
+        }
+        Replica replica = pickReplica();
+        while (replica != null) {
+            try {
+                return replica.dataSource.getConnection();
+            } catch (SQLException e) {
+                markDown(replica, e);
+                replica = pickReplica();
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        if (!routeToReplica()) {
+            return primary.getConnection(username, password);
+        }
+        Replica replica = pickReplica();
+        while (replica != null) {
+            try {
+                return replica.dataSource.getConnection(username, password);
+            } catch (SQLException e) {
+                markDown(replica, e);
+                replica = pickReplica();
+            }
+        }
+        return primary.getConnection(username, password);
+    }
+
+    // Route the current thread's work for a caller that last wrote at lastWrite
+    // (epoch millis, 0 for never); onWrite is told the time of each write it commits
+    public void bindCaller(long lastWrite, LongConsumer onWrite) {
+        // A time ahead of this clock cannot hold reads on the primary for longer than a write now
+        caller.set(new Caller(Math.min(lastWrite, clock.getAsLong()), onWrite));
+    }
+
+    public void unbindCaller() {
+        caller.remove();
+    }
+
+    public Duration maxLag() {
+        return Duration.ofMillis(maxLagMillis);
+    }
+
+    // Probe every replica now: down ones that answer come back, up ones that do not go down
+    public void checkHealth() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection()) {
+                if (connection.isValid(2)) {
+                    markUp(replica);
+                } else {
+                    markDown(replica, null);
+                }
+            } catch (SQLException e) {
+                markDown(replica, e);
+            }
+        }
+    }
+
+    public synchronized void startHealthChecks(Duration interval) {
+        if (healthChecks != null) {
+            return;
+        }
+        healthChecks = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-health");
+            thread.setDaemon(true);
+            return thread;
+        });
+        healthChecks.scheduleWithFixedDelay(this::checkHealth, interval.toMillis(), interval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    public int healthyReplicas() {
+        int healthy = 0;
+        for (Replica replica : replicas) {
+            if (replica.healthy) {
+                healthy++;
+            }
+        }
+        return healthy;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (healthChecks != null) {
+            healthChecks.shutdownNow();
+        }
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof Closeable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    log.warn("Could not close {}", replica.name, e);
+                }
+            }
+        }
+    }
+
+    // Read-only transactions go to a replica unless the caller wrote recently.
+    // A read-write transaction counts as a write from now until it commits.
+    private boolean routeToReplica() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return false;
+        }
+        Caller current = caller.get();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (current != null) {
+                current.lastWrite = clock.getAsLong();
+                if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                        @Override
+                        public void afterCompletion(int status) {
+                            if (status == STATUS_COMMITTED) {
+                                current.lastWrite = clock.getAsLong();
+                                current.onWrite.accept(current.lastWrite);
+                            }
+                        }
+                    });
+                }
+            }
+            return false;
+        }
+        return current == null || clock.getAsLong() - current.lastWrite > maxLagMillis;
+    }
+
+    // Least active connections among healthy replicas, or null if none is healthy
+    private Replica pickReplica() {
+        int start = Math.floorMod(nextReplica.getAndIncrement(), replicas.size());
+        Replica best = null;
+        int bestLoad = Integer.MAX_VALUE;
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (!replica.healthy) {
+                continue;
+            }
+            int load = replica.activeConnections();
+            if (load < bestLoad) {
+                best = replica;
+                bestLoad = load;
+            }
+        }
+        return best;
+    }
+
+    private void markDown(Replica replica, SQLException cause) {
+        if (replica.healthy) {
+            replica.healthy = false;
+            log.warn("Read replica {} is down; its reads go to the other replicas or the primary", replica.name, cause);
+        }
+    }
+
+    private void markUp(Replica replica) {
+        if (!replica.healthy) {
+            replica.healthy = true;
+            log.info("Read replica {} is back", replica.name);
+        }
+    }
+
+    // The client the current thread works for; confined to that thread
+    private static final class Caller {
+
+        private final LongConsumer onWrite;
+        private long lastWrite;
+
+        private Caller(long lastWrite, LongConsumer onWrite) {
+            this.lastWrite = lastWrite;
+            this.onWrite = onWrite;
+        }
+    }
+
+    private static final class Replica {
+
+        private final String name;
+        private final DataSource dataSource;
+        private volatile boolean healthy = true;
+
+        private Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        // Connections in use, for pools that report it; others count as idle
+        private int activeConnections() {
+            if (dataSource instanceof HikariDataSource hikari) {
+                HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+                return pool != null ? pool.getActiveConnections() : 0;
+            }
+            return 0;
+        }
+    }
+}
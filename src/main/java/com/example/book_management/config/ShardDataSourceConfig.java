@@ -0,0 +1,135 @@
+package com.example.book_management.config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.JpaProperties;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.orm.jpa.EntityManagerFactoryBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.example.book_management.Book;
+import com.example.book_management.BookIdAllocator;
+import com.example.book_management.BookRepository;
+import com.example.book_management.BookShard;
+import com.example.book_management.BookShardRebalancer;
+import com.example.book_management.BookShards;
+import com.example.book_management.BookShardsEndpoint;
+import com.example.book_management.BookStore;
+import com.example.book_management.ShardedBookRepository;
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Sharded storage, switched on by setting {@code books.shards.urls}. The
+ * database in {@code spring.datasource.*} is shard 0 and keeps the bucket map
+ * and the id allocator; every URL in the list adds a shard with its own pool
+ * (shard 0's settings, overridable under {@code books.shards.hikari.*}) and
+ * persistence unit, whose schema follows {@code spring.jpa.*} like the
+ * main one. {@link ShardedBookRepository} is then the
+ * {@link BookStore} injected into the service;
+ * the plain repository stays shard 0's own.
+ */
+@Configuration
+@ConditionalOnProperty("books.shards.urls")
+public class ShardDataSourceConfig {
+
+    @Bean(destroyMethod = "close")
+    public BookShards bookShards(DataSource dataSource,
+                                 PlatformTransactionManager transactionManager,
+                                 @Qualifier("bookRepository") BookRepository bookRepository,
+                                 DataSourceProperties dataSourceProperties,
+                                 EntityManagerFactoryBuilder entityManagerFactoryBuilder,
+                                 JpaProperties jpaProperties,
+                                 HibernateProperties hibernateProperties,
+                                 ObjectProvider<MeterRegistry> meterRegistry,
+                                 Environment environment,
+                                 @Value("${books.shards.urls}") List<String> urls,
+                                 @Value("${books.shards.username:${spring.datasource.username:}}") String username,
+                                 @Value("${books.shards.password:${spring.datasource.password:}}") String password) {
+        if (environment.containsProperty("books.replicas.urls")) {
+            throw new IllegalStateException("books.shards.urls and books.replicas.urls cannot be used together");
+        }
+        Map<String, Object> hibernate = hibernateProperties.determineHibernateProperties(
+                jpaProperties.getProperties(), new HibernateSettings().ddlAuto(() -> "none"));
+
+        Binder binder = Binder.get(environment);
+        List<BookShard> shards = new ArrayList<>();
+        List<AutoCloseable> resources = new ArrayList<>();
+        shards.add(new BookShard(0, bookRepository, transactionManager, dataSource));
+        for (int i = 0; i < urls.size(); i++) {
+            int index = i + 1;
+            HikariDataSource shardDataSource = HikariPools.inherit(binder, "shard-" + index);
+            shardDataSource.setJdbcUrl(urls.get(i).trim());
+            shardDataSource.setUsername(username);
+            shardDataSource.setPassword(password);
+            shardDataSource.setDriverClassName(dataSourceProperties.determineDriverClassName());
+            HikariPools.override(binder, "books.shards", shardDataSource);
+            meterRegistry.ifAvailable(shardDataSource::setMetricRegistry);
+
+            LocalContainerEntityManagerFactoryBean factory = entityManagerFactoryBuilder
+                    .dataSource(shardDataSource)
+                    .packages(Book.class)
+                    .persistenceUnit("shard-" + index)
+                    .properties(hibernate)
+                    .build();
+            factory.afterPropertiesSet();
+            EntityManagerFactory entityManagerFactory = factory.getObject();
+            BookRepository shardRepository = new JpaRepositoryFactory(
+                    SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory))
+                    .getRepository(BookRepository.class);
+
+            shards.add(new BookShard(index, shardRepository, new JpaTransactionManager(entityManagerFactory),
+                    shardDataSource));
+            resources.add(factory::destroy);
+            resources.add(shardDataSource);
+        }
+        BookShards bookShards = new BookShards(shards, resources);
+        bookShards.loadBuckets();
+        return bookShards;
+    }
+
+    @Bean(destroyMethod = "close")
+    public BookIdAllocator bookIdAllocator(BookShards bookShards,
+                                           @Value("${books.shards.id-block-size:1000}") int blockSize) {
+        BookIdAllocator allocator = new BookIdAllocator(bookShards, blockSize);
+        allocator.createTable();
+        return allocator;
+    }
+
+    @Bean
+    @Primary
+    public ShardedBookRepository shardedBookRepository(BookShards bookShards, BookIdAllocator bookIdAllocator) {
+        return new ShardedBookRepository(bookShards, bookIdAllocator);
+    }
+
+    @Bean
+    public BookShardRebalancer bookShardRebalancer(BookShards bookShards) {
+        return new BookShardRebalancer(bookShards);
+    }
+
+    @Bean
+    public BookShardsEndpoint bookShardsEndpoint(BookShards bookShards, BookShardRebalancer bookShardRebalancer) {
+        return new BookShardsEndpoint(bookShards, bookShardRebalancer);
+    }
+}
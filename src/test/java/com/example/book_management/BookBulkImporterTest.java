@@ -0,0 +1,178 @@
+package com.example.book_management;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.validation.Validation;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Book Bulk Importer Tests")
+class BookBulkImporterTest {
+
+    @Mock
+    private BookService bookService;
+
+    private BookBulkImporter importer;
+    private final AtomicLong nextId = new AtomicLong(1);
+
+    @BeforeEach
+    void setUp() {
+        importer = new BookBulkImporter(bookService, new ObjectMapper(),
+                Validation.buildDefaultValidatorFactory().getValidator(), 2);
+    }
+
+    private void givenBatchesAreSaved() {
+        when(bookService.addBooks(anyList())).thenAnswer(invocation -> {
+            List<Book> books = invocation.getArgument(0);
+            List<Book> saved = new ArrayList<>();
+            for (Book book : books) {
+                Book copy = new Book(book.getTitle(), book.getAuthor());
+                copy.setId(nextId.getAndIncrement());
+                saved.add(copy);
+            }
+            return saved;
+        });
+    }
+
+    @Test
+    @DisplayName("Should import JSON array in batches")
+    void shouldImportJsonArrayInBatches() throws Exception {
+        // Given
+        givenBatchesAreSaved();
+        String json = "[{\"title\":\"Book 1\",\"author\":\"Author 1\"},"
+                + "{\"title\":\"Book 2\",\"author\":\"Author 2\"},"
+                + "{\"title\":\"Book 3\",\"author\":\"Author 3\"}]";
+
+        // When
+        BulkImportResult result = importer.importJsonArray(stream(json));
+
+        // Then
+        assertEquals(3, result.getCreated());
+        assertEquals(0, result.getFailed());
+        assertEquals(List.of(1L, 2L, 3L), result.getItems().stream().map(BulkItemResult::getId).toList());
+        verify(bookService, times(2)).addBooks(anyList());
+    }
+
+    @Test
+    @DisplayName("Should report invalid items without saving them")
+    void shouldReportInvalidItemsWithoutSavingThem() throws Exception {
+        // Given
+        givenBatchesAreSaved();
+        String ndjson = "{\"title\":\"Book 1\",\"author\":\"Author 1\"}\n"
+                + "{\"title\":\"\",\"author\":\"Author 2\"}\n"
+                + "not json\n"
+                + "\n"
+                + "{\"title\":\"Book 4\",\"author\":\"Author 4\"}\n";
+
+        // When
+        BulkImportResult result = importer.importNdjson(stream(ndjson));
+
+        // Then
+        assertEquals(2, result.getCreated());
+        assertEquals(2, result.getFailed());
+        List<BulkItemResult> items = result.getItems();
+        assertEquals(4, items.size());
+        assertEquals(BulkItemResult.Status.CREATED, items.get(0).getStatus());
+        assertEquals(BulkItemResult.Status.INVALID, items.get(1).getStatus());
+        assertTrue(items.get(1).getErrors().get(0).startsWith("title"));
+        assertEquals(BulkItemResult.Status.INVALID, items.get(2).getStatus());
+        assertEquals(BulkItemResult.Status.CREATED, items.get(3).getStatus());
+        assertEquals(3, items.get(3).getIndex());
+    }
+
+    @Test
+    @DisplayName("Should ignore client supplied ids")
+    void shouldIgnoreClientSuppliedIds() throws Exception {
+        // Given
+        givenBatchesAreSaved();
+
+        // When
+        importer.importNdjson(stream("{\"id\":42,\"title\":\"Book\",\"author\":\"Author\"}\n"));
+
+        // Then
+        verify(bookService).addBooks(argThat(books -> books.get(0).getId() == null));
+    }
+
+    @Test
+    @DisplayName("Should fall back to single inserts when a batch fails")
+    void shouldFallBackToSingleInsertsWhenBatchFails() throws Exception {
+        // Given
+        when(bookService.addBooks(anyList())).thenAnswer(invocation -> {
+            // Ids and versions assigned before the batch rolled back
+            List<Book> books = invocation.getArgument(0);
+            books.forEach(book -> {
+                book.setId(99L);
+                book.setVersion(0L);
+            });
+            throw new RuntimeException("Batch failed");
+        });
+        Book saved = new Book("Book 1", "Author 1");
+        saved.setId(7L);
+        when(bookService.addBook(any(Book.class)))
+            .thenReturn(saved)
+            .thenThrow(new RuntimeException("Row failed"));
+        String ndjson = "{\"title\":\"Book 1\",\"author\":\"Author 1\"}\n"
+                + "{\"title\":\"Book 2\",\"author\":\"Author 2\"}\n";
+
+        // When
+        BulkImportResult result = importer.importNdjson(stream(ndjson));
+
+        // Then
+        assertEquals(1, result.getCreated());
+        assertEquals(7L, result.getItems().get(0).getId());
+        assertEquals(BulkItemResult.Status.FAILED, result.getItems().get(1).getStatus());
+        assertEquals("Row failed", result.getItems().get(1).getErrors().get(0));
+        verify(bookService, times(2)).addBook(argThat(book -> book.getId() == null && book.getVersion() == null));
+    }
+
+    @Test
+    @DisplayName("Should report the saved items when the array breaks off")
+    void shouldReportSavedItemsWhenArrayBreaksOff() throws Exception {
+        // Given
+        givenBatchesAreSaved();
+        String json = "[{\"title\":\"Book 1\",\"author\":\"Author 1\"},"
+                + "{\"title\":\"Book 2\",\"author\":\"Author 2\"},"
+                + "{\"title\":\"Book 3\",\"author\":\"Author 3\"},"
+                + "{\"title\":\"Book 4\",";
+
+        // When
+        BulkImportResult result = importer.importJsonArray(stream(json));
+
+        // Then
+        assertEquals(2, result.getCreated());
+        assertEquals(List.of(1L, 2L), result.getItems().stream().map(BulkItemResult::getId).collect(Collectors.toList()));
+        assertTrue(result.getError().contains("at item 3"), result.getError());
+        verify(bookService, times(1)).addBooks(anyList());
+    }
+
+    @Test
+    @DisplayName("Should reject body that is not an array")
+    void shouldRejectBodyThatIsNotAnArray() {
+        assertThrows(IllegalArgumentException.class, () ->
+            importer.importJsonArray(stream("{\"title\":\"Book\",\"author\":\"Author\"}")));
+        verify(bookService, never()).addBooks(anyList());
+    }
+
+    private static InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
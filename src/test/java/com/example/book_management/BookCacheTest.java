@@ -0,0 +1,146 @@
+package com.example.book_management;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Book Cache Tests")
+class BookCacheTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final AtomicInteger loads = new AtomicInteger();
+    private BookCache bookCache;
+
+    @BeforeEach
+    void setUp() {
+        bookCache = new BookCache(2, Duration.ofSeconds(10), now::get);
+    }
+
+    private Optional<Book> load(Long id) {
+        loads.incrementAndGet();
+        Book book = new Book("Book " + id, "Author " + id);
+        book.setId(id);
+        return Optional.of(book);
+    }
+
+    @Test
+    @DisplayName("Should load once and then serve from cache")
+    void shouldLoadOnceAndThenServeFromCache() {
+        // When
+        Optional<Book> first = bookCache.get(1L, this::load);
+        Optional<Book> second = bookCache.get(1L, this::load);
+
+        // Then
+        assertEquals(first, second);
+        assertEquals(1, loads.get());
+        BookCacheStats stats = bookCache.stats();
+        assertEquals(1, stats.getHits());
+        assertEquals(1, stats.getMisses());
+        assertEquals(0.5, stats.getHitRate());
+    }
+
+    @Test
+    @DisplayName("Should not cache missing books")
+    void shouldNotCacheMissingBooks() {
+        // When
+        bookCache.get(1L, id -> Optional.empty());
+
+        // Then
+        assertNull(bookCache.lookup(1L));
+        assertEquals(0, bookCache.stats().getSize());
+    }
+
+    @Test
+    @DisplayName("Should load only uncached books of a batch, in one call")
+    void shouldLoadOnlyUncachedBooksOfABatchInOneCall() {
+        // Given
+        bookCache.get(1L, this::load);
+        List<List<Long>> loaded = new ArrayList<>();
+
+        // When
+        Map<Long, Book> books = bookCache.getAll(List.of(1L, 2L, 3L), ids -> {
+            loaded.add(ids);
+            return List.of(load(2L).get());
+        });
+
+        // Then
+        assertEquals(List.of(List.of(2L, 3L)), loaded);
+        assertEquals(Set.of(1L, 2L), books.keySet());
+        assertNotNull(bookCache.lookup(2L));
+        BookCacheStats stats = bookCache.stats();
+        assertEquals(1, stats.getHits());
+        assertEquals(3, stats.getMisses());
+    }
+
+    @Test
+    @DisplayName("Should evict least recently used entry when full")
+    void shouldEvictLeastRecentlyUsedEntryWhenFull() {
+        // Given
+        bookCache.get(1L, this::load);
+        bookCache.get(2L, this::load);
+        bookCache.get(1L, this::load);
+
+        // When
+        bookCache.get(3L, this::load);
+
+        // Then
+        assertNotNull(bookCache.lookup(1L));
+        assertNull(bookCache.lookup(2L));
+        assertNotNull(bookCache.lookup(3L));
+        assertEquals(1, bookCache.stats().getEvictions());
+    }
+
+    @Test
+    @DisplayName("Should expire entries after TTL")
+    void shouldExpireEntriesAfterTtl() {
+        // Given
+        bookCache.get(1L, this::load);
+
+        // When
+        now.addAndGet(Duration.ofSeconds(11).toNanos());
+        bookCache.get(1L, this::load);
+
+        // Then
+        assertEquals(2, loads.get());
+        assertEquals(1, bookCache.stats().getExpirations());
+    }
+
+    @Test
+    @DisplayName("Should not re-insert a value invalidated during its load")
+    void shouldNotReinsertValueInvalidatedDuringLoad() {
+        // When
+        bookCache.get(1L, id -> {
+            // A concurrent delete lands while the old row is being read
+            bookCache.invalidate(id);
+            return load(id);
+        });
+
+        // Then
+        assertNull(bookCache.lookup(1L));
+    }
+
+    @Test
+    @DisplayName("Should keep a detached copy")
+    void shouldKeepDetachedCopy() {
+        // Given
+        Book book = load(1L).get();
+        bookCache.put(book, bookCache.loadToken());
+
+        // When
+        book.setTitle("Changed");
+
+        // Then
+        assertEquals("Book 1", bookCache.lookup(1L).getTitle());
+    }
+}
@@ -0,0 +1,320 @@
+package com.example.book_management;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+    // Without result reuse, as in application-test.properties: long polls re-read right after a commit
+    "spring.datasource.url=jdbc:h2:mem:changes;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE;OPTIMIZE_REUSE_RESULTS=FALSE"
+})
+@DisplayName("Book Change Feed Integration Tests")
+class BookChangeFeedIntegrationTest {
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private BookChangeLog changeLog;
+
+    @Autowired
+    private BookChangeFeed changeFeed;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private MockMvc mockMvc;
+
+    // Every test only looks at the changes it makes
+    private long since;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+        since = changeLog.latest();
+    }
+
+    private List<BookChange.Type> types(BookChangePage page) {
+        return page.getChanges().stream().map(BookChange::getType).collect(Collectors.toList());
+    }
+
+    @Nested
+    @DisplayName("Change Log Tests")
+    class ChangeLogTests {
+
+        @Test
+        @DisplayName("Should log adds, updates and deletes in order")
+        void shouldLogAddsUpdatesAndDeletesInOrder() throws Exception {
+            // Given
+            Book book = bookService.addBook(new Book("Logged Book", "Logged Author"));
+            Book other = bookService.addBook(new Book("Other Book", "Other Author"));
+            Book updateDetails = new Book("Renamed Book", "Logged Author");
+            updateDetails.setVersion(book.getVersion());
+            bookService.updateBook(book.getId(), updateDetails);
+            bookService.deleteBook(other.getId());
+
+            // When
+            MvcResult result = mockMvc.perform(get("/api/books/changes").param("since", Long.toString(since)))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            // Then
+            mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.changes.length()").value(4))
+                    .andExpect(jsonPath("$.changes[0].type").value("CREATED"))
+                    .andExpect(jsonPath("$.changes[0].bookId").value(book.getId()))
+                    .andExpect(jsonPath("$.changes[2].type").value("UPDATED"))
+                    .andExpect(jsonPath("$.changes[2].title").value("Renamed Book"))
+                    .andExpect(jsonPath("$.changes[2].version").value(book.getVersion() + 1))
+                    .andExpect(jsonPath("$.changes[3].type").value("DELETED"))
+                    .andExpect(jsonPath("$.changes[3].bookId").value(other.getId()))
+                    .andExpect(jsonPath("$.changes[3].title").doesNotExist());
+
+            BookChangePage page = changeLog.read(since, 100);
+            assertEquals(page.getChanges().get(3).getSeq(), page.getNextSince());
+            assertTrue(changeLog.read(page.getNextSince(), 100).getChanges().isEmpty());
+            assertEquals(page.getNextSince(), changeLog.latest());
+        }
+
+        @Test
+        @DisplayName("Should page through changes with the returned cursor")
+        void shouldPageThroughChangesWithTheReturnedCursor() {
+            // Given
+            bookService.addBooks(List.of(new Book("A", "X"), new Book("B", "X"), new Book("C", "X")));
+
+            // When
+            BookChangePage first = changeLog.read(since, 2);
+            BookChangePage second = changeLog.read(first.getNextSince(), 2);
+
+            // Then
+            assertEquals(2, first.getChanges().size());
+            assertEquals(1, second.getChanges().size());
+            assertEquals("C", second.getChanges().get(0).getTitle());
+        }
+
+        @Test
+        @DisplayName("Should not log a write that fails")
+        void shouldNotLogAWriteThatFails() {
+            // Given
+            Book book = bookService.addBook(new Book("Conflicted Book", "Author"));
+            long afterAdd = changeLog.latest();
+            Book staleDetails = new Book("Stale", "Author");
+            staleDetails.setVersion(book.getVersion() + 5);
+
+            // When
+            assertThrows(OptimisticLockingFailureException.class,
+                    () -> bookService.updateBook(book.getId(), staleDetails));
+
+            // Then
+            assertEquals(afterAdd, changeLog.latest());
+            assertTrue(changeLog.read(afterAdd, 100).getChanges().isEmpty());
+        }
+
+        @Test
+        @DisplayName("Should know the newest committed change without reading the log")
+        void shouldKnowNewestCommittedChange() {
+            // Given
+            Book book = bookService.addBook(new Book("Known Book", "Author"));
+            Book staleDetails = new Book("Stale", "Author");
+            staleDetails.setVersion(book.getVersion() + 5);
+
+            // When
+            long afterAdd = changeLog.lastCommitted();
+            assertThrows(OptimisticLockingFailureException.class,
+                    () -> bookService.updateBook(book.getId(), staleDetails));
+            long afterFailure = changeLog.lastCommitted();
+
+            // Then
+            assertTrue(afterAdd > since);
+            assertEquals(afterAdd, afterFailure);
+            assertEquals(changeLog.latest(), afterAdd);
+        }
+
+        @Test
+        @DisplayName("Should number changes in commit order")
+        void shouldNumberChangesInCommitOrder() throws Exception {
+            // Given: a transaction that has logged a change and not committed
+            CountDownLatch recorded = new CountDownLatch(1);
+            CountDownLatch commit = new CountDownLatch(1);
+            CompletableFuture<Void> slow = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+                bookService.addBook(new Book("Slow Book", "Author"));
+                recorded.countDown();
+                try {
+                    commit.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+            assertTrue(recorded.await(10, TimeUnit.SECONDS));
+
+            // When: a later change waits for it to commit before taking a number
+            CompletableFuture<Book> fast = CompletableFuture.supplyAsync(
+                    () -> bookService.addBook(new Book("Fast Book", "Author")));
+            Thread.sleep(200);
+
+            // Then
+            assertFalse(fast.isDone());
+            assertTrue(changeLog.read(since, 100).getChanges().isEmpty());
+            commit.countDown();
+            slow.get(10, TimeUnit.SECONDS);
+            fast.get(10, TimeUnit.SECONDS);
+            List<String> titles = changeLog.read(since, 100).getChanges().stream()
+                    .map(BookChange::getTitle)
+                    .collect(Collectors.toList());
+            assertEquals(List.of("Slow Book", "Fast Book"), titles);
+        }
+
+        @Test
+        @DisplayName("Should give the numbers of a rolled-back write to the next one")
+        void shouldReuseNumbersOfRolledBackWrite() {
+            // Given
+            transactionTemplate.executeWithoutResult(status -> {
+                bookService.addBook(new Book("Rolled Back", "Author"));
+                status.setRollbackOnly();
+            });
+
+            // When
+            bookService.addBook(new Book("Kept", "Author"));
+
+            // Then
+            List<BookChange> changes = changeLog.read(since, 100).getChanges();
+            assertEquals(1, changes.size());
+            assertEquals(since + 1, changes.get(0).getSeq());
+        }
+
+        @Test
+        @DisplayName("Should answer 410 once changes after the cursor are pruned")
+        void shouldAnswerGoneOnceChangesAfterTheCursorArePruned() throws Exception {
+            // Given
+            bookService.addBook(new Book("Old Book", "Author"));
+            bookService.addBook(new Book("Older Book", "Author"));
+            bookService.addBook(new Book("Newest Book", "Author"));
+            long latest = changeLog.latest();
+
+            // When
+            int pruned = changeLog.prune(Instant.now().plusSeconds(60));
+
+            // Then: everything but the newest change is gone
+            assertTrue(pruned >= 2);
+            assertFalse(changeLog.retains(since));
+            assertNull(changeLog.read(since, 100));
+            assertTrue(changeLog.retains(latest));
+            MvcResult result = mockMvc.perform(get("/api/books/changes").param("since", Long.toString(since)))
+                    .andReturn();
+            mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().isGone());
+            mockMvc.perform(get("/api/books/changes/stream").param("since", Long.toString(since)))
+                    .andExpect(status().isGone());
+            mockMvc.perform(get("/api/books/changes/latest"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.nextSince").value(latest));
+        }
+
+        @Test
+        @DisplayName("Should reject a negative cursor")
+        void shouldRejectNegativeCursor() throws Exception {
+            MvcResult result = mockMvc.perform(get("/api/books/changes").param("since", "-1")).andReturn();
+            mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
+    @Nested
+    @DisplayName("Long Poll Tests")
+    class LongPollTests {
+
+        @Test
+        @DisplayName("Should complete a waiting poll when a change commits")
+        void shouldCompleteWaitingPollWhenChangeCommits() throws Exception {
+            // Given
+            CompletableFuture<BookChangePage> poll = changeFeed.poll(since, 100, Duration.ofSeconds(10));
+            assertFalse(poll.isDone());
+
+            // When
+            Book book = bookService.addBook(new Book("Awaited Book", "Author"));
+
+            // Then
+            BookChangePage page = poll.get(5, TimeUnit.SECONDS);
+            assertEquals(List.of(BookChange.Type.CREATED), types(page));
+            assertEquals(book.getId(), page.getChanges().get(0).getBookId());
+        }
+
+        @Test
+        @DisplayName("Should return an empty page when the wait is over")
+        void shouldReturnEmptyPageWhenWaitIsOver() throws Exception {
+            // When
+            BookChangePage page = changeFeed.poll(since, 100, Duration.ofMillis(100)).get(5, TimeUnit.SECONDS);
+
+            // Then
+            assertTrue(page.getChanges().isEmpty());
+            assertEquals(since, page.getNextSince());
+        }
+
+        @Test
+        @DisplayName("Should answer at once when changes are already there")
+        void shouldAnswerAtOnceWhenChangesAreAlreadyThere() {
+            // Given
+            bookService.addBook(new Book("Present Book", "Author"));
+
+            // When
+            CompletableFuture<BookChangePage> poll = changeFeed.poll(since, 100, Duration.ofSeconds(10));
+
+            // Then
+            assertTrue(poll.isDone());
+            assertEquals(List.of(BookChange.Type.CREATED), types(poll.join()));
+        }
+
+        @Test
+        @DisplayName("Should follow changes page after page until told to stop")
+        void shouldFollowChangesUntilToldToStop() throws Exception {
+            // Given
+            bookService.addBook(new Book("First Book", "Author"));
+            List<BookChange> received = new CopyOnWriteArrayList<>();
+
+            // When
+            CompletableFuture<Void> following = changeFeed.follow(since, 100, Duration.ofSeconds(10), page -> {
+                received.addAll(page.getChanges());
+                return received.size() < 2;
+            });
+            bookService.addBook(new Book("Second Book", "Author"));
+
+            // Then
+            following.get(5, TimeUnit.SECONDS);
+            assertEquals(List.of("First Book", "Second Book"),
+                    received.stream().map(BookChange::getTitle).collect(Collectors.toList()));
+        }
+    }
+}
@@ -1,37 +1,50 @@
 package com.example.book_management;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
 
 @ExtendWith(MockitoExtension.class)
 @DisplayName("Book Controller Tests")
@@ -40,6 +53,15 @@ class BookControllerTest {
     @Mock
     private BookService bookService;
 
+    @Mock
+    private BookExporter bookExporter;
+
+    @Mock
+    private BookBulkImporter bookBulkImporter;
+
+    @Mock
+    private BookChangeFeed changeFeed;
+
     @InjectMocks
     private BookController bookController;
 
@@ -123,19 +145,110 @@ class BookControllerTest {
         }
     }
 
+    @Nested
+    @DisplayName("Bulk Add Books Tests")
+    class BulkAddBooksTests {
+
+        @Test
+        @DisplayName("Should import JSON array")
+        void shouldImportJsonArray() throws Exception {
+            // Given
+            BulkImportResult result = new BulkImportResult(
+                List.of(BulkItemResult.created(0, 1L), BulkItemResult.invalid(1, List.of("title: Title is required"))), 5);
+            when(bookBulkImporter.importJsonArray(any())).thenReturn(result);
+
+            // When & Then
+            mockMvc.perform(post("/api/books/bulk")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(testBooks)))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.created").value(1))
+                    .andExpect(jsonPath("$.failed").value(1))
+                    .andExpect(jsonPath("$.items[0].status").value("CREATED"))
+                    .andExpect(jsonPath("$.items[1].errors[0]").value("title: Title is required"));
+
+            verify(bookBulkImporter, times(1)).importJsonArray(any());
+            verify(bookBulkImporter, never()).importNdjson(any());
+        }
+
+        @Test
+        @DisplayName("Should import NDJSON stream")
+        void shouldImportNdjsonStream() throws Exception {
+            // Given
+            when(bookBulkImporter.importNdjson(any())).thenReturn(new BulkImportResult(List.of(), 0));
+
+            // When & Then
+            mockMvc.perform(post("/api/books/bulk")
+                    .contentType(MediaType.APPLICATION_NDJSON)
+                    .content("{\"title\":\"Book\",\"author\":\"Author\"}\n"))
+                    .andExpect(status().isOk());
+
+            verify(bookBulkImporter, times(1)).importNdjson(any());
+        }
+
+        @Test
+        @DisplayName("Should report the saved items of an import cut short")
+        void shouldReportSavedItemsOfImportCutShort() throws Exception {
+            // Given
+            when(bookBulkImporter.importJsonArray(any())).thenReturn(new BulkImportResult(
+                    List.of(BulkItemResult.created(0, 1L)), 5, "Unexpected end of JSON array at item 1"));
+
+            // When & Then
+            mockMvc.perform(post("/api/books/bulk")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("[{\"title\":\"Book\",\"author\":\"Author\"},"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.created").value(1))
+                    .andExpect(jsonPath("$.items[0].id").value(1))
+                    .andExpect(jsonPath("$.error").value("Unexpected end of JSON array at item 1"));
+        }
+
+        @Test
+        @DisplayName("Should return bad request for malformed body")
+        void shouldReturnBadRequestForMalformedBody() throws Exception {
+            // Given
+            when(bookBulkImporter.importJsonArray(any())).thenThrow(new IllegalArgumentException("Expected a JSON array"));
+
+            // When & Then
+            mockMvc.perform(post("/api/books/bulk")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{}"))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
     @Nested
     @DisplayName("Get All Books Tests")
     class GetAllBooksTests {
 
         @Test
-        @DisplayName("Should return all books")
+        @DisplayName("Should return the first page of the default size without parameters")
+        void shouldReturnFirstPageByDefault() throws Exception {
+            // Given
+            when(bookService.getBooksPage(null, null)).thenReturn(new BookPage(testBooks, null));
+
+            // When & Then
+            mockMvc.perform(get("/api/books"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.books.length()").value(3))
+                    .andExpect(jsonPath("$.nextCursor").doesNotExist())
+                    .andExpect(header().doesNotExist("Deprecation"));
+
+            verify(bookService, times(1)).getBooksPage(null, null);
+            verify(bookService, never()).getAllBooks();
+        }
+
+        @Test
+        @DisplayName("Should return all books only when asked to, marked deprecated")
         void shouldReturnAllBooks() throws Exception {
             // Given
             when(bookService.getAllBooks()).thenReturn(testBooks);
 
             // When & Then
-            mockMvc.perform(get("/api/books"))
+            mockMvc.perform(get("/api/books").param("all", "true"))
                     .andExpect(status().isOk())
+                    .andExpect(header().string("Deprecation", BookController.FULL_LIST_DEPRECATED))
+                    .andExpect(header().string("Link", "</api/books/export>; rel=\"alternate\""))
                     .andExpect(jsonPath("$").isArray())
                     .andExpect(jsonPath("$[0].id").value(testBooks.get(0).getId()))
                     .andExpect(jsonPath("$[0].title").value(testBooks.get(0).getTitle()))
@@ -154,13 +267,375 @@ class BookControllerTest {
             when(bookService.getAllBooks()).thenReturn(Arrays.asList());
 
             // When & Then
-            mockMvc.perform(get("/api/books"))
+            mockMvc.perform(get("/api/books").param("all", "true"))
                     .andExpect(status().isOk())
                     .andExpect(jsonPath("$").isArray())
                     .andExpect(jsonPath("$").isEmpty());
 
             verify(bookService, times(1)).getAllBooks();
         }
+
+        @Test
+        @DisplayName("Should reject all together with a cursor or limit")
+        void shouldRejectAllWithPageParameters() throws Exception {
+            // When & Then
+            mockMvc.perform(get("/api/books").param("all", "true").param("limit", "2"))
+                    .andExpect(status().isBadRequest());
+
+            verify(bookService, never()).getAllBooks();
+            verify(bookService, never()).getBooksPage(any(), any());
+        }
+    }
+
+    @Nested
+    @DisplayName("Get Books Page Tests")
+    class GetBooksPageTests {
+
+        @Test
+        @DisplayName("Should return page with next cursor")
+        void shouldReturnPageWithNextCursor() throws Exception {
+            // Given
+            BookPage page = new BookPage(testBooks.subList(0, 2), 2L);
+            when(bookService.getBooksPage(null, 2)).thenReturn(page);
+
+            // When & Then
+            mockMvc.perform(get("/api/books").param("limit", "2"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.books").isArray())
+                    .andExpect(jsonPath("$.books.length()").value(2))
+                    .andExpect(jsonPath("$.books[0].id").value(testBooks.get(0).getId()))
+                    .andExpect(jsonPath("$.nextCursor").value(2));
+
+            verify(bookService, times(1)).getBooksPage(null, 2);
+            verify(bookService, never()).getAllBooks();
+        }
+
+        @Test
+        @DisplayName("Should pass cursor to service")
+        void shouldPassCursorToService() throws Exception {
+            // Given
+            BookPage page = new BookPage(testBooks.subList(2, 3), null);
+            when(bookService.getBooksPage(2L, 2)).thenReturn(page);
+
+            // When & Then
+            mockMvc.perform(get("/api/books").param("after", "2").param("limit", "2"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.books[0].id").value(testBooks.get(2).getId()))
+                    .andExpect(jsonPath("$.nextCursor").doesNotExist());
+
+            verify(bookService, times(1)).getBooksPage(2L, 2);
+        }
+
+        @Test
+        @DisplayName("Should reject non-positive limit")
+        void shouldRejectNonPositiveLimit() throws Exception {
+            // When & Then
+            mockMvc.perform(get("/api/books").param("limit", "0"))
+                    .andExpect(status().isBadRequest());
+
+            verify(bookService, never()).getBooksPage(any(), any());
+        }
+    }
+
+    @Nested
+    @DisplayName("Change Feed Tests")
+    class ChangeFeedTests {
+
+        @Test
+        @DisplayName("Should return changes after the cursor with the next one")
+        void shouldReturnChangesAfterTheCursor() throws Exception {
+            // Given
+            BookChangePage page = new BookChangePage(List.of(BookChange.created(testBook), BookChange.deleted(2L)), 12L);
+            when(changeFeed.poll(5L, BookService.DEFAULT_PAGE_SIZE, Duration.ZERO))
+                .thenReturn(CompletableFuture.completedFuture(page));
+
+            // When
+            MvcResult result = mockMvc.perform(get("/api/books/changes").param("since", "5"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            // Then
+            mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.changes[0].type").value("CREATED"))
+                    .andExpect(jsonPath("$.changes[0].title").value("Test Book"))
+                    .andExpect(jsonPath("$.changes[1].type").value("DELETED"))
+                    .andExpect(jsonPath("$.changes[1].bookId").value(2))
+                    .andExpect(jsonPath("$.nextSince").value(12));
+        }
+
+        @Test
+        @DisplayName("Should cap the wait and the page size")
+        void shouldCapTheWaitAndThePageSize() throws Exception {
+            // Given
+            when(changeFeed.poll(0L, BookService.MAX_PAGE_SIZE, Duration.ofSeconds(60)))
+                .thenReturn(CompletableFuture.completedFuture(BookChangePage.empty(0L)));
+
+            // When
+            MvcResult result = mockMvc.perform(get("/api/books/changes")
+                    .param("limit", "100000")
+                    .param("wait", "3600"))
+                    .andReturn();
+
+            // Then
+            mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.changes").isEmpty())
+                    .andExpect(jsonPath("$.nextSince").value(0));
+        }
+
+        @Test
+        @DisplayName("Should return 410 when the changes were pruned")
+        void shouldReturnGoneWhenChangesWerePruned() throws Exception {
+            // Given
+            when(changeFeed.poll(anyLong(), anyInt(), any(Duration.class)))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+            // When
+            MvcResult result = mockMvc.perform(get("/api/books/changes").param("since", "1")).andReturn();
+
+            // Then
+            mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().isGone());
+        }
+
+        @Test
+        @DisplayName("Should reject a limit below one")
+        void shouldRejectLimitBelowOne() throws Exception {
+            MvcResult result = mockMvc.perform(get("/api/books/changes").param("limit", "0")).andReturn();
+
+            mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().isBadRequest());
+            verify(changeFeed, never()).poll(anyLong(), anyInt(), any(Duration.class));
+        }
+
+        @Test
+        @DisplayName("Should refuse a stream from a pruned cursor")
+        void shouldRefuseStreamFromPrunedCursor() throws Exception {
+            // Given
+            when(changeFeed.retains(7L)).thenReturn(false);
+
+            // When & Then
+            mockMvc.perform(get("/api/books/changes/stream").header("Last-Event-ID", "7"))
+                    .andExpect(status().isGone());
+            verify(changeFeed, never()).follow(anyLong(), anyInt(), any(), any());
+        }
+    }
+
+    @Nested
+    @DisplayName("Conditional Request Tests")
+    class ConditionalRequestTests {
+
+        @Test
+        @DisplayName("Should answer collection 304 without querying books")
+        void shouldAnswerCollection304WithoutQueryingBooks() throws Exception {
+            // Given
+            when(bookService.getCatalogETag()).thenReturn("\"c-7\"");
+
+            // When & Then
+            mockMvc.perform(get("/api/books").header("If-None-Match", "\"c-7\""))
+                    .andExpect(status().isNotModified());
+
+            verify(bookService, times(1)).getCatalogETag();
+            verifyNoMoreInteractions(bookService);
+        }
+
+        @Test
+        @DisplayName("Should return catalog ETag on collection")
+        void shouldReturnCatalogETagOnCollection() throws Exception {
+            // Given
+            when(bookService.getCatalogETag()).thenReturn("\"c-8\"");
+            when(bookService.getBooksPage(null, null)).thenReturn(new BookPage(testBooks, null));
+
+            // When & Then
+            mockMvc.perform(get("/api/books").header("If-None-Match", "\"c-7\""))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("ETag", "\"c-8\""))
+                    .andExpect(header().string("Cache-Control", "no-cache"));
+        }
+
+        @Test
+        @DisplayName("Should answer item 304 for current version")
+        void shouldAnswerItem304ForCurrentVersion() throws Exception {
+            // Given
+            testBook.setVersion(4L);
+            when(bookService.getBookById(1L)).thenReturn(Optional.of(testBook));
+
+            // When & Then
+            mockMvc.perform(get("/api/books/{id}", 1L))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("ETag", "\"4\""));
+            mockMvc.perform(get("/api/books/{id}", 1L).header("If-None-Match", "\"4\""))
+                    .andExpect(status().isNotModified());
+        }
+
+        @Test
+        @DisplayName("Should pass If-Match version to update")
+        void shouldPassIfMatchVersionToUpdate() throws Exception {
+            // Given
+            Book updatedBook = new Book("Updated Title", "Updated Author");
+            updatedBook.setId(1L);
+            updatedBook.setVersion(5L);
+            when(bookService.updateBook(eq(1L), any(Book.class))).thenReturn(updatedBook);
+
+            // When & Then
+            mockMvc.perform(put("/api/books/{id}", 1L)
+                    .header("If-Match", "\"4\"")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(new Book("Updated Title", "Updated Author"))))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("ETag", "\"5\""));
+
+            verify(bookService).updateBook(eq(1L), argThat(book -> Long.valueOf(4L).equals(book.getVersion())));
+        }
+
+        @Test
+        @DisplayName("Should return precondition failed for stale If-Match")
+        void shouldReturnPreconditionFailedForStaleIfMatch() throws Exception {
+            // Given
+            when(bookService.updateBook(eq(1L), any(Book.class)))
+                .thenThrow(new OptimisticLockingFailureException("stale"));
+
+            // When & Then
+            mockMvc.perform(put("/api/books/{id}", 1L)
+                    .header("If-Match", "\"3\"")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(new Book("Updated Title", "Updated Author"))))
+                    .andExpect(status().isPreconditionFailed());
+        }
+
+        @Test
+        @DisplayName("Should return conflict for stale body version")
+        void shouldReturnConflictForStaleBodyVersion() throws Exception {
+            // Given
+            Book bookDetails = new Book("Updated Title", "Updated Author");
+            bookDetails.setVersion(3L);
+            when(bookService.updateBook(eq(1L), any(Book.class)))
+                .thenThrow(new OptimisticLockingFailureException("stale"));
+
+            // When & Then
+            mockMvc.perform(put("/api/books/{id}", 1L)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(bookDetails)))
+                    .andExpect(status().isConflict());
+        }
+
+        @Test
+        @DisplayName("Should reject weak If-Match")
+        void shouldRejectWeakIfMatch() throws Exception {
+            mockMvc.perform(put("/api/books/{id}", 1L)
+                    .header("If-Match", "W/\"3\"")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(new Book("Updated Title", "Updated Author"))))
+                    .andExpect(status().isPreconditionFailed());
+
+            verify(bookService, never()).updateBook(anyLong(), any(Book.class));
+        }
+    }
+
+    @Nested
+    @DisplayName("Content Negotiation Tests")
+    class ContentNegotiationTests {
+
+        private final CBORMapper cborMapper = new CBORMapper();
+
+        @Test
+        @DisplayName("Should write CBOR when accepted")
+        void shouldWriteCborWhenAccepted() throws Exception {
+            // Given
+            when(bookService.getCatalogETag()).thenReturn("W/\"c-8\"");
+            when(bookService.getAllBooks()).thenReturn(testBooks);
+
+            // When
+            MvcResult result = mockMvc.perform(get("/api/books").param("all", "true").accept(MediaType.APPLICATION_CBOR))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                    .andExpect(header().string("ETag", "W/\"c-8\""))
+                    .andReturn();
+
+            // Then
+            Book[] books = cborMapper.readValue(result.getResponse().getContentAsByteArray(), Book[].class);
+            assertEquals(3, books.length);
+            assertEquals("Book 2", books[1].getTitle());
+            assertEquals(2L, books[1].getId());
+        }
+
+        @Test
+        @DisplayName("Should read CBOR request body")
+        void shouldReadCborRequestBody() throws Exception {
+            // Given
+            when(bookService.addBook(any(Book.class))).thenReturn(testBook);
+
+            // When & Then
+            mockMvc.perform(post("/api/books")
+                    .contentType(MediaType.APPLICATION_CBOR)
+                    .content(cborMapper.writeValueAsBytes(new Book("Test Book", "Test Author"))))
+                    .andExpect(status().isCreated())
+                    .andExpect(jsonPath("$.title").value("Test Book"));
+
+            verify(bookService).addBook(argThat(book -> "Test Author".equals(book.getAuthor())));
+        }
+
+        @Test
+        @DisplayName("Should answer 304 for weak catalog ETag")
+        void shouldAnswer304ForWeakCatalogETag() throws Exception {
+            // Given
+            when(bookService.getCatalogETag()).thenReturn("W/\"c-7\"");
+
+            // When & Then
+            mockMvc.perform(get("/api/books").accept(MediaType.APPLICATION_CBOR)
+                    .header("If-None-Match", "W/\"c-7\""))
+                    .andExpect(status().isNotModified());
+
+            verify(bookService, never()).getAllBooks();
+        }
+    }
+
+    @Nested
+    @DisplayName("Export Books Tests")
+    class ExportBooksTests {
+
+        @Test
+        @DisplayName("Should stream NDJSON export by default")
+        void shouldStreamNdjsonExportByDefault() throws Exception {
+            // When
+            MvcResult result = mockMvc.perform(get("/api/books/export"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            // Then
+            mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType("application/x-ndjson"))
+                    .andExpect(header().string("Content-Disposition", "attachment; filename=\"books.ndjson\""));
+
+            verify(bookExporter, times(1)).export(eq(BookExportFormat.NDJSON), any());
+        }
+
+        @Test
+        @DisplayName("Should stream CSV export")
+        void shouldStreamCsvExport() throws Exception {
+            // When
+            MvcResult result = mockMvc.perform(get("/api/books/export").param("format", "csv"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            // Then
+            mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().isOk());
+
+            verify(bookExporter, times(1)).export(eq(BookExportFormat.CSV), any());
+        }
+
+        @Test
+        @DisplayName("Should reject unknown export format")
+        void shouldRejectUnknownExportFormat() throws Exception {
+            // When & Then
+            mockMvc.perform(get("/api/books/export").param("format", "xml"))
+                    .andExpect(status().isBadRequest());
+
+            verify(bookExporter, never()).export(any(), any());
+        }
     }
 
     @Nested
@@ -199,6 +674,193 @@ class BookControllerTest {
         }
     }
 
+    @Nested
+    @DisplayName("Batch Get Tests")
+    class BatchGetTests {
+
+        private BatchGetResult result() {
+            return new BatchGetResult(List.of(new BatchGetItem(1L, testBook), new BatchGetItem(999L, null)));
+        }
+
+        @Test
+        @DisplayName("Should look up ids posted as a JSON array")
+        void shouldLookUpIdsPostedAsJsonArray() throws Exception {
+            // Given
+            when(bookService.getBooksByIds(List.of(1L, 999L))).thenReturn(result());
+
+            // When & Then
+            mockMvc.perform(post("/api/books/batch-get")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("[1, 999]"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.found").value(1))
+                    .andExpect(jsonPath("$.missing").value(1))
+                    .andExpect(jsonPath("$.items[0].id").value(1))
+                    .andExpect(jsonPath("$.items[0].book.title").value(testBook.getTitle()))
+                    .andExpect(jsonPath("$.items[1].id").value(999))
+                    .andExpect(jsonPath("$.items[1].found").value(false));
+        }
+
+        @Test
+        @DisplayName("Should look up ids given in the query")
+        void shouldLookUpIdsGivenInTheQuery() throws Exception {
+            // Given
+            when(bookService.getBooksByIds(List.of(1L, 999L))).thenReturn(result());
+
+            // When & Then
+            mockMvc.perform(get("/api/books/batch-get").param("ids", "1,999"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.items.length()").value(2));
+        }
+
+        @Test
+        @DisplayName("Should reject an empty batch")
+        void shouldRejectEmptyBatch() throws Exception {
+            mockMvc.perform(post("/api/books/batch-get")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("[]"))
+                    .andExpect(status().isBadRequest());
+
+            verify(bookService, never()).getBooksByIds(any());
+        }
+
+        @Test
+        @DisplayName("Should reject a batch the service refuses")
+        void shouldRejectBatchTheServiceRefuses() throws Exception {
+            // Given
+            when(bookService.getBooksByIds(any())).thenThrow(new IllegalArgumentException("At most 1000 ids per batch"));
+
+            // When & Then
+            mockMvc.perform(get("/api/books/batch-get").param("ids", "1,2"))
+                    .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        @DisplayName("Should reject ids that are not numbers")
+        void shouldRejectIdsThatAreNotNumbers() throws Exception {
+            mockMvc.perform(get("/api/books/batch-get").param("ids", "1,abc"))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
+    @Nested
+    @DisplayName("Cache Stats Tests")
+    class CacheStatsTests {
+
+        @Test
+        @DisplayName("Should return cache counters")
+        void shouldReturnCacheCounters() throws Exception {
+            // Given
+            when(bookService.getCacheStats()).thenReturn(new BookCacheStats(3, 1, 2, 1, 5, 100));
+
+            // When & Then
+            mockMvc.perform(get("/api/books/stats/cache"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.hits").value(3))
+                    .andExpect(jsonPath("$.misses").value(1))
+                    .andExpect(jsonPath("$.hitRate").value(0.75))
+                    .andExpect(jsonPath("$.evictions").value(2))
+                    .andExpect(jsonPath("$.size").value(5));
+        }
+
+        @Test
+        @DisplayName("Should return search cache counters")
+        void shouldReturnSearchCacheCounters() throws Exception {
+            // Given
+            when(bookService.getSearchCacheStats())
+                    .thenReturn(new BookSearchCacheStats(9, 3, 1, 4, 2, 1000, 4096, 33554432));
+
+            // When & Then
+            mockMvc.perform(get("/api/books/stats/search-cache"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.hitRate").value(0.75))
+                    .andExpect(jsonPath("$.invalidations").value(4))
+                    .andExpect(jsonPath("$.estimatedBytes").value(4096));
+        }
+
+        @Test
+        @DisplayName("Should return snapshot size")
+        void shouldReturnSnapshotSize() throws Exception {
+            // Given
+            when(bookService.getSnapshotStats())
+                    .thenReturn(new BookSnapshotStats(true, 3, 1 << 20, 120, 40, 0, 0, 7));
+
+            // When & Then
+            mockMvc.perform(get("/api/books/stats/snapshot"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.ready").value(true))
+                    .andExpect(jsonPath("$.books").value(3))
+                    .andExpect(jsonPath("$.mappedBytes").value(1048576));
+        }
+    }
+
+    @Nested
+    @DisplayName("Suggest Tests")
+    class SuggestTests {
+
+        @Test
+        @DisplayName("Should return suggestions for the prefix")
+        void shouldReturnSuggestionsForThePrefix() throws Exception {
+            // Given
+            when(bookService.suggest("jav", 5)).thenReturn(Arrays.asList(
+                    new BookSuggestion("Java Programming", BookSuggestion.Type.TITLE, 2),
+                    new BookSuggestion("Java Jones", BookSuggestion.Type.AUTHOR, 1)));
+
+            // When & Then
+            mockMvc.perform(get("/api/books/suggest")
+                    .param("prefix", "jav")
+                    .param("limit", "5"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[0].text").value("Java Programming"))
+                    .andExpect(jsonPath("$[0].type").value("TITLE"))
+                    .andExpect(jsonPath("$[0].count").value(2))
+                    .andExpect(jsonPath("$[1].type").value("AUTHOR"));
+        }
+
+        @Test
+        @DisplayName("Should default the limit to 10")
+        void shouldDefaultTheLimitTo10() throws Exception {
+            // Given
+            when(bookService.suggest("jav", 10)).thenReturn(Arrays.asList());
+
+            // When & Then
+            mockMvc.perform(get("/api/books/suggest")
+                    .param("prefix", "jav"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$").isEmpty());
+        }
+
+        @Test
+        @DisplayName("Should reject a limit out of range")
+        void shouldRejectLimitOutOfRange() throws Exception {
+            // When & Then
+            mockMvc.perform(get("/api/books/suggest")
+                    .param("prefix", "jav")
+                    .param("limit", "0"))
+                    .andExpect(status().isBadRequest());
+            mockMvc.perform(get("/api/books/suggest")
+                    .param("prefix", "jav")
+                    .param("limit", String.valueOf(BookSuggester.MAX_LIMIT + 1)))
+                    .andExpect(status().isBadRequest());
+
+            verify(bookService, never()).suggest(anyString(), anyInt());
+        }
+
+        @Test
+        @DisplayName("Should return trie size")
+        void shouldReturnTrieSize() throws Exception {
+            // Given
+            when(bookService.getSuggesterStats()).thenReturn(new BookSuggesterStats(7, 30, 4096));
+
+            // When & Then
+            mockMvc.perform(get("/api/books/stats/suggest"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.phrases").value(7))
+                    .andExpect(jsonPath("$.nodes").value(30))
+                    .andExpect(jsonPath("$.estimatedBytes").value(4096));
+        }
+    }
+
     @Nested
     @DisplayName("Search Books Tests")
     class SearchBooksTests {
@@ -272,6 +934,23 @@ class BookControllerTest {
 
             verify(bookService, times(1)).searchBooksByTitle(title);
         }
+
+        @Test
+        @DisplayName("Should search books by title prefix")
+        void shouldSearchBooksByTitlePrefix() throws Exception {
+            // Given
+            when(bookService.searchBooksByTitlePrefix("tes")).thenReturn(Arrays.asList(testBook));
+
+            // When & Then
+            mockMvc.perform(get("/api/books/search/title")
+                    .param("title", "tes")
+                    .param("prefix", "true"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[0].id").value(testBook.getId()))
+                    .andExpect(jsonPath("$[0].titleNormalized").doesNotExist());
+
+            verify(bookService, never()).searchBooksByTitle(anyString());
+        }
     }
 
     @Nested
@@ -295,6 +974,22 @@ class BookControllerTest {
 
             verify(bookService, times(1)).searchBooksByAuthor(author);
         }
+
+        @Test
+        @DisplayName("Should search books by author prefix")
+        void shouldSearchBooksByAuthorPrefix() throws Exception {
+            // Given
+            when(bookService.searchBooksByAuthorPrefix("tes")).thenReturn(Arrays.asList(testBook));
+
+            // When & Then
+            mockMvc.perform(get("/api/books/search/author")
+                    .param("author", "tes")
+                    .param("prefix", "true"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[0].id").value(testBook.getId()));
+
+            verify(bookService, never()).searchBooksByAuthor(anyString());
+        }
     }
 
     @Nested
@@ -358,6 +1053,73 @@ class BookControllerTest {
         }
     }
 
+    @Nested
+    @DisplayName("Patch Book Tests")
+    class PatchBookTests {
+
+        @Test
+        @DisplayName("Should patch book successfully")
+        void shouldPatchBookSuccessfully() throws Exception {
+            // Given
+            Book patchedBook = new Book("Patched Title", "Test Author");
+            patchedBook.setId(1L);
+            patchedBook.setVersion(2L);
+            when(bookService.patchBook(eq(1L), any(BookPatch.class))).thenReturn(patchedBook);
+
+            // When & Then
+            mockMvc.perform(patch("/api/books/{id}", 1L)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"title\":\"Patched Title\"}"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("ETag", "\"2\""))
+                    .andExpect(jsonPath("$.title").value("Patched Title"))
+                    .andExpect(jsonPath("$.author").value("Test Author"));
+
+            verify(bookService).patchBook(eq(1L), argThat(p -> "Patched Title".equals(p.getTitle()) && p.getAuthor() == null));
+        }
+
+        @Test
+        @DisplayName("Should return not found when book doesn't exist")
+        void shouldReturnNotFoundWhenBookDoesntExist() throws Exception {
+            // Given
+            when(bookService.patchBook(eq(999L), any(BookPatch.class))).thenReturn(null);
+
+            // When & Then
+            mockMvc.perform(patch("/api/books/{id}", 999L)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"author\":\"Someone\"}"))
+                    .andExpect(status().isNotFound());
+        }
+
+        @Test
+        @DisplayName("Should return bad request for blank title")
+        void shouldReturnBadRequestForBlankTitle() throws Exception {
+            mockMvc.perform(patch("/api/books/{id}", 1L)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"title\":\"  \"}"))
+                    .andExpect(status().isBadRequest());
+
+            verify(bookService, never()).patchBook(anyLong(), any(BookPatch.class));
+        }
+
+        @Test
+        @DisplayName("Should return precondition failed for stale If-Match")
+        void shouldReturnPreconditionFailedForStaleIfMatch() throws Exception {
+            // Given
+            when(bookService.patchBook(eq(1L), any(BookPatch.class)))
+                .thenThrow(new OptimisticLockingFailureException("stale"));
+
+            // When & Then
+            mockMvc.perform(patch("/api/books/{id}", 1L)
+                    .header("If-Match", "\"1\"")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"title\":\"Patched Title\"}"))
+                    .andExpect(status().isPreconditionFailed());
+
+            verify(bookService).patchBook(eq(1L), argThat(p -> Long.valueOf(1L).equals(p.getVersion())));
+        }
+    }
+
     @Nested
     @DisplayName("Delete Book Tests")
     class DeleteBookTests {
@@ -0,0 +1,89 @@
+package com.example.book_management;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Book Exporter Tests")
+class BookExporterTest {
+
+    @Mock
+    private BookService bookService;
+
+    private BookExporter bookExporter;
+
+    private List<Book> books;
+
+    @BeforeEach
+    void setUp() {
+        bookExporter = new BookExporter(bookService, new ObjectMapper());
+
+        Book first = new Book("Java Programming", "John Doe");
+        first.setId(1L);
+        Book second = new Book("Say \"Hello\", World", "Jane Smith");
+        second.setId(2L);
+        books = Arrays.asList(first, second);
+    }
+
+    @Test
+    @DisplayName("Should write one JSON object per line")
+    void shouldWriteOneJsonObjectPerLine() throws Exception {
+        // When
+        String output = export(BookExportFormat.NDJSON);
+
+        // Then
+        String[] lines = output.split("\n");
+        assertEquals(2, lines.length);
+        ObjectMapper objectMapper = new ObjectMapper();
+        assertEquals("Java Programming", objectMapper.readTree(lines[0]).get("title").asText());
+        assertEquals(2L, objectMapper.readTree(lines[1]).get("id").asLong());
+    }
+
+    @Test
+    @DisplayName("Should write CSV with header and escaped fields")
+    void shouldWriteCsvWithHeaderAndEscapedFields() throws Exception {
+        // When
+        String output = export(BookExportFormat.CSV);
+
+        // Then
+        assertEquals("id,title,author\n"
+                + "1,Java Programming,John Doe\n"
+                + "2,\"Say \"\"Hello\"\", World\",Jane Smith\n", output);
+    }
+
+    @Test
+    @DisplayName("Should resolve formats by name")
+    void shouldResolveFormatsByName() {
+        assertEquals(BookExportFormat.NDJSON, BookExportFormat.fromName("ndjson"));
+        assertEquals(BookExportFormat.CSV, BookExportFormat.fromName("CSV"));
+        assertNull(BookExportFormat.fromName("xml"));
+    }
+
+    private String export(BookExportFormat format) throws Exception {
+        doAnswer(invocation -> {
+            Consumer<Book> consumer = invocation.getArgument(0);
+            books.forEach(consumer);
+            return null;
+        }).when(bookService).exportBooks(any());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        bookExporter.export(format, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.book_management;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -12,9 +13,15 @@ import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.context.WebApplicationContext;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -134,18 +141,56 @@ class BookIntegrationTest {
             // Get all books
             mockMvc.perform(get("/api/books"))
                     .andExpect(status().isOk())
-                    .andExpect(jsonPath("$").isArray())
-                    .andExpect(jsonPath("$").value(org.hamcrest.Matchers.hasSize(3)))
-                    .andExpect(jsonPath("$[0].title").value("Book 1"))
-                    .andExpect(jsonPath("$[1].title").value("Book 2"))
-                    .andExpect(jsonPath("$[2].title").value("Book 3"));
+                    .andExpect(jsonPath("$.books").value(org.hamcrest.Matchers.hasSize(3)))
+                    .andExpect(jsonPath("$.books[0].title").value("Book 1"))
+                    .andExpect(jsonPath("$.books[1].title").value("Book 2"))
+                    .andExpect(jsonPath("$.books[2].title").value("Book 3"));
+
+            // Get them all in one array, the deprecated way
+            mockMvc.perform(get("/api/books").param("all", "true"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().exists("Deprecation"))
+                    .andExpect(jsonPath("$").value(org.hamcrest.Matchers.hasSize(3)));
+        }
+    }
+
+    @Nested
+    @DisplayName("Bulk Import Integration Tests")
+    class BulkImportIntegrationTests {
+
+        @Test
+        @DisplayName("Should import books from NDJSON")
+        void shouldImportBooksFromNdjson() throws Exception {
+            String ndjson = "{\"title\":\"Bulk Book 1\",\"author\":\"Bulk Author\"}\n"
+                    + "{\"title\":\"\",\"author\":\"Bulk Author\"}\n"
+                    + "{\"title\":\"Bulk Book 3\",\"author\":\"Bulk Author\"}\n";
+
+            mockMvc.perform(post("/api/books/bulk")
+                    .contentType(MediaType.APPLICATION_NDJSON)
+                    .content(ndjson))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.created").value(2))
+                    .andExpect(jsonPath("$.failed").value(1))
+                    .andExpect(jsonPath("$.items[0].id").exists())
+                    .andExpect(jsonPath("$.items[1].status").value("INVALID"));
+
+            mockMvc.perform(get("/api/books"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.books").value(org.hamcrest.Matchers.hasSize(2)));
         }
     }
 
+    // Committed, since the search index only follows committed changes
     @Nested
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     @DisplayName("Search Integration Tests")
     class SearchIntegrationTests {
 
+        @AfterEach
+        void deleteSearchData() {
+            bookRepository.findAll().forEach(book -> bookService.deleteBook(book.getId()));
+        }
+
         @BeforeEach
         void setUpSearchData() throws Exception {
             // Create test data for search
@@ -204,6 +249,30 @@ class BookIntegrationTest {
                     .andExpect(jsonPath("$[2].author").value("Bob Johnson"));
         }
 
+        @Test
+        @DisplayName("Should search books by title prefix")
+        void shouldSearchBooksByTitlePrefix() throws Exception {
+            mockMvc.perform(get("/api/books/search/title")
+                    .param("title", "JAVA")
+                    .param("prefix", "true"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$").value(org.hamcrest.Matchers.hasSize(2)))
+                    .andExpect(jsonPath("$[0].title").value("Java Programming"))
+                    .andExpect(jsonPath("$[1].title").value("JavaScript Guide"));
+        }
+
+        @Test
+        @DisplayName("Should search books by author prefix ignoring accents")
+        void shouldSearchBooksByAuthorPrefixIgnoringAccents() throws Exception {
+            mockMvc.perform(get("/api/books/search/author")
+                    .param("author", "jóhn")
+                    .param("prefix", "true"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$").value(org.hamcrest.Matchers.hasSize(2)))
+                    .andExpect(jsonPath("$[0].author").value("John Doe"))
+                    .andExpect(jsonPath("$[1].author").value("John Doe"));
+        }
+
         @Test
         @DisplayName("Should search books by title")
         void shouldSearchBooksByTitle() throws Exception {
@@ -241,6 +310,167 @@ class BookIntegrationTest {
         }
     }
 
+    @Nested
+    @DisplayName("Conditional Request Integration Tests")
+    class ConditionalRequestIntegrationTests {
+
+        // Committed, since the catalog tag only moves once a write commits
+        @Test
+        @Transactional(propagation = Propagation.NOT_SUPPORTED)
+        @DisplayName("Should revalidate collection until catalog changes")
+        void shouldRevalidateCollectionUntilCatalogChanges() throws Exception {
+            String eTag = mockMvc.perform(get("/api/books"))
+                    .andExpect(status().isOk())
+                    .andReturn()
+                    .getResponse()
+                    .getHeader("ETag");
+
+            mockMvc.perform(get("/api/books").header("If-None-Match", eTag))
+                    .andExpect(status().isNotModified());
+
+            mockMvc.perform(post("/api/books")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(new Book("New Book", "New Author"))))
+                    .andExpect(status().isCreated());
+
+            mockMvc.perform(get("/api/books").header("If-None-Match", eTag))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.books.length()").value(1));
+
+            bookRepository.findAll().forEach(book -> bookService.deleteBook(book.getId()));
+        }
+
+        @Test
+        @DisplayName("Should reject update with stale version")
+        void shouldRejectUpdateWithStaleVersion() throws Exception {
+            Book saved = bookRepository.saveAndFlush(new Book("Versioned Book", "Versioned Author"));
+            Book staleUpdate = new Book("Stale Title", "Stale Author");
+            staleUpdate.setVersion(saved.getVersion() + 1);
+
+            mockMvc.perform(put("/api/books/{id}", saved.getId())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(staleUpdate)))
+                    .andExpect(status().isConflict());
+
+            mockMvc.perform(put("/api/books/{id}", saved.getId())
+                    .header("If-Match", "\"" + (saved.getVersion() + 1) + "\"")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(new Book("Stale Title", "Stale Author"))))
+                    .andExpect(status().isPreconditionFailed());
+        }
+    }
+
+    @Nested
+    @DisplayName("Statement Count Integration Tests")
+    class StatementCountIntegrationTests {
+
+        private Book saved;
+
+        // Each write also records a change, so only statements on books are counted
+        @BeforeEach
+        void setUpStatementCount() {
+            saved = bookRepository.saveAndFlush(new Book("Counted Book", "Counted Author"));
+            SqlStatementRecorder.clear();
+        }
+
+        // Without If-Match the new version is not known, so it is read back
+        @Test
+        @DisplayName("Should update with one statement and read back the version")
+        void shouldUpdateWithOneStatement() throws Exception {
+            mockMvc.perform(put("/api/books/{id}", saved.getId())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(new Book("Updated Book", "Updated Author"))))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("ETag", "\"" + (saved.getVersion() + 1) + "\""));
+
+            assertEquals(2, SqlStatementRecorder.count("books"));
+        }
+
+        @Test
+        @DisplayName("Should update at If-Match version with one statement")
+        void shouldUpdateAtIfMatchVersionWithOneStatement() throws Exception {
+            mockMvc.perform(put("/api/books/{id}", saved.getId())
+                    .header("If-Match", "\"" + saved.getVersion() + "\"")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(new Book("Updated Book", "Updated Author"))))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("ETag", "\"" + (saved.getVersion() + 1) + "\""));
+
+            assertEquals(1, SqlStatementRecorder.count("books"));
+        }
+
+        @Test
+        @DisplayName("Should delete with one statement")
+        void shouldDeleteWithOneStatement() throws Exception {
+            mockMvc.perform(delete("/api/books/{id}", saved.getId()))
+                    .andExpect(status().isNoContent());
+
+            assertEquals(1, SqlStatementRecorder.count("books"));
+        }
+
+        @Test
+        @DisplayName("Should answer missing book with one statement")
+        void shouldAnswerMissingBookWithOneStatement() throws Exception {
+            mockMvc.perform(delete("/api/books/{id}", saved.getId() + 1000))
+                    .andExpect(status().isNotFound());
+
+            assertEquals(1, SqlStatementRecorder.count("books"));
+        }
+
+        @Test
+        @DisplayName("Should patch cached book with one statement")
+        void shouldPatchCachedBookWithOneStatement() throws Exception {
+            mockMvc.perform(get("/api/books/{id}", saved.getId()))
+                    .andExpect(status().isOk());
+            SqlStatementRecorder.clear();
+
+            mockMvc.perform(patch("/api/books/{id}", saved.getId())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"title\":\"Patched Book\"}"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.title").value("Patched Book"))
+                    .andExpect(jsonPath("$.author").value("Counted Author"));
+
+            assertEquals(1, SqlStatementRecorder.count("books"));
+            mockMvc.perform(get("/api/books/{id}", saved.getId()))
+                    .andExpect(jsonPath("$.title").value("Patched Book"));
+        }
+
+        @Test
+        @DisplayName("Should batch get with one statement per chunk, then from cache")
+        void shouldBatchGetWithOneStatementPerChunkThenFromCache() throws Exception {
+            // Given: 300 books and one missing id, with a duplicate; chunks hold 128 ids
+            List<Book> books = new ArrayList<>();
+            for (int i = 0; i < 300; i++) {
+                books.add(new Book("Batch Book " + i, "Batch Author"));
+            }
+            List<Long> ids = bookRepository.saveAllAndFlush(books).stream().map(Book::getId).collect(Collectors.toList());
+            ids.add(0, saved.getId() + 100_000);
+            ids.add(ids.get(1));
+            SqlStatementRecorder.clear();
+
+            // When
+            mockMvc.perform(post("/api/books/batch-get")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(ids)))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.found").value(300))
+                    .andExpect(jsonPath("$.missing").value(1))
+                    .andExpect(jsonPath("$.items.length()").value(301))
+                    .andExpect(jsonPath("$.items[0].found").value(false))
+                    .andExpect(jsonPath("$.items[1].book.title").value("Batch Book 0"))
+                    .andExpect(jsonPath("$.items[300].book.title").value("Batch Book 299"));
+
+            // Then
+            assertEquals(3, SqlStatementRecorder.count("books"));
+            SqlStatementRecorder.clear();
+            mockMvc.perform(get("/api/books/batch-get").param("ids", ids.get(1) + "," + ids.get(2)))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.items[1].book.title").value("Batch Book 1"));
+            assertEquals(0, SqlStatementRecorder.count("books"));
+        }
+    }
+
     @Nested
     @DisplayName("Validation Integration Tests")
     class ValidationIntegrationTests {
@@ -0,0 +1,145 @@
+package com.example.book_management;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Book JSON Converter Tests")
+class BookJsonHttpMessageConverterTest {
+
+    private static final Type BOOK_LIST = new ParameterizedTypeReference<List<Book>>() {}.getType();
+    private static final Type SUGGESTION_LIST = new ParameterizedTypeReference<List<BookSuggestion>>() {}.getType();
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private BookJsonHttpMessageConverter converter;
+
+    @BeforeEach
+    void setUp() {
+        converter = new BookJsonHttpMessageConverter(objectMapper);
+    }
+
+    private static Book book(Long id, String title, String author, Long version) {
+        Book book = new Book(title, author);
+        book.setId(id);
+        book.setVersion(version);
+        return book;
+    }
+
+    private String write(Object value, Type type) throws Exception {
+        MockHttpOutputMessage message = new MockHttpOutputMessage();
+        converter.write(value, type, MediaType.APPLICATION_JSON, message);
+        assertEquals(MediaType.APPLICATION_JSON, message.getHeaders().getContentType());
+        return message.getBodyAsString();
+    }
+
+    @Test
+    @DisplayName("Should write a book exactly as Jackson does")
+    void shouldWriteBookExactlyAsJacksonDoes() throws Exception {
+        // Given
+        Book book = book(42L, "Say \"Hi\"\\ \t\n\u0001 / é ß 中文 \uD83D\uDCDA", "Jane\r\bDoe\f", 3L);
+
+        // When & Then
+        assertEquals(objectMapper.writeValueAsString(book), write(book, Book.class));
+    }
+
+    @Test
+    @DisplayName("Should write nulls and negative numbers as Jackson does")
+    void shouldWriteNullsAndNegativeNumbersAsJacksonDoes() throws Exception {
+        // Given
+        List<Book> books = List.of(book(null, null, null, null), book(-7L, "", "x", Long.MAX_VALUE),
+                book(Long.MIN_VALUE, "y", "z", 0L));
+
+        // When & Then
+        assertEquals(objectMapper.writeValueAsString(books), write(books, BOOK_LIST));
+    }
+
+    @Test
+    @DisplayName("Should write lists larger than the buffer")
+    void shouldWriteListsLargerThanTheBuffer() throws Exception {
+        // Given
+        List<Book> books = new ArrayList<>();
+        for (long i = 0; i < 2000; i++) {
+            books.add(book(i, "Title ü " + i + "\uD83D\uDCDA".repeat((int) (i % 7)), "Author " + (i % 13), i % 5));
+        }
+
+        // When & Then
+        assertEquals(objectMapper.writeValueAsString(books), write(books, BOOK_LIST));
+    }
+
+    @Test
+    @DisplayName("Should write pages as Jackson does")
+    void shouldWritePagesAsJacksonDoes() throws Exception {
+        // Given
+        BookPage page = new BookPage(List.of(book(1L, "A", "B", 0L)), 1L);
+        BookPage last = new BookPage(List.of(), null);
+
+        // When & Then
+        assertEquals(objectMapper.writeValueAsString(page), write(page, BookPage.class));
+        assertEquals(objectMapper.writeValueAsString(last), write(last, BookPage.class));
+    }
+
+    @Test
+    @DisplayName("Should escape lone surrogates")
+    void shouldEscapeLoneSurrogates() throws Exception {
+        // Given
+        Book book = book(1L, "a\uD800b", "\uDC00", 0L);
+
+        // When
+        String json = write(book, Book.class);
+
+        // Then
+        assertEquals("{\"id\":1,\"title\":\"a\\uD800b\",\"author\":\"\\uDC00\",\"version\":0}", json);
+        assertEquals("a\uD800b", objectMapper.readValue(json, Book.class).getTitle());
+    }
+
+    @Test
+    @DisplayName("Should only take book types as JSON")
+    void shouldOnlyTakeBookTypesAsJson() {
+        assertTrue(converter.canWrite(Book.class, Book.class, MediaType.APPLICATION_JSON));
+        assertTrue(converter.canWrite(BOOK_LIST, List.class, MediaType.APPLICATION_JSON));
+        assertTrue(converter.canWrite(null, BookPage.class, null));
+        assertTrue(converter.canWrite(null, ArrayList.class, MediaType.ALL));
+        assertFalse(converter.canWrite(SUGGESTION_LIST, List.class, MediaType.APPLICATION_JSON));
+        assertFalse(converter.canWrite(BookSuggesterStats.class, BookSuggesterStats.class, MediaType.APPLICATION_JSON));
+        assertFalse(converter.canWrite(Book.class, Book.class, MediaType.APPLICATION_CBOR));
+        assertFalse(converter.canRead(Book.class, Book.class, MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    @DisplayName("Should hand collections of other types to Jackson")
+    void shouldHandCollectionsOfOtherTypesToJackson() throws Exception {
+        // Given
+        List<Object> mixed = List.of(book(1L, "A", "B", 0L), "not a book");
+
+        // When & Then
+        assertEquals(objectMapper.writeValueAsString(mixed), write(mixed, ArrayList.class));
+    }
+
+    @Test
+    @DisplayName("Should read back what it writes when called directly")
+    void shouldReadBackWhatItWrites() throws Exception {
+        // Given
+        List<Book> books = List.of(book(1L, "A", "B", 0L), book(2L, "C", null, 5L));
+        MockHttpInputMessage message = new MockHttpInputMessage(write(books, BOOK_LIST).getBytes(StandardCharsets.UTF_8));
+
+        // When
+        Object read = converter.read(BOOK_LIST, null, message);
+
+        // Then
+        assertEquals(objectMapper.writeValueAsString(books), objectMapper.writeValueAsString(read));
+        assertTrue(((List<?>) read).get(0) instanceof Book);
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.book_management;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Book Metrics Tests")
+class BookMetricsTest {
+
+    private BookCache bookCache;
+    private BookSearchIndex searchIndex;
+    private BookSuggester suggester;
+    private BookWriteBehind writeBehind;
+    private BookReadCoalescer readCoalescer;
+    private BookSearchCache searchCache;
+    private BookSnapshot snapshot;
+    private MeterRegistry registry;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        bookCache = new BookCache(10, Duration.ofMinutes(1));
+        searchIndex = new BookSearchIndex();
+        suggester = new BookSuggester();
+        writeBehind = new BookWriteBehind(true, tempDir.resolve("writes.log"), DataSize.ofMegabytes(1), new ObjectMapper());
+        writeBehind.open();
+        readCoalescer = new BookReadCoalescer(true, Duration.ofSeconds(1));
+        searchCache = new BookSearchCache(10, DataSize.ofMegabytes(1));
+        snapshot = new BookSnapshot(true, tempDir.resolve("snapshot"), 16);
+        snapshot.open();
+        registry = new SimpleMeterRegistry();
+        new BookMetrics(bookCache, searchIndex, suggester, writeBehind, readCoalescer, searchCache, snapshot)
+                .bindTo(registry);
+    }
+
+    @Test
+    @DisplayName("Should report cache hits and misses")
+    void shouldReportCacheHitsAndMisses() {
+        // Given
+        Book book = new Book("Java Programming", "John Doe");
+        book.setId(1L);
+        bookCache.get(1L, id -> Optional.of(book));
+        bookCache.get(1L, id -> Optional.of(book));
+
+        // Then
+        assertEquals(1.0, registry.get("books.cache.requests").tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, registry.get("books.cache.requests").tag("result", "miss").functionCounter().count());
+        assertEquals(1.0, registry.get("books.cache.size").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Should report search index size")
+    void shouldReportSearchIndexSize() {
+        // Given
+        Book book = new Book("Java Programming", "John Doe");
+        book.setId(1L);
+        searchIndex.index(book);
+
+        // Then
+        assertEquals(1.0, registry.get("books.search.index.documents").gauge().value());
+        assertEquals(4.0, registry.get("books.search.index.terms").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Should report search result cache")
+    void shouldReportSearchResultCache() {
+        // Given
+        Book book = new Book("Java Programming", "John Doe");
+        book.setId(1L);
+        searchCache.get(BookSearchCache.Type.KEYWORD, "java", 0, () -> List.of(book));
+        searchCache.get(BookSearchCache.Type.KEYWORD, "java", 0, () -> List.of(book));
+        searchCache.get(BookSearchCache.Type.TITLE, "java", 1, () -> List.of(book));
+
+        // Then
+        assertEquals(1.0, registry.get("books.search.cache.requests").tag("result", "hit").functionCounter().count());
+        assertEquals(2.0, registry.get("books.search.cache.requests").tag("result", "miss").functionCounter().count());
+        assertEquals(1.0, registry.get("books.search.cache.evictions").tag("cause", "stale").functionCounter().count());
+        assertEquals(1.0, registry.get("books.search.cache.size").gauge().value());
+        assertTrue(registry.get("books.search.cache.memory").gauge().value() > 0);
+    }
+
+    @Test
+    @DisplayName("Should report catalog snapshot size")
+    void shouldReportCatalogSnapshotSize() {
+        // Given
+        Book book = new Book("Java Programming", "John Doe");
+        book.setId(1L);
+        snapshot.put(book);
+
+        // Then
+        assertEquals(1.0, registry.get("books.snapshot.books").gauge().value());
+        assertTrue(registry.get("books.snapshot.memory").tag("area", "mapped").gauge().value() > 0);
+        assertEquals(0.0, registry.get("books.snapshot.memory").tag("area", "garbage").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Should report suggestion trie size")
+    void shouldReportSuggestionTrieSize() {
+        // Given
+        Book book = new Book("Java Programming", "John Doe");
+        book.setId(1L);
+        suggester.add(book);
+
+        // Then
+        assertEquals(2.0, registry.get("books.suggest.phrases").gauge().value());
+        assertTrue(registry.get("books.suggest.nodes").gauge().value() > 1);
+        assertTrue(registry.get("books.suggest.memory").gauge().value() > 0);
+    }
+
+    @Test
+    @DisplayName("Should report write-behind queue")
+    void shouldReportWriteBehindQueue() {
+        // Given
+        writeBehind.append(PendingBookWrite.update(1L, "Java Programming", "John Doe"));
+        writeBehind.append(PendingBookWrite.delete(2L));
+        List<PendingBookWrite> batch = writeBehind.drain(1);
+        writeBehind.applied(batch);
+
+        // Then
+        assertEquals(1.0, registry.get("books.writebehind.pending").gauge().value());
+        assertEquals(1.0, registry.get("books.writebehind.applied").functionCounter().count());
+        assertEquals(0.0, registry.get("books.writebehind.failures").functionCounter().count());
+        assertTrue(registry.get("books.writebehind.lag").timeGauge().value() >= 0);
+    }
+
+    @Test
+    @DisplayName("Should report reads that reached the database")
+    void shouldReportReadsThatReachedTheDatabase() {
+        // Given
+        readCoalescer.load(BookReadCoalescer.Kind.SEARCH, "java", 0, () -> List.of());
+
+        // Then
+        assertEquals(1.0, registry.get("books.coalescing.reads")
+                .tag("kind", "search").tag("result", "queried").functionCounter().count());
+        assertEquals(0.0, registry.get("books.coalescing.reads")
+                .tag("kind", "search").tag("result", "coalesced").functionCounter().count());
+        assertEquals(0.0, registry.get("books.coalescing.timeouts").tag("kind", "id").functionCounter().count());
+    }
+}
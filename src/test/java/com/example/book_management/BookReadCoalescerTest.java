@@ -0,0 +1,183 @@
+package com.example.book_management;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Book Read Coalescer Tests")
+class BookReadCoalescerTest {
+
+    private static final BookReadCoalescer.Kind ID = BookReadCoalescer.Kind.ID;
+
+    private final AtomicInteger queries = new AtomicInteger();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private ExecutorService executor;
+    private BookReadCoalescer coalescer;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newCachedThreadPool();
+        coalescer = new BookReadCoalescer(true, Duration.ofSeconds(10));
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    // A query that runs until released
+    private String slowQuery() {
+        queries.incrementAndGet();
+        try {
+            release.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "result";
+    }
+
+    private Future<String> loadAsync(BookReadCoalescer coalescer, Object key, long version) {
+        return executor.submit(() -> coalescer.load(ID, key, version, this::slowQuery));
+    }
+
+    // Wait until the calls beyond the first are waiting for its query
+    private void awaitCoalesced(BookReadCoalescer coalescer, long waiting) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (coalescer.getCoalesced(ID) + coalescer.getTimeouts(ID) < waiting && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    @Test
+    @DisplayName("Should run one query for identical concurrent reads")
+    void shouldRunOneQueryForIdenticalConcurrentReads() throws Exception {
+        // Given
+        List<Future<String>> reads = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            reads.add(loadAsync(coalescer, 1L, 0));
+        }
+        awaitCoalesced(coalescer, 7);
+
+        // When
+        release.countDown();
+
+        // Then
+        for (Future<String> read : reads) {
+            assertEquals("result", read.get(10, TimeUnit.SECONDS));
+        }
+        assertEquals(1, queries.get());
+        assertEquals(1, coalescer.getQueries(ID));
+        assertEquals(7, coalescer.getCoalesced(ID));
+    }
+
+    @Test
+    @DisplayName("Should not share a query across keys or catalog versions")
+    void shouldNotShareQueryAcrossKeysOrCatalogVersions() throws Exception {
+        // Given
+        Future<String> first = loadAsync(coalescer, 1L, 0);
+        Future<String> otherKey = loadAsync(coalescer, 2L, 0);
+        Future<String> laterVersion = loadAsync(coalescer, 1L, 1);
+
+        // When
+        release.countDown();
+
+        // Then
+        first.get(10, TimeUnit.SECONDS);
+        otherKey.get(10, TimeUnit.SECONDS);
+        laterVersion.get(10, TimeUnit.SECONDS);
+        assertEquals(3, queries.get());
+        assertEquals(0, coalescer.getCoalesced(ID));
+    }
+
+    @Test
+    @DisplayName("Should run the query again once the shared one is done")
+    void shouldRunQueryAgainOnceSharedOneIsDone() {
+        // Given
+        release.countDown();
+
+        // When
+        coalescer.load(ID, 1L, 0, this::slowQuery);
+        coalescer.load(ID, 1L, 0, this::slowQuery);
+
+        // Then
+        assertEquals(2, queries.get());
+    }
+
+    @Test
+    @DisplayName("Should run its own query after waiting too long")
+    void shouldRunOwnQueryAfterWaitingTooLong() throws Exception {
+        // Given
+        BookReadCoalescer impatient = new BookReadCoalescer(true, Duration.ofMillis(50));
+        Future<String> leader = loadAsync(impatient, 1L, 0);
+        while (queries.get() == 0) {
+            Thread.sleep(5);
+        }
+
+        // When
+        String result = impatient.load(ID, 1L, 0, () -> "own result");
+
+        // Then
+        assertEquals("own result", result);
+        assertEquals(1, impatient.getTimeouts(ID));
+        assertEquals(2, impatient.getQueries(ID));
+        release.countDown();
+        assertEquals("result", leader.get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Should fail waiters with the shared query's failure")
+    void shouldFailWaitersWithSharedQueryFailure() throws Exception {
+        // Given
+        CountDownLatch started = new CountDownLatch(1);
+        Future<String> leader = executor.submit(() -> coalescer.load(ID, 1L, 0, () -> {
+            started.countDown();
+            slowQuery();
+            throw new IllegalStateException("database down");
+        }));
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        Future<String> waiter = loadAsync(coalescer, 1L, 0);
+        awaitCoalesced(coalescer, 1);
+
+        // When
+        release.countDown();
+
+        // Then
+        ExecutionException leaderFailure = assertThrows(ExecutionException.class, () -> leader.get(10, TimeUnit.SECONDS));
+        ExecutionException waiterFailure = assertThrows(ExecutionException.class, () -> waiter.get(10, TimeUnit.SECONDS));
+        assertEquals("database down", leaderFailure.getCause().getMessage());
+        assertSame(leaderFailure.getCause(), waiterFailure.getCause());
+    }
+
+    @Test
+    @DisplayName("Should run every query when disabled")
+    void shouldRunEveryQueryWhenDisabled() throws Exception {
+        // Given
+        BookReadCoalescer disabled = new BookReadCoalescer(false, Duration.ofSeconds(10));
+        Future<String> first = loadAsync(disabled, 1L, 0);
+        Future<String> second = loadAsync(disabled, 1L, 0);
+
+        // When
+        release.countDown();
+
+        // Then
+        first.get(10, TimeUnit.SECONDS);
+        second.get(10, TimeUnit.SECONDS);
+        assertEquals(2, queries.get());
+        assertEquals(0, disabled.getCoalesced(ID));
+    }
+}
@@ -6,6 +6,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -92,6 +93,73 @@ class BookRepositoryTest {
         assertTrue(allBooks.stream().anyMatch(book -> book.getTitle().equals("Advanced Java")));
     }
 
+    @Test
+    @DisplayName("Should find keyset page in id order")
+    void shouldFindKeysetPageInIdOrder() {
+        // When
+        List<Book> firstPage = bookRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(2));
+        List<Book> secondPage = bookRepository.findByIdGreaterThanOrderByIdAsc(
+            firstPage.get(1).getId(), Limit.of(2));
+
+        // Then
+        assertEquals(2, firstPage.size());
+        assertEquals(testBook1.getId(), firstPage.get(0).getId());
+        assertEquals(testBook2.getId(), firstPage.get(1).getId());
+        assertEquals(1, secondPage.size());
+        assertEquals(testBook3.getId(), secondPage.get(0).getId());
+    }
+
+    @Test
+    @DisplayName("Should find books by normalized title prefix")
+    void shouldFindBooksByNormalizedTitlePrefix() {
+        // Given
+        bookRepository.save(new Book("Árbol de la vida", "Ana García"));
+
+        // When
+        List<Book> javaBooks = bookRepository.findByTitleNormalizedStartingWithOrderByTitleNormalizedAscIdAsc(
+            "java", Limit.of(10));
+        List<Book> accentedBooks = bookRepository.findByTitleNormalizedStartingWithOrderByTitleNormalizedAscIdAsc(
+            "arbol", Limit.of(10));
+
+        // Then
+        assertEquals(1, javaBooks.size());
+        assertEquals("Java Programming", javaBooks.get(0).getTitle());
+        assertEquals(1, accentedBooks.size());
+        assertEquals("arbol de la vida", accentedBooks.get(0).getTitleNormalized());
+    }
+
+    @Test
+    @DisplayName("Should find books by normalized author prefix in author order")
+    void shouldFindBooksByNormalizedAuthorPrefixInAuthorOrder() {
+        // When
+        List<Book> johns = bookRepository.findByAuthorNormalizedStartingWithOrderByAuthorNormalizedAscIdAsc(
+            "j", Limit.of(10));
+
+        // Then
+        assertEquals(3, johns.size());
+        assertEquals("Jane Smith", johns.get(0).getAuthor());
+        assertEquals(testBook1.getId(), johns.get(1).getId());
+        assertEquals(testBook3.getId(), johns.get(2).getId());
+    }
+
+    @Test
+    @DisplayName("Should refresh normalized columns on update")
+    void shouldRefreshNormalizedColumnsOnUpdate() {
+        // Given
+        testBook2.setTitle("Ökonomie");
+        bookRepository.saveAndFlush(testBook2);
+
+        // When
+        List<Book> result = bookRepository.findByTitleNormalizedStartingWithOrderByTitleNormalizedAscIdAsc(
+            "okon", Limit.of(10));
+
+        // Then
+        assertEquals(1, result.size());
+        assertEquals(testBook2.getId(), result.get(0).getId());
+        assertTrue(bookRepository.findByTitleNormalizedStartingWithOrderByTitleNormalizedAscIdAsc(
+            "python", Limit.of(10)).isEmpty());
+    }
+
     @Test
     @DisplayName("Should find books by title containing")
     void shouldFindBooksByTitleContaining() {
@@ -198,4 +266,61 @@ class BookRepositoryTest {
         // Then
         assertTrue(noResults.isEmpty());
     }
+
+    @Test
+    @DisplayName("Should update title and author in one statement")
+    void shouldUpdateTitleAndAuthorInOneStatement() {
+        // Given
+        Long version = testBook1.getVersion();
+
+        // When
+        int updated = bookRepository.updateTitleAndAuthor(testBook1.getId(), "Kotlin Programming", "Émile Doe",
+            "kotlin programming", "emile doe");
+
+        // Then
+        assertEquals(1, updated);
+        Book reloaded = bookRepository.findById(testBook1.getId()).orElseThrow();
+        assertEquals("Kotlin Programming", reloaded.getTitle());
+        assertEquals("emile doe", reloaded.getAuthorNormalized());
+        assertEquals(version + 1, reloaded.getVersion());
+    }
+
+    @Test
+    @DisplayName("Should update only at the given version")
+    void shouldUpdateOnlyAtTheGivenVersion() {
+        // Given
+        Long version = testBook2.getVersion();
+
+        // When
+        int stale = bookRepository.updateTitleAndAuthorAtVersion(testBook2.getId(), version + 1,
+            "Stale", "Stale", "stale", "stale");
+        int current = bookRepository.updateTitleAndAuthorAtVersion(testBook2.getId(), version,
+            "Current", "Current", "current", "current");
+
+        // Then
+        assertEquals(0, stale);
+        assertEquals(1, current);
+        assertEquals("Current", bookRepository.findById(testBook2.getId()).orElseThrow().getTitle());
+    }
+
+    @Test
+    @DisplayName("Should report unknown id on update and delete")
+    void shouldReportUnknownIdOnUpdateAndDelete() {
+        // When & Then
+        assertEquals(0, bookRepository.updateTitleAndAuthor(999L, "Title", "Author", "title", "author"));
+        assertEquals(0, bookRepository.deleteBookById(999L));
+        assertEquals(3, bookRepository.count());
+    }
+
+    @Test
+    @DisplayName("Should delete book in one statement")
+    void shouldDeleteBookInOneStatement() {
+        // When
+        int deleted = bookRepository.deleteBookById(testBook3.getId());
+
+        // Then
+        assertEquals(1, deleted);
+        assertFalse(bookRepository.existsById(testBook3.getId()));
+        assertEquals(2, bookRepository.count());
+    }
 }
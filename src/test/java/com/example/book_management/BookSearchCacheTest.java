@@ -0,0 +1,150 @@
+package com.example.book_management;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Book Search Cache Tests")
+class BookSearchCacheTest {
+
+    private static final BookSearchCache.Type KEYWORD = BookSearchCache.Type.KEYWORD;
+
+    private final BookSearchCache cache = new BookSearchCache(2, DataSize.ofMegabytes(1));
+    private final AtomicInteger searches = new AtomicInteger();
+
+    private static Book book(long id, String title) {
+        Book book = new Book(title, "John Doe");
+        book.setId(id);
+        return book;
+    }
+
+    private List<Book> search(Book... books) {
+        searches.incrementAndGet();
+        return List.of(books);
+    }
+
+    @Test
+    @DisplayName("Should normalize queries by trimming and lower-casing")
+    void shouldNormalizeQueries() {
+        assertEquals("java programming", BookSearchCache.normalizeQuery("  Java PROGRAMMING "));
+        assertNull(BookSearchCache.normalizeQuery(null));
+    }
+
+    @Test
+    @DisplayName("Should serve a repeated search from the cache")
+    void shouldServeRepeatedSearchFromCache() {
+        // Given
+        Book java = book(1L, "Java");
+        cache.get(KEYWORD, "java", 0, () -> search(java));
+
+        // When
+        List<Book> result = cache.get(KEYWORD, "java", 0, () -> search(java));
+
+        // Then
+        assertEquals(1, searches.get());
+        assertEquals("Java", result.get(0).getTitle());
+        assertNotSame(java, result.get(0));
+        assertEquals(1, cache.stats().getHits());
+        assertEquals(1, cache.stats().getMisses());
+        assertEquals(0.5, cache.stats().getHitRate());
+    }
+
+    @Test
+    @DisplayName("Should keep search types apart")
+    void shouldKeepSearchTypesApart() {
+        // When
+        cache.get(BookSearchCache.Type.TITLE, "java", 0, this::search);
+        cache.get(BookSearchCache.Type.AUTHOR, "java", 0, this::search);
+
+        // Then
+        assertEquals(2, searches.get());
+        assertEquals(2, cache.stats().getSize());
+    }
+
+    @Test
+    @DisplayName("Should drop cached results once the catalog changes")
+    void shouldDropCachedResultsOnceCatalogChanges() {
+        // Given
+        cache.get(KEYWORD, "java", 0, this::search);
+        cache.get(KEYWORD, "kotlin", 0, this::search);
+
+        // When
+        cache.get(KEYWORD, "java", 1, this::search);
+
+        // Then
+        assertEquals(3, searches.get());
+        assertEquals(1, cache.stats().getSize());
+        assertEquals(2, cache.stats().getInvalidations());
+    }
+
+    @Test
+    @DisplayName("Should not cache a result read before a newer catalog version")
+    void shouldNotCacheResultReadBeforeNewerVersion() {
+        // Given
+        cache.get(KEYWORD, "kotlin", 1, this::search);
+
+        // When
+        cache.get(KEYWORD, "java", 0, this::search);
+        cache.get(KEYWORD, "java", 1, this::search);
+
+        // Then
+        assertEquals(3, searches.get());
+        assertEquals(0, cache.stats().getHits());
+    }
+
+    @Test
+    @DisplayName("Should evict the least recently used result beyond max size")
+    void shouldEvictLeastRecentlyUsedResult() {
+        // Given
+        cache.get(KEYWORD, "java", 0, this::search);
+        cache.get(KEYWORD, "kotlin", 0, this::search);
+        cache.get(KEYWORD, "java", 0, this::search);
+
+        // When
+        cache.get(KEYWORD, "scala", 0, this::search);
+        cache.get(KEYWORD, "java", 0, this::search);
+        cache.get(KEYWORD, "kotlin", 0, this::search);
+
+        // Then
+        assertEquals(4, searches.get());
+        assertEquals(2, cache.stats().getEvictions());
+    }
+
+    @Test
+    @DisplayName("Should stay within max memory")
+    void shouldStayWithinMaxMemory() {
+        // Given
+        BookSearchCache small = new BookSearchCache(100, DataSize.ofKilobytes(3));
+        List<Book> books = new ArrayList<>();
+        for (long id = 1; id <= 10; id++) {
+            books.add(book(id, "Java Programming " + id));
+        }
+
+        // When
+        small.get(KEYWORD, "java", 0, () -> books);
+        small.get(KEYWORD, "programming", 0, () -> books);
+
+        // Then
+        assertTrue(small.stats().getEstimatedBytes() <= small.stats().getMaxBytes());
+        assertEquals(1, small.stats().getSize());
+        assertEquals(1, small.stats().getEvictions());
+    }
+
+    @Test
+    @DisplayName("Should pass null queries straight to the search")
+    void shouldPassNullQueriesToSearch() {
+        // When
+        cache.get(KEYWORD, null, 0, this::search);
+        cache.get(KEYWORD, null, 0, this::search);
+
+        // Then
+        assertEquals(2, searches.get());
+        assertEquals(0, cache.stats().getSize());
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.book_management;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Book Search Index Tests")
+class BookSearchIndexTest {
+
+    private BookSearchIndex searchIndex;
+
+    @BeforeEach
+    void setUp() {
+        searchIndex = new BookSearchIndex();
+        index(1L, "Java Programming", "John Doe");
+        index(2L, "Python Basics", "Jane Smith");
+        index(3L, "Advanced Java", "John Doe");
+        index(4L, "JavaScript Guide", "Bob Johnson");
+    }
+
+    private void index(Long id, String title, String author) {
+        Book book = new Book(title, author);
+        book.setId(id);
+        searchIndex.index(book);
+    }
+
+    @Nested
+    @DisplayName("Search Tests")
+    class SearchTests {
+
+        @Test
+        @DisplayName("Should rank exact words above prefix completions")
+        void shouldRankExactWordsAbovePrefixCompletions() {
+            assertEquals(List.of(1L, 3L, 4L), searchIndex.search("Java", 10));
+            assertEquals(List.of(1L, 3L, 4L), searchIndex.search("john", 10));
+        }
+
+        @Test
+        @DisplayName("Should rank title matches above author matches")
+        void shouldRankTitleMatchesAboveAuthorMatches() {
+            // Given
+            index(5L, "Smith's Cookbook", "Ann Lee");
+
+            // When & Then
+            assertEquals(List.of(5L, 2L), searchIndex.search("smith", 10));
+        }
+
+        @Test
+        @DisplayName("Should require every query word to match")
+        void shouldRequireEveryQueryWordToMatch() {
+            assertEquals(List.of(1L, 3L), searchIndex.search("jav doe", 10));
+            assertTrue(searchIndex.search("python doe", 10).isEmpty());
+        }
+
+        @Test
+        @DisplayName("Should fold case and accents")
+        void shouldFoldCaseAndAccents() {
+            // Given
+            index(6L, "Thérèse Raquin", "Émile Zola");
+
+            // When & Then
+            assertEquals(List.of(6L), searchIndex.search("EMILE therese", 10));
+        }
+
+        @Test
+        @DisplayName("Should honour the result limit")
+        void shouldHonourTheResultLimit() {
+            assertEquals(List.of(1L, 3L), searchIndex.search("java", 2));
+        }
+
+        @Test
+        @DisplayName("Should return nothing for queries without words")
+        void shouldReturnNothingForQueriesWithoutWords() {
+            assertTrue(searchIndex.search("  !? ", 10).isEmpty());
+            assertTrue(searchIndex.search(null, 10).isEmpty());
+        }
+    }
+
+    @Nested
+    @DisplayName("Maintenance Tests")
+    class MaintenanceTests {
+
+        @Test
+        @DisplayName("Should replace words when a book is re-indexed")
+        void shouldReplaceWordsWhenBookIsReindexed() {
+            // When
+            index(2L, "Rust in Action", "Tim McNamara");
+
+            // Then
+            assertTrue(searchIndex.search("python", 10).isEmpty());
+            assertEquals(List.of(2L), searchIndex.search("rust", 10));
+            assertEquals(4, searchIndex.size());
+        }
+
+        @Test
+        @DisplayName("Should forget removed books and their words")
+        void shouldForgetRemovedBooksAndTheirWords() {
+            // Given
+            int terms = searchIndex.termCount();
+
+            // When
+            searchIndex.remove(2L);
+
+            // Then
+            assertTrue(searchIndex.search("python", 10).isEmpty());
+            assertEquals(3, searchIndex.size());
+            assertEquals(terms - 4, searchIndex.termCount());
+        }
+
+        @Test
+        @DisplayName("Should not let the initial load undo changes that reached it first")
+        void shouldNotLetLoadUndoEarlierChanges() {
+            // Given
+            Book stale = new Book("Python Basics", "Jane Smith");
+            stale.setId(2L);
+            Book deleted = new Book("Go in Practice", "Matt Butcher");
+            deleted.setId(5L);
+            Book unseen = new Book("Rust in Action", "Tim McNamara");
+            unseen.setId(6L);
+            index(2L, "Python Cookbook", "Jane Smith");
+            searchIndex.remove(5L);
+
+            // When
+            searchIndex.load(stale);
+            searchIndex.load(deleted);
+            searchIndex.load(unseen);
+            searchIndex.markReady();
+
+            // Then
+            assertTrue(searchIndex.search("basics", 10).isEmpty());
+            assertEquals(List.of(2L), searchIndex.search("cookbook", 10));
+            assertTrue(searchIndex.search("go", 10).isEmpty());
+            assertEquals(List.of(6L), searchIndex.search("rust", 10));
+        }
+
+        @Test
+        @DisplayName("Should re-check loaded books against the query")
+        void shouldRecheckLoadedBooksAgainstTheQuery() {
+            Book book = new Book("Java Programming", "John Doe");
+            assertTrue(BookSearchIndex.matches(book, "jav pro"));
+            assertFalse(BookSearchIndex.matches(book, "python"));
+        }
+    }
+}
@@ -5,13 +5,26 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.util.unit.DataSize;
 
+import jakarta.persistence.EntityManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -22,7 +35,40 @@ import static org.mockito.Mockito.*;
 class BookServiceTest {
 
     @Mock
-    private BookRepository bookRepository;
+    private BookStore bookRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private BookSearchIndex searchIndex;
+
+    @Mock
+    private BookWriteBehind writeBehind;
+
+    @Mock
+    private BookChangeLog changeLog;
+
+    @Mock
+    private BookSnapshot snapshot;
+
+    @Spy
+    private TransactionOperations transactionOperations = TransactionOperations.withoutTransaction();
+
+    @Spy
+    private BookCache bookCache = new BookCache(100, Duration.ofMinutes(5));
+
+    @Spy
+    private CatalogVersion catalogVersion = new CatalogVersion();
+
+    @Spy
+    private BookReadCoalescer readCoalescer = new BookReadCoalescer(true, Duration.ofSeconds(2));
+
+    @Spy
+    private BookSearchCache searchCache = new BookSearchCache(100, DataSize.ofMegabytes(1));
 
     @InjectMocks
     private BookService bookService;
@@ -66,6 +112,10 @@ class BookServiceTest {
             assertEquals(testBook.getTitle(), result.getTitle());
             assertEquals(testBook.getAuthor(), result.getAuthor());
             verify(bookRepository, times(1)).save(bookToAdd);
+            verify(eventPublisher, times(1)).publishEvent(any(BookChangedEvent.class));
+            verify(changeLog).record(argThat(changes -> changes.size() == 1
+                && changes.get(0).getType() == BookChange.Type.CREATED
+                && changes.get(0).getBookId().equals(testBook.getId())));
         }
 
         @Test
@@ -94,6 +144,43 @@ class BookServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("Add Books Tests")
+    class AddBooksTests {
+
+        @Test
+        @DisplayName("Should save batch and clear persistence context")
+        void shouldSaveBatchAndClearPersistenceContext() {
+            // Given
+            when(bookRepository.saveAll(testBooks)).thenReturn(testBooks);
+
+            // When
+            List<Book> result = bookService.addBooks(testBooks);
+
+            // Then
+            assertEquals(testBooks, result);
+            verify(bookRepository, times(1)).saveAll(testBooks);
+            verify(entityManager, times(1)).flush();
+            verify(entityManager, times(1)).clear();
+            verify(changeLog).record(argThat(changes -> changes.size() == 3));
+        }
+
+        @Test
+        @DisplayName("Should send the inserts before recording the changes")
+        void shouldSendInsertsBeforeRecordingChanges() {
+            // Given
+            when(bookRepository.saveAll(testBooks)).thenReturn(testBooks);
+
+            // When
+            bookService.addBooks(testBooks);
+
+            // Then
+            InOrder order = inOrder(entityManager, changeLog);
+            order.verify(entityManager).flush();
+            order.verify(changeLog).record(any());
+        }
+    }
+
     @Nested
     @DisplayName("Get All Books Tests")
     class GetAllBooksTests {
@@ -140,12 +227,134 @@ class BookServiceTest {
                 bookService.getAllBooks();
             });
         }
+
+        @Test
+        @DisplayName("Should list books from the snapshot once it is ready")
+        void shouldListBooksFromSnapshotOnceReady() {
+            // Given
+            when(snapshot.isReady()).thenReturn(true);
+            when(snapshot.list()).thenReturn(testBooks);
+
+            // When
+            List<Book> result = bookService.getAllBooks();
+
+            // Then
+            assertEquals(testBooks, result);
+            verify(bookRepository, never()).findAll();
+        }
+    }
+
+    @Nested
+    @DisplayName("Get Books Page Tests")
+    class GetBooksPageTests {
+
+        @Test
+        @DisplayName("Should return next cursor when more books exist")
+        void shouldReturnNextCursorWhenMoreBooksExist() {
+            // Given
+            when(bookRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(3)))
+                .thenReturn(testBooks);
+
+            // When
+            BookPage result = bookService.getBooksPage(null, 2);
+
+            // Then
+            assertEquals(2, result.getBooks().size());
+            assertEquals(testBooks.get(0), result.getBooks().get(0));
+            assertEquals(testBooks.get(1), result.getBooks().get(1));
+            assertEquals(2L, result.getNextCursor());
+        }
+
+        @Test
+        @DisplayName("Should return null cursor on last page")
+        void shouldReturnNullCursorOnLastPage() {
+            // Given
+            List<Book> lastPage = Arrays.asList(testBooks.get(2));
+            when(bookRepository.findByIdGreaterThanOrderByIdAsc(2L, Limit.of(3)))
+                .thenReturn(lastPage);
+
+            // When
+            BookPage result = bookService.getBooksPage(2L, 2);
+
+            // Then
+            assertEquals(lastPage, result.getBooks());
+            assertNull(result.getNextCursor());
+        }
+
+        @Test
+        @DisplayName("Should clamp page size to maximum")
+        void shouldClampPageSizeToMaximum() {
+            // Given
+            when(bookRepository.findByIdGreaterThanOrderByIdAsc(anyLong(), any(Limit.class)))
+                .thenReturn(Arrays.asList());
+
+            // When
+            bookService.getBooksPage(null, 100_000);
+
+            // Then
+            verify(bookRepository, times(1))
+                .findByIdGreaterThanOrderByIdAsc(0L, Limit.of(BookService.MAX_PAGE_SIZE + 1));
+        }
+
+        @Test
+        @DisplayName("Should use default page size when limit is missing")
+        void shouldUseDefaultPageSizeWhenLimitIsMissing() {
+            // Given
+            when(bookRepository.findByIdGreaterThanOrderByIdAsc(anyLong(), any(Limit.class)))
+                .thenReturn(Arrays.asList());
+
+            // When
+            BookPage result = bookService.getBooksPage(5L, null);
+
+            // Then
+            assertTrue(result.getBooks().isEmpty());
+            assertNull(result.getNextCursor());
+            verify(bookRepository, times(1))
+                .findByIdGreaterThanOrderByIdAsc(5L, Limit.of(BookService.DEFAULT_PAGE_SIZE + 1));
+        }
+    }
+
+    @Nested
+    @DisplayName("Export Books Tests")
+    class ExportBooksTests {
+
+        @Test
+        @DisplayName("Should stream every book and detach it")
+        void shouldStreamEveryBookAndDetachIt() {
+            // Given
+            when(bookRepository.streamAllByOrderByIdAsc()).thenReturn(testBooks.stream());
+            List<Book> exported = new ArrayList<>();
+
+            // When
+            bookService.exportBooks(exported::add);
+
+            // Then
+            assertEquals(testBooks, exported);
+            verify(entityManager, times(3)).detach(any(Book.class));
+            verify(bookRepository, never()).findAll();
+        }
     }
 
     @Nested
     @DisplayName("Get Book By ID Tests")
     class GetBookByIdTests {
 
+        @Test
+        @DisplayName("Should read from the snapshot instead of the cache and database once it is ready")
+        void shouldReadFromSnapshotOnceReady() {
+            // Given
+            when(snapshot.isReady()).thenReturn(true);
+            when(snapshot.get(1L)).thenReturn(Optional.of(testBook));
+
+            // When
+            Optional<Book> result = bookService.getBookById(1L);
+
+            // Then
+            assertEquals(Optional.of(testBook), result);
+            verify(bookRepository, never()).findById(any());
+            verify(bookCache, never()).get(any(), any());
+        }
+
         @Test
         @DisplayName("Should return book when found")
         void shouldReturnBookWhenFound() {
@@ -162,6 +371,64 @@ class BookServiceTest {
             verify(bookRepository, times(1)).findById(bookId);
         }
 
+        @Test
+        @DisplayName("Should serve repeated lookups from cache")
+        void shouldServeRepeatedLookupsFromCache() {
+            // Given
+            Long bookId = 1L;
+            when(bookRepository.findById(bookId)).thenReturn(Optional.of(testBook));
+
+            // When
+            bookService.getBookById(bookId);
+            Optional<Book> result = bookService.getBookById(bookId);
+
+            // Then
+            assertEquals(testBook, result.get());
+            verify(bookRepository, times(1)).findById(bookId);
+            assertEquals(1, bookService.getCacheStats().getHits());
+        }
+
+        @Test
+        @DisplayName("Should reload after update")
+        void shouldReloadAfterUpdate() {
+            // Given
+            Long bookId = 1L;
+            Book updatedBook = new Book("Updated Title", "Updated Author");
+            updatedBook.setId(bookId);
+            when(bookRepository.findById(bookId))
+                .thenReturn(Optional.of(testBook))
+                .thenReturn(Optional.of(updatedBook));
+            when(bookRepository.updateTitleAndAuthor(eq(bookId), anyString(), anyString(), anyString(), anyString()))
+                .thenReturn(1);
+            bookService.getBookById(bookId);
+
+            // When
+            bookService.updateBook(bookId, new Book("Updated Title", "Updated Author"));
+            Optional<Book> result = bookService.getBookById(bookId);
+
+            // Then
+            assertEquals("Updated Title", result.get().getTitle());
+            verify(bookCache, times(1)).invalidate(bookId);
+        }
+
+        @Test
+        @DisplayName("Should not serve deleted book from cache")
+        void shouldNotServeDeletedBookFromCache() {
+            // Given
+            Long bookId = 1L;
+            when(bookRepository.findById(bookId))
+                .thenReturn(Optional.of(testBook))
+                .thenReturn(Optional.empty());
+            when(bookRepository.deleteBookById(bookId)).thenReturn(1);
+            bookService.getBookById(bookId);
+
+            // When
+            bookService.deleteBook(bookId);
+
+            // Then
+            assertFalse(bookService.getBookById(bookId).isPresent());
+        }
+
         @Test
         @DisplayName("Should return empty when book not found")
         void shouldReturnEmptyWhenBookNotFound() {
@@ -190,6 +457,97 @@ class BookServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("Get Books By Ids Tests")
+    class GetBooksByIdsTests {
+
+        // Answers findAllById with a book for every id below 1000
+        private void stubFindAllById() {
+            when(bookRepository.findAllById(anyIterable())).thenAnswer(invocation -> {
+                List<Book> found = new ArrayList<>();
+                for (Long id : invocation.<Iterable<Long>>getArgument(0)) {
+                    if (id < 1000) {
+                        Book book = new Book("Book " + id, "Author");
+                        book.setId(id);
+                        found.add(book);
+                    }
+                }
+                return found;
+            });
+        }
+
+        @Test
+        @DisplayName("Should answer each id once in request order with misses")
+        void shouldAnswerEachIdOnceInRequestOrderWithMisses() {
+            // Given
+            stubFindAllById();
+
+            // When
+            BatchGetResult result = bookService.getBooksByIds(List.of(3L, 1001L, 1L, 3L));
+
+            // Then
+            assertEquals(List.of(3L, 1001L, 1L),
+                result.getItems().stream().map(BatchGetItem::getId).collect(Collectors.toList()));
+            assertEquals("Book 3", result.getItems().get(0).getBook().getTitle());
+            assertFalse(result.getItems().get(1).isFound());
+            assertNull(result.getItems().get(1).getBook());
+            assertEquals(2, result.getFound());
+            assertEquals(1, result.getMissing());
+            verify(bookRepository, times(1)).findAllById(anyIterable());
+        }
+
+        @Test
+        @DisplayName("Should query only uncached ids, in chunks")
+        void shouldQueryOnlyUncachedIdsInChunks() {
+            // Given
+            when(bookRepository.findById(1L)).thenReturn(Optional.of(testBook));
+            bookService.getBookById(1L);
+            stubFindAllById();
+            List<Long> ids = LongStream.rangeClosed(1, 130).boxed().collect(Collectors.toList());
+
+            // When
+            BatchGetResult result = bookService.getBooksByIds(ids);
+
+            // Then: 129 uncached ids make a chunk of 128 and one of 1
+            assertEquals(130, result.getFound());
+            assertEquals(testBook.getTitle(), result.getItems().get(0).getBook().getTitle());
+            verify(bookRepository, times(2)).findAllById(anyIterable());
+            verify(bookRepository).findAllById(argThat(chunk -> chunk.iterator().next() == 130L));
+        }
+
+        @Test
+        @DisplayName("Should return queued write-behind changes in place of stored books")
+        void shouldReturnQueuedChangesInPlaceOfStoredBooks() {
+            // Given
+            when(writeBehind.pendingWrite(1L))
+                .thenReturn(Optional.of(PendingBookWrite.update(1L, "Pending Title", "Pending Author")));
+            when(writeBehind.pendingWrite(2L)).thenReturn(Optional.of(PendingBookWrite.delete(2L)));
+            stubFindAllById();
+
+            // When
+            BatchGetResult result = bookService.getBooksByIds(List.of(1L, 2L, 3L));
+
+            // Then
+            assertEquals("Pending Title", result.getItems().get(0).getBook().getTitle());
+            assertFalse(result.getItems().get(1).isFound());
+            assertTrue(result.getItems().get(2).isFound());
+            verify(bookRepository).findAllById(List.of(3L));
+        }
+
+        @Test
+        @DisplayName("Should reject too many ids and null ids")
+        void shouldRejectTooManyIdsAndNullIds() {
+            // Given
+            List<Long> tooMany = LongStream.rangeClosed(1, BookService.MAX_BATCH_GET_IDS + 1).boxed()
+                .collect(Collectors.toList());
+
+            // When & Then
+            assertThrows(IllegalArgumentException.class, () -> bookService.getBooksByIds(tooMany));
+            assertThrows(IllegalArgumentException.class, () -> bookService.getBooksByIds(Arrays.asList(1L, null)));
+            verify(bookRepository, never()).findAllById(anyIterable());
+        }
+    }
+
     @Nested
     @DisplayName("Search Books Tests")
     class SearchBooksTests {
@@ -214,6 +572,25 @@ class BookServiceTest {
                 .findByTitleOrAuthorContaining(keyword);
         }
 
+        @Test
+        @DisplayName("Should share searches only within one catalog version")
+        void shouldShareSearchesOnlyWithinOneCatalogVersion() {
+            // Given
+            when(bookRepository.findByTitleOrAuthorContaining("test")).thenReturn(List.of(testBook));
+            when(bookRepository.deleteBookById(2L)).thenReturn(1);
+
+            // When
+            bookService.searchBooks("test");
+            bookService.deleteBook(2L);
+            bookService.searchBooks("test");
+
+            // Then
+            long afterDelete = catalogVersion.current();
+            assertTrue(afterDelete > 0);
+            verify(readCoalescer).load(eq(BookReadCoalescer.Kind.SEARCH), eq("test"), eq(0L), any());
+            verify(readCoalescer).load(eq(BookReadCoalescer.Kind.SEARCH), eq("test"), eq(afterDelete), any());
+        }
+
         @Test
         @DisplayName("Should return empty list when no matches found")
         void shouldReturnEmptyListWhenNoMatchesFound() {
@@ -246,6 +623,56 @@ class BookServiceTest {
             assertEquals(testBooks, result);
         }
 
+        @Test
+        @DisplayName("Should search through index when it is ready")
+        void shouldSearchThroughIndexWhenReady() {
+            // Given
+            when(searchIndex.isReady()).thenReturn(true);
+            when(searchIndex.search(eq("book"), anyInt())).thenReturn(Arrays.asList(3L, 1L));
+            when(bookRepository.findAllById(Arrays.asList(3L, 1L)))
+                .thenReturn(Arrays.asList(testBooks.get(0), testBooks.get(2)));
+
+            // When
+            List<Book> result = bookService.searchBooks("book");
+
+            // Then
+            assertEquals(Arrays.asList(testBooks.get(2), testBooks.get(0)), result);
+            verify(bookRepository, never()).findByTitleOrAuthorContaining(anyString());
+        }
+
+        @Test
+        @DisplayName("Should drop index hits that no longer match")
+        void shouldDropIndexHitsThatNoLongerMatch() {
+            // Given
+            Book renamed = new Book("Renamed", "Someone Else");
+            renamed.setId(2L);
+            when(searchIndex.isReady()).thenReturn(true);
+            when(searchIndex.search(eq("book"), anyInt())).thenReturn(Arrays.asList(1L, 2L, 99L));
+            when(bookRepository.findAllById(Arrays.asList(1L, 2L, 99L)))
+                .thenReturn(Arrays.asList(testBooks.get(0), renamed));
+
+            // When
+            List<Book> result = bookService.searchBooks("book");
+
+            // Then
+            assertEquals(Arrays.asList(testBooks.get(0)), result);
+        }
+
+        @Test
+        @DisplayName("Should return empty list when index has no hits")
+        void shouldReturnEmptyListWhenIndexHasNoHits() {
+            // Given
+            when(searchIndex.isReady()).thenReturn(true);
+            when(searchIndex.search(eq("nothing"), anyInt())).thenReturn(Arrays.asList());
+
+            // When
+            List<Book> result = bookService.searchBooks("nothing");
+
+            // Then
+            assertTrue(result.isEmpty());
+            verify(bookRepository, never()).findAllById(any());
+        }
+
         @Test
         @DisplayName("Should handle null keyword")
         void shouldHandleNullKeyword() {
@@ -260,6 +687,27 @@ class BookServiceTest {
             assertNotNull(result);
             assertTrue(result.isEmpty());
         }
+
+        @Test
+        @DisplayName("Should serve repeated searches from the cache until the catalog changes")
+        void shouldServeRepeatedSearchesFromCacheUntilCatalogChanges() {
+            // Given
+            when(bookRepository.findByTitleOrAuthorContaining("test")).thenReturn(List.of(testBook));
+            when(bookRepository.deleteBookById(2L)).thenReturn(1);
+
+            // When
+            bookService.searchBooks("Test");
+            List<Book> cached = bookService.searchBooks("  TEST ");
+            bookService.deleteBook(2L);
+            bookService.searchBooks("test");
+
+            // Then
+            assertEquals(1, cached.size());
+            assertEquals(testBook.getTitle(), cached.get(0).getTitle());
+            verify(bookRepository, times(2)).findByTitleOrAuthorContaining("test");
+            assertEquals(1, bookService.getSearchCacheStats().getHits());
+            assertEquals(1, bookService.getSearchCacheStats().getInvalidations());
+        }
     }
 
     @Nested
@@ -270,7 +718,7 @@ class BookServiceTest {
         @DisplayName("Should search books by title")
         void shouldSearchBooksByTitle() {
             // Given
-            String title = "Test";
+            String title = "test";
             List<Book> searchResults = Arrays.asList(testBook);
             when(bookRepository.findByTitleContainingIgnoreCase(title)).thenReturn(searchResults);
 
@@ -300,6 +748,42 @@ class BookServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("Prefix Search Tests")
+    class PrefixSearchTests {
+
+        @Test
+        @DisplayName("Should normalize title prefix before querying")
+        void shouldNormalizeTitlePrefixBeforeQuerying() {
+            // Given
+            when(bookRepository.findByTitleNormalizedStartingWithOrderByTitleNormalizedAscIdAsc(
+                eq("les mis"), any(Limit.class))).thenReturn(List.of(testBook));
+
+            // When
+            List<Book> result = bookService.searchBooksByTitlePrefix("Les Mis");
+
+            // Then
+            assertEquals(List.of(testBook), result);
+            verify(bookRepository).findByTitleNormalizedStartingWithOrderByTitleNormalizedAscIdAsc(
+                "les mis", Limit.of(1000));
+        }
+
+        @Test
+        @DisplayName("Should normalize author prefix before querying")
+        void shouldNormalizeAuthorPrefixBeforeQuerying() {
+            // Given
+            when(bookRepository.findByAuthorNormalizedStartingWithOrderByAuthorNormalizedAscIdAsc(
+                eq("emile"), any(Limit.class))).thenReturn(List.of(testBook));
+
+            // When
+            List<Book> result = bookService.searchBooksByAuthorPrefix("ÉMILE");
+
+            // Then
+            assertEquals(List.of(testBook), result);
+            verify(bookRepository, never()).findByAuthorContainingIgnoreCase(anyString());
+        }
+    }
+
     @Nested
     @DisplayName("Search Books By Author Tests")
     class SearchBooksByAuthorTests {
@@ -308,7 +792,7 @@ class BookServiceTest {
         @DisplayName("Should search books by author")
         void shouldSearchBooksByAuthor() {
             // Given
-            String author = "Test";
+            String author = "test";
             List<Book> searchResults = Arrays.asList(testBook);
             when(bookRepository.findByAuthorContainingIgnoreCase(author)).thenReturn(searchResults);
 
@@ -343,26 +827,104 @@ class BookServiceTest {
     class UpdateBookTests {
 
         @Test
-        @DisplayName("Should update book successfully")
+        @DisplayName("Should update book successfully and return the new version")
         void shouldUpdateBookSuccessfully() {
             // Given
             Long bookId = 1L;
             Book bookDetails = new Book("Updated Title", "Updated Author");
-            Book updatedBook = new Book("Updated Title", "Updated Author");
-            updatedBook.setId(bookId);
-            
-            when(bookRepository.findById(bookId)).thenReturn(Optional.of(testBook));
-            when(bookRepository.save(any(Book.class))).thenReturn(updatedBook);
+            Book stored = new Book("Updated Title", "Updated Author");
+            stored.setId(bookId);
+            stored.setVersion(4L);
+            when(bookRepository.updateTitleAndAuthor(bookId, "Updated Title", "Updated Author",
+                "updated title", "updated author")).thenReturn(1);
+            when(bookRepository.findById(bookId)).thenReturn(Optional.of(stored));
 
             // When
             Book result = bookService.updateBook(bookId, bookDetails);
 
             // Then
             assertNotNull(result);
-            assertEquals(updatedBook.getTitle(), result.getTitle());
-            assertEquals(updatedBook.getAuthor(), result.getAuthor());
-            verify(bookRepository, times(1)).findById(bookId);
-            verify(bookRepository, times(1)).save(any(Book.class));
+            assertEquals(bookId, result.getId());
+            assertEquals("Updated Title", result.getTitle());
+            assertEquals("Updated Author", result.getAuthor());
+            assertEquals(4L, result.getVersion());
+            verify(changeLog).record(argThat(changes -> changes.get(0).getVersion() == 4L));
+            verify(bookRepository, never()).save(any(Book.class));
+            verify(eventPublisher, times(1)).publishEvent(any(BookChangedEvent.class));
+        }
+
+        @Test
+        @DisplayName("Should update at version and return the next one")
+        void shouldUpdateAtVersionAndReturnTheNextOne() {
+            // Given
+            Long bookId = 1L;
+            Book bookDetails = new Book("Updated Title", "Updated Author");
+            bookDetails.setVersion(3L);
+            when(bookRepository.updateTitleAndAuthorAtVersion(bookId, 3L, "Updated Title", "Updated Author",
+                "updated title", "updated author")).thenReturn(1);
+
+            // When
+            Book result = bookService.updateBook(bookId, bookDetails);
+
+            // Then
+            assertEquals(4L, result.getVersion());
+            verify(bookRepository, never()).existsById(anyLong());
+        }
+
+        @Test
+        @DisplayName("Should reject stale version")
+        void shouldRejectStaleVersion() {
+            // Given
+            Long bookId = 1L;
+            Book bookDetails = new Book("Updated Title", "Updated Author");
+            bookDetails.setVersion(2L);
+            when(bookRepository.updateTitleAndAuthorAtVersion(eq(bookId), eq(2L), anyString(), anyString(),
+                anyString(), anyString())).thenReturn(0);
+            when(bookRepository.existsById(bookId)).thenReturn(true);
+
+            // When & Then
+            assertThrows(OptimisticLockingFailureException.class, () -> {
+                bookService.updateBook(bookId, bookDetails);
+            });
+            verify(eventPublisher, never()).publishEvent(any());
+        }
+
+        @Test
+        @DisplayName("Should move catalog version on update")
+        void shouldMoveCatalogVersionOnUpdate() {
+            // Given
+            Long bookId = 1L;
+            Book bookDetails = new Book("Updated Title", "Updated Author");
+            when(bookRepository.updateTitleAndAuthor(eq(bookId), anyString(), anyString(), anyString(), anyString()))
+                .thenReturn(1);
+            long before = catalogVersion.current();
+
+            // When
+            bookService.updateBook(bookId, bookDetails);
+
+            // Then
+            assertTrue(catalogVersion.current() > before);
+        }
+
+        @Test
+        @DisplayName("Should tag the catalog with the newest change and drop cached searches on a remote write")
+        void shouldTagCatalogWithNewestChange() {
+            // Given
+            when(changeLog.lastCommitted()).thenReturn(7L, 7L, 8L);
+            when(bookRepository.findByTitleContainingIgnoreCase("java")).thenReturn(List.of(testBook));
+            assertEquals("W/\"c-7\"", bookService.getCatalogETag());
+            bookService.searchBooksByTitle("java");
+
+            // When
+            String unchanged = bookService.getCatalogETag();
+            bookService.searchBooksByTitle("java");
+            String afterRemoteWrite = bookService.getCatalogETag();
+            bookService.searchBooksByTitle("java");
+
+            // Then
+            assertEquals("W/\"c-7\"", unchanged);
+            assertEquals("W/\"c-8\"", afterRemoteWrite);
+            verify(bookRepository, times(2)).findByTitleContainingIgnoreCase("java");
         }
 
         @Test
@@ -371,15 +933,34 @@ class BookServiceTest {
             // Given
             Long bookId = 999L;
             Book bookDetails = new Book("Updated Title", "Updated Author");
-            when(bookRepository.findById(bookId)).thenReturn(Optional.empty());
+            when(bookRepository.updateTitleAndAuthor(eq(bookId), anyString(), anyString(), anyString(), anyString()))
+                .thenReturn(0);
+
+            // When
+            Book result = bookService.updateBook(bookId, bookDetails);
+
+            // Then
+            assertNull(result);
+            verify(bookRepository, never()).existsById(anyLong());
+            verify(eventPublisher, never()).publishEvent(any());
+        }
+
+        @Test
+        @DisplayName("Should return null for unknown id with version")
+        void shouldReturnNullForUnknownIdWithVersion() {
+            // Given
+            Long bookId = 999L;
+            Book bookDetails = new Book("Updated Title", "Updated Author");
+            bookDetails.setVersion(0L);
+            when(bookRepository.updateTitleAndAuthorAtVersion(eq(bookId), eq(0L), anyString(), anyString(),
+                anyString(), anyString())).thenReturn(0);
+            when(bookRepository.existsById(bookId)).thenReturn(false);
 
             // When
             Book result = bookService.updateBook(bookId, bookDetails);
 
             // Then
             assertNull(result);
-            verify(bookRepository, times(1)).findById(bookId);
-            verify(bookRepository, never()).save(any(Book.class));
         }
 
         @Test
@@ -395,6 +976,188 @@ class BookServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("Patch Book Tests")
+    class PatchBookTests {
+
+        @Test
+        @DisplayName("Should patch title at the cached version")
+        void shouldPatchTitleAtTheCachedVersion() {
+            // Given
+            testBook.setVersion(2L);
+            when(bookRepository.findById(1L)).thenReturn(Optional.of(testBook));
+            when(bookRepository.updateTitleAndAuthorAtVersion(1L, 2L, "Patched Title", "Test Author",
+                "patched title", "test author")).thenReturn(1);
+
+            // When
+            Book result = bookService.patchBook(1L, new BookPatch("Patched Title", null));
+
+            // Then
+            assertEquals("Patched Title", result.getTitle());
+            assertEquals("Test Author", result.getAuthor());
+            assertEquals(3L, result.getVersion());
+        }
+
+        @Test
+        @DisplayName("Should not query again when the book is cached")
+        void shouldNotQueryAgainWhenTheBookIsCached() {
+            // Given
+            testBook.setVersion(2L);
+            when(bookRepository.findById(1L)).thenReturn(Optional.of(testBook));
+            when(bookRepository.updateTitleAndAuthorAtVersion(eq(1L), eq(2L), anyString(), anyString(),
+                anyString(), anyString())).thenReturn(1);
+            bookService.getBookById(1L);
+
+            // When
+            bookService.patchBook(1L, new BookPatch(null, "Patched Author"));
+
+            // Then
+            verify(bookRepository, times(1)).findById(1L);
+        }
+
+        @Test
+        @DisplayName("Should report concurrent change as conflict")
+        void shouldReportConcurrentChangeAsConflict() {
+            // Given
+            testBook.setVersion(2L);
+            when(bookRepository.findById(1L)).thenReturn(Optional.of(testBook));
+            when(bookRepository.updateTitleAndAuthorAtVersion(eq(1L), eq(2L), anyString(), anyString(),
+                anyString(), anyString())).thenReturn(0);
+            when(bookRepository.existsById(1L)).thenReturn(true);
+
+            // When & Then
+            assertThrows(OptimisticLockingFailureException.class,
+                () -> bookService.patchBook(1L, new BookPatch("Patched Title", null)));
+        }
+
+        @Test
+        @DisplayName("Should return null when book not found")
+        void shouldReturnNullWhenBookNotFound() {
+            // Given
+            when(bookRepository.findById(999L)).thenReturn(Optional.empty());
+
+            // When
+            Book result = bookService.patchBook(999L, new BookPatch("Patched Title", null));
+
+            // Then
+            assertNull(result);
+            verify(bookRepository, never()).updateTitleAndAuthor(anyLong(), any(), any(), any(), any());
+        }
+    }
+
+    @Nested
+    @DisplayName("Write-Behind Tests")
+    class WriteBehindTests {
+
+        @Test
+        @DisplayName("Should queue update without touching the database")
+        void shouldQueueUpdateWithoutTouchingTheDatabase() {
+            // Given
+            when(writeBehind.isEnabled()).thenReturn(true);
+            when(bookRepository.findById(1L)).thenReturn(Optional.of(testBook));
+            when(writeBehind.append(any(PendingBookWrite.class))).thenReturn(true);
+
+            // When
+            Book result = bookService.updateBook(1L, new Book("Updated Title", "Updated Author"));
+
+            // Then
+            assertEquals("Updated Title", result.getTitle());
+            assertEquals(1L, result.getId());
+            verify(writeBehind).append(argThat(write -> !write.isDelete() && write.getBookId() == 1L));
+            verify(bookRepository, never()).save(any(Book.class));
+            verify(eventPublisher, never()).publishEvent(any());
+        }
+
+        @Test
+        @DisplayName("Should read pending write before the database")
+        void shouldReadPendingWriteBeforeTheDatabase() {
+            // Given
+            when(writeBehind.pendingWrite(1L))
+                .thenReturn(Optional.of(PendingBookWrite.update(1L, "Pending Title", "Pending Author")));
+            when(writeBehind.pendingWrite(2L)).thenReturn(Optional.of(PendingBookWrite.delete(2L)));
+
+            // When & Then
+            assertEquals("Pending Title", bookService.getBookById(1L).get().getTitle());
+            assertTrue(bookService.getBookById(2L).isEmpty());
+            verify(bookRepository, never()).findById(anyLong());
+        }
+
+        @Test
+        @DisplayName("Should not queue update for missing book")
+        void shouldNotQueueUpdateForMissingBook() {
+            // Given
+            when(writeBehind.isEnabled()).thenReturn(true);
+            when(bookRepository.findById(99L)).thenReturn(Optional.empty());
+
+            // When
+            Book result = bookService.updateBook(99L, new Book("Updated Title", "Updated Author"));
+
+            // Then
+            assertNull(result);
+            verify(writeBehind, never()).append(any());
+        }
+
+        @Test
+        @DisplayName("Should queue delete")
+        void shouldQueueDelete() {
+            // Given
+            when(writeBehind.isEnabled()).thenReturn(true);
+            when(bookRepository.findById(1L)).thenReturn(Optional.of(testBook));
+            when(writeBehind.append(any(PendingBookWrite.class))).thenReturn(true);
+
+            // When
+            boolean result = bookService.deleteBook(1L);
+
+            // Then
+            assertTrue(result);
+            verify(writeBehind).append(argThat(PendingBookWrite::isDelete));
+            verify(bookRepository, never()).deleteBookById(anyLong());
+        }
+
+        @Test
+        @DisplayName("Should reject versioned update while a write is pending")
+        void shouldRejectVersionedUpdateWhileAWriteIsPending() {
+            // Given
+            Book bookDetails = new Book("Updated Title", "Updated Author");
+            bookDetails.setVersion(0L);
+            when(writeBehind.isEnabled()).thenReturn(true);
+            when(writeBehind.pendingWrite(1L))
+                .thenReturn(Optional.of(PendingBookWrite.update(1L, "Pending Title", "Pending Author")));
+
+            // When & Then
+            assertThrows(OptimisticLockingFailureException.class, () -> bookService.updateBook(1L, bookDetails));
+            verify(bookRepository, never()).findById(anyLong());
+        }
+
+        @Test
+        @DisplayName("Should apply queued writes in one pass")
+        void shouldApplyQueuedWritesInOnePass() {
+            // Given
+            Book other = new Book("Other Book", "Other Author");
+            other.setId(2L);
+            when(bookRepository.findAllById(List.of(1L, 2L, 3L))).thenReturn(List.of(testBook, other));
+            when(bookRepository.saveAll(List.of(testBook))).thenReturn(List.of(testBook));
+
+            // When
+            bookService.applyWrites(List.of(
+                PendingBookWrite.update(1L, "Updated Title", "Updated Author"),
+                PendingBookWrite.delete(2L),
+                PendingBookWrite.delete(3L)));
+
+            // Then
+            assertEquals("Updated Title", testBook.getTitle());
+            verify(bookRepository).saveAll(List.of(testBook));
+            verify(bookRepository).deleteAll(List.of(other));
+            verify(entityManager).flush();
+            verify(eventPublisher, times(2)).publishEvent(any(BookChangedEvent.class));
+            verify(changeLog).record(argThat(changes -> changes.size() == 2
+                && changes.get(0).getType() == BookChange.Type.UPDATED
+                && "Updated Title".equals(changes.get(0).getTitle())
+                && changes.get(1).getType() == BookChange.Type.DELETED
+                && changes.get(1).getBookId() == 2L));
+        }
+    }
+
     @Nested
     @DisplayName("Delete Book Tests")
     class DeleteBookTests {
@@ -404,16 +1167,19 @@ class BookServiceTest {
         void shouldDeleteBookSuccessfully() {
             // Given
             Long bookId = 1L;
-            when(bookRepository.existsById(bookId)).thenReturn(true);
-            doNothing().when(bookRepository).deleteById(bookId);
+            when(bookRepository.deleteBookById(bookId)).thenReturn(1);
 
             // When
             boolean result = bookService.deleteBook(bookId);
 
             // Then
             assertTrue(result);
-            verify(bookRepository, times(1)).existsById(bookId);
-            verify(bookRepository, times(1)).deleteById(bookId);
+            verify(bookRepository, times(1)).deleteBookById(bookId);
+            verify(bookRepository, never()).existsById(anyLong());
+            verify(eventPublisher, times(1)).publishEvent(any(BookChangedEvent.class));
+            verify(changeLog).record(argThat(changes -> changes.size() == 1
+                && changes.get(0).getType() == BookChange.Type.DELETED
+                && changes.get(0).getBookId().equals(bookId)));
         }
 
         @Test
@@ -421,27 +1187,25 @@ class BookServiceTest {
         void shouldReturnFalseWhenBookNotFound() {
             // Given
             Long bookId = 999L;
-            when(bookRepository.existsById(bookId)).thenReturn(false);
+            when(bookRepository.deleteBookById(bookId)).thenReturn(0);
 
             // When
             boolean result = bookService.deleteBook(bookId);
 
             // Then
             assertFalse(result);
-            verify(bookRepository, times(1)).existsById(bookId);
-            verify(bookRepository, never()).deleteById(anyLong());
+            verify(eventPublisher, never()).publishEvent(any());
+            verify(changeLog, never()).record(any());
         }
 
         @Test
         @DisplayName("Should handle null ID")
         void shouldHandleNullId() {
-            // Given
-            when(bookRepository.existsById(null)).thenThrow(new IllegalArgumentException("ID cannot be null"));
-
             // When & Then
             assertThrows(IllegalArgumentException.class, () -> {
                 bookService.deleteBook(null);
             });
+            verify(bookRepository, never()).deleteBookById(any());
         }
     }
 }
@@ -0,0 +1,229 @@
+package com.example.book_management;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+    "spring.datasource.url=jdbc:h2:mem:shard0;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+    "books.shards.urls=jdbc:h2:mem:shard1;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE,"
+        + "jdbc:h2:mem:shard2;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+    "books.shards.id-block-size=10"
+})
+@DisplayName("Book Sharding Integration Tests")
+class BookShardingIntegrationTest {
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private BookStore bookRepository;
+
+    @Autowired
+    private BookShards bookShards;
+
+    @Autowired
+    private BookShardRebalancer rebalancer;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private BookIdAllocator idAllocator;
+
+    @BeforeEach
+    void setUp() {
+        bookRepository.deleteAll();
+    }
+
+    private List<Book> addBooks(int count) {
+        List<Book> books = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            books.add(new Book("Java Book " + i, "Author " + (i % 3)));
+        }
+        return bookService.addBooks(books);
+    }
+
+    private static List<Long> ids(List<Book> books) {
+        return books.stream().map(Book::getId).collect(Collectors.toList());
+    }
+
+    @Test
+    @DisplayName("Should be wired with the sharded repository")
+    void shouldBeWiredWithShardedRepository() {
+        assertInstanceOf(ShardedBookRepository.class, bookRepository);
+        assertEquals(3, bookShards.all().size());
+    }
+
+    @Test
+    @DisplayName("Should spread new books over every shard with unique ids")
+    void shouldSpreadNewBooksOverEveryShard() {
+        // When
+        List<Book> saved = addBooks(30);
+
+        // Then
+        assertEquals(30, new HashSet<>(ids(saved)).size());
+        for (BookShard shard : bookShards.all()) {
+            assertTrue(shard.read(BookRepository::count) > 0, "shard " + shard.getIndex() + " is empty");
+        }
+        for (Book book : saved) {
+            BookShard owner = bookShards.shardFor(book.getId());
+            for (BookShard shard : bookShards.all()) {
+                Optional<Book> stored = shard.read(repository -> repository.findById(book.getId()));
+                assertEquals(shard == owner, stored.isPresent());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should hand out unique ids to concurrent inserters")
+    void shouldHandOutUniqueIdsToConcurrentInserters() {
+        // When
+        List<CompletableFuture<List<Long>>> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            threads.add(CompletableFuture.supplyAsync(() -> LongStream.range(0, 100)
+                    .mapToObj(i -> idAllocator.next())
+                    .collect(Collectors.toList())));
+        }
+        List<Long> ids = threads.stream().flatMap(thread -> thread.join().stream()).collect(Collectors.toList());
+
+        // Then
+        assertEquals(800, new HashSet<>(ids).size());
+    }
+
+    @Test
+    @DisplayName("Should merge whole-catalog reads in id order")
+    void shouldMergeWholeCatalogReadsInIdOrder() {
+        // Given
+        List<Long> expected = ids(addBooks(25));
+
+        // When
+        List<Long> all = ids(bookService.getAllBooks());
+        List<Long> exported = new ArrayList<>();
+        bookService.exportBooks(book -> exported.add(book.getId()));
+        List<Long> paged = new ArrayList<>();
+        Long cursor = null;
+        do {
+            BookPage page = bookService.getBooksPage(cursor, 7);
+            paged.addAll(ids(page.getBooks()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        // Then
+        assertEquals(expected, all);
+        assertEquals(expected, exported);
+        assertEquals(expected, paged);
+    }
+
+    @Test
+    @DisplayName("Should merge searches across shards")
+    void shouldMergeSearchesAcrossShards() {
+        // Given
+        addBooks(12);
+
+        // When
+        List<Book> byAuthor = bookService.searchBooksByAuthor("Author 1");
+        List<Book> byPrefix = bookService.searchBooksByTitlePrefix("java book 1");
+
+        // Then
+        assertEquals(4, byAuthor.size());
+        assertEquals(List.of("Java Book 1", "Java Book 10", "Java Book 11"),
+                byPrefix.stream().map(Book::getTitle).collect(Collectors.toList()));
+    }
+
+    @Test
+    @DisplayName("Should update and delete on the owning shard")
+    void shouldUpdateAndDeleteOnOwningShard() {
+        // Given
+        List<Book> saved = addBooks(6);
+        Long updatedId = saved.get(1).getId();
+        Long deletedId = saved.get(2).getId();
+
+        // When
+        bookService.updateBook(updatedId, new Book("Renamed", "Someone"));
+        assertTrue(bookService.deleteBook(deletedId));
+
+        // Then
+        assertEquals("Renamed", bookRepository.findById(updatedId).orElseThrow().getTitle());
+        assertFalse(bookRepository.existsById(deletedId));
+        assertEquals(5, bookService.getAllBooks().size());
+    }
+
+    @Test
+    @DisplayName("Should move buckets without losing or duplicating books")
+    void shouldMoveBucketsWithoutLosingOrDuplicatingBooks() {
+        // Given
+        List<Long> expected = ids(addBooks(40));
+        Long moving = expected.get(0);
+        int bucket = BookShards.bucketOf(moving);
+        int from = bookShards.ownerOf(bucket);
+        int to = (from + 1) % bookShards.all().size();
+
+        // When
+        rebalancer.copy(bucket, from, to);
+
+        // Then
+        assertEquals(to, bookShards.shardFor(moving).getIndex());
+        assertTrue(bookRepository.findById(moving).isPresent());
+        assertEquals(expected, ids(bookService.getAllBooks()));
+
+        // When
+        assertTrue(rebalancer.rebalance() > 0);
+
+        // Then
+        for (BookShard shard : bookShards.all()) {
+            long owned = 0;
+            for (int b = 0; b < BookShards.BUCKETS; b++) {
+                if (bookShards.ownerOf(b) == shard.getIndex()) {
+                    owned++;
+                }
+            }
+            assertTrue(owned == 341 || owned == 342, "shard " + shard.getIndex() + " owns " + owned);
+        }
+        assertEquals(expected, ids(bookService.getAllBooks()));
+        expected.forEach(id -> assertTrue(bookRepository.findById(id).isPresent()));
+    }
+
+    @Test
+    @DisplayName("Should not move a bucket under a shard 0 write that has yet to commit")
+    void shouldNotMoveBucketUnderUncommittedWrite() {
+        // Given
+        Book book = addBooks(30).stream()
+                .filter(saved -> bookShards.shardFor(saved.getId()).getIndex() == 0)
+                .findFirst().orElseThrow();
+        int bucket = BookShards.bucketOf(book.getId());
+        CompletableFuture<?>[] move = new CompletableFuture<?>[1];
+
+        // When
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            bookRepository.updateTitleAndAuthor(book.getId(), "Renamed", "Someone", "renamed", "someone");
+            move[0] = CompletableFuture.runAsync(() -> rebalancer.copy(bucket, 0, 1));
+            assertThrows(TimeoutException.class, () -> move[0].get(200, TimeUnit.MILLISECONDS));
+        });
+        move[0].join();
+
+        // Then
+        assertEquals(1, bookShards.shardFor(book.getId()).getIndex());
+        assertEquals("Renamed", bookRepository.findById(book.getId()).orElseThrow().getTitle());
+    }
+}
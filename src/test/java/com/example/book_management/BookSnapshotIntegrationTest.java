@@ -0,0 +1,75 @@
+package com.example.book_management;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+    "spring.datasource.url=jdbc:h2:mem:snapshot;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+    "books.snapshot.enabled=true",
+    "books.snapshot.directory=target/snapshot-test"
+})
+@DisplayName("Book Snapshot Integration Tests")
+class BookSnapshotIntegrationTest {
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private BookSnapshot snapshot;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    @DisplayName("Should serve committed adds, updates and deletes from the snapshot")
+    void shouldServeCommittedChangesFromSnapshot() {
+        // Given
+        assertTrue(snapshot.isReady());
+        Book added = bookService.addBook(new Book("Snapshot Book", "Snapshot Author"));
+
+        // When
+        bookService.updateBook(added.getId(), new Book("Renamed Book", "Snapshot Author"));
+        Book other = bookService.addBook(new Book("Other Book", "Other Author"));
+        bookService.deleteBook(other.getId());
+
+        // Then
+        Optional<Book> read = snapshot.get(added.getId());
+        assertTrue(read.isPresent());
+        assertEquals("Renamed Book", read.get().getTitle());
+        assertEquals(bookRepository.findById(added.getId()).get().getVersion(), read.get().getVersion());
+        assertTrue(snapshot.get(other.getId()).isEmpty());
+        assertEquals(List.of(added.getId()),
+                bookService.searchBooksByTitle("renamed").stream().map(Book::getId).collect(Collectors.toList()));
+    }
+
+    @Test
+    @DisplayName("Should not take a rolled-back add")
+    void shouldNotTakeRolledBackAdd() {
+        // When
+        Book added = transactionTemplate.execute(status -> {
+            Book book = bookService.addBook(new Book("Rolled Back", "Nobody"));
+            status.setRollbackOnly();
+            return book;
+        });
+
+        // Then
+        assertTrue(snapshot.get(added.getId()).isEmpty());
+        assertTrue(bookService.getBookById(added.getId()).isEmpty());
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.book_management;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Book Snapshot Refresher Tests")
+class BookSnapshotRefresherTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Mock
+    private BookService bookService;
+
+    @Mock
+    private BookChangeLog changeLog;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private BookSnapshot snapshot;
+    private BookSnapshotRefresher refresher;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        snapshot = new BookSnapshot(true, tempDir, 4);
+        snapshot.open();
+        refresher = new BookSnapshotRefresher(bookService, changeLog, snapshot, transactionManager,
+                Duration.ofHours(1));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        refresher.stop();
+        snapshot.close();
+    }
+
+    private static Book book(long id, String title, Long version) {
+        Book book = new Book(title, "Author");
+        book.setId(id);
+        book.setVersion(version);
+        return book;
+    }
+
+    private static BookChange change(long seq, BookChange change) {
+        change.assignSeq(seq);
+        return change;
+    }
+
+    private static BookChangePage page(BookChange... changes) {
+        return new BookChangePage(List.of(changes), changes[changes.length - 1].getSeq());
+    }
+
+    @Test
+    @DisplayName("Should apply the changes logged during the load before serving")
+    void shouldCatchUpBeforeServing() {
+        // Given
+        snapshot.load(book(1L, "Renamed", 1L));
+        snapshot.load(book(2L, "Deleted", 0L));
+        when(changeLog.latest()).thenReturn(3L);
+        when(changeLog.read(0L, 1000)).thenReturn(page(
+                change(1, BookChange.created(book(1L, "Original", 0L))),
+                change(2, BookChange.updated(book(1L, "Renamed", null))),
+                change(3, BookChange.deleted(2L))));
+
+        // When
+        refresher.start(0L);
+
+        // Then
+        assertTrue(snapshot.isReady());
+        assertEquals(List.of(1L), snapshot.list().stream().map(Book::getId).collect(Collectors.toList()));
+        assertEquals("Renamed", snapshot.get(1L).get().getTitle());
+        // The load may or may not have read the unversioned update already
+        assertNull(snapshot.get(1L).get().getVersion());
+        assertEquals(3L, snapshot.appliedSeq());
+    }
+
+    @Test
+    @DisplayName("Should pick up changes logged by other instances on refresh")
+    void shouldPickUpRemoteChanges() {
+        // Given
+        snapshot.load(book(1L, "Title", 4L));
+        when(changeLog.latest()).thenReturn(7L);
+        when(changeLog.read(7L, 1000)).thenReturn(BookChangePage.empty(7L));
+        refresher.start(7L);
+        when(changeLog.read(7L, 1000)).thenReturn(page(
+                change(8, BookChange.updated(book(1L, "Renamed", null))),
+                change(9, BookChange.created(book(2L, "Added", 0L)))));
+
+        // When
+        refresher.refresh();
+
+        // Then
+        assertEquals("Renamed", snapshot.get(1L).get().getTitle());
+        assertEquals(5L, snapshot.get(1L).get().getVersion());
+        assertEquals("Added", snapshot.get(2L).get().getTitle());
+        assertEquals(9L, snapshot.appliedSeq());
+    }
+
+    @Test
+    @DisplayName("Should load the snapshot again once the log is pruned past its cursor")
+    void shouldReloadWhenPruned() {
+        // Given
+        snapshot.load(book(1L, "Gone", 0L));
+        when(changeLog.latest()).thenReturn(5L, 20L);
+        when(changeLog.read(5L, 1000)).thenReturn(null);
+        doAnswer(invocation -> {
+            Consumer<Book> consumer = invocation.getArgument(0);
+            consumer.accept(book(2L, "Current", 3L));
+            return null;
+        }).when(bookService).exportBooks(any());
+        when(changeLog.read(20L, 1000)).thenReturn(BookChangePage.empty(20L));
+
+        // When
+        refresher.start(5L);
+
+        // Then
+        assertTrue(snapshot.isReady());
+        assertTrue(snapshot.get(1L).isEmpty());
+        assertEquals("Current", snapshot.get(2L).get().getTitle());
+        assertEquals(20L, snapshot.appliedSeq());
+    }
+
+    @Test
+    @DisplayName("Should stop serving and leave reads to the database when the snapshot fails")
+    void shouldStopServingWhenSnapshotFails() throws Exception {
+        // Given: arena chunks too small for the title about to be logged
+        BookSnapshot small = new BookSnapshot(true, tempDir.resolve("small"), 4, 16);
+        small.open();
+        BookSnapshotRefresher failing = new BookSnapshotRefresher(bookService, changeLog, small,
+                transactionManager, Duration.ofHours(1));
+        try {
+            when(changeLog.latest()).thenReturn(1L);
+            when(changeLog.read(1L, 1000)).thenReturn(BookChangePage.empty(1L));
+            failing.start(1L);
+            assertTrue(small.isReady());
+            when(changeLog.read(1L, 1000)).thenReturn(page(
+                    change(2, BookChange.created(book(1L, "A title longer than a chunk", 0L)))));
+
+            // When
+            failing.refresh();
+            failing.refresh();
+
+            // Then
+            assertFalse(small.isReady());
+            verify(changeLog, times(2)).read(1L, 1000);
+        } finally {
+            failing.stop();
+            small.close();
+        }
+    }
+}
@@ -0,0 +1,374 @@
+package com.example.book_management;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Book Snapshot Tests")
+class BookSnapshotTest {
+
+    @TempDir
+    Path tempDir;
+
+    private BookSnapshot snapshot;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        snapshot = new BookSnapshot(true, tempDir, 4);
+        snapshot.open();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        snapshot.close();
+    }
+
+    private static Book book(long id, String title, String author, Long version) {
+        Book book = new Book(title, author);
+        book.setId(id);
+        book.setVersion(version);
+        return book;
+    }
+
+    private static List<Long> ids(List<Book> books) {
+        return books.stream().map(Book::getId).collect(Collectors.toList());
+    }
+
+    @Nested
+    @DisplayName("Read Tests")
+    class ReadTests {
+
+        @Test
+        @DisplayName("Should read back what was put")
+        void shouldReadBackWhatWasPut() {
+            // Given
+            snapshot.put(book(1L, "Les Misérables", "Victor Hugo", 3L));
+
+            // When
+            Optional<Book> result = snapshot.get(1L);
+
+            // Then
+            assertTrue(result.isPresent());
+            assertEquals("Les Misérables", result.get().getTitle());
+            assertEquals("Victor Hugo", result.get().getAuthor());
+            assertEquals(3L, result.get().getVersion());
+            assertTrue(snapshot.get(2L).isEmpty());
+            assertTrue(snapshot.get(null).isEmpty());
+        }
+
+        @Test
+        @DisplayName("Should keep books in id order whatever order they arrive in")
+        void shouldKeepBooksInIdOrder() {
+            // Given
+            for (long id : new long[] {5, 1, 9, 3, 7, 2}) {
+                snapshot.put(book(id, "Title " + id, "Author " + id, 0L));
+            }
+
+            // When
+            List<Book> books = snapshot.list();
+
+            // Then
+            assertEquals(List.of(1L, 2L, 3L, 5L, 7L, 9L), ids(books));
+            assertEquals("Title 7", snapshot.get(7L).get().getTitle());
+        }
+
+        @Test
+        @DisplayName("Should page through ids above the cursor")
+        void shouldPageThroughIdsAboveCursor() {
+            // Given
+            for (long id = 10; id <= 50; id += 10) {
+                snapshot.put(book(id, "Title", "Author", 0L));
+            }
+
+            // Then
+            assertEquals(List.of(10L, 20L), ids(snapshot.page(0, 2)));
+            assertEquals(List.of(30L, 40L), ids(snapshot.page(20, 2)));
+            assertEquals(List.of(30L, 40L, 50L), ids(snapshot.page(25, 10)));
+            assertTrue(snapshot.page(50, 10).isEmpty());
+        }
+
+        @Test
+        @DisplayName("Should get the books found for a batch of ids")
+        void shouldGetBooksFoundForBatch() {
+            // Given
+            snapshot.put(book(1L, "Java", "John", 0L));
+            snapshot.put(book(2L, "Kotlin", "Jane", 0L));
+
+            // When
+            Map<Long, Book> books = snapshot.getAll(List.of(2L, 3L, 1L));
+
+            // Then
+            assertEquals(2, books.size());
+            assertEquals("Kotlin", books.get(2L).getTitle());
+        }
+
+        @Test
+        @DisplayName("Should find substrings ignoring case")
+        void shouldFindSubstringsIgnoringCase() {
+            // Given
+            snapshot.put(book(1L, "Java Programming", "John Doe", 0L));
+            snapshot.put(book(2L, "Python Basics", "Jane Java", 0L));
+            snapshot.put(book(3L, "Modern Art", "Bob Smith", 0L));
+
+            // Then
+            assertEquals(List.of(1L), ids(snapshot.findByTitleContaining("JAVA")));
+            assertEquals(List.of(2L), ids(snapshot.findByAuthorContaining("java")));
+            assertEquals(List.of(1L, 2L), ids(snapshot.findByTitleOrAuthorContaining("jav")));
+            assertTrue(snapshot.findByTitleOrAuthorContaining(null).isEmpty());
+        }
+
+        @Test
+        @DisplayName("Should find substrings ignoring case in text that is not ASCII")
+        void shouldFindSubstringsIgnoringCaseBeyondAscii() {
+            // Given
+            snapshot.put(book(1L, "Les Misérables", "Victor Hugo", 0L));
+            snapshot.put(book(2L, "ÉTUDES", "Émile Zola", 0L));
+            snapshot.put(book(3L, "Etudes", "Plain Ascii", 0L));
+
+            // Then
+            assertEquals(List.of(1L), ids(snapshot.findByTitleContaining("MISÉR")));
+            assertEquals(List.of(1L), ids(snapshot.findByTitleContaining("rables")));
+            assertEquals(List.of(2L), ids(snapshot.findByTitleContaining("étu")));
+            assertEquals(List.of(2L, 3L), ids(snapshot.findByTitleContaining("tudes")));
+            assertEquals(List.of(2L), ids(snapshot.findByAuthorContaining("ÉMILE")));
+        }
+
+        @Test
+        @DisplayName("Should keep strings in as many arena chunks as they need")
+        void shouldSpreadStringsOverArenaChunks() throws Exception {
+            // Given
+            BookSnapshot chunked = new BookSnapshot(true, tempDir.resolve("chunked"), 4, 64);
+            chunked.open();
+            try {
+                for (long id = 1; id <= 50; id++) {
+                    chunked.put(book(id, "Title number " + id, "Author " + id, 0L));
+                }
+
+                // When
+                chunked.put(book(7L, "Renamed seven", "Author 7", 1L));
+
+                // Then
+                assertEquals("Title number 42", chunked.get(42L).get().getTitle());
+                assertEquals("Renamed seven", chunked.get(7L).get().getTitle());
+                assertEquals(List.of(7L), ids(chunked.findByTitleContaining("SEVEN")));
+                assertEquals(List.of(5L, 50L), ids(chunked.findByAuthorContaining("author 5")));
+                assertTrue(chunked.stats().getMappedBytes() > 64);
+            } finally {
+                chunked.close();
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Change Tests")
+    class ChangeTests {
+
+        @Test
+        @DisplayName("Should replace a book and count the old strings as garbage")
+        void shouldReplaceBookAndCountGarbage() {
+            // Given
+            snapshot.put(book(1L, "Old", "Author", 0L));
+
+            // When
+            snapshot.put(book(1L, "New Title", "Author", 1L));
+
+            // Then
+            assertEquals("New Title", snapshot.get(1L).get().getTitle());
+            assertEquals(1, snapshot.size());
+            assertEquals(9, snapshot.stats().getGarbageBytes());
+            assertEquals(15, snapshot.stats().getStringBytes());
+        }
+
+        @Test
+        @DisplayName("Should ignore a change older than the copy it holds")
+        void shouldIgnoreOlderChange() {
+            // Given
+            snapshot.put(book(1L, "Newer", "Author", 5L));
+
+            // When
+            snapshot.put(book(1L, "Older", "Author", 4L));
+
+            // Then
+            assertEquals("Newer", snapshot.get(1L).get().getTitle());
+        }
+
+        @Test
+        @DisplayName("Should move the version on for an update without one")
+        void shouldMoveVersionOnForUnversionedUpdate() {
+            // Given
+            snapshot.put(book(1L, "Title", "Author", 2L));
+
+            // When
+            snapshot.put(book(1L, "Renamed", "Author", null));
+
+            // Then
+            assertEquals("Renamed", snapshot.get(1L).get().getTitle());
+            assertEquals(3L, snapshot.get(1L).get().getVersion());
+        }
+
+        @Test
+        @DisplayName("Should remove a book and keep the others in order")
+        void shouldRemoveBook() {
+            // Given
+            for (long id = 1; id <= 5; id++) {
+                snapshot.put(book(id, "Title " + id, "Author", 0L));
+            }
+
+            // When
+            snapshot.remove(3L);
+            snapshot.remove(42L);
+
+            // Then
+            assertEquals(List.of(1L, 2L, 4L, 5L), ids(snapshot.list()));
+            assertEquals("Title 4", snapshot.get(4L).get().getTitle());
+        }
+
+        @Test
+        @DisplayName("Should drop deleted rows once they are a quarter of all rows")
+        void shouldCompactDeletedRows() {
+            // Given
+            snapshot.markReady();
+            for (long id = 1; id <= 2000; id++) {
+                snapshot.put(book(id, "Title " + id, "Author", 0L));
+            }
+
+            // When
+            for (long id = 1; id <= 1500; id++) {
+                snapshot.remove(id);
+            }
+
+            // Then
+            assertEquals(476, snapshot.stats().getDeletedRows());
+            assertEquals(500, snapshot.size());
+            assertEquals(List.of(1501L, 1502L), ids(snapshot.page(0L, 2)));
+            assertTrue(snapshot.get(1000L).isEmpty());
+            assertEquals("Title 2000", snapshot.get(2000L).get().getTitle());
+        }
+
+        @Test
+        @DisplayName("Should apply a page of changes in log order")
+        void shouldApplyChanges() {
+            // Given
+            snapshot.put(book(1L, "Title", "Author", 2L));
+            BookChange created = BookChange.created(book(2L, "Added", "Author", 0L));
+            created.assignSeq(5L);
+            BookChange updated = BookChange.updated(book(1L, "Renamed", "Author", null));
+            updated.assignSeq(6L);
+            BookChange deleted = BookChange.deleted(2L);
+            deleted.assignSeq(7L);
+
+            // When
+            snapshot.apply(new BookChangePage(List.of(created, updated, deleted), 7L), 0L);
+
+            // Then
+            assertEquals(List.of(1L), ids(snapshot.list()));
+            assertEquals("Renamed", snapshot.get(1L).get().getTitle());
+            assertEquals(3L, snapshot.get(1L).get().getVersion());
+            assertEquals(7L, snapshot.appliedSeq());
+        }
+
+        @Test
+        @DisplayName("Should grow past its initial capacity")
+        void shouldGrowPastInitialCapacity() {
+            // When
+            for (long id = 1; id <= 1000; id++) {
+                snapshot.put(book(id, "Title number " + id, "Author number " + id, 0L));
+            }
+
+            // Then
+            assertEquals(1000, snapshot.size());
+            assertEquals("Author number 777", snapshot.get(777L).get().getAuthor());
+            assertTrue(snapshot.stats().getMappedBytes() >= 1000L * Long.BYTES * 3);
+        }
+
+        @Test
+        @DisplayName("Should rewrite the strings once most of them are garbage")
+        void shouldCompactStrings() {
+            // Given
+            String title = "x".repeat(200);
+            for (long id = 1; id <= 100; id++) {
+                snapshot.put(book(id, title, "Author " + id, 0L));
+            }
+
+            // When
+            for (int round = 1; round <= 120; round++) {
+                for (long id = 1; id <= 100; id++) {
+                    snapshot.put(book(id, title, "Author " + id, (long) round));
+                }
+            }
+
+            // Then
+            BookSnapshotStats stats = snapshot.stats();
+            assertTrue(stats.getCompactions() > 0);
+            assertTrue(stats.getGarbageBytes() < 1 << 20);
+            assertEquals("Author 42", snapshot.get(42L).get().getAuthor());
+            assertEquals(title, snapshot.get(100L).get().getTitle());
+        }
+    }
+
+    @Nested
+    @DisplayName("Load Tests")
+    class LoadTests {
+
+        @Test
+        @DisplayName("Should not let the initial load undo changes made during it")
+        void shouldNotLetLoadUndoChanges() {
+            // Given
+            snapshot.put(book(2L, "Changed", "Author", 1L));
+            snapshot.remove(3L);
+
+            // When
+            snapshot.load(book(1L, "Loaded", "Author", 0L));
+            snapshot.load(book(2L, "Stale", "Author", 0L));
+            snapshot.load(book(3L, "Deleted", "Author", 0L));
+            snapshot.markReady();
+
+            // Then
+            assertTrue(snapshot.isReady());
+            assertEquals(List.of(1L, 2L), ids(snapshot.list()));
+            assertEquals("Changed", snapshot.get(2L).get().getTitle());
+        }
+
+        @Test
+        @DisplayName("Should do nothing when disabled")
+        void shouldDoNothingWhenDisabled() throws Exception {
+            // Given
+            BookSnapshot disabled = new BookSnapshot(false, tempDir.resolve("disabled"), 4);
+            disabled.open();
+
+            // When
+            disabled.put(book(1L, "Title", "Author", 0L));
+            disabled.markReady();
+
+            // Then
+            assertFalse(disabled.isReady());
+            assertEquals(0, disabled.size());
+            assertFalse(Files.exists(tempDir.resolve("disabled")));
+        }
+
+        @Test
+        @DisplayName("Should delete its files on close")
+        void shouldDeleteFilesOnClose() throws Exception {
+            // When
+            snapshot.close();
+
+            // Then
+            try (Stream<Path> files = Files.list(tempDir)) {
+                assertEquals(0, files.count());
+            }
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.example.book_management;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Book Suggester Tests")
+class BookSuggesterTest {
+
+    private BookSuggester suggester;
+
+    @BeforeEach
+    void setUp() {
+        suggester = new BookSuggester();
+        add(1L, "Java Programming", "John Doe");
+        add(2L, "Python Basics", "Jane Smith");
+        add(3L, "Advanced Java", "John Doe");
+        add(4L, "JavaScript Guide", "Bob Johnson");
+    }
+
+    private void add(Long id, String title, String author) {
+        Book book = new Book(title, author);
+        book.setId(id);
+        suggester.add(book);
+    }
+
+    private List<String> texts(String prefix, int limit) {
+        return suggester.suggest(prefix, limit).stream()
+                .map(BookSuggestion::getText)
+                .collect(Collectors.toList());
+    }
+
+    @Nested
+    @DisplayName("Suggest Tests")
+    class SuggestTests {
+
+        @Test
+        @DisplayName("Should rank phrases shared by more books first")
+        void shouldRankPhrasesSharedByMoreBooksFirst() {
+            // When
+            List<BookSuggestion> suggestions = suggester.suggest("jo", 10);
+
+            // Then
+            assertEquals(2, suggestions.size());
+            assertEquals("John Doe", suggestions.get(0).getText());
+            assertEquals(BookSuggestion.Type.AUTHOR, suggestions.get(0).getType());
+            assertEquals(2, suggestions.get(0).getCount());
+            assertEquals("Bob Johnson", suggestions.get(1).getText());
+            assertEquals(1, suggestions.get(1).getCount());
+        }
+
+        @Test
+        @DisplayName("Should complete any word of a phrase, shortest first")
+        void shouldCompleteAnyWordOfPhrase() {
+            assertEquals(List.of("Advanced Java", "Java Programming", "JavaScript Guide"), texts("java", 10));
+            assertEquals(List.of("Jane Smith"), texts("smi", 10));
+        }
+
+        @Test
+        @DisplayName("Should match prefixes spanning several words")
+        void shouldMatchPrefixesSpanningSeveralWords() {
+            assertEquals(List.of("Java Programming"), texts("JAVA  pro", 10));
+            assertTrue(texts("java basics", 10).isEmpty());
+        }
+
+        @Test
+        @DisplayName("Should fold case and accents")
+        void shouldFoldCaseAndAccents() {
+            // Given
+            add(5L, "Thérèse Raquin", "Émile Zola");
+
+            // When & Then
+            assertEquals(List.of("Émile Zola"), texts("emi", 10));
+            assertEquals(List.of("Thérèse Raquin"), texts("THER", 10));
+        }
+
+        @Test
+        @DisplayName("Should honour the limit")
+        void shouldHonourTheLimit() {
+            assertEquals(List.of("John Doe"), texts("j", 1));
+            assertEquals(2, texts("ja", 2).size());
+        }
+
+        @Test
+        @DisplayName("Should return nothing for blank or unknown prefixes")
+        void shouldReturnNothingForBlankOrUnknownPrefixes() {
+            assertTrue(suggester.suggest("   ", 10).isEmpty());
+            assertTrue(suggester.suggest(null, 10).isEmpty());
+            assertTrue(suggester.suggest("xyz", 10).isEmpty());
+            assertTrue(suggester.suggest("javax", 10).isEmpty());
+        }
+    }
+
+    @Nested
+    @DisplayName("Maintenance Tests")
+    class MaintenanceTests {
+
+        @Test
+        @DisplayName("Should lower counts and drop phrases when books are removed")
+        void shouldLowerCountsWhenBooksAreRemoved() {
+            // When
+            suggester.remove(1L);
+
+            // Then
+            List<BookSuggestion> suggestions = suggester.suggest("john d", 10);
+            assertEquals(1, suggestions.get(0).getCount());
+            assertEquals(List.of("Advanced Java", "JavaScript Guide"), texts("java", 10));
+        }
+
+        @Test
+        @DisplayName("Should replace phrases when a book is re-added")
+        void shouldReplacePhrasesWhenBookIsReadded() {
+            // When
+            add(2L, "Rust in Action", "Tim McNamara");
+
+            // Then
+            assertTrue(texts("pyth", 10).isEmpty());
+            assertEquals(List.of("Rust in Action"), texts("act", 10));
+            assertEquals(7, suggester.stats().getPhrases());
+        }
+
+        @Test
+        @DisplayName("Should shrink back to an empty root once every book is removed")
+        void shouldShrinkBackOnceEveryBookIsRemoved() {
+            // Given
+            BookSuggesterStats loaded = suggester.stats();
+            assertEquals(7, loaded.getPhrases());
+            assertTrue(loaded.getNodes() > 1);
+
+            // When
+            for (long id = 1; id <= 4; id++) {
+                suggester.remove(id);
+            }
+
+            // Then
+            BookSuggesterStats empty = suggester.stats();
+            assertEquals(0, empty.getPhrases());
+            assertEquals(1, empty.getNodes());
+            assertTrue(empty.getEstimatedBytes() < loaded.getEstimatedBytes());
+            assertTrue(texts("j", 10).isEmpty());
+        }
+
+        @Test
+        @DisplayName("Should not let the initial load undo changes that reached it first")
+        void shouldNotLetLoadUndoEarlierChanges() {
+            // Given
+            Book stale = new Book("Python Basics", "Jane Smith");
+            stale.setId(2L);
+            Book deleted = new Book("Go in Practice", "Matt Butcher");
+            deleted.setId(5L);
+            Book unseen = new Book("Rust in Action", "Tim McNamara");
+            unseen.setId(6L);
+            add(2L, "Python Cookbook", "Jane Smith");
+            suggester.remove(5L);
+
+            // When
+            suggester.load(stale);
+            suggester.load(deleted);
+            suggester.load(unseen);
+            suggester.markLoaded();
+
+            // Then
+            assertEquals(List.of("Python Cookbook"), texts("pyth", 10));
+            assertTrue(texts("go", 10).isEmpty());
+            assertEquals(List.of("Rust in Action"), texts("rust", 10));
+        }
+
+        @Test
+        @DisplayName("Should ignore books without an id")
+        void shouldIgnoreBooksWithoutAnId() {
+            // When
+            suggester.add(new Book("Unsaved", "Nobody"));
+            suggester.remove(99L);
+
+            // Then
+            assertTrue(texts("unsa", 10).isEmpty());
+            assertEquals(7, suggester.stats().getPhrases());
+        }
+    }
+}
@@ -86,6 +86,34 @@ class BookTest {
         }
     }
 
+    @Nested
+    @DisplayName("Normalized Column Tests")
+    class NormalizedColumnTests {
+
+        @Test
+        @DisplayName("Should fold case and accents into normalized columns")
+        void shouldFoldCaseAndAccentsIntoNormalizedColumns() {
+            book.setTitle("Les Misérables");
+            book.setAuthor("Émile ZOLA");
+
+            book.normalizeSearchColumns();
+
+            assertEquals("les miserables", book.getTitleNormalized());
+            assertEquals("emile zola", book.getAuthorNormalized());
+        }
+
+        @Test
+        @DisplayName("Should keep normalized columns within column size")
+        void shouldKeepNormalizedColumnsWithinColumnSize() {
+            book.setTitle("A".repeat(300));
+
+            book.normalizeSearchColumns();
+
+            assertEquals(255, book.getTitleNormalized().length());
+            assertNull(book.getAuthorNormalized());
+        }
+    }
+
     @Nested
     @DisplayName("ToString Tests")
     class ToStringTests {
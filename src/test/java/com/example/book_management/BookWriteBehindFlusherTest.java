@@ -0,0 +1,91 @@
+package com.example.book_management;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Book Write-Behind Flusher Tests")
+class BookWriteBehindFlusherTest {
+
+    @Mock
+    private BookWriteBehind writeBehind;
+
+    @Mock
+    private BookService bookService;
+
+    private BookWriteBehindFlusher flusher;
+
+    private final List<PendingBookWrite> firstBatch = List.of(PendingBookWrite.update(1L, "Title", "Author"));
+    private final List<PendingBookWrite> secondBatch = List.of(PendingBookWrite.delete(2L));
+
+    @BeforeEach
+    void setUp() {
+        flusher = new BookWriteBehindFlusher(writeBehind, bookService, Duration.ofMillis(100), 1);
+    }
+
+    @Test
+    @DisplayName("Should apply batches until the queue is empty")
+    void shouldApplyBatchesUntilTheQueueIsEmpty() {
+        // Given
+        when(writeBehind.drain(1)).thenReturn(firstBatch, secondBatch, List.of());
+
+        // When
+        int flushed = flusher.flush();
+
+        // Then
+        assertEquals(2, flushed);
+        verify(bookService).applyWrites(firstBatch);
+        verify(bookService).applyWrites(secondBatch);
+        verify(writeBehind).applied(firstBatch);
+        verify(writeBehind).applied(secondBatch);
+    }
+
+    @Test
+    @DisplayName("Should requeue failed batch and stop")
+    void shouldRequeueFailedBatchAndStop() {
+        // Given
+        when(writeBehind.drain(1)).thenReturn(firstBatch, secondBatch);
+        doThrow(new IllegalStateException("database down")).when(bookService).applyWrites(firstBatch);
+
+        // When
+        int flushed = flusher.flush();
+
+        // Then
+        assertEquals(0, flushed);
+        verify(writeBehind).failed(firstBatch);
+        verify(writeBehind, never()).applied(anyList());
+        verify(writeBehind, times(1)).drain(anyInt());
+    }
+
+    @Test
+    @DisplayName("Should not start when disabled")
+    void shouldNotStartWhenDisabled() throws Exception {
+        // Given
+        when(writeBehind.isEnabled()).thenReturn(false);
+
+        // When
+        flusher.start();
+        flusher.stop();
+
+        // Then
+        verify(writeBehind, never()).drain(anyInt());
+    }
+
+    @Test
+    @DisplayName("Should reject non-positive batch size")
+    void shouldRejectNonPositiveBatchSize() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new BookWriteBehindFlusher(writeBehind, bookService, Duration.ofMillis(100), 0));
+    }
+}
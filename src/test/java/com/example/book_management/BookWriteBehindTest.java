@@ -0,0 +1,257 @@
+package com.example.book_management;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Book Write-Behind Tests")
+class BookWriteBehindTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Path logFile;
+    private BookWriteBehind writeBehind;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        logFile = tempDir.resolve("writes.log");
+        writeBehind = open();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        writeBehind.close();
+    }
+
+    private BookWriteBehind open() throws Exception {
+        BookWriteBehind opened = new BookWriteBehind(true, logFile, DataSize.ofMegabytes(1), new ObjectMapper());
+        opened.open();
+        return opened;
+    }
+
+    @Nested
+    @DisplayName("Queue Tests")
+    class QueueTests {
+
+        @Test
+        @DisplayName("Should coalesce writes to the same book")
+        void shouldCoalesceWritesToTheSameBook() {
+            // Given
+            writeBehind.append(PendingBookWrite.update(1L, "First", "Author"));
+            writeBehind.append(PendingBookWrite.update(2L, "Other", "Author"));
+            writeBehind.append(PendingBookWrite.update(1L, "Second", "Author"));
+
+            // When
+            List<PendingBookWrite> batch = writeBehind.drain(10);
+
+            // Then
+            assertEquals(2, batch.size());
+            assertEquals(1L, batch.get(0).getBookId());
+            assertEquals("Second", batch.get(0).getTitle());
+            assertEquals(2L, batch.get(1).getBookId());
+        }
+
+        @Test
+        @DisplayName("Should reject update after delete")
+        void shouldRejectUpdateAfterDelete() {
+            // Given
+            assertTrue(writeBehind.append(PendingBookWrite.update(1L, "Title", "Author")));
+            assertTrue(writeBehind.append(PendingBookWrite.delete(1L)));
+
+            // When
+            boolean accepted = writeBehind.append(PendingBookWrite.update(1L, "Again", "Author"));
+
+            // Then
+            assertFalse(accepted);
+            assertTrue(writeBehind.pendingWrite(1L).get().isDelete());
+            assertEquals(1, writeBehind.size());
+        }
+
+        @Test
+        @DisplayName("Should keep in-flight writes readable until applied")
+        void shouldKeepInFlightWritesReadableUntilApplied() {
+            // Given
+            writeBehind.append(PendingBookWrite.update(1L, "Title", "Author"));
+            List<PendingBookWrite> batch = writeBehind.drain(10);
+
+            // Then
+            Optional<Book> book = writeBehind.pendingWrite(1L).flatMap(PendingBookWrite::toBook);
+            assertTrue(book.isPresent());
+            assertEquals("Title", book.get().getTitle());
+            assertNull(book.get().getVersion());
+
+            // When
+            writeBehind.applied(batch);
+
+            // Then
+            assertTrue(writeBehind.pendingWrite(1L).isEmpty());
+            assertEquals(0, writeBehind.size());
+            assertEquals(1, writeBehind.getApplied());
+        }
+
+        @Test
+        @DisplayName("Should requeue failed writes unless replaced")
+        void shouldRequeueFailedWritesUnlessReplaced() {
+            // Given
+            writeBehind.append(PendingBookWrite.update(1L, "Old", "Author"));
+            writeBehind.append(PendingBookWrite.update(2L, "Kept", "Author"));
+            List<PendingBookWrite> batch = writeBehind.drain(10);
+            writeBehind.append(PendingBookWrite.update(1L, "New", "Author"));
+
+            // When
+            writeBehind.failed(batch);
+
+            // Then
+            assertEquals(2, writeBehind.size());
+            assertEquals("New", writeBehind.pendingWrite(1L).get().getTitle());
+            assertEquals("Kept", writeBehind.pendingWrite(2L).get().getTitle());
+            assertEquals(1, writeBehind.getFailures());
+        }
+
+        @Test
+        @DisplayName("Should log every concurrent append")
+        void shouldLogEveryConcurrentAppend() throws Exception {
+            // Given
+            ExecutorService executor = Executors.newFixedThreadPool(8);
+            List<Future<Boolean>> appends = new ArrayList<>();
+
+            // When
+            for (long id = 1; id <= 200; id++) {
+                PendingBookWrite write = PendingBookWrite.update(id, "Title " + id, "Author");
+                appends.add(executor.submit(() -> writeBehind.append(write)));
+            }
+            for (Future<Boolean> append : appends) {
+                assertTrue(append.get());
+            }
+            executor.shutdown();
+            writeBehind.close();
+            writeBehind = open();
+
+            // Then
+            assertEquals(200, writeBehind.size());
+            assertEquals("Title 137", writeBehind.pendingWrite(137L).get().getTitle());
+        }
+
+        @Test
+        @DisplayName("Should date coalesced write from the first one")
+        void shouldDateCoalescedWriteFromTheFirstOne() {
+            // Given
+            writeBehind.append(new PendingBookWrite(PendingBookWrite.Type.UPDATE, 1L, "Old", "Author", 1000L, 0));
+
+            // When
+            writeBehind.append(PendingBookWrite.update(1L, "New", "Author"));
+
+            // Then
+            assertEquals(1000L, writeBehind.pendingWrite(1L).get().getAcceptedAt());
+            assertTrue(writeBehind.lagMillis() > 0);
+        }
+    }
+
+    @Nested
+    @DisplayName("Recovery Tests")
+    class RecoveryTests {
+
+        @Test
+        @DisplayName("Should replay unapplied writes after restart")
+        void shouldReplayUnappliedWritesAfterRestart() throws Exception {
+            // Given
+            writeBehind.append(PendingBookWrite.update(1L, "First", "Author"));
+            writeBehind.append(PendingBookWrite.delete(2L));
+            writeBehind.append(PendingBookWrite.update(1L, "Second", "Author"));
+            writeBehind.close();
+
+            // When
+            writeBehind = open();
+
+            // Then
+            assertEquals(2, writeBehind.size());
+            assertEquals("Second", writeBehind.pendingWrite(1L).get().getTitle());
+            assertTrue(writeBehind.pendingWrite(2L).get().isDelete());
+        }
+
+        @Test
+        @DisplayName("Should not replay applied writes")
+        void shouldNotReplayAppliedWrites() throws Exception {
+            // Given
+            writeBehind.append(PendingBookWrite.update(1L, "Title", "Author"));
+            writeBehind.applied(writeBehind.drain(10));
+            writeBehind.append(PendingBookWrite.update(2L, "Later", "Author"));
+            writeBehind.close();
+
+            // When
+            writeBehind = open();
+
+            // Then
+            assertEquals(1, writeBehind.size());
+            assertTrue(writeBehind.pendingWrite(1L).isEmpty());
+            assertEquals("Later", writeBehind.pendingWrite(2L).get().getTitle());
+        }
+
+        @Test
+        @DisplayName("Should skip writes below the checkpoint that are still in the log")
+        void shouldSkipCheckpointedWritesStillInLog() throws Exception {
+            // Given
+            writeBehind.append(PendingBookWrite.update(1L, "Applied", "Author"));
+            writeBehind.append(PendingBookWrite.update(2L, "Queued", "Author"));
+            writeBehind.applied(writeBehind.drain(1));
+            writeBehind.close();
+            assertEquals(2, Files.readAllLines(logFile).size());
+
+            // When
+            writeBehind = open();
+
+            // Then
+            assertEquals(1, writeBehind.size());
+            assertTrue(writeBehind.pendingWrite(1L).isEmpty());
+            assertEquals("Queued", writeBehind.pendingWrite(2L).get().getTitle());
+        }
+
+        @Test
+        @DisplayName("Should truncate log once everything is applied")
+        void shouldTruncateLogOnceEverythingIsApplied() throws Exception {
+            // Given
+            writeBehind.append(PendingBookWrite.update(1L, "Title", "Author"));
+            assertTrue(Files.size(logFile) > 0);
+
+            // When
+            writeBehind.applied(writeBehind.drain(10));
+
+            // Then
+            assertEquals(0, Files.size(logFile));
+        }
+    }
+
+    @Test
+    @DisplayName("Should do nothing when disabled")
+    void shouldDoNothingWhenDisabled() throws Exception {
+        // Given
+        Path unused = tempDir.resolve("unused.log");
+        BookWriteBehind disabled = new BookWriteBehind(false, unused, DataSize.ofMegabytes(1), new ObjectMapper());
+
+        // When
+        disabled.open();
+
+        // Then
+        assertFalse(disabled.isEnabled());
+        assertTrue(disabled.pendingWrite(1L).isEmpty());
+        assertFalse(Files.exists(unused));
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.book_management;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Book Write Log Tests")
+class BookWriteLogTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Path file;
+
+    @BeforeEach
+    void setUp() {
+        file = tempDir.resolve("logs").resolve("writes.log");
+    }
+
+    @Test
+    @DisplayName("Should read back appended writes in order")
+    void shouldReadBackAppendedWritesInOrder() throws Exception {
+        // Given
+        try (BookWriteLog writeLog = new BookWriteLog(file, new ObjectMapper())) {
+            writeLog.append(PendingBookWrite.update(1L, "Les Misérables", "Victor Hugo"));
+            writeLog.append(PendingBookWrite.delete(2L));
+
+            // When
+            List<PendingBookWrite> writes = writeLog.readAll();
+
+            // Then
+            assertEquals(2, writes.size());
+            assertEquals(PendingBookWrite.Type.UPDATE, writes.get(0).getType());
+            assertEquals("Les Misérables", writes.get(0).getTitle());
+            assertEquals(2L, writes.get(1).getBookId());
+            assertTrue(writes.get(1).isDelete());
+        }
+    }
+
+    @Test
+    @DisplayName("Should skip torn last line")
+    void shouldSkipTornLastLine() throws Exception {
+        // Given
+        try (BookWriteLog writeLog = new BookWriteLog(file, new ObjectMapper())) {
+            writeLog.append(PendingBookWrite.update(1L, "Title", "Author"));
+        }
+        Files.write(file, "{\"type\":\"UPDATE\",\"bookId\":2,\"ti".getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.APPEND);
+
+        // When
+        try (BookWriteLog writeLog = new BookWriteLog(file, new ObjectMapper())) {
+            List<PendingBookWrite> writes = writeLog.readAll();
+
+            // Then
+            assertEquals(1, writes.size());
+            assertEquals(1L, writes.get(0).getBookId());
+        }
+    }
+
+    @Test
+    @DisplayName("Should rewrite log and keep appending")
+    void shouldRewriteLogAndKeepAppending() throws Exception {
+        // Given
+        try (BookWriteLog writeLog = new BookWriteLog(file, new ObjectMapper())) {
+            writeLog.append(PendingBookWrite.update(1L, "Old", "Author"));
+            writeLog.append(PendingBookWrite.update(2L, "Kept", "Author"));
+
+            // When
+            writeLog.rewrite(List.of(PendingBookWrite.update(2L, "Kept", "Author")));
+            writeLog.append(PendingBookWrite.delete(3L));
+
+            // Then
+            List<PendingBookWrite> writes = writeLog.readAll();
+            assertEquals(2, writes.size());
+            assertEquals(2L, writes.get(0).getBookId());
+            assertEquals(3L, writes.get(1).getBookId());
+            assertFalse(Files.exists(file.resolveSibling("writes.log.tmp")));
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep the last checkpoint")
+    void shouldKeepLastCheckpoint() throws Exception {
+        // Given
+        try (BookWriteLog writeLog = new BookWriteLog(file, new ObjectMapper())) {
+            assertEquals(-1, writeLog.readCheckpoint());
+
+            // When
+            writeLog.checkpoint(3);
+            writeLog.checkpoint(7);
+        }
+
+        // Then
+        try (BookWriteLog writeLog = new BookWriteLog(file, new ObjectMapper())) {
+            assertEquals(7, writeLog.readCheckpoint());
+        }
+        assertFalse(Files.exists(file.resolveSibling("writes.log.checkpoint.tmp")));
+    }
+}
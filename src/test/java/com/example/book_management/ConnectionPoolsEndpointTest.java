@@ -0,0 +1,142 @@
+package com.example.book_management;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Connection Pools Endpoint Tests")
+class ConnectionPoolsEndpointTest {
+
+    private final List<HikariDataSource> pools = new ArrayList<>();
+    private final List<Connection> open = new ArrayList<>();
+
+    private PrometheusMeterRegistry registry;
+    private ConnectionPoolsEndpoint endpoint;
+
+    @BeforeEach
+    void setUp() {
+        // The application's registry: a simple one keeps no percentile histogram buckets
+        registry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        // As management.metrics.distribution.* does for the application
+        registry.config().meterFilter(new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                if (!id.getName().equals("hikaricp.connections.acquire")) {
+                    return config;
+                }
+                return DistributionStatisticConfig.builder()
+                        .percentilesHistogram(true)
+                        .percentiles(0.5, 0.99)
+                        .build()
+                        .merge(config);
+            }
+        });
+        endpoint = new ConnectionPoolsEndpoint(registry);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        for (Connection connection : open) {
+            connection.close();
+        }
+        pools.forEach(HikariDataSource::close);
+    }
+
+    private HikariDataSource pool(String name, int size) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setPoolName(name);
+        pool.setJdbcUrl("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        pool.setUsername("sa");
+        pool.setMaximumPoolSize(size);
+        pool.setMinimumIdle(size);
+        pool.setMetricRegistry(registry);
+        pools.add(pool);
+        return pool;
+    }
+
+    private ConnectionPoolStats stats(String name) {
+        return endpoint.pools().stream()
+                .filter(stats -> stats.getPool().equals(name))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    @Test
+    @DisplayName("Should list every registered pool by name")
+    void shouldListEveryRegisteredPoolByName() throws Exception {
+        // Given
+        pool("pools-primary", 2).getConnection().close();
+        pool("pools-replica", 2).getConnection().close();
+
+        // When
+        List<ConnectionPoolStats> stats = endpoint.pools();
+
+        // Then
+        assertEquals(List.of("pools-primary", "pools-replica"),
+                stats.stream().map(ConnectionPoolStats::getPool).toList());
+        assertEquals(2, stats.get(0).getMax());
+        assertEquals(2, stats.get(0).getMin());
+    }
+
+    @Test
+    @DisplayName("Should report connections in use and wait times")
+    void shouldReportConnectionsInUseAndWaitTimes() throws Exception {
+        // Given
+        HikariDataSource pool = pool("pools-busy", 3);
+        open.add(pool.getConnection());
+        open.add(pool.getConnection());
+
+        // When
+        ConnectionPoolStats stats = stats("pools-busy");
+
+        // Then
+        assertEquals(2, stats.getActive());
+        assertEquals(0, stats.getPending());
+        assertEquals(0, stats.getTimeouts());
+        assertEquals(2, stats.getWaits());
+        assertTrue(stats.getWaitMaxMillis() >= stats.getWaitMeanMillis());
+        assertEquals(List.of("0.5", "0.99"), new ArrayList<>(stats.getWaitPercentilesMillis().keySet()));
+        assertFalse(stats.getWaitHistogram().isEmpty());
+        long last = stats.getWaitHistogram().values().stream().reduce((first, second) -> second).orElseThrow();
+        assertEquals(2, last);
+    }
+
+    @Test
+    @DisplayName("Should count waits that time out")
+    void shouldCountWaitsThatTimeOut() throws Exception {
+        // Given
+        HikariDataSource pool = pool("pools-exhausted", 1);
+        pool.setConnectionTimeout(250);
+        open.add(pool.getConnection());
+
+        // When
+        assertThrows(SQLTransientConnectionException.class, pool::getConnection);
+
+        // Then
+        ConnectionPoolStats stats = stats("pools-exhausted");
+        assertEquals(1, stats.getTimeouts());
+        assertEquals(1, stats.getActive());
+    }
+
+    @Test
+    @DisplayName("Should report nothing without pools")
+    void shouldReportNothingWithoutPools() {
+        assertTrue(endpoint.pools().isEmpty());
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.book_management;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Long Hash Map Tests")
+class LongHashMapTest {
+
+    @Nested
+    @DisplayName("Lookup Tests")
+    class LookupTests {
+
+        @Test
+        @DisplayName("Should get, replace and remove values by key")
+        void shouldGetReplaceAndRemove() {
+            // Given
+            LongHashMap<String> map = new LongHashMap<>();
+
+            // When
+            assertNull(map.put(0L, "zero"));
+            assertNull(map.put(-7L, "minus seven"));
+            assertEquals("zero", map.put(0L, "nought"));
+
+            // Then
+            assertEquals(2, map.size());
+            assertEquals("nought", map.get(0L));
+            assertEquals("minus seven", map.get(-7L));
+            assertNull(map.get(1L));
+            assertEquals("minus seven", map.remove(-7L));
+            assertNull(map.remove(-7L));
+            assertEquals(1, map.size());
+        }
+
+        @Test
+        @DisplayName("Should reject null values")
+        void shouldRejectNullValues() {
+            // Given
+            LongHashMap<String> map = new LongHashMap<>();
+
+            // Then
+            assertThrows(NullPointerException.class, () -> map.put(1L, null));
+        }
+
+        @Test
+        @DisplayName("Should forget everything on clear")
+        void shouldForgetEverythingOnClear() {
+            // Given
+            LongHashMap<String> map = new LongHashMap<>();
+            map.put(1L, "one");
+
+            // When
+            map.clear();
+
+            // Then
+            assertEquals(0, map.size());
+            assertNull(map.get(1L));
+        }
+    }
+
+    @Nested
+    @DisplayName("Growth Tests")
+    class GrowthTests {
+
+        @Test
+        @DisplayName("Should keep every entry while growing")
+        void shouldKeepEveryEntryWhileGrowing() {
+            // Given
+            LongHashMap<Long> map = new LongHashMap<>();
+
+            // When
+            for (long id = 1; id <= 10_000; id++) {
+                map.put(id, id * 2);
+            }
+
+            // Then
+            assertEquals(10_000, map.size());
+            for (long id = 1; id <= 10_000; id++) {
+                assertEquals(id * 2, map.get(id));
+            }
+            assertTrue(map.estimatedBytes() < 10_000L * 32);
+        }
+
+        @Test
+        @DisplayName("Should agree with HashMap under random puts and removes")
+        void shouldAgreeWithHashMap() {
+            // Given
+            Random random = new Random(42);
+            LongHashMap<Long> map = new LongHashMap<>();
+            Map<Long, Long> expected = new HashMap<>();
+
+            // When
+            for (long i = 0; i < 200_000; i++) {
+                long key = random.nextInt(5_000) - 1_000;
+                if (random.nextInt(3) < 2) {
+                    assertEquals(expected.put(key, i), map.put(key, i));
+                } else {
+                    assertEquals(expected.remove(key), map.remove(key));
+                }
+            }
+
+            // Then
+            assertEquals(expected.size(), map.size());
+            for (long key = -1_000; key < 4_000; key++) {
+                assertEquals(expected.get(key), map.get(key));
+            }
+        }
+    }
+}
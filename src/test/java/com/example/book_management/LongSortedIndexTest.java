@@ -0,0 +1,65 @@
+package com.example.book_management;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Long Sorted Index Tests")
+class LongSortedIndexTest {
+
+    private static LongSortedIndex indexOf(long... keys) {
+        LongSortedIndex index = new LongSortedIndex(1);
+        for (long key : keys) {
+            int position = index.indexOf(key);
+            if (position < 0) {
+                index.insertAt(-position - 1, key);
+            }
+        }
+        return index;
+    }
+
+    @Test
+    @DisplayName("Should keep keys sorted whatever order they arrive in")
+    void shouldKeepKeysSorted() {
+        // When
+        LongSortedIndex index = indexOf(50, 10, 40, 20, 30, 10);
+
+        // Then
+        assertEquals(5, index.size());
+        for (int position = 0; position < 5; position++) {
+            assertEquals((position + 1) * 10L, index.get(position));
+        }
+        assertEquals(2, index.indexOf(30));
+        assertEquals(-3, index.indexOf(25));
+        assertEquals(-6, index.indexOf(60));
+    }
+
+    @Test
+    @DisplayName("Should find the first key above a bound")
+    void shouldFindFirstKeyAboveBound() {
+        // Given
+        LongSortedIndex index = indexOf(10, 20, 30);
+
+        // Then
+        assertEquals(0, index.firstAbove(0));
+        assertEquals(1, index.firstAbove(10));
+        assertEquals(2, index.firstAbove(25));
+        assertEquals(3, index.firstAbove(30));
+    }
+
+    @Test
+    @DisplayName("Should close the gap when a key is removed")
+    void shouldCloseGapOnRemove() {
+        // Given
+        LongSortedIndex index = indexOf(1, 2, 3, 4);
+
+        // When
+        index.removeAt(index.indexOf(2));
+
+        // Then
+        assertEquals(3, index.size());
+        assertEquals(3L, index.get(1));
+        assertTrue(index.indexOf(2) < 0);
+    }
+}
@@ -0,0 +1,261 @@
+package com.example.book_management;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles({"test", "reactive"})
+@TestPropertySource(properties = {
+    "spring.main.web-application-type=reactive",
+    "spring.datasource.url=jdbc:h2:mem:reactive;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+    "spring.r2dbc.url=r2dbc:h2:mem:///reactive?options=DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE"
+})
+@AutoConfigureWebTestClient
+@DisplayName("Reactive Book API Integration Tests")
+class ReactiveBookApiIntegrationTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private BookChangeLog changeLog;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    private List<Book> books;
+
+    @BeforeEach
+    void setUp() {
+        bookRepository.deleteAll();
+        books = bookService.addBooks(List.of(
+                new Book("Java Basics", "John Doe"),
+                new Book("Advanced Java", "Jane Smith"),
+                new Book("Python, Quickly", "John Doe")));
+    }
+
+    private static List<String> titles(List<Book> books) {
+        return books.stream().map(Book::getTitle).collect(Collectors.toList());
+    }
+
+    @Test
+    @DisplayName("Should serve the API from the reactive controller only")
+    void shouldServeApiFromReactiveControllerOnly() {
+        assertEquals(1, applicationContext.getBeanNamesForType(ReactiveBookController.class).length);
+        assertEquals(0, applicationContext.getBeanNamesForType(BookController.class).length);
+    }
+
+    @Test
+    @DisplayName("Should stream all books as a JSON array with the catalog ETag when asked to")
+    void shouldStreamAllBooksAsJsonArray() {
+        String eTag = webTestClient.get().uri("/api/books?all=true")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_JSON)
+                .expectHeader().valueEquals("ETag", bookService.getCatalogETag())
+                .expectHeader().valueEquals("Deprecation", BookController.FULL_LIST_DEPRECATED)
+                .expectBodyList(Book.class)
+                .value(body -> assertEquals(List.of("Java Basics", "Advanced Java", "Python, Quickly"), titles(body)))
+                .returnResult()
+                .getResponseHeaders().getETag();
+
+        webTestClient.get().uri("/api/books?all=true")
+                .header("If-None-Match", eTag)
+                .exchange()
+                .expectStatus().isNotModified();
+    }
+
+    @Test
+    @DisplayName("Should stream books as server-sent events and NDJSON")
+    void shouldStreamBooksAsServerSentEventsAndNdjson() {
+        for (MediaType mediaType : List.of(MediaType.TEXT_EVENT_STREAM, MediaType.APPLICATION_NDJSON)) {
+            List<Book> streamed = webTestClient.get().uri("/api/books/search/author?author=john")
+                    .accept(mediaType)
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectHeader().contentTypeCompatibleWith(mediaType)
+                    .returnResult(Book.class)
+                    .getResponseBody()
+                    .collectList()
+                    .block();
+
+            assertEquals(List.of("Java Basics", "Python, Quickly"), titles(streamed));
+        }
+    }
+
+    @Test
+    @DisplayName("Should return keyset pages")
+    void shouldReturnKeysetPages() {
+        webTestClient.get().uri("/api/books")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.books.length()").isEqualTo(3)
+                .jsonPath("$.nextCursor").doesNotExist();
+
+        webTestClient.get().uri("/api/books?limit=2")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.books.length()").isEqualTo(2)
+                .jsonPath("$.nextCursor").isEqualTo(books.get(1).getId().intValue());
+
+        webTestClient.get().uri("/api/books?after={after}&limit=2", books.get(1).getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.books[0].title").isEqualTo("Python, Quickly")
+                .jsonPath("$.nextCursor").doesNotExist();
+
+        webTestClient.get().uri("/api/books?limit=0")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    @DisplayName("Should search by keyword, substring and prefix")
+    void shouldSearchByKeywordSubstringAndPrefix() {
+        webTestClient.get().uri("/api/books/search?keyword=java")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(Book.class).hasSize(2);
+
+        webTestClient.get().uri("/api/books/search/title?title=JAVA")
+                .exchange()
+                .expectBodyList(Book.class)
+                .value(body -> assertEquals(List.of("Java Basics", "Advanced Java"), titles(body)));
+
+        webTestClient.get().uri("/api/books/search/title?title=adv&prefix=true")
+                .exchange()
+                .expectBodyList(Book.class)
+                .value(body -> assertEquals(List.of("Advanced Java"), titles(body)));
+
+        webTestClient.get().uri("/api/books/search/title?title={title}", "%")
+                .exchange()
+                .expectBodyList(Book.class).hasSize(0);
+    }
+
+    @Test
+    @DisplayName("Should create, read, update and delete a book")
+    void shouldCreateReadUpdateAndDeleteBook() {
+        Book created = webTestClient.post().uri("/api/books")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new Book("Reactive Book", "Someone"))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(Book.class)
+                .returnResult()
+                .getResponseBody();
+        assertNotNull(created.getId());
+
+        webTestClient.get().uri("/api/books/{id}", created.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("ETag", "\"" + created.getVersion() + "\"");
+
+        webTestClient.put().uri("/api/books/{id}", created.getId())
+                .header("If-Match", "\"" + (created.getVersion() + 1) + "\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new Book("Stale", "Someone"))
+                .exchange()
+                .expectStatus().isEqualTo(412);
+
+        webTestClient.patch().uri("/api/books/{id}", created.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"title\":\"Renamed\"}")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.title").isEqualTo("Renamed")
+                .jsonPath("$.author").isEqualTo("Someone");
+
+        webTestClient.delete().uri("/api/books/{id}", created.getId())
+                .exchange()
+                .expectStatus().isNoContent();
+
+        webTestClient.get().uri("/api/books/{id}", created.getId())
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    @DisplayName("Should export CSV and import NDJSON")
+    void shouldExportCsvAndImportNdjson() {
+        String csv = webTestClient.get().uri("/api/books/export?format=csv")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith("text/csv")
+                .expectBody(String.class)
+                .returnResult()
+                .getResponseBody();
+        assertEquals("id,title,author\n"
+                + books.get(0).getId() + ",Java Basics,John Doe\n"
+                + books.get(1).getId() + ",Advanced Java,Jane Smith\n"
+                + books.get(2).getId() + ",\"Python, Quickly\",John Doe\n", csv);
+
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            lines.add("{\"title\":\"Bulk " + i + "\",\"author\":\"Loader\"}");
+        }
+        lines.add("{\"title\":\"\",\"author\":\"Loader\"}");
+        webTestClient.post().uri("/api/books/bulk")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .bodyValue(String.join("\n", lines))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.created").isEqualTo(5)
+                .jsonPath("$.failed").isEqualTo(1);
+
+        assertEquals(8, bookService.getAllBooks().size());
+    }
+
+    @Test
+    @DisplayName("Should return catalog changes and stream them as server-sent events")
+    void shouldReturnCatalogChangesAndStreamThem() {
+        long since = changeLog.latest();
+        Book added = bookService.addBook(new Book("Changed Book", "Someone"));
+
+        webTestClient.get().uri("/api/books/changes?since={since}&wait=5", since)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.changes.length()").isEqualTo(1)
+                .jsonPath("$.changes[0].type").isEqualTo("CREATED")
+                .jsonPath("$.changes[0].bookId").isEqualTo(added.getId().intValue());
+
+        List<BookChange> streamed = webTestClient.get().uri("/api/books/changes/stream?since={since}", since)
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(BookChange.class)
+                .getResponseBody()
+                .take(1)
+                .collectList()
+                .block(Duration.ofSeconds(10));
+
+        assertEquals("Changed Book", streamed.get(0).getTitle());
+    }
+}
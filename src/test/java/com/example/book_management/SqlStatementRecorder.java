@@ -0,0 +1,32 @@
+package com.example.book_management;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Pattern;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Keeps the SQL Hibernate prepares, so tests can count the statements that
+ * touch one table. Registered for the test profile in application-test.properties.
+ */
+public class SqlStatementRecorder implements StatementInspector {
+
+    private static final List<String> statements = new CopyOnWriteArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+        statements.add(sql);
+        return sql;
+    }
+
+    public static void clear() {
+        statements.clear();
+    }
+
+    // Statements since the last clear that name the table
+    public static long count(String table) {
+        Pattern name = Pattern.compile("\\b" + Pattern.quote(table) + "\\b", Pattern.CASE_INSENSITIVE);
+        return statements.stream().filter(sql -> name.matcher(sql).find()).count();
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.book_management;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Text Normalizer Tests")
+class TextNormalizerTest {
+
+    @Test
+    @DisplayName("Should fold case and accents")
+    void shouldFoldCaseAndAccents() {
+        assertEquals("emile zola", TextNormalizer.normalize("Émile ZOLA"));
+        assertNull(TextNormalizer.normalize(null));
+    }
+
+    @Test
+    @DisplayName("Should split into distinct words")
+    void shouldSplitIntoDistinctWords() {
+        assertEquals(List.of("the", "c", "programming", "language", "2nd"),
+            TextNormalizer.tokenize("The C Programming Language (2nd) - the"));
+        assertTrue(TextNormalizer.tokenize(" ,.- ").isEmpty());
+    }
+}
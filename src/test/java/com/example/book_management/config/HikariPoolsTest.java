@@ -0,0 +1,93 @@
+package com.example.book_management.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Hikari Pools Tests")
+class HikariPoolsTest {
+
+    private HikariDataSource pool;
+
+    @AfterEach
+    void tearDown() {
+        if (pool != null) {
+            pool.close();
+        }
+    }
+
+    private static Binder binder(Map<String, String> properties) {
+        return new Binder(new MapConfigurationPropertySource(properties));
+    }
+
+    @Test
+    @DisplayName("Should start from the primary's pool settings")
+    void shouldStartFromThePrimarysPoolSettings() {
+        // Given
+        Binder binder = binder(Map.of(
+                "spring.datasource.hikari.pool-name", "primary",
+                "spring.datasource.hikari.maximum-pool-size", "20",
+                "spring.datasource.hikari.minimum-idle", "20",
+                "spring.datasource.hikari.leak-detection-threshold", "30000",
+                "spring.datasource.hikari.data-source-properties.cachePrepStmts", "true"));
+
+        // When
+        pool = HikariPools.inherit(binder, "replica-0");
+
+        // Then
+        assertEquals("replica-0", pool.getPoolName());
+        assertEquals(20, pool.getMaximumPoolSize());
+        assertEquals(20, pool.getMinimumIdle());
+        assertEquals(30000, pool.getLeakDetectionThreshold());
+        assertEquals("true", pool.getDataSourceProperties().getProperty("cachePrepStmts"));
+    }
+
+    @Test
+    @DisplayName("Should apply overrides on top and keep the pool name")
+    void shouldApplyOverridesOnTopAndKeepThePoolName() {
+        // Given
+        Binder binder = binder(Map.of(
+                "spring.datasource.hikari.maximum-pool-size", "20",
+                "spring.datasource.hikari.connection-timeout", "2000",
+                "spring.datasource.hikari.data-source-properties.cachePrepStmts", "true",
+                "books.shards.hikari.pool-name", "ignored",
+                "books.shards.hikari.maximum-pool-size", "8",
+                "books.shards.hikari.data-source-properties.prepStmtCacheSize", "250"));
+        pool = HikariPools.inherit(binder, "shard-1");
+
+        // When
+        HikariPools.override(binder, "books.shards", pool);
+
+        // Then
+        assertEquals("shard-1", pool.getPoolName());
+        assertEquals(8, pool.getMaximumPoolSize());
+        assertEquals(2000, pool.getConnectionTimeout());
+        assertEquals("true", pool.getDataSourceProperties().getProperty("cachePrepStmts"));
+        assertEquals("250", pool.getDataSourceProperties().getProperty("prepStmtCacheSize"));
+    }
+
+    @Test
+    @DisplayName("Should keep Hikari defaults when nothing is configured")
+    void shouldKeepHikariDefaultsWhenNothingIsConfigured() {
+        // When
+        pool = HikariPools.inherit(binder(Map.of()), "replica-0");
+        HikariPools.override(binder(Map.of()), "books.replicas", pool);
+        // Hikari fills in its defaults when the pool starts, after the URL is set
+        pool.setJdbcUrl("jdbc:h2:mem:defaults");
+        pool.validate();
+
+        // Then
+        assertEquals(10, pool.getMaximumPoolSize());
+        assertEquals(30_000, pool.getConnectionTimeout());
+        assertEquals(0, pool.getLeakDetectionThreshold());
+        assertTrue(pool.getDataSourceProperties().isEmpty());
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.book_management.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.Cookie;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Read Your Writes Filter Tests")
+class ReadYourWritesFilterTest {
+
+    private final AtomicLong now = new AtomicLong(1_700_000_000_000L);
+    private final List<String> databases = new ArrayList<>();
+
+    private ReplicaRoutingDataSource routing;
+    private ReadYourWritesFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        routing = new ReplicaRoutingDataSource(h2("primary"), List.of(h2("replica0")), Duration.ofSeconds(1), now::get);
+        filter = new ReadYourWritesFilter(routing);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static DataSource h2(String name) {
+        return new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+    }
+
+    // Record which database a transaction of the given kind is routed to
+    private void transaction(boolean readOnly) {
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+        try (Connection connection = routing.getConnection()) {
+            String url = connection.getMetaData().getURL();
+            int end = url.indexOf(';') > 0 ? url.indexOf(';') : url.length();
+            databases.add(url.substring("jdbc:h2:mem:".length(), end));
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+        TransactionSynchronizationManager.getSynchronizations().forEach(synchronization ->
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+    }
+
+    private MockHttpServletResponse perform(MockHttpServletRequest request, FilterChain chain) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    @Test
+    @DisplayName("Should hand the client a cookie with the time of its write")
+    void shouldSetCookieOnWrite() throws Exception {
+        // When
+        MockHttpServletResponse response = perform(new MockHttpServletRequest(), (request, ignored) -> {
+            transaction(false);
+            transaction(true);
+        });
+
+        // Then
+        Cookie cookie = response.getCookie(ReadYourWritesFilter.COOKIE);
+        assertNotNull(cookie);
+        assertEquals(Long.toString(now.get()), cookie.getValue());
+        assertEquals(2, cookie.getMaxAge());
+        assertEquals(List.of("primary", "primary"), databases);
+    }
+
+    @Test
+    @DisplayName("Should read from the primary only while the client's cookie is recent")
+    void shouldFollowCookie() throws Exception {
+        // Given
+        MockHttpServletRequest recent = new MockHttpServletRequest();
+        recent.setCookies(new Cookie(ReadYourWritesFilter.COOKIE, Long.toString(now.get() - 200)));
+        MockHttpServletRequest old = new MockHttpServletRequest();
+        old.setCookies(new Cookie(ReadYourWritesFilter.COOKIE, Long.toString(now.get() - 1_200)));
+        MockHttpServletRequest garbled = new MockHttpServletRequest();
+        garbled.setCookies(new Cookie(ReadYourWritesFilter.COOKIE, "soon"));
+
+        // When
+        for (MockHttpServletRequest request : List.of(recent, old, garbled, new MockHttpServletRequest())) {
+            MockHttpServletResponse response = perform(request, (ignored, alsoIgnored) -> transaction(true));
+            assertNull(response.getCookie(ReadYourWritesFilter.COOKIE));
+        }
+
+        // Then
+        assertEquals(List.of("primary", "replica0", "replica0", "replica0"), databases);
+    }
+}
@@ -0,0 +1,240 @@
+package com.example.book_management.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Replica Routing DataSource Tests")
+class ReplicaRoutingDataSourceTest {
+
+    private final AtomicLong now = new AtomicLong(1_700_000_000_000L);
+    private final List<Connection> open = new ArrayList<>();
+    private final List<HikariDataSource> pools = new ArrayList<>();
+
+    private DataSource primary;
+    private FlakyDataSource replica0;
+    private FlakyDataSource replica1;
+    private ReplicaRoutingDataSource routing;
+
+    @BeforeEach
+    void setUp() {
+        primary = h2("primary");
+        replica0 = new FlakyDataSource(h2("replica0"));
+        replica1 = new FlakyDataSource(h2("replica1"));
+        routing = new ReplicaRoutingDataSource(primary, List.of(replica0, replica1), Duration.ofSeconds(1), now::get);
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        for (Connection connection : open) {
+            connection.close();
+        }
+        pools.forEach(HikariDataSource::close);
+        routing.unbindCaller();
+        endTransaction();
+    }
+
+    private static DataSource h2(String name) {
+        return new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+    }
+
+    private HikariDataSource pooledH2(String name) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setJdbcUrl("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        pool.setUsername("sa");
+        pools.add(pool);
+        return pool;
+    }
+
+    private static void beginTransaction(boolean readOnly) {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+    }
+
+    private static void endTransaction() {
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    // Run the registered synchronizations as a commit would
+    private static void commit() {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        synchronizations.forEach(synchronization ->
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    // Name of the H2 database the connection belongs to
+    private String database(DataSource dataSource) throws SQLException {
+        Connection connection = dataSource.getConnection();
+        open.add(connection);
+        String url = connection.getMetaData().getURL();
+        return url.substring("jdbc:h2:mem:".length(), url.indexOf(';') > 0 ? url.indexOf(';') : url.length());
+    }
+
+    @Test
+    @DisplayName("Should send work outside transactions and read-write transactions to the primary")
+    void shouldSendNonReadOnlyWorkToPrimary() throws SQLException {
+        assertEquals("primary", database(routing));
+
+        beginTransaction(false);
+        assertEquals("primary", database(routing));
+    }
+
+    @Test
+    @DisplayName("Should spread read-only transactions over the replicas")
+    void shouldSpreadReadsOverReplicas() throws SQLException {
+        // Given
+        beginTransaction(true);
+
+        // When
+        String first = database(routing);
+        String second = database(routing);
+
+        // Then
+        assertNotEquals(first, second);
+        assertTrue(List.of("replica0", "replica1").containsAll(List.of(first, second)));
+    }
+
+    @Test
+    @DisplayName("Should prefer the replica with fewer active connections")
+    void shouldPreferLeastLoadedReplica() throws SQLException {
+        // Given
+        HikariDataSource busy = pooledH2("busy");
+        HikariDataSource idle = pooledH2("idle");
+        routing = new ReplicaRoutingDataSource(primary, List.of(busy, idle), Duration.ofSeconds(1), now::get);
+        open.add(busy.getConnection());
+        open.add(busy.getConnection());
+        beginTransaction(true);
+
+        // When & Then
+        assertEquals("idle", database(routing));
+        assertEquals("idle", database(routing));
+    }
+
+    @Test
+    @DisplayName("Should read from the primary within the lag window after the caller's write")
+    void shouldReadFromPrimaryAfterWrite() throws SQLException {
+        // Given
+        List<Long> writes = new ArrayList<>();
+        routing.bindCaller(0L, writes::add);
+        TransactionSynchronizationManager.initSynchronization();
+        beginTransaction(false);
+        database(routing);
+        commit();
+        beginTransaction(true);
+
+        // When & Then
+        assertEquals(List.of(now.get()), writes);
+        now.addAndGet(500);
+        assertEquals("primary", database(routing));
+
+        now.addAndGet(600);
+        assertNotEquals("primary", database(routing));
+    }
+
+    @Test
+    @DisplayName("Should keep other callers' reads on the replicas after a write")
+    void shouldKeepOtherCallersOnReplicas() throws SQLException {
+        // Given
+        routing.bindCaller(0L, time -> { });
+        beginTransaction(false);
+        database(routing);
+
+        // When
+        routing.bindCaller(0L, time -> { });
+        beginTransaction(true);
+        String boundRead = database(routing);
+        routing.unbindCaller();
+        String unboundRead = database(routing);
+
+        // Then
+        assertNotEquals("primary", boundRead);
+        assertNotEquals("primary", unboundRead);
+    }
+
+    @Test
+    @DisplayName("Should honour a write the caller made through another instance")
+    void shouldHonourWriteCarriedByCaller() throws SQLException {
+        // Given
+        beginTransaction(true);
+
+        // When & Then
+        routing.bindCaller(now.get() - 200, time -> { });
+        assertEquals("primary", database(routing));
+
+        routing.bindCaller(now.get() - 1_200, time -> { });
+        assertNotEquals("primary", database(routing));
+    }
+
+    @Test
+    @DisplayName("Should fail over to the other replica, then to the primary")
+    void shouldFailOver() throws SQLException {
+        // Given
+        replica0.down = true;
+        beginTransaction(true);
+
+        // When & Then
+        assertEquals("replica1", database(routing));
+        assertEquals("replica1", database(routing));
+        assertEquals(1, routing.healthyReplicas());
+
+        replica1.down = true;
+        assertEquals("primary", database(routing));
+        assertEquals(0, routing.healthyReplicas());
+    }
+
+    @Test
+    @DisplayName("Should bring replicas back once the health check succeeds")
+    void shouldBringReplicasBack() throws SQLException {
+        // Given
+        replica0.down = true;
+        routing.checkHealth();
+        assertEquals(1, routing.healthyReplicas());
+
+        // When
+        replica0.down = false;
+        routing.checkHealth();
+
+        // Then
+        assertEquals(2, routing.healthyReplicas());
+    }
+
+    // Replica that can be switched off
+    private static final class FlakyDataSource extends DelegatingDataSource {
+
+        private volatile boolean down;
+
+        private FlakyDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            if (down) {
+                throw new SQLException("Connection refused");
+            }
+            return super.getConnection();
+        }
+    }
+}